@@ -0,0 +1,62 @@
+package com.anki.simple.config;
+
+import com.anki.simple.vocabulary.cache.JsonFragmentArray;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Writes a {@link JsonFragmentArray} straight to the response body, joining the
+ * pre-encoded elements with commas instead of running them through Jackson again.
+ */
+public class JsonFragmentArrayHttpMessageConverter extends AbstractHttpMessageConverter<JsonFragmentArray> {
+
+    public JsonFragmentArrayHttpMessageConverter() {
+        super(MediaType.APPLICATION_JSON);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return JsonFragmentArray.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected JsonFragmentArray readInternal(Class<? extends JsonFragmentArray> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("JsonFragmentArray is write-only", inputMessage);
+    }
+
+    @Override
+    protected Long getContentLength(JsonFragmentArray array, MediaType contentType) {
+        List<byte[]> fragments = array.fragments();
+        long length = 2L + Math.max(0, fragments.size() - 1);
+        for (byte[] fragment : fragments) {
+            length += fragment.length;
+        }
+        return length;
+    }
+
+    @Override
+    protected void writeInternal(JsonFragmentArray array, HttpOutputMessage outputMessage) throws IOException {
+        OutputStream body = outputMessage.getBody();
+        body.write('[');
+        List<byte[]> fragments = array.fragments();
+        for (int i = 0; i < fragments.size(); i++) {
+            if (i > 0) {
+                body.write(',');
+            }
+            body.write(fragments.get(i));
+        }
+        body.write(']');
+    }
+}
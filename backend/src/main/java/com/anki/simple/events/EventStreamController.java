@@ -0,0 +1,30 @@
+package com.anki.simple.events;
+
+import com.anki.simple.exception.UserNotFoundException;
+import com.anki.simple.user.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/v1/events")
+@RequiredArgsConstructor
+public class EventStreamController {
+
+    public static final String USER_NOT_FOUND = "User not found";
+    private final EventStreamService eventStreamService;
+    private final UserRepository userRepository;
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(@AuthenticationPrincipal UserDetails userDetails) {
+        Long userId = userRepository.findByUsername(userDetails.getUsername())
+                .orElseThrow(() -> new UserNotFoundException(USER_NOT_FOUND))
+                .getId();
+        return eventStreamService.subscribe(userId);
+    }
+}
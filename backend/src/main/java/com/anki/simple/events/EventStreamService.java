@@ -0,0 +1,163 @@
+package com.anki.simple.events;
+
+import com.anki.simple.events.dto.DeckChangeNotification;
+import com.anki.simple.events.dto.DueCountNotification;
+import com.anki.simple.review.DailyLimitService;
+import com.anki.simple.vocabulary.CardsBecameDueEvent;
+import com.anki.simple.vocabulary.DeckChangedEvent;
+import com.anki.simple.vocabulary.DeckCounters;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Per-user Server-Sent Events streams.
+ * <p>
+ * Each open stream is an async servlet request, so an idle connection holds no thread;
+ * pushes are fanned out on virtual threads so a slow client never blocks the committing
+ * request. Clients receive a {@code due-count} event on connect and whenever the count
+ * changes, with the due count capped at the daily limits like {@code GET /due/count}, and
+ * a {@code deck-changed} event after every committed change to their cards or tags. Cards becoming due as time passes are pushed when the due index reports them
+ * and otherwise picked up by a periodic check, which doubles as the keep-alive for
+ * connections whose count did not change.
+ */
+@Service
+public class EventStreamService {
+
+    static final String DUE_COUNT = "due-count";
+    static final String DECK_CHANGED = "deck-changed";
+
+    private final DeckCounters deckCounters;
+    private final DailyLimitService dailyLimitService;
+    private final long timeoutMillis;
+    private final long reconnectMillis;
+    private final Map<Long, Subscription> subscriptions = new ConcurrentHashMap<>();
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+
+    public EventStreamService(
+            DeckCounters deckCounters,
+            DailyLimitService dailyLimitService,
+            @Value("${events.timeout:PT30M}") Duration timeout,
+            @Value("${events.reconnect-delay:PT5S}") Duration reconnectDelay) {
+        this.deckCounters = deckCounters;
+        this.dailyLimitService = dailyLimitService;
+        this.timeoutMillis = timeout.toMillis();
+        this.reconnectMillis = reconnectDelay.toMillis();
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscription subscription = subscriptions.compute(userId, (id, existing) -> {
+            Subscription s = existing != null ? existing : new Subscription();
+            s.emitters.add(emitter);
+            return s;
+        });
+        emitter.onCompletion(() -> remove(userId, emitter));
+        emitter.onTimeout(() -> remove(userId, emitter));
+        emitter.onError(e -> remove(userId, emitter));
+
+        DueCountNotification counts = dueCounts(userId);
+        subscription.lastDue = counts.getDue();
+        send(userId, emitter, SseEmitter.event().reconnectTime(reconnectMillis).name(DUE_COUNT).data(counts));
+        return emitter;
+    }
+
+    public int connectionCount() {
+        return subscriptions.values().stream().mapToInt(s -> s.emitters.size()).sum();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDeckChanged(DeckChangedEvent event) {
+        Long userId = event.userId();
+        if (!subscriptions.containsKey(userId)) {
+            return;
+        }
+        sender.execute(() -> {
+            broadcast(userId, SseEmitter.event().name(DECK_CHANGED).data(new DeckChangeNotification(event.cardIds())));
+            pushDueCount(userId, false);
+        });
+    }
+
+    @EventListener
+    public void onCardsBecameDue(CardsBecameDueEvent event) {
+        if (subscriptions.containsKey(event.userId())) {
+            sender.execute(() -> pushDueCount(event.userId(), false));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${events.due-check-interval:PT1M}")
+    public void checkDueCounts() {
+        for (Long userId : subscriptions.keySet()) {
+            sender.execute(() -> pushDueCount(userId, true));
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sender.shutdownNow();
+    }
+
+    private void pushDueCount(Long userId, boolean keepAlive) {
+        Subscription subscription = subscriptions.get(userId);
+        if (subscription == null) {
+            return;
+        }
+        DueCountNotification counts = dueCounts(userId);
+        if (counts.getDue() != subscription.lastDue) {
+            subscription.lastDue = counts.getDue();
+            broadcast(userId, SseEmitter.event().name(DUE_COUNT).data(counts));
+        } else if (keepAlive) {
+            broadcast(userId, SseEmitter.event().comment("keep-alive"));
+        }
+    }
+
+    private DueCountNotification dueCounts(Long userId) {
+        return new DueCountNotification(
+                dailyLimitService.dueCount(userId, LocalDateTime.now()),
+                deckCounters.totalCount(userId));
+    }
+
+    private void broadcast(Long userId, SseEmitter.SseEventBuilder event) {
+        Subscription subscription = subscriptions.get(userId);
+        if (subscription != null) {
+            for (SseEmitter emitter : subscription.emitters) {
+                send(userId, emitter, event);
+            }
+        }
+    }
+
+    private void send(Long userId, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; the container completes the request on its own
+            remove(userId, emitter);
+        }
+    }
+
+    private void remove(Long userId, SseEmitter emitter) {
+        subscriptions.computeIfPresent(userId, (id, subscription) -> {
+            subscription.emitters.remove(emitter);
+            return subscription.emitters.isEmpty() ? null : subscription;
+        });
+    }
+
+    private static final class Subscription {
+        private final Set<SseEmitter> emitters = new CopyOnWriteArraySet<>();
+        private volatile long lastDue = -1;
+    }
+}
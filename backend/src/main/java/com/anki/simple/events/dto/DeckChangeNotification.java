@@ -0,0 +1,15 @@
+package com.anki.simple.events.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeckChangeNotification {
+    /** Changed card ids; empty when the change may affect every card (e.g. a tag rename). */
+    private Set<Long> cardIds;
+}
@@ -0,0 +1,13 @@
+package com.anki.simple.events.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DueCountNotification {
+    private long due;
+    private long total;
+}
@@ -58,6 +58,20 @@ public class GlobalExceptionHandler {
     return ResponseEntity.status(HttpStatus.NOT_FOUND).body(problem);
   }
 
+  @ExceptionHandler(ReviewSessionNotFoundException.class)
+  public ResponseEntity<ProblemDetail> handleReviewSessionNotFoundException(
+      ReviewSessionNotFoundException ex, WebRequest request) {
+    ProblemDetail problem = ProblemDetail.builder()
+        .type(ABOUT_BLANK)
+        .title("Review Session Not Found")
+        .status(HttpStatus.NOT_FOUND.value())
+        .detail(ex.getMessage())
+        .instance(request.getDescription(false).replace("uri=", ""))
+        .timestamp(LocalDateTime.now())
+        .build();
+    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(problem);
+  }
+
   @ExceptionHandler(UsernameAlreadyExistsException.class)
   public ResponseEntity<ProblemDetail> handleUsernameAlreadyExistsException(
       UsernameAlreadyExistsException ex, WebRequest request) {
@@ -128,6 +142,20 @@ public class GlobalExceptionHandler {
     return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(problem);
   }
 
+  @ExceptionHandler(org.springframework.dao.OptimisticLockingFailureException.class)
+  public ResponseEntity<ProblemDetail> handleOptimisticLockingFailureException(
+      org.springframework.dao.OptimisticLockingFailureException ex, WebRequest request) {
+    ProblemDetail problem = ProblemDetail.builder()
+        .type(ABOUT_BLANK)
+        .title("Conflict")
+        .status(HttpStatus.CONFLICT.value())
+        .detail("The card was changed concurrently, please retry")
+        .instance(request.getDescription(false).replace("uri=", ""))
+        .timestamp(LocalDateTime.now())
+        .build();
+    return ResponseEntity.status(HttpStatus.CONFLICT).body(problem);
+  }
+
   @ExceptionHandler(org.springframework.security.authentication.BadCredentialsException.class)
   public ResponseEntity<ProblemDetail> handleBadCredentialsException(
       org.springframework.security.authentication.BadCredentialsException ex, WebRequest request) {
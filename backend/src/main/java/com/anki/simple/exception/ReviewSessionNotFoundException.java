@@ -0,0 +1,9 @@
+package com.anki.simple.exception;
+
+import java.util.UUID;
+
+public class ReviewSessionNotFoundException extends RuntimeException {
+  public ReviewSessionNotFoundException(UUID sessionId) {
+    super("Review session not found with id: " + sessionId);
+  }
+}
@@ -0,0 +1,174 @@
+package com.anki.simple.review;
+
+import com.anki.simple.review.scheduling.ScheduleBatch;
+import com.anki.simple.review.scheduling.SchedulingAlgorithmType;
+import com.anki.simple.review.scheduling.SchedulingKernel;
+import com.anki.simple.tag.dto.TagResponse;
+import com.anki.simple.vocabulary.LanguageSelection;
+import com.anki.simple.vocabulary.dto.VocabularyCardResponse;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * The review hot path in plain JDBC: one query reads the card with its owner and tags, and
+ * the new schedule plus its history row are written by a single owner- and version-scoped
+ * statement on PostgreSQL ({@code UPDATE ... RETURNING} feeding an {@code INSERT}) and H2
+ * (a data change delta table), or an {@code UPDATE} and an {@code INSERT} elsewhere. Only the
+ * scheduling columns are written. Runs in the caller's transaction.
+ */
+@Repository
+class CardReviewWriter {
+
+    private static final String SELECT_CARD =
+            "SELECT c.id, c.front, c.back, c.example_sentence, c.language_selection, c.audio_url, c.created_at, "
+                    + "c.last_reviewed, c.next_review, c.ease_factor, c.interval_days, c.repetitions, c.stability, "
+                    + "c.difficulty, c.version, c.user_id, u.username, u.scheduling_algorithm, "
+                    + "t.id AS tag_id, t.name AS tag_name, t.color AS tag_color "
+                    + "FROM vocabulary_cards c JOIN users u ON u.id = c.user_id "
+                    + "LEFT JOIN card_tags ct ON ct.card_id = c.id LEFT JOIN tags t ON t.id = ct.tag_id "
+                    + "WHERE c.id = ?";
+
+    private static final String UPDATE_SCHEDULE =
+            "UPDATE vocabulary_cards SET ease_factor = ?, interval_days = ?, repetitions = ?, last_reviewed = ?, "
+                    + "next_review = ?, stability = ?, difficulty = ?, version = version + 1 "
+                    + "WHERE id = ? AND user_id = ? AND version = ?";
+    private static final String INSERT_HISTORY =
+            "INSERT INTO review_history (card_id, reviewed_at, quality, ease_factor, interval_days) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String POSTGRES_REVIEW =
+            "WITH updated AS (" + UPDATE_SCHEDULE + " RETURNING id, last_reviewed, ease_factor, interval_days) "
+                    + "INSERT INTO review_history (card_id, reviewed_at, quality, ease_factor, interval_days) "
+                    + "SELECT id, last_reviewed, ?, ease_factor, interval_days FROM updated";
+    private static final String H2_REVIEW =
+            "INSERT INTO review_history (card_id, reviewed_at, quality, ease_factor, interval_days) "
+                    + "SELECT id, last_reviewed, ?, ease_factor, interval_days FROM FINAL TABLE (" + UPDATE_SCHEDULE + ")";
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile String singleStatement;
+
+    CardReviewWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /** The card with its owner, or empty if there is no such card. */
+    Optional<ReviewedCard> load(Long cardId) {
+        return Optional.ofNullable(jdbcTemplate.query(SELECT_CARD, rs -> {
+            if (!rs.next()) {
+                return null;
+            }
+            Set<TagResponse> tags = new LinkedHashSet<>();
+            String language = rs.getString("language_selection");
+            VocabularyCardResponse card = new VocabularyCardResponse(
+                    rs.getLong("id"), rs.getString("front"), rs.getString("back"), rs.getString("example_sentence"),
+                    language != null ? LanguageSelection.valueOf(language) : null, rs.getString("audio_url"),
+                    dateTime(rs.getTimestamp("created_at")), dateTime(rs.getTimestamp("last_reviewed")),
+                    dateTime(rs.getTimestamp("next_review")), rs.getDouble("ease_factor"),
+                    rs.getInt("interval_days"), rs.getInt("repetitions"), tags);
+            ReviewedCard reviewed = new ReviewedCard(card, orNaN(rs, "stability"), orNaN(rs, "difficulty"),
+                    rs.getLong("version"), rs.getLong("user_id"), rs.getString("username"),
+                    SchedulingAlgorithmType.valueOf(rs.getString("scheduling_algorithm")));
+            do {
+                long tagId = rs.getLong("tag_id");
+                if (!rs.wasNull()) {
+                    tags.add(new TagResponse(tagId, rs.getString("tag_name"), rs.getString("tag_color")));
+                }
+            } while (rs.next());
+            return reviewed;
+        }, cardId));
+    }
+
+    /**
+     * Writes the card's new schedule (entry 0 of {@code schedule}) and its history row, if the
+     * card still belongs to its owner and is at the version read.
+     *
+     * @return false if the card changed since it was read
+     */
+    boolean write(ReviewedCard card, ScheduleBatch schedule, int quality) {
+        String statement = singleStatement();
+        if (statement != null) {
+            return jdbcTemplate.update(statement, ps -> {
+                ps.setInt(1, quality);
+                setSchedule(ps, 2, card, schedule);
+            }) == 1;
+        }
+        if (jdbcTemplate.update(UPDATE_SCHEDULE, ps -> setSchedule(ps, 1, card, schedule)) == 0) {
+            return false;
+        }
+        jdbcTemplate.update(INSERT_HISTORY, ps -> {
+            ps.setLong(1, schedule.cardId(0));
+            ps.setTimestamp(2, timestamp(schedule.lastReviewed(0)));
+            ps.setInt(3, quality);
+            ps.setDouble(4, schedule.easeFactor(0));
+            ps.setInt(5, schedule.interval(0));
+        });
+        return true;
+    }
+
+    private String singleStatement() {
+        String statement = singleStatement;
+        if (statement == null) {
+            String product = jdbcTemplate.execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            statement = switch (product) {
+                case "PostgreSQL" -> POSTGRES_REVIEW;
+                case "H2" -> H2_REVIEW;
+                default -> "";
+            };
+            singleStatement = statement;
+        }
+        return statement.isEmpty() ? null : statement;
+    }
+
+    private static void setSchedule(PreparedStatement ps, int first, ReviewedCard card, ScheduleBatch schedule)
+            throws SQLException {
+        ps.setDouble(first, schedule.easeFactor(0));
+        ps.setInt(first + 1, schedule.interval(0));
+        ps.setInt(first + 2, schedule.repetitions(0));
+        ps.setTimestamp(first + 3, timestamp(schedule.lastReviewed(0)));
+        ps.setTimestamp(first + 4, timestamp(schedule.nextReview(0)));
+        ps.setObject(first + 5, Double.isNaN(schedule.stability(0)) ? null : schedule.stability(0), Types.DOUBLE);
+        ps.setObject(first + 6, Double.isNaN(schedule.difficulty(0)) ? null : schedule.difficulty(0), Types.DOUBLE);
+        ps.setLong(first + 7, schedule.cardId(0));
+        ps.setLong(first + 8, card.userId());
+        ps.setLong(first + 9, card.version());
+    }
+
+    private static LocalDateTime dateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    private static Timestamp timestamp(long seconds) {
+        LocalDateTime time = SchedulingKernel.toDateTime(seconds);
+        return time != null ? Timestamp.valueOf(time) : null;
+    }
+
+    private static double orNaN(ResultSet rs, String column) throws SQLException {
+        double value = rs.getDouble(column);
+        return rs.wasNull() ? Double.NaN : value;
+    }
+
+    /** A card as read for a review: its response fields, memory state, version and owner. */
+    record ReviewedCard(VocabularyCardResponse card, double stability, double difficulty, long version,
+                        Long userId, String username, SchedulingAlgorithmType algorithm) {
+
+        /** The card's current schedule as a one-card batch. */
+        ScheduleBatch schedule() {
+            ScheduleBatch schedule = new ScheduleBatch(1);
+            schedule.add(card.getId(), card.getEaseFactor(), card.getIntervalDays(), card.getRepetitions(),
+                    SchedulingKernel.toSeconds(card.getLastReviewed()), SchedulingKernel.toSeconds(card.getNextReview()),
+                    stability, difficulty);
+            return schedule;
+        }
+    }
+}
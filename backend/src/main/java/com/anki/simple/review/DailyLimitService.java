@@ -0,0 +1,300 @@
+package com.anki.simple.review;
+
+import com.anki.simple.exception.UserNotFoundException;
+import com.anki.simple.review.dto.DailyLimitsRequest;
+import com.anki.simple.review.dto.DailyLimitsResponse;
+import com.anki.simple.user.User;
+import com.anki.simple.user.UserRepository;
+import com.anki.simple.vocabulary.DeckCounters;
+import com.anki.simple.vocabulary.VocabularyRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SequencedMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps what a user is offered each day at their {@code newCardsPerDay} first reviews and
+ * {@code reviewsPerDay} reviews of learned cards, so importing thousands of cards does not
+ * put them all in one day's queue. Days are calendar days in the user's {@code timeZone}, the
+ * same days as their streak.
+ * <p>
+ * What each user has done today is kept in per-day counters, loaded on first use together
+ * with the user's limits and time zone, then maintained from {@link ReviewRecordedEvent}s
+ * once the review commits, like {@link DeckCounters}. The due queue is then two queries each
+ * stopped at what is left of one limit, and the due count is taken from {@link DeckCounters}
+ * without a query.
+ */
+@Service
+public class DailyLimitService {
+
+    private static final String SELECT_TODAY =
+            "SELECT COUNT(*) AS reviews, COALESCE(SUM(CASE WHEN NOT EXISTS (SELECT 1 FROM review_history p "
+                    + "WHERE p.card_id = h.card_id AND p.reviewed_at < h.reviewed_at) THEN 1 ELSE 0 END), 0) AS new_cards "
+                    + "FROM review_history h JOIN vocabulary_cards c ON c.id = h.card_id "
+                    + "WHERE c.user_id = ? AND h.reviewed_at >= ? AND h.reviewed_at < ?";
+
+    private static final String SELECT_SETTINGS =
+            "SELECT new_cards_per_day, reviews_per_day, time_zone FROM users WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserRepository userRepository;
+    private final VocabularyRepository vocabularyRepository;
+    private final DeckCounters deckCounters;
+    private final Cache<Long, Progress> progress;
+    private final Map<Long, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    public DailyLimitService(
+            JdbcTemplate jdbcTemplate,
+            UserRepository userRepository,
+            VocabularyRepository vocabularyRepository,
+            DeckCounters deckCounters,
+            @Value("${review.daily-limits.max-users:100000}") long maxUsers) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.userRepository = userRepository;
+        this.vocabularyRepository = vocabularyRepository;
+        this.deckCounters = deckCounters;
+        this.progress = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .build();
+    }
+
+    /**
+     * Ids of the cards the user is offered now, by review time: the earliest due learned
+     * cards up to what is left of today's review limit, and the earliest new cards up to
+     * what is left of the new card limit.
+     */
+    public List<Long> dueCardIds(User user, LocalDateTime now) {
+        return new ArrayList<>(dueCards(user, now).keySet());
+    }
+
+    /** The cards of {@link #dueCardIds}, in the same order, with their current versions. */
+    public SequencedMap<Long, Long> dueCards(User user, LocalDateTime now) {
+        Progress today = progress(user.getId(), now);
+        int reviews = today.reviewsLeft();
+        int newCards = today.newCardsLeft();
+        List<Object[]> learned = reviews > 0
+                ? vocabularyRepository.findDueLearnedCards(user.getId(), now, Limit.of(reviews)) : List.of();
+        List<Object[]> unseen = newCards > 0
+                ? vocabularyRepository.findDueNewCards(user.getId(), now, Limit.of(newCards)) : List.of();
+
+        SequencedMap<Long, Long> cards = new LinkedHashMap<>();
+        int i = 0;
+        int j = 0;
+        while (i < learned.size() || j < unseen.size()) {
+            boolean takeLearned = j == unseen.size() || (i < learned.size()
+                    && !((LocalDateTime) learned.get(i)[1]).isAfter((LocalDateTime) unseen.get(j)[1]));
+            Object[] card = takeLearned ? learned.get(i++) : unseen.get(j++);
+            cards.put((Long) card[0], (Long) card[2]);
+        }
+        return cards;
+    }
+
+    /**
+     * How many cards {@link #dueCardIds} would offer now: due learned and due new cards from
+     * {@link DeckCounters}, each only up to what is left of its own limit.
+     */
+    public long dueCount(Long userId, LocalDateTime now) {
+        DeckCounters.DueCounts due = deckCounters.dueCounts(userId, now);
+        if (due.unseen() == 0 && due.learned() == 0) {
+            return 0;
+        }
+        Progress today = progress(userId, now);
+        return Math.min(due.learned(), today.reviewsLeft()) + Math.min(due.unseen(), today.newCardsLeft());
+    }
+
+    @Transactional(readOnly = true)
+    public DailyLimitsResponse getLimits(String username) {
+        return toResponse(findUser(username));
+    }
+
+    @Transactional
+    public DailyLimitsResponse updateLimits(DailyLimitsRequest request, String username) {
+        User user = findUser(username);
+        user.setNewCardsPerDay(request.getNewCardsPerDay());
+        user.setReviewsPerDay(request.getReviewsPerDay());
+        User saved = userRepository.saveAndFlush(user);
+        evict(saved.getId());
+        return toResponse(saved);
+    }
+
+    /**
+     * Drops the user's cached progress once the current transaction completes, for a change
+     * to their limits or time zone.
+     */
+    public void evict(Long userId) {
+        generation(userId).incrementAndGet();
+        progress.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    generation(userId).incrementAndGet();
+                    progress.invalidate(userId);
+                }
+            });
+        }
+    }
+
+    @EventListener
+    public void onReviewRecorded(ReviewRecordedEvent event) {
+        Long userId = event.userId();
+        generation(userId).incrementAndGet();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public int getOrder() {
+                return Ordered.HIGHEST_PRECEDENCE;
+            }
+
+            @Override
+            public void afterCommit() {
+                apply(event);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                generation(userId).incrementAndGet();
+            }
+        });
+    }
+
+    private void apply(ReviewRecordedEvent event) {
+        Progress today = progress.getIfPresent(event.userId());
+        // Reviews recorded offline on an earlier day do not count against today
+        if (today != null && today.day().equals(day(event.reviewedAt(), today.zone()))) {
+            today.add(event.firstReview());
+        }
+    }
+
+    /** The user's progress on the day {@code now} falls on in their time zone. */
+    private Progress progress(Long userId, LocalDateTime now) {
+        Progress today = progress.getIfPresent(userId);
+        if (today != null && today.day().equals(day(now, today.zone()))) {
+            return today;
+        }
+        long generation = generation(userId).get();
+        Progress loaded = load(userId, now);
+        if (generation(userId).get() == generation) {
+            progress.put(userId, loaded);
+        }
+        return loaded;
+    }
+
+    private Progress load(Long userId, LocalDateTime now) {
+        Settings settings = jdbcTemplate.queryForObject(SELECT_SETTINGS, (rs, row) -> new Settings(
+                ZoneId.of(rs.getString("time_zone")), rs.getInt("new_cards_per_day"), rs.getInt("reviews_per_day")),
+                userId);
+        ZoneId zone = settings.zone();
+        LocalDate day = day(now, zone);
+        return jdbcTemplate.queryForObject(SELECT_TODAY, (rs, row) -> {
+            int newCards = rs.getInt("new_cards");
+            return new Progress(zone, day, settings.newCardsPerDay(), settings.reviewsPerDay(),
+                    rs.getInt("reviews") - newCards, newCards);
+        }, userId, Timestamp.valueOf(serverTime(day, zone)), Timestamp.valueOf(serverTime(day.plusDays(1), zone)));
+    }
+
+    /** The user's calendar day of a time in the server's time zone. */
+    private static LocalDate day(LocalDateTime time, ZoneId zone) {
+        return time.atZone(ZoneId.systemDefault()).withZoneSameInstant(zone).toLocalDate();
+    }
+
+    /** When the user's {@code day} starts, in the server's time zone like review times. */
+    private static LocalDateTime serverTime(LocalDate day, ZoneId zone) {
+        return day.atStartOfDay(zone).withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+    }
+
+    private AtomicLong generation(Long userId) {
+        return generations.computeIfAbsent(userId, id -> new AtomicLong());
+    }
+
+    private User findUser(String username) {
+        return userRepository.findByUsername(username)
+                .orElseThrow(() -> new UserNotFoundException("User not found"));
+    }
+
+    private DailyLimitsResponse toResponse(User user) {
+        Progress today = progress(user.getId(), LocalDateTime.now());
+        return new DailyLimitsResponse(user.getNewCardsPerDay(), user.getReviewsPerDay(),
+                today.newCards(), today.reviews());
+    }
+
+    private record Settings(ZoneId zone, int newCardsPerDay, int reviewsPerDay) {
+    }
+
+    /**
+     * One user's reviews of learned cards and first reviews on one day of their time zone,
+     * with the limits they count against.
+     */
+    static final class Progress {
+
+        private final ZoneId zone;
+        private final LocalDate day;
+        private final int newCardsPerDay;
+        private final int reviewsPerDay;
+        private int reviews;
+        private int newCards;
+
+        Progress(ZoneId zone, LocalDate day, int newCardsPerDay, int reviewsPerDay, int reviews, int newCards) {
+            this.zone = zone;
+            this.day = day;
+            this.newCardsPerDay = newCardsPerDay;
+            this.reviewsPerDay = reviewsPerDay;
+            this.reviews = reviews;
+            this.newCards = newCards;
+        }
+
+        ZoneId zone() {
+            return zone;
+        }
+
+        LocalDate day() {
+            return day;
+        }
+
+        synchronized int reviews() {
+            return reviews;
+        }
+
+        synchronized int newCards() {
+            return newCards;
+        }
+
+        synchronized int reviewsLeft() {
+            return Math.max(0, reviewsPerDay - reviews);
+        }
+
+        synchronized int newCardsLeft() {
+            return Math.max(0, newCardsPerDay - newCards);
+        }
+
+        synchronized void add(boolean firstReview) {
+            if (firstReview) {
+                newCards++;
+            } else {
+                reviews++;
+            }
+        }
+    }
+}
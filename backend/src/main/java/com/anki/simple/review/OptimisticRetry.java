@@ -0,0 +1,53 @@
+package com.anki.simple.review;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+/**
+ * Runs work that reads cards, computes new schedules and writes them back in its own
+ * transaction, and runs it again from the start when the write loses an optimistic-lock race:
+ * the next attempt reads the winner's schedule and recomputes from it. No row is locked while
+ * the schedule is computed; a conflict costs one more (short) transaction.
+ * <p>
+ * Inside a caller's transaction the work runs once, since that transaction is rolled back
+ * along with the conflicting write.
+ */
+@Component
+class OptimisticRetry {
+
+    private static final Logger log = LoggerFactory.getLogger(OptimisticRetry.class);
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+
+    OptimisticRetry(
+            PlatformTransactionManager transactionManager,
+            @Value("${review.optimistic-retry.max-attempts:5}") int maxAttempts) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = maxAttempts;
+    }
+
+    <T> T execute(Supplier<T> work) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return work.get();
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                log.debug("Schedule conflict on attempt {}, retrying: {}", attempt, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.anki.simple.review;
+
+import com.anki.simple.review.scheduling.ScheduleBatch;
+import com.anki.simple.review.scheduling.SchedulingKernel;
+import com.anki.simple.vocabulary.LanguageSelection;
+import com.anki.simple.vocabulary.VocabularyCard;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Writes reviews with JDBC batches instead of one statement per entity: review history uses
+ * identity ids, which rules out Hibernate's insert batching. Bulk reschedules read and write
+ * schedules as {@link ScheduleBatch}es, never as entities. Runs in the caller's transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+class ReviewBatchWriter {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_HISTORY =
+            "INSERT INTO review_history (card_id, reviewed_at, quality, ease_factor, interval_days) VALUES (?, ?, ?, ?, ?)";
+    private static final String UPDATE_SCHEDULE_IF_VERSION =
+            "UPDATE vocabulary_cards SET ease_factor = ?, interval_days = ?, repetitions = ?, last_reviewed = ?, "
+                    + "next_review = ?, stability = ?, difficulty = ?, version = version + 1 WHERE id = ? AND version = ?";
+
+    private static final int IN_CLAUSE_CHUNK = 1000;
+
+    private static final String SELECT_SCHEDULES =
+            "SELECT id, ease_factor, interval_days, repetitions, last_reviewed, next_review, stability, difficulty, "
+                    + "language_selection, version FROM vocabulary_cards WHERE user_id = ? AND id IN (%s)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** The schedules of those of {@code cardIds} that belong to the user, with their versions. */
+    CardSchedules loadSchedules(Long userId, List<Long> cardIds) {
+        ScheduleBatch schedules = new ScheduleBatch(cardIds.size());
+        List<LanguageSelection> languages = new ArrayList<>(cardIds.size());
+        long[] versions = new long[cardIds.size()];
+        for (int from = 0; from < cardIds.size(); from += IN_CLAUSE_CHUNK) {
+            List<Long> chunk = cardIds.subList(from, Math.min(from + IN_CLAUSE_CHUNK, cardIds.size()));
+            List<Object> args = new ArrayList<>(chunk.size() + 1);
+            args.add(userId);
+            args.addAll(chunk);
+            jdbcTemplate.query(SELECT_SCHEDULES.formatted(String.join(", ", Collections.nCopies(chunk.size(), "?"))),
+                    rs -> {
+                        schedules.add(rs.getLong("id"), rs.getDouble("ease_factor"), rs.getInt("interval_days"),
+                                rs.getInt("repetitions"), seconds(rs.getTimestamp("last_reviewed")),
+                                seconds(rs.getTimestamp("next_review")), orNaN(rs, "stability"), orNaN(rs, "difficulty"));
+                        String language = rs.getString("language_selection");
+                        languages.add(language != null ? LanguageSelection.valueOf(language) : null);
+                        versions[schedules.size() - 1] = rs.getLong("version");
+                    }, args.toArray());
+        }
+        return new CardSchedules(schedules, languages, Arrays.copyOf(versions, schedules.size()));
+    }
+
+    void insertHistory(ScheduleBatch schedules, int[] qualities) {
+        jdbcTemplate.batchUpdate(INSERT_HISTORY, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setLong(1, schedules.cardId(i));
+                ps.setTimestamp(2, timestamp(schedules.lastReviewed(i)));
+                ps.setInt(3, qualities[i]);
+                ps.setDouble(4, schedules.easeFactor(i));
+                ps.setInt(5, schedules.interval(i));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return schedules.size();
+            }
+        });
+    }
+
+    /**
+     * Writes each schedule only if the card's version is still {@code versions[i]}; returns
+     * which were written.
+     */
+    boolean[] updateSchedules(ScheduleBatch schedules, long[] versions) {
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_SCHEDULE_IF_VERSION, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                setSchedule(ps, schedules, i);
+                ps.setLong(9, versions[i]);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return schedules.size();
+            }
+        });
+        boolean[] written = new boolean[updated.length];
+        for (int i = 0; i < updated.length; i++) {
+            written[i] = updated[i] != 0;
+        }
+        return written;
+    }
+
+    void insertHistory(List<ReviewHistory> history) {
+        jdbcTemplate.batchUpdate(INSERT_HISTORY, history, BATCH_SIZE, (ps, row) -> {
+            ps.setLong(1, row.getCard().getId());
+            ps.setTimestamp(2, Timestamp.valueOf(row.getReviewedAt()));
+            ps.setInt(3, row.getQuality());
+            ps.setDouble(4, row.getEaseFactor());
+            ps.setInt(5, row.getIntervalDays());
+        });
+    }
+
+    /**
+     * Writes the schedules of cards loaded as entities, each only if its version is still the
+     * one loaded.
+     *
+     * @throws ObjectOptimisticLockingFailureException if another transaction changed one of them
+     */
+    void updateSchedules(Collection<VocabularyCard> cards) {
+        int[][] updated = jdbcTemplate.batchUpdate(UPDATE_SCHEDULE_IF_VERSION, cards, BATCH_SIZE, (ps, card) -> {
+            ps.setDouble(1, card.getEaseFactor());
+            ps.setInt(2, card.getIntervalDays());
+            ps.setInt(3, card.getRepetitions());
+            ps.setTimestamp(4, Timestamp.valueOf(card.getLastReviewed()));
+            ps.setTimestamp(5, Timestamp.valueOf(card.getNextReview()));
+            ps.setObject(6, card.getStability(), Types.DOUBLE);
+            ps.setObject(7, card.getDifficulty(), Types.DOUBLE);
+            ps.setLong(8, card.getId());
+            ps.setLong(9, card.getVersion());
+        });
+        Iterator<VocabularyCard> written = cards.iterator();
+        for (int[] batch : updated) {
+            for (int count : batch) {
+                VocabularyCard card = written.next();
+                if (count == 0) {
+                    throw new ObjectOptimisticLockingFailureException(VocabularyCard.class, card.getId());
+                }
+            }
+        }
+    }
+
+    private static void setSchedule(PreparedStatement ps, ScheduleBatch schedules, int i) throws SQLException {
+        ps.setDouble(1, schedules.easeFactor(i));
+        ps.setInt(2, schedules.interval(i));
+        ps.setInt(3, schedules.repetitions(i));
+        ps.setTimestamp(4, timestamp(schedules.lastReviewed(i)));
+        ps.setTimestamp(5, timestamp(schedules.nextReview(i)));
+        ps.setObject(6, Double.isNaN(schedules.stability(i)) ? null : schedules.stability(i), Types.DOUBLE);
+        ps.setObject(7, Double.isNaN(schedules.difficulty(i)) ? null : schedules.difficulty(i), Types.DOUBLE);
+        ps.setLong(8, schedules.cardId(i));
+    }
+
+    private static long seconds(Timestamp timestamp) {
+        return SchedulingKernel.toSeconds(timestamp != null ? timestamp.toLocalDateTime() : null);
+    }
+
+    private static Timestamp timestamp(long seconds) {
+        LocalDateTime time = SchedulingKernel.toDateTime(seconds);
+        return time != null ? Timestamp.valueOf(time) : null;
+    }
+
+    private static double orNaN(ResultSet rs, String column) throws SQLException {
+        double value = rs.getDouble(column);
+        return rs.wasNull() ? Double.NaN : value;
+    }
+
+    /** Loaded schedules with each card's language selection and version at the same index. */
+    record CardSchedules(ScheduleBatch schedules, List<LanguageSelection> languages, long[] versions) {
+    }
+}
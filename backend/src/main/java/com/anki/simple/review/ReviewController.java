@@ -1,6 +1,17 @@
 package com.anki.simple.review;
 
+import com.anki.simple.review.dto.DailyLimitsRequest;
+import com.anki.simple.review.dto.DailyLimitsResponse;
+import com.anki.simple.review.dto.RescheduleRequest;
+import com.anki.simple.review.dto.ReviewAnswersRequest;
+import com.anki.simple.review.dto.ReviewBatchRequest;
+import com.anki.simple.review.dto.ReviewBatchResponse;
 import com.anki.simple.review.dto.ReviewRequest;
+import com.anki.simple.review.dto.ReviewSessionRequest;
+import com.anki.simple.review.dto.ReviewSessionResponse;
+import com.anki.simple.review.dto.SchedulingSettingsRequest;
+import com.anki.simple.review.dto.SchedulingSettingsResponse;
+import com.anki.simple.review.scheduling.SchedulingSettingsService;
 import com.anki.simple.vocabulary.dto.VocabularyCardResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -9,12 +20,17 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.UUID;
+
 @RestController
 @RequestMapping("/api/v1/review")
 @RequiredArgsConstructor
 public class ReviewController {
 
     private final ReviewService reviewService;
+    private final ReviewSessionService reviewSessionService;
+    private final SchedulingSettingsService schedulingSettingsService;
+    private final DailyLimitService dailyLimitService;
 
     @PostMapping
     public ResponseEntity<VocabularyCardResponse> reviewCard(
@@ -23,4 +39,71 @@ public class ReviewController {
         VocabularyCardResponse response = reviewService.reviewCard(request, userDetails.getUsername());
         return ResponseEntity.ok(response);
     }
+
+    @PostMapping("/batch")
+    public ResponseEntity<ReviewBatchResponse> reviewBatch(
+            @Valid @RequestBody ReviewBatchRequest request,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        ReviewBatchResponse response = reviewService.reviewBatch(request, userDetails.getUsername());
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/reschedule")
+    public ResponseEntity<ReviewBatchResponse> rescheduleCards(
+            @Valid @RequestBody RescheduleRequest request,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        ReviewBatchResponse response = reviewService.rescheduleCards(request, userDetails.getUsername());
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/sessions")
+    public ResponseEntity<ReviewSessionResponse> startSession(
+            @Valid @RequestBody(required = false) ReviewSessionRequest request,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        ReviewSessionResponse response = reviewSessionService.startSession(request, userDetails.getUsername());
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/sessions/{sessionId}/answers")
+    public ResponseEntity<ReviewSessionResponse> answer(
+            @PathVariable UUID sessionId,
+            @Valid @RequestBody ReviewAnswersRequest request,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        ReviewSessionResponse response = reviewSessionService.answer(sessionId, request, userDetails.getUsername());
+        return ResponseEntity.ok(response);
+    }
+
+    @DeleteMapping("/sessions/{sessionId}")
+    public ResponseEntity<Void> endSession(
+            @PathVariable UUID sessionId,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        reviewSessionService.endSession(sessionId, userDetails.getUsername());
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/scheduling")
+    public ResponseEntity<SchedulingSettingsResponse> getSchedulingSettings(
+            @AuthenticationPrincipal UserDetails userDetails) {
+        return ResponseEntity.ok(schedulingSettingsService.getSettings(userDetails.getUsername()));
+    }
+
+    @PutMapping("/scheduling")
+    public ResponseEntity<SchedulingSettingsResponse> updateSchedulingSettings(
+            @Valid @RequestBody SchedulingSettingsRequest request,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        return ResponseEntity.ok(schedulingSettingsService.updateSettings(request, userDetails.getUsername()));
+    }
+
+    @GetMapping("/limits")
+    public ResponseEntity<DailyLimitsResponse> getDailyLimits(
+            @AuthenticationPrincipal UserDetails userDetails) {
+        return ResponseEntity.ok(dailyLimitService.getLimits(userDetails.getUsername()));
+    }
+
+    @PutMapping("/limits")
+    public ResponseEntity<DailyLimitsResponse> updateDailyLimits(
+            @Valid @RequestBody DailyLimitsRequest request,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        return ResponseEntity.ok(dailyLimitService.updateLimits(request, userDetails.getUsername()));
+    }
 }
@@ -22,7 +22,7 @@ public class ReviewHistory {
     @JoinColumn(name = "card_id", nullable = false)
     private VocabularyCard card;
 
-    @Column(name = "reviewed_at")
+    @Column(name = "reviewed_at", nullable = false)
     private LocalDateTime reviewedAt;
 
     @Column(nullable = false)
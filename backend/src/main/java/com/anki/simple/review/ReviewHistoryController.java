@@ -0,0 +1,26 @@
+package com.anki.simple.review;
+
+import com.anki.simple.review.dto.ReviewHistoryPage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/vocabulary")
+@RequiredArgsConstructor
+public class ReviewHistoryController {
+
+    private final ReviewService reviewService;
+
+    @GetMapping("/{id}/history")
+    public ResponseEntity<ReviewHistoryPage> getCardHistory(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        ReviewHistoryPage page = reviewService.getCardHistory(id, cursor, limit, userDetails.getUsername());
+        return ResponseEntity.ok(page);
+    }
+}
@@ -0,0 +1,149 @@
+package com.anki.simple.review;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Maintains the monthly partitions of {@code review_history} on PostgreSQL (see the V4
+ * migration): creates the current month and {@code review.history.partitions.months-ahead}
+ * future months, and, when {@code review.history.partitions.retention-months} is positive,
+ * detaches older months and moves them to the archive schema. Does nothing on databases
+ * without the partitioned table, e.g. the H2 test database.
+ */
+@Component
+public class ReviewHistoryPartitionManager {
+
+    private static final Logger log = LoggerFactory.getLogger(ReviewHistoryPartitionManager.class);
+    private static final String PREFIX = "review_history_p";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int monthsAhead;
+    private final int retentionMonths;
+    private final String archiveSchema;
+    private Boolean partitioned;
+
+    public ReviewHistoryPartitionManager(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${review.history.partitions.months-ahead:3}") int monthsAhead,
+            @Value("${review.history.partitions.retention-months:0}") int retentionMonths,
+            @Value("${review.history.partitions.archive-schema:review_archive}") String archiveSchema) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+        this.archiveSchema = archiveSchema;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintainPartitions();
+    }
+
+    @Scheduled(cron = "${review.history.partitions.cron:0 0 3 * * *}")
+    public synchronized void maintainPartitions() {
+        if (!isPartitioned()) {
+            return;
+        }
+        YearMonth current = YearMonth.now();
+        Set<String> existing = partitions();
+        for (YearMonth month : missingMonths(existing, current, monthsAhead)) {
+            createPartition(month);
+        }
+        if (retentionMonths > 0) {
+            for (String partition : expiredPartitions(existing, current.minusMonths(retentionMonths))) {
+                archivePartition(partition);
+            }
+        }
+    }
+
+    static List<YearMonth> missingMonths(Set<String> existing, YearMonth current, int monthsAhead) {
+        List<YearMonth> missing = new ArrayList<>();
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            if (!existing.contains(partitionName(month))) {
+                missing.add(month);
+            }
+        }
+        return missing;
+    }
+
+    /** Monthly partitions entirely before {@code cutoff}, oldest first. */
+    static List<String> expiredPartitions(Set<String> existing, YearMonth cutoff) {
+        return existing.stream()
+                .filter(name -> name.matches(PREFIX + "\\d{6}"))
+                .filter(name -> YearMonth.parse(name.substring(PREFIX.length()), SUFFIX).isBefore(cutoff))
+                .sorted()
+                .toList();
+    }
+
+    static String partitionName(YearMonth month) {
+        return PREFIX + month.format(SUFFIX);
+    }
+
+    private boolean isPartitioned() {
+        if (partitioned == null) {
+            String database = jdbcTemplate.execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            partitioned = "PostgreSQL".equals(database) && Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table pt JOIN pg_class c ON c.oid = pt.partrelid "
+                            + "WHERE c.relname = 'review_history' AND pg_table_is_visible(c.oid))",
+                    Boolean.class));
+        }
+        return partitioned;
+    }
+
+    private Set<String> partitions() {
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+                        + "JOIN pg_class p ON p.oid = i.inhparent WHERE p.relname = 'review_history'",
+                String.class));
+    }
+
+    /**
+     * Creates the month's table, moves any rows the default partition caught for that month
+     * into it, then attaches it; attaching builds the partitioned indexes on the new table.
+     */
+    private void createPartition(YearMonth month) {
+        String name = partitionName(month);
+        String from = month.atDay(1) + " 00:00:00";
+        String to = month.plusMonths(1).atDay(1) + " 00:00:00";
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("CREATE TABLE " + name + " (LIKE review_history INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+            jdbcTemplate.update("INSERT INTO " + name + " SELECT * FROM review_history_default "
+                    + "WHERE reviewed_at >= CAST(? AS TIMESTAMP) AND reviewed_at < CAST(? AS TIMESTAMP)", from, to);
+            jdbcTemplate.update("DELETE FROM review_history_default "
+                    + "WHERE reviewed_at >= CAST(? AS TIMESTAMP) AND reviewed_at < CAST(? AS TIMESTAMP)", from, to);
+            jdbcTemplate.execute("ALTER TABLE review_history ATTACH PARTITION " + name
+                    + " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+        });
+        log.info("Created review history partition {}", name);
+    }
+
+    private void archivePartition(String name) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("CREATE SCHEMA IF NOT EXISTS " + archiveSchema);
+            jdbcTemplate.execute("ALTER TABLE review_history DETACH PARTITION " + name);
+            jdbcTemplate.execute("ALTER TABLE " + name + " SET SCHEMA " + archiveSchema);
+        });
+        log.info("Archived review history partition {} to schema {}", name, archiveSchema);
+    }
+}
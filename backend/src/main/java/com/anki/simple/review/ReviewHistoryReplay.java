@@ -0,0 +1,298 @@
+package com.anki.simple.review;
+
+import com.anki.simple.review.journal.WriteBehindReviewLog;
+import com.anki.simple.review.scheduling.ScheduleBatch;
+import com.anki.simple.review.scheduling.SchedulingKernel;
+import com.anki.simple.user.User;
+import com.anki.simple.user.UserRepository;
+import com.anki.simple.vocabulary.CardScheduleChangedEvent;
+import com.anki.simple.vocabulary.DeckChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Recomputes card schedules from review history, for after the scheduling rules change or a
+ * user switches algorithms: each card's reviews are replayed in order, from a new card's
+ * state, through {@link SpacedRepetitionService} as it is now (without load balancing, so a
+ * replay is repeatable).
+ * <p>
+ * A user's history is streamed grouped by card with a forward-only cursor, and the cards
+ * whose schedule or FSRS memory state comes out different are written in JDBC batches of {@value #BATCH_SIZE},
+ * each only if the card's version is unchanged since it was read; a card reviewed meanwhile
+ * keeps its schedule and is reported as skipped. Users are spread over
+ * {@code review.replay.threads} threads. A dry run writes nothing and only reports how many
+ * due dates would move.
+ * <p>
+ * Run at startup with {@code review.replay.on-startup} (and {@code review.replay.dry-run}).
+ */
+@Component
+public class ReviewHistoryReplay {
+
+    private static final Logger log = LoggerFactory.getLogger(ReviewHistoryReplay.class);
+    private static final int FETCH_SIZE = 1000;
+    private static final int BATCH_SIZE = 500;
+    private static final double NEW_EASE_FACTOR = 2.5;
+    private static final long SECONDS_PER_DAY = 86_400;
+
+    private static final String SELECT_HISTORY =
+            "SELECT h.card_id, h.reviewed_at, h.quality, c.ease_factor, c.interval_days, c.repetitions, "
+                    + "c.next_review, c.stability, c.difficulty, c.version FROM review_history h "
+                    + "JOIN vocabulary_cards c ON c.id = h.card_id WHERE c.user_id = ? "
+                    + "ORDER BY h.card_id, h.reviewed_at";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserRepository userRepository;
+    private final SpacedRepetitionService spacedRepetitionService;
+    private final ReviewBatchWriter reviewBatchWriter;
+    private final WriteBehindReviewLog writeBehindReviewLog;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean onStartup;
+    private final boolean dryRunOnStartup;
+    private final int threads;
+
+    public ReviewHistoryReplay(
+            JdbcTemplate jdbcTemplate,
+            UserRepository userRepository,
+            SpacedRepetitionService spacedRepetitionService,
+            ReviewBatchWriter reviewBatchWriter,
+            WriteBehindReviewLog writeBehindReviewLog,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
+            @Value("${review.replay.on-startup:false}") boolean onStartup,
+            @Value("${review.replay.dry-run:true}") boolean dryRunOnStartup,
+            @Value("${review.replay.threads:4}") int threads) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.userRepository = userRepository;
+        this.spacedRepetitionService = spacedRepetitionService;
+        this.reviewBatchWriter = reviewBatchWriter;
+        this.writeBehindReviewLog = writeBehindReviewLog;
+        this.eventPublisher = eventPublisher;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.onStartup = onStartup;
+        this.dryRunOnStartup = dryRunOnStartup;
+        this.threads = threads;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void replayOnStartup() {
+        if (onStartup) {
+            replayAll(dryRunOnStartup);
+        }
+    }
+
+    /** Replays every user's history; returns the totals. */
+    public ReplayReport replayAll(boolean dryRun) {
+        if (writeBehindReviewLog.isEnabled()) {
+            writeBehindReviewLog.flush();
+        }
+        long started = System.nanoTime();
+        List<Long> userIds = jdbcTemplate.queryForList("SELECT id FROM users", Long.class);
+        ReplayReport total = ReplayReport.EMPTY;
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            List<Future<ReplayReport>> tasks = new ArrayList<>();
+            for (Long userId : userIds) {
+                tasks.add(executor.submit(() -> replay(userId, dryRun)));
+            }
+            for (Future<ReplayReport> task : tasks) {
+                total = total.plus(task.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Review history replay interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Review history replay failed", e.getCause());
+        }
+        log.info("{} review history of {} users in {} ms: {} cards, {} reviews, {} due dates moved, {} skipped",
+                dryRun ? "Dry-run replayed" : "Replayed", userIds.size(),
+                Duration.ofNanos(System.nanoTime() - started).toMillis(),
+                total.cards(), total.reviews(), total.moved(), total.skipped());
+        return total;
+    }
+
+    /** Replays one user's history; a dry run only counts. */
+    public ReplayReport replay(Long userId, boolean dryRun) {
+        User user = userRepository.findById(userId).orElse(null);
+        if (user == null) {
+            return ReplayReport.EMPTY;
+        }
+        Replay replay = new Replay(user);
+        readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_HISTORY,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(FETCH_SIZE);
+            statement.setLong(1, userId);
+            return statement;
+        }, replay));
+        replay.finishCard();
+
+        if (dryRun || replay.changed.isEmpty()) {
+            return replay.report(0);
+        }
+        Set<Long> written = new HashSet<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            List<CardScheduleChangedEvent> scheduleChanges = new ArrayList<>();
+            for (Changed chunk : replay.changed) {
+                ScheduleBatch schedules = chunk.schedules();
+                boolean[] updated = reviewBatchWriter.updateSchedules(schedules, chunk.versions());
+                for (int i = 0; i < updated.length; i++) {
+                    if (updated[i]) {
+                        written.add(schedules.cardId(i));
+                        scheduleChanges.add(CardScheduleChangedEvent.rescheduled(userId, schedules.cardId(i),
+                                SchedulingKernel.toDateTime(chunk.previousNextReviews()[i]),
+                                SchedulingKernel.toDateTime(schedules.nextReview(i))));
+                    }
+                }
+            }
+            if (!written.isEmpty()) {
+                eventPublisher.publishEvent(new DeckChangedEvent(userId, Set.copyOf(written)));
+                scheduleChanges.forEach(eventPublisher::publishEvent);
+            }
+        });
+        return replay.report(replay.changedCount() - written.size());
+    }
+
+    /**
+     * Streams one user's history: rows arrive grouped by card in review order, and each card
+     * is replayed in a one-card batch as its rows go by.
+     */
+    private final class Replay implements RowCallbackHandler {
+
+        private final User user;
+        private final ScheduleBatch card = new ScheduleBatch(1);
+        private final int[] quality = new int[1];
+        private final List<Changed> changed = new ArrayList<>();
+        private long cardId = -1;
+        private double easeFactor;
+        private int interval;
+        private int repetitions;
+        private long nextReview;
+        private double stability;
+        private double difficulty;
+        private long version;
+        private long cards;
+        private long reviews;
+        private long moved;
+
+        Replay(User user) {
+            this.user = user;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long rowCardId = rs.getLong("card_id");
+            if (rowCardId != cardId) {
+                finishCard();
+                cardId = rowCardId;
+                easeFactor = rs.getDouble("ease_factor");
+                interval = rs.getInt("interval_days");
+                repetitions = rs.getInt("repetitions");
+                nextReview = seconds(rs.getTimestamp("next_review"));
+                stability = orNaN(rs, "stability");
+                difficulty = orNaN(rs, "difficulty");
+                version = rs.getLong("version");
+                card.clear();
+                card.add(cardId, NEW_EASE_FACTOR, 0, 0, SchedulingKernel.NEVER, SchedulingKernel.NEVER,
+                        Double.NaN, Double.NaN);
+            }
+            quality[0] = rs.getInt("quality");
+            spacedRepetitionService.simulateSchedules(card, quality,
+                    seconds(rs.getTimestamp("reviewed_at")), user);
+            reviews++;
+        }
+
+        /** Compares the replayed schedule of the current card with the stored one. */
+        void finishCard() {
+            if (cardId < 0) {
+                return;
+            }
+            cards++;
+            boolean dueDateMoved = day(card.nextReview(0)) != day(nextReview);
+            if (dueDateMoved) {
+                moved++;
+            }
+            // Double.compare treats NaN (no FSRS state) as equal to NaN
+            if (dueDateMoved || card.easeFactor(0) != easeFactor || card.interval(0) != interval
+                    || card.repetitions(0) != repetitions || Double.compare(card.stability(0), stability) != 0
+                    || Double.compare(card.difficulty(0), difficulty) != 0) {
+                if (changed.isEmpty() || changed.getLast().schedules().size() == BATCH_SIZE) {
+                    changed.add(new Changed(new ScheduleBatch(BATCH_SIZE), new long[BATCH_SIZE], new long[BATCH_SIZE]));
+                }
+                Changed chunk = changed.getLast();
+                chunk.versions()[chunk.schedules().size()] = version;
+                chunk.previousNextReviews()[chunk.schedules().size()] = nextReview;
+                chunk.schedules().add(cardId, card.easeFactor(0), card.interval(0), card.repetitions(0),
+                        card.lastReviewed(0), card.nextReview(0), card.stability(0), card.difficulty(0));
+            }
+            cardId = -1;
+        }
+
+        int changedCount() {
+            return changed.stream().mapToInt(chunk -> chunk.schedules().size()).sum();
+        }
+
+        ReplayReport report(long skipped) {
+            return new ReplayReport(1, cards, reviews, moved, skipped);
+        }
+    }
+
+    /**
+     * Up to {@value #BATCH_SIZE} replayed schedules with the versions and due dates they were
+     * read at.
+     */
+    private record Changed(ScheduleBatch schedules, long[] versions, long[] previousNextReviews) {
+    }
+
+    private static long day(long seconds) {
+        return seconds == SchedulingKernel.NEVER ? Long.MIN_VALUE : Math.floorDiv(seconds, SECONDS_PER_DAY);
+    }
+
+    private static double orNaN(ResultSet rs, String column) throws SQLException {
+        double value = rs.getDouble(column);
+        return rs.wasNull() ? Double.NaN : value;
+    }
+
+    private static long seconds(Timestamp timestamp) {
+        return SchedulingKernel.toSeconds(timestamp != null ? timestamp.toLocalDateTime() : null);
+    }
+
+    /**
+     * Outcome of a replay: cards with history, reviews replayed, cards whose due date moved
+     * (or would, in a dry run) and cards left alone because they were reviewed meanwhile.
+     */
+    public record ReplayReport(int users, long cards, long reviews, long moved, long skipped) {
+
+        static final ReplayReport EMPTY = new ReplayReport(0, 0, 0, 0, 0);
+
+        ReplayReport plus(ReplayReport other) {
+            return new ReplayReport(users + other.users, cards + other.cards, reviews + other.reviews,
+                    moved + other.moved, skipped + other.skipped);
+        }
+    }
+}
@@ -1,11 +1,29 @@
 package com.anki.simple.review;
 
+import com.anki.simple.review.dto.ReviewHistoryEntry;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface ReviewHistoryRepository extends JpaRepository<ReviewHistory, Long> {
-    List<ReviewHistory> findByCardIdOrderByReviewedAtDesc(Long cardId);
+
+    @Query("SELECT new com.anki.simple.review.dto.ReviewHistoryEntry(h.id, h.reviewedAt, h.quality, h.easeFactor, h.intervalDays) " +
+           "FROM ReviewHistory h WHERE h.card.id = :cardId ORDER BY h.reviewedAt DESC, h.id DESC")
+    List<ReviewHistoryEntry> findLatestByCardId(@Param("cardId") Long cardId, Limit limit);
+
+    /** The page after ({@code reviewedAt}, {@code id}) in {@link #findLatestByCardId} order. */
+    @Query("SELECT new com.anki.simple.review.dto.ReviewHistoryEntry(h.id, h.reviewedAt, h.quality, h.easeFactor, h.intervalDays) " +
+           "FROM ReviewHistory h WHERE h.card.id = :cardId " +
+           "AND (h.reviewedAt < :reviewedAt OR (h.reviewedAt = :reviewedAt AND h.id < :id)) " +
+           "ORDER BY h.reviewedAt DESC, h.id DESC")
+    List<ReviewHistoryEntry> findByCardIdBefore(@Param("cardId") Long cardId,
+                                                @Param("reviewedAt") LocalDateTime reviewedAt,
+                                                @Param("id") Long id,
+                                                Limit limit);
 }
@@ -0,0 +1,13 @@
+package com.anki.simple.review;
+
+import com.anki.simple.vocabulary.LanguageSelection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published for every accepted review. {@code firstReview} is true when the card had never
+ * been reviewed before, i.e. a new card was learned.
+ */
+public record ReviewRecordedEvent(Long userId, LanguageSelection languageSelection,
+                                  LocalDateTime reviewedAt, int quality, boolean firstReview) {
+}
@@ -3,31 +3,84 @@ package com.anki.simple.review;
 import com.anki.simple.exception.CardNotFoundException;
 import com.anki.simple.exception.UnauthorizedException;
 import com.anki.simple.exception.UserNotFoundException;
+import com.anki.simple.review.dto.OfflineReview;
+import com.anki.simple.review.dto.RescheduleRequest;
+import com.anki.simple.review.journal.JournalEntry;
+import com.anki.simple.review.journal.WriteBehindReviewLog;
+import com.anki.simple.review.dto.ReviewAck;
+import com.anki.simple.review.dto.ReviewBatchRequest;
+import com.anki.simple.review.dto.ReviewBatchResponse;
+import com.anki.simple.review.dto.ReviewHistoryEntry;
+import com.anki.simple.review.dto.ReviewHistoryPage;
 import com.anki.simple.review.dto.ReviewRequest;
 import com.anki.simple.review.mapper.ReviewHistoryMapper;
+import com.anki.simple.review.scheduling.ScheduleBatch;
+import com.anki.simple.review.scheduling.SchedulingKernel;
 import com.anki.simple.user.User;
 import com.anki.simple.user.UserRepository;
+import com.anki.simple.vocabulary.CardScheduleChangedEvent;
+import com.anki.simple.vocabulary.DeckChangedEvent;
 import com.anki.simple.vocabulary.VocabularyCard;
 import com.anki.simple.vocabulary.VocabularyRepository;
 import com.anki.simple.vocabulary.dto.VocabularyCardResponse;
 import com.anki.simple.vocabulary.mapper.VocabularyCardMapper;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 @Service
 @RequiredArgsConstructor
 public class ReviewService {
 
+    private static final int MAX_HISTORY_PAGE = 200;
+
     private final VocabularyRepository vocabularyRepository;
     private final ReviewHistoryRepository reviewHistoryRepository;
     private final UserRepository userRepository;
     private final SpacedRepetitionService spacedRepetitionService;
     private final VocabularyCardMapper vocabularyCardMapper;
     private final ReviewHistoryMapper reviewHistoryMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReviewBatchWriter reviewBatchWriter;
+    private final WriteBehindReviewLog writeBehindReviewLog;
+    private final OptimisticRetry optimisticRetry;
+    private final CardReviewWriter cardReviewWriter;
+    private final EntityManager em;
 
-    @Transactional
+    /**
+     * Reviews one card. The new schedule is written (or journaled, in write-behind mode) only
+     * if the card's version is still the one read; if another device reviewed the card in the
+     * meantime, the review is computed again on top of that one (see {@link OptimisticRetry})
+     * rather than overwriting it.
+     * <p>
+     * Without the write-behind journal this skips the entities: one query reads the card, and
+     * the schedule and history row are written in one statement where the database allows it
+     * (see {@link CardReviewWriter}).
+     */
     public VocabularyCardResponse reviewCard(ReviewRequest request, String username) {
+        return optimisticRetry.execute(() -> writeBehindReviewLog.isEnabled()
+                ? reviewJournaled(request, username)
+                : reviewDirect(request, username));
+    }
+
+    private VocabularyCardResponse reviewJournaled(ReviewRequest request, String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UserNotFoundException("User not found"));
 
@@ -38,13 +91,276 @@ public class ReviewService {
             throw new UnauthorizedException("Unauthorized access to card");
         }
 
-        spacedRepetitionService.updateCardSchedule(card, request.getQuality());
+        VocabularyCard updatedCard = applyReview(card, request.getQuality(), user.getId());
+        return vocabularyCardMapper.toResponse(updatedCard);
+    }
+
+    private VocabularyCardResponse reviewDirect(ReviewRequest request, String username) {
+        // Pending entity changes of an enclosing transaction must be visible to the JDBC read
+        em.flush();
+        CardReviewWriter.ReviewedCard card = cardReviewWriter.load(request.getCardId())
+                .orElse(null);
+        if (card == null || !card.username().equals(username)) {
+            if (userRepository.findByUsername(username).isEmpty()) {
+                throw new UserNotFoundException("User not found");
+            }
+            if (card == null) {
+                throw new CardNotFoundException(request.getCardId());
+            }
+            throw new UnauthorizedException("Unauthorized access to card");
+        }
 
-        ReviewHistory history = reviewHistoryMapper.createFromCardAndQuality(card, request.getQuality());
-        reviewHistoryRepository.save(history);
+        VocabularyCardResponse response = card.card();
+        ScheduleBatch schedule = card.schedule();
+        LocalDateTime previousNextReview = response.getNextReview();
+        boolean firstReview = response.getLastReviewed() == null;
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        spacedRepetitionService.updateSchedules(schedule, new int[]{request.getQuality()},
+                SchedulingKernel.toSeconds(now), card.userId(), card.algorithm());
+        if (!cardReviewWriter.write(card, schedule, request.getQuality())) {
+            throw new ObjectOptimisticLockingFailureException(VocabularyCard.class, response.getId());
+        }
 
-        VocabularyCard updatedCard = vocabularyRepository.save(card);
+        response.setEaseFactor(schedule.easeFactor(0));
+        response.setIntervalDays(schedule.interval(0));
+        response.setRepetitions(schedule.repetitions(0));
+        response.setLastReviewed(now);
+        response.setNextReview(SchedulingKernel.toDateTime(schedule.nextReview(0)));
+        eventPublisher.publishEvent(DeckChangedEvent.forCard(card.userId(), response.getId()));
+        eventPublisher.publishEvent(CardScheduleChangedEvent.reviewed(
+                card.userId(), response.getId(), previousNextReview, response.getNextReview(), firstReview));
+        eventPublisher.publishEvent(new ReviewRecordedEvent(
+                card.userId(), response.getLanguageSelection(), now, request.getQuality(), firstReview));
+        return response;
+    }
 
-        return vocabularyCardMapper.toResponse(updatedCard);
+    /**
+     * Reschedules a card the caller has already checked belongs to {@code userId}, records
+     * the review and publishes the change events.
+     */
+    @Transactional
+    public VocabularyCard applyReview(VocabularyCard card, int quality, Long userId) {
+        WriteBehindReviewLog.Prepared prepared = writeBehindReviewLog.isEnabled()
+                ? writeBehindReviewLog.prepare(card) : null;
+        LocalDateTime previousNextReview = card.getNextReview();
+        boolean firstReview = card.getLastReviewed() == null;
+        spacedRepetitionService.updateCardSchedule(card, quality);
+
+        VocabularyCard updatedCard;
+        if (writeBehindReviewLog.isEnabled()) {
+            writeBehindReviewLog.append(List.of(prepared),
+                    List.of(writeBehindReviewLog.entry(card, userId, quality, card.getLastReviewed())));
+            updatedCard = card;
+        } else {
+            ReviewHistory history = reviewHistoryMapper.createFromCardAndQuality(card, quality);
+            reviewHistoryRepository.save(history);
+            // Flushed here so a version conflict surfaces while the caller can still retry
+            updatedCard = vocabularyRepository.saveAndFlush(card);
+        }
+        eventPublisher.publishEvent(DeckChangedEvent.forCard(userId, card.getId()));
+        eventPublisher.publishEvent(CardScheduleChangedEvent.reviewed(
+                userId, card.getId(), previousNextReview, card.getNextReview(), firstReview));
+        eventPublisher.publishEvent(new ReviewRecordedEvent(
+                userId, card.getLanguageSelection(), card.getLastReviewed(), quality, firstReview));
+        return updatedCard;
+    }
+
+    /**
+     * One page of a card's review history, newest first. Pages are keyed on the last review's
+     * ({@code reviewedAt}, {@code id}) rather than an offset, so each page is an index range
+     * scan however far back it is.
+     */
+    @Transactional(readOnly = true)
+    public ReviewHistoryPage getCardHistory(Long cardId, String cursor, int limit, String username) {
+        if (limit < 1 || limit > MAX_HISTORY_PAGE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_HISTORY_PAGE);
+        }
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new UserNotFoundException("User not found"));
+        VocabularyCard card = vocabularyRepository.findById(cardId)
+                .orElseThrow(() -> new CardNotFoundException(cardId));
+        if (!card.getUser().getId().equals(user.getId())) {
+            throw new UnauthorizedException("Unauthorized access to card");
+        }
+
+        // One extra row tells whether there is a next page
+        Limit rows = Limit.of(limit + 1);
+        List<ReviewHistoryEntry> reviews;
+        if (cursor == null || cursor.isBlank()) {
+            reviews = reviewHistoryRepository.findLatestByCardId(cardId, rows);
+        } else {
+            int separator = cursor.lastIndexOf(',');
+            try {
+                reviews = reviewHistoryRepository.findByCardIdBefore(cardId,
+                        LocalDateTime.parse(cursor.substring(0, separator)),
+                        Long.parseLong(cursor.substring(separator + 1)), rows);
+            } catch (DateTimeParseException | IndexOutOfBoundsException | NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+        }
+        if (reviews.size() <= limit) {
+            return new ReviewHistoryPage(reviews, null);
+        }
+        reviews = reviews.subList(0, limit);
+        ReviewHistoryEntry last = reviews.getLast();
+        return new ReviewHistoryPage(reviews, last.getReviewedAt() + "," + last.getId());
+    }
+
+    /**
+     * Applies reviews recorded offline. Each card's reviews are replayed in {@code reviewedAt}
+     * order (timestamps in the future are clamped to now); a review dated before the card's
+     * last review is recorded in the history but does not reschedule the card. All history
+     * rows and card updates are written as JDBC batches in this one transaction, or journaled
+     * in write-behind mode. The card updates check the versions read, and the whole batch is
+     * replayed if one of the cards changed meanwhile.
+     */
+    public ReviewBatchResponse reviewBatch(ReviewBatchRequest request, String username) {
+        return optimisticRetry.execute(() -> applyBatch(request, username));
+    }
+
+    private ReviewBatchResponse applyBatch(ReviewBatchRequest request, String username) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new UserNotFoundException("User not found"));
+
+        Map<Long, List<OfflineReview>> reviewsByCard = request.getReviews().stream()
+                .collect(Collectors.groupingBy(OfflineReview::getCardId, LinkedHashMap::new, Collectors.toList()));
+        Map<Long, VocabularyCard> cards = vocabularyRepository.findByUserIdAndIdIn(user.getId(), reviewsByCard.keySet())
+                .stream()
+                .collect(Collectors.toMap(VocabularyCard::getId, Function.identity()));
+        // The cards are written by the batch below; keep Hibernate from flushing them again
+        cards.values().forEach(em::detach);
+        List<WriteBehindReviewLog.Prepared> prepared = writeBehindReviewLog.isEnabled()
+                ? cards.values().stream().map(writeBehindReviewLog::prepare).toList() : List.of();
+
+        LocalDateTime now = LocalDateTime.now();
+        List<ReviewHistory> history = new ArrayList<>();
+        List<JournalEntry> journaled = new ArrayList<>();
+        List<ReviewAck> acks = new ArrayList<>();
+        List<Long> skipped = new ArrayList<>();
+        List<VocabularyCard> rescheduled = new ArrayList<>();
+        int historyOnly = 0;
+        List<CardScheduleChangedEvent> scheduleChanges = new ArrayList<>();
+        List<ReviewRecordedEvent> recorded = new ArrayList<>();
+        for (Map.Entry<Long, List<OfflineReview>> entry : reviewsByCard.entrySet()) {
+            VocabularyCard card = cards.get(entry.getKey());
+            if (card == null) {
+                skipped.add(entry.getKey());
+                continue;
+            }
+            LocalDateTime previousNextReview = card.getNextReview();
+            boolean unseen = card.getLastReviewed() == null;
+            boolean changed = false;
+            List<OfflineReview> reviews = new ArrayList<>(entry.getValue());
+            reviews.sort(Comparator.comparing(OfflineReview::getReviewedAt));
+            for (OfflineReview review : reviews) {
+                LocalDateTime reviewedAt = review.getReviewedAt().isAfter(now) ? now : review.getReviewedAt();
+                boolean firstReview = card.getLastReviewed() == null;
+                // A review older than the card's last one (e.g. reviewed online meanwhile) is only
+                // recorded: applying it would move the schedule back in time
+                boolean stale = !firstReview && reviewedAt.isBefore(card.getLastReviewed());
+                if (stale) {
+                    historyOnly++;
+                } else {
+                    spacedRepetitionService.updateCardSchedule(card, review.getQuality(), reviewedAt);
+                    changed = true;
+                }
+                if (writeBehindReviewLog.isEnabled()) {
+                    journaled.add(writeBehindReviewLog.entry(card, user.getId(), review.getQuality(), reviewedAt));
+                }
+                ReviewHistory row = reviewHistoryMapper.createFromCardAndQuality(card, review.getQuality());
+                row.setReviewedAt(reviewedAt);
+                history.add(row);
+                recorded.add(new ReviewRecordedEvent(
+                        user.getId(), card.getLanguageSelection(), reviewedAt, review.getQuality(), firstReview));
+            }
+            acks.add(new ReviewAck(card.getId(), card.getNextReview(), card.getIntervalDays()));
+            if (changed) {
+                rescheduled.add(card);
+                scheduleChanges.add(CardScheduleChangedEvent.reviewed(
+                        user.getId(), card.getId(), previousNextReview, card.getNextReview(), unseen));
+            }
+        }
+
+        if (!history.isEmpty()) {
+            if (writeBehindReviewLog.isEnabled()) {
+                writeBehindReviewLog.append(prepared, journaled);
+            } else {
+                reviewBatchWriter.insertHistory(history);
+                if (!rescheduled.isEmpty()) {
+                    reviewBatchWriter.updateSchedules(rescheduled);
+                }
+            }
+            if (!rescheduled.isEmpty()) {
+                eventPublisher.publishEvent(new DeckChangedEvent(user.getId(),
+                        rescheduled.stream().map(VocabularyCard::getId).collect(Collectors.toSet())));
+            }
+            scheduleChanges.forEach(eventPublisher::publishEvent);
+            recorded.forEach(eventPublisher::publishEvent);
+        }
+        return new ReviewBatchResponse(history.size(), acks, skipped, historyOnly);
+    }
+
+    /**
+     * Grades many cards at once with the same quality, e.g. to mark a set of cards as known.
+     * Schedules are loaded into a {@link ScheduleBatch}, rescheduled in one pass of the
+     * scheduling kernel and written back as JDBC batches, without loading entities. In
+     * write-behind mode the journal is flushed first so the rows read are current. Like
+     * {@link #reviewBatch}, the writes check the versions read, and the whole reschedule is
+     * run again if one of the cards changed meanwhile.
+     */
+    public ReviewBatchResponse rescheduleCards(RescheduleRequest request, String username) {
+        return optimisticRetry.execute(() -> applyReschedule(request, username));
+    }
+
+    private ReviewBatchResponse applyReschedule(RescheduleRequest request, String username) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new UserNotFoundException("User not found"));
+        if (writeBehindReviewLog.isEnabled()) {
+            writeBehindReviewLog.flush();
+        }
+
+        List<Long> cardIds = request.getCardIds().stream().distinct().toList();
+        ReviewBatchWriter.CardSchedules loaded = reviewBatchWriter.loadSchedules(user.getId(), cardIds);
+        ScheduleBatch schedules = loaded.schedules();
+        int size = schedules.size();
+        long[] previousNextReview = new long[size];
+        boolean[] firstReview = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            previousNextReview[i] = schedules.nextReview(i);
+            firstReview[i] = schedules.lastReviewed(i) == SchedulingKernel.NEVER;
+        }
+        int[] qualities = new int[size];
+        Arrays.fill(qualities, request.getQuality());
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        spacedRepetitionService.updateSchedules(schedules, qualities, SchedulingKernel.toSeconds(now), user);
+
+        Set<Long> rescheduled = new HashSet<>();
+        List<ReviewAck> acks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            rescheduled.add(schedules.cardId(i));
+            acks.add(new ReviewAck(schedules.cardId(i), SchedulingKernel.toDateTime(schedules.nextReview(i)),
+                    schedules.interval(i)));
+        }
+        List<Long> skipped = cardIds.stream().filter(id -> !rescheduled.contains(id)).toList();
+        if (size == 0) {
+            return new ReviewBatchResponse(0, acks, skipped, 0);
+        }
+
+        boolean[] written = reviewBatchWriter.updateSchedules(schedules, loaded.versions());
+        for (int i = 0; i < size; i++) {
+            if (!written[i]) {
+                throw new ObjectOptimisticLockingFailureException(VocabularyCard.class, schedules.cardId(i));
+            }
+        }
+        reviewBatchWriter.insertHistory(schedules, qualities);
+        eventPublisher.publishEvent(new DeckChangedEvent(user.getId(), rescheduled));
+        for (int i = 0; i < size; i++) {
+            eventPublisher.publishEvent(CardScheduleChangedEvent.reviewed(user.getId(), schedules.cardId(i),
+                    SchedulingKernel.toDateTime(previousNextReview[i]), SchedulingKernel.toDateTime(schedules.nextReview(i)),
+                    firstReview[i]));
+            eventPublisher.publishEvent(new ReviewRecordedEvent(
+                    user.getId(), loaded.languages().get(i), now, qualities[i], firstReview[i]));
+        }
+        return new ReviewBatchResponse(size, acks, skipped, 0);
     }
 }
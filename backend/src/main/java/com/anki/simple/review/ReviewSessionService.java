@@ -0,0 +1,247 @@
+package com.anki.simple.review;
+
+import com.anki.simple.exception.ReviewSessionNotFoundException;
+import com.anki.simple.exception.UserNotFoundException;
+import com.anki.simple.review.dto.ReviewAck;
+import com.anki.simple.review.dto.ReviewAnswersRequest;
+import com.anki.simple.review.dto.ReviewRequest;
+import com.anki.simple.review.dto.ReviewSessionRequest;
+import com.anki.simple.review.dto.ReviewSessionResponse;
+import com.anki.simple.user.User;
+import com.anki.simple.user.UserRepository;
+import com.anki.simple.vocabulary.VocabularyCard;
+import com.anki.simple.vocabulary.VocabularyRepository;
+import com.anki.simple.vocabulary.dto.VocabularyCardResponse;
+import com.anki.simple.vocabulary.mapper.VocabularyCardMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Review sessions: a snapshot of the user's due cards (within the daily limits, see
+ * {@link DailyLimitService}) taken when the session starts, and a
+ * server-side cursor into it. The client keeps up to {@code prefetch} cards buffered; every
+ * batch of answers is acknowledged with the new schedule of each card and piggybacks as
+ * many new cards as were answered, so a long session needs one request per batch rather
+ * than a review plus a reload per card.
+ * <p>
+ * Sessions live in memory and expire after {@code review.session.idle-timeout} without use.
+ */
+@Service
+public class ReviewSessionService {
+
+    public static final String USER_NOT_FOUND = "User not found";
+    public static final int DEFAULT_PREFETCH = 20;
+
+    private final ReviewService reviewService;
+    private final VocabularyRepository vocabularyRepository;
+    private final UserRepository userRepository;
+    private final VocabularyCardMapper vocabularyCardMapper;
+    private final DailyLimitService dailyLimitService;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Cache<UUID, ReviewSession> sessions;
+
+    public ReviewSessionService(
+            ReviewService reviewService,
+            VocabularyRepository vocabularyRepository,
+            UserRepository userRepository,
+            VocabularyCardMapper vocabularyCardMapper,
+            DailyLimitService dailyLimitService,
+            PlatformTransactionManager transactionManager,
+            @Value("${review.session.idle-timeout:PT1H}") Duration idleTimeout,
+            @Value("${review.session.max-sessions:100000}") long maxSessions) {
+        this.reviewService = reviewService;
+        this.vocabularyRepository = vocabularyRepository;
+        this.userRepository = userRepository;
+        this.vocabularyCardMapper = vocabularyCardMapper;
+        this.dailyLimitService = dailyLimitService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.sessions = Caffeine.newBuilder()
+                .expireAfterAccess(idleTimeout)
+                .maximumSize(maxSessions)
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public ReviewSessionResponse startSession(ReviewSessionRequest request, String username) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new UserNotFoundException(USER_NOT_FOUND));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> dueIds = dailyLimitService.dueCardIds(user, now);
+        int prefetch = request != null && request.getPrefetch() != null ? request.getPrefetch() : DEFAULT_PREFETCH;
+
+        UUID sessionId = UUID.randomUUID();
+        ReviewSession session = new ReviewSession(user.getId(), dueIds.stream().mapToLong(Long::longValue).toArray(), prefetch);
+        sessions.put(sessionId, session);
+
+        List<VocabularyCardResponse> cards = handOut(session, now);
+        synchronized (session) {
+            return new ReviewSessionResponse(sessionId, List.of(), session.remaining(), cards);
+        }
+    }
+
+    /**
+     * Records a batch of answers and hands out as many new cards. The reviews commit in their
+     * own transaction before the session changes, so if they fail the cards stay outstanding
+     * and can be answered again. The session's monitor is only held between database calls.
+     */
+    public ReviewSessionResponse answer(UUID sessionId, ReviewAnswersRequest request, String username) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new UserNotFoundException(USER_NOT_FOUND));
+        ReviewSession session = findSession(sessionId, user.getId());
+
+        Set<Long> answeredIds = new HashSet<>();
+        synchronized (session) {
+            for (ReviewRequest answer : request.getAnswers()) {
+                if (!session.outstanding.contains(answer.getCardId()) || session.answering.contains(answer.getCardId())
+                        || !answeredIds.add(answer.getCardId())) {
+                    throw new IllegalArgumentException(
+                            "Card " + answer.getCardId() + " is not awaiting an answer in this session");
+                }
+            }
+            // Claimed so a concurrent batch cannot answer the same cards while these commit
+            session.answering.addAll(answeredIds);
+        }
+
+        List<ReviewAck> accepted;
+        try {
+            accepted = transactionTemplate.execute(status -> {
+                Map<Long, VocabularyCard> cards = vocabularyRepository.findByUserIdAndIdIn(user.getId(), answeredIds)
+                        .stream()
+                        .collect(Collectors.toMap(VocabularyCard::getId, Function.identity()));
+                List<ReviewAck> acks = new ArrayList<>();
+                for (ReviewRequest answer : request.getAnswers()) {
+                    VocabularyCard card = cards.get(answer.getCardId());
+                    // A card deleted since it was handed out is dropped from the session
+                    if (card != null) {
+                        reviewService.applyReview(card, answer.getQuality(), user.getId());
+                        acks.add(new ReviewAck(card.getId(), card.getNextReview(), card.getIntervalDays()));
+                    }
+                }
+                return acks;
+            });
+            synchronized (session) {
+                session.outstanding.removeAll(answeredIds);
+            }
+        } finally {
+            synchronized (session) {
+                session.answering.removeAll(answeredIds);
+            }
+        }
+
+        List<VocabularyCardResponse> next = handOut(session, LocalDateTime.now());
+        synchronized (session) {
+            return new ReviewSessionResponse(sessionId, accepted, session.remaining(), next);
+        }
+    }
+
+    public void endSession(UUID sessionId, String username) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new UserNotFoundException(USER_NOT_FOUND));
+        findSession(sessionId, user.getId());
+        sessions.invalidate(sessionId);
+    }
+
+    private ReviewSession findSession(UUID sessionId, Long userId) {
+        ReviewSession session = sessions.getIfPresent(sessionId);
+        // Another user's session is reported as missing rather than forbidden
+        if (session == null || !session.userId.equals(userId)) {
+            throw new ReviewSessionNotFoundException(sessionId);
+        }
+        return session;
+    }
+
+    /**
+     * Advances the cursor until {@code prefetch} cards are outstanding, skipping cards that
+     * were deleted or reviewed elsewhere since the session started. Each range of ids is
+     * claimed under the session's monitor and read without it.
+     */
+    private List<VocabularyCardResponse> handOut(ReviewSession session, LocalDateTime now) {
+        List<VocabularyCardResponse> handedOut = new ArrayList<>();
+        while (true) {
+            List<Long> ids;
+            synchronized (session) {
+                int wanted = session.prefetch - session.outstanding.size() - session.handingOut;
+                if (wanted <= 0 || session.cursor == session.cardIds.length) {
+                    return handedOut;
+                }
+                int end = Math.min(session.cursor + wanted, session.cardIds.length);
+                ids = new ArrayList<>(end - session.cursor);
+                for (int i = session.cursor; i < end; i++) {
+                    ids.add(session.cardIds[i]);
+                }
+                session.cursor = end;
+                session.handingOut += ids.size();
+            }
+
+            List<VocabularyCardResponse> due = new ArrayList<>();
+            Set<Long> dueIds = new LinkedHashSet<>();
+            try {
+                readOnlyTransaction.executeWithoutResult(status -> {
+                    List<VocabularyCard> found = vocabularyRepository.findByUserIdAndIdIn(session.userId, ids);
+                    if (found.isEmpty()) {
+                        return;
+                    }
+                    Map<Long, VocabularyCard> byId = vocabularyRepository.fetchTags(found).stream()
+                            .collect(Collectors.toMap(VocabularyCard::getId, Function.identity()));
+                    for (Long id : ids) {
+                        VocabularyCard card = byId.get(id);
+                        if (card != null && card.getNextReview() != null && !card.getNextReview().isAfter(now)) {
+                            dueIds.add(id);
+                            due.add(vocabularyCardMapper.toResponse(card));
+                        }
+                    }
+                });
+            } finally {
+                synchronized (session) {
+                    session.handingOut -= ids.size();
+                    session.outstanding.addAll(dueIds);
+                }
+            }
+            handedOut.addAll(due);
+        }
+    }
+
+    /** Guarded by its own monitor. */
+    private static final class ReviewSession {
+        private final Long userId;
+        private final long[] cardIds;
+        private final int prefetch;
+        private final Set<Long> outstanding = new LinkedHashSet<>();
+        /** Outstanding cards whose answers are being committed. */
+        private final Set<Long> answering = new HashSet<>();
+        /** Cards claimed from the cursor and still being read. */
+        private int handingOut;
+        private int cursor;
+
+        private ReviewSession(Long userId, long[] cardIds, int prefetch) {
+            this.userId = userId;
+            this.cardIds = cardIds;
+            this.prefetch = prefetch;
+        }
+
+        private int remaining() {
+            return cardIds.length - cursor + handingOut + outstanding.size();
+        }
+    }
+}
@@ -1,56 +1,105 @@
 package com.anki.simple.review;
 
+import com.anki.simple.review.scheduling.LoadBalancer;
+import com.anki.simple.review.scheduling.ScheduleBatch;
+import com.anki.simple.review.scheduling.SchedulingAlgorithm;
+import com.anki.simple.review.scheduling.SchedulingAlgorithmType;
+import com.anki.simple.review.scheduling.SchedulingKernel;
+import com.anki.simple.user.User;
 import com.anki.simple.vocabulary.VocabularyCard;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 
+/**
+ * Schedules reviews with the algorithm the card's owner has chosen; SM-2 unless the user
+ * switched to FSRS. With the {@link LoadBalancer} enabled, the due date is then moved
+ * within a few days towards the user's lighter days.
+ */
 @Service
 public class SpacedRepetitionService {
 
+    private final Map<SchedulingAlgorithmType, SchedulingAlgorithm> algorithms = new EnumMap<>(SchedulingAlgorithmType.class);
+    private final LoadBalancer loadBalancer;
+
+    public SpacedRepetitionService(List<SchedulingAlgorithm> algorithms, LoadBalancer loadBalancer) {
+        for (SchedulingAlgorithm algorithm : algorithms) {
+            this.algorithms.put(algorithm.type(), algorithm);
+        }
+        this.loadBalancer = loadBalancer;
+    }
+
     /**
-     * SM-2 Algorithm implementation
-     * quality: 0-5 rating
-     * 0: complete blackout
-     * 1: incorrect response, but familiar
-     * 2: incorrect response, seems easy to recall
-     * 3: correct response, but difficult
-     * 4: correct response, some hesitation
-     * 5: perfect response
+     * quality: 0-5 rating, see {@link com.anki.simple.review.scheduling.Sm2Algorithm}
      */
     public void updateCardSchedule(VocabularyCard card, int quality) {
+        updateCardSchedule(card, quality, LocalDateTime.now());
+    }
+
+    /**
+     * Same as {@link #updateCardSchedule(VocabularyCard, int)} for a review that happened at
+     * {@code reviewedAt}, e.g. one recorded offline and submitted later.
+     */
+    public void updateCardSchedule(VocabularyCard card, int quality, LocalDateTime reviewedAt) {
         if (quality < 0 || quality > 5) {
             throw new IllegalArgumentException("Quality must be between 0 and 5");
         }
+        algorithm(card.getUser() != null ? card.getUser().getSchedulingAlgorithm() : null)
+                .schedule(card, quality, reviewedAt);
 
-        double easeFactor = card.getEaseFactor();
-        int repetitions = card.getRepetitions();
-        int interval = card.getIntervalDays();
-
-        if (quality >= 3) {
-            if (repetitions == 0) {
-                interval = 1;
-            } else if (repetitions == 1) {
-                interval = 6;
-            } else {
-                interval = (int) Math.round(interval * easeFactor);
+        if (loadBalancer.isEnabled() && card.getUser() != null && card.getId() != null) {
+            int interval = loadBalancer.balance(card.getUser().getId(), card.getId(), card.getIntervalDays(), reviewedAt);
+            if (interval != card.getIntervalDays()) {
+                card.setIntervalDays(interval);
+                card.setNextReview(reviewedAt.plusDays(interval));
             }
-            repetitions++;
-        } else {
-            repetitions = 0;
-            interval = 1;
         }
+    }
 
-        easeFactor = easeFactor + (0.1 - (5 - quality) * (0.08 + (5 - quality) * 0.02));
+    /**
+     * Reschedules every card in the batch, all owned by {@code user}, as if card {@code i}
+     * was answered with {@code qualities[i]} at {@code reviewedAt} (epoch seconds, see
+     * {@link ScheduleBatch}).
+     */
+    public void updateSchedules(ScheduleBatch batch, int[] qualities, long reviewedAt, User user) {
+        updateSchedules(batch, qualities, reviewedAt, user.getId(), user.getSchedulingAlgorithm());
+    }
 
-        if (easeFactor < 1.3) {
-            easeFactor = 1.3;
+    /** {@link #updateSchedules} for a user known only by id and chosen algorithm. */
+    public void updateSchedules(ScheduleBatch batch, int[] qualities, long reviewedAt, Long userId,
+                                SchedulingAlgorithmType algorithm) {
+        for (int i = 0; i < batch.size(); i++) {
+            if (qualities[i] < 0 || qualities[i] > 5) {
+                throw new IllegalArgumentException("Quality must be between 0 and 5");
+            }
+        }
+        algorithm(algorithm).schedule(batch, qualities, reviewedAt, userId);
+
+        if (loadBalancer.isEnabled()) {
+            LocalDateTime reviewedAtTime = SchedulingKernel.toDateTime(reviewedAt);
+            for (int i = 0; i < batch.size(); i++) {
+                int interval = loadBalancer.balance(userId, batch.cardId(i), batch.interval(i), reviewedAtTime);
+                if (interval != batch.interval(i)) {
+                    SchedulingKernel.setInterval(batch, i, interval);
+                }
+            }
         }
+    }
+
+    /**
+     * {@link #updateSchedules} without validation or load balancing (which reads the user's
+     * live due counts), for what-if runs such as
+     * {@link com.anki.simple.review.scheduling.WorkloadSimulator} and for replaying history.
+     */
+    public void simulateSchedules(ScheduleBatch batch, int[] qualities, long reviewedAt, User user) {
+        algorithm(user.getSchedulingAlgorithm()).schedule(batch, qualities, reviewedAt, user.getId());
+    }
 
-        card.setEaseFactor(easeFactor);
-        card.setRepetitions(repetitions);
-        card.setIntervalDays(interval);
-        card.setLastReviewed(LocalDateTime.now());
-        card.setNextReview(LocalDateTime.now().plusDays(interval));
+    private SchedulingAlgorithm algorithm(SchedulingAlgorithmType type) {
+        SchedulingAlgorithm algorithm = type != null ? algorithms.get(type) : null;
+        return algorithm != null ? algorithm : algorithms.get(SchedulingAlgorithmType.SM2);
     }
 }
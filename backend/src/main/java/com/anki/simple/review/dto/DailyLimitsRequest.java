@@ -0,0 +1,20 @@
+package com.anki.simple.review.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class DailyLimitsRequest {
+    /** Cards seen for the first time per day. */
+    @NotNull
+    @Min(0)
+    @Max(1000)
+    private Integer newCardsPerDay;
+    /** Reviews of already learned cards per day. */
+    @NotNull
+    @Min(0)
+    @Max(10000)
+    private Integer reviewsPerDay;
+}
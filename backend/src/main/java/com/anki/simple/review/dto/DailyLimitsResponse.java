@@ -0,0 +1,17 @@
+package com.anki.simple.review.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyLimitsResponse {
+    private int newCardsPerDay;
+    private int reviewsPerDay;
+    /** New cards learned today. */
+    private int newCardsToday;
+    /** Reviews of learned cards done today. */
+    private int reviewsToday;
+}
@@ -0,0 +1,22 @@
+package com.anki.simple.review.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class OfflineReview {
+    @NotNull
+    private Long cardId;
+
+    @NotNull
+    @Min(0)
+    @Max(5)
+    private Integer quality;
+
+    @NotNull
+    private LocalDateTime reviewedAt;
+}
@@ -0,0 +1,22 @@
+package com.anki.simple.review.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class RescheduleRequest {
+    @NotEmpty
+    @Size(max = 10000)
+    private List<@NotNull Long> cardIds;
+
+    @NotNull
+    @Min(0)
+    @Max(5)
+    private Integer quality;
+}
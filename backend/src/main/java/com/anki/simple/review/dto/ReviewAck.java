@@ -0,0 +1,16 @@
+package com.anki.simple.review.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewAck {
+    private Long cardId;
+    private LocalDateTime nextReview;
+    private Integer intervalDays;
+}
@@ -0,0 +1,16 @@
+package com.anki.simple.review.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ReviewAnswersRequest {
+    @NotEmpty
+    @Size(max = 100)
+    private List<@Valid @NotNull ReviewRequest> answers;
+}
@@ -0,0 +1,24 @@
+package com.anki.simple.review.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewBatchResponse {
+    /** Number of reviews applied. */
+    private int applied;
+    /** Final schedule of every reviewed card. */
+    private List<ReviewAck> cards;
+    /** Cards that no longer exist (or are not the user's); their reviews were dropped. */
+    private List<Long> skippedCardIds;
+    /**
+     * Reviews dated before their card's last review (e.g. it was reviewed online meanwhile),
+     * recorded in the history without rescheduling the card; included in {@code applied}.
+     */
+    private int historyOnly;
+}
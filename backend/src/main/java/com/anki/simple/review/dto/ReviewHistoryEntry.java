@@ -0,0 +1,18 @@
+package com.anki.simple.review.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewHistoryEntry {
+    private Long id;
+    private LocalDateTime reviewedAt;
+    private Integer quality;
+    private Double easeFactor;
+    private Integer intervalDays;
+}
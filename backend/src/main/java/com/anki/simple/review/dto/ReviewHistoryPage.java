@@ -0,0 +1,17 @@
+package com.anki.simple.review.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewHistoryPage {
+    /** Reviews of the card, newest first. */
+    private List<ReviewHistoryEntry> reviews;
+    /** Pass as {@code cursor} to get the next, older page; null on the last page. */
+    private String nextCursor;
+}
@@ -0,0 +1,13 @@
+package com.anki.simple.review.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+
+@Data
+public class ReviewSessionRequest {
+    /** Cards kept handed out ahead of the answers; defaults to 20. */
+    @Min(1)
+    @Max(100)
+    private Integer prefetch;
+}
@@ -0,0 +1,22 @@
+package com.anki.simple.review.dto;
+
+import com.anki.simple.vocabulary.dto.VocabularyCardResponse;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewSessionResponse {
+    private UUID sessionId;
+    /** Answers accepted by this request; empty when the session is created. */
+    private List<ReviewAck> accepted;
+    /** Cards of the session still to be answered, including those already handed out. */
+    private int remaining;
+    /** Next cards to review, in order; never repeats a card handed out earlier. */
+    private List<VocabularyCardResponse> cards;
+}
@@ -0,0 +1,11 @@
+package com.anki.simple.review.dto;
+
+import com.anki.simple.review.scheduling.SchedulingAlgorithmType;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class SchedulingSettingsRequest {
+    @NotNull
+    private SchedulingAlgorithmType algorithm;
+}
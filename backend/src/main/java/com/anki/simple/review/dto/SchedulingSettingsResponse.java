@@ -0,0 +1,21 @@
+package com.anki.simple.review.dto;
+
+import com.anki.simple.review.scheduling.SchedulingAlgorithmType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SchedulingSettingsResponse {
+    private SchedulingAlgorithmType algorithm;
+    /** FSRS weights in use: fitted ones, or the defaults until a fit exists. */
+    private List<Double> fsrsWeights;
+    /** Null until the optimizer has fitted weights for the user. */
+    private LocalDateTime fsrsFittedAt;
+    private Integer fsrsReviewCount;
+}
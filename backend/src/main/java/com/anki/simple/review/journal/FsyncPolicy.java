@@ -0,0 +1,14 @@
+package com.anki.simple.review.journal;
+
+/**
+ * When journal appends are forced to disk. Writes to the mapped file survive a crash of the
+ * process in every mode; the policy decides how much an OS crash or power loss can lose.
+ */
+public enum FsyncPolicy {
+    /** Force every append before the review is acknowledged. */
+    ALWAYS,
+    /** Force on every flusher run. */
+    INTERVAL,
+    /** Leave it to the OS. */
+    NEVER
+}
@@ -0,0 +1,18 @@
+package com.anki.simple.review.journal;
+
+import java.time.LocalDateTime;
+
+/**
+ * One review in the journal: the card's schedule after the review plus the history row.
+ * {@code stability} and {@code difficulty} are the FSRS state, null for SM-2 cards.
+ */
+public record JournalEntry(long sequence, long cardId, long userId, LocalDateTime reviewedAt, int quality,
+                           double easeFactor, int intervalDays, int repetitions,
+                           LocalDateTime lastReviewed, LocalDateTime nextReview,
+                           Double stability, Double difficulty) {
+
+    JournalEntry withSequence(long sequence) {
+        return new JournalEntry(sequence, cardId, userId, reviewedAt, quality,
+                easeFactor, intervalDays, repetitions, lastReviewed, nextReview, stability, difficulty);
+    }
+}
@@ -0,0 +1,212 @@
+package com.anki.simple.review.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal of {@link JournalEntry}s in a memory-mapped file of fixed capacity.
+ * <p>
+ * Layout: a 16-byte header (magic, version, record size), then fixed-size records of
+ * {@code crc32c | sequence | payload}. Sequences are consecutive; reading stops at the first
+ * record whose checksum or sequence does not match, which is where a torn write or the
+ * zeroed space after a {@link #reset()} begins.
+ * <p>
+ * Thread-safe; appends are serialized.
+ */
+final class ReviewJournal implements Closeable {
+
+    static final int HEADER_SIZE = 16;
+    static final int RECORD_SIZE = 88;
+
+    private static final int MAGIC = 0x524A524E;
+    private static final int VERSION = 2;
+    private static final long MICROS_PER_SECOND = 1_000_000L;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final FsyncPolicy fsyncPolicy;
+    private int writePosition;
+    private long lastSequence;
+
+    private ReviewJournal(FileChannel channel, MappedByteBuffer buffer, FsyncPolicy fsyncPolicy) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.fsyncPolicy = fsyncPolicy;
+    }
+
+    /**
+     * Opens or creates the journal, positioned after its last valid record. Sequences continue
+     * after both that record and {@code minSequence}.
+     */
+    static ReviewJournal open(Path path, int capacity, FsyncPolicy fsyncPolicy, long minSequence) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        int size = (int) Math.max(channel.size(), HEADER_SIZE + (long) RECORD_SIZE * ((capacity - HEADER_SIZE) / RECORD_SIZE));
+        ReviewJournal journal = new ReviewJournal(channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size), fsyncPolicy);
+
+        if (journal.buffer.getInt(0) != MAGIC) {
+            journal.buffer.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, RECORD_SIZE);
+            journal.buffer.force(0, HEADER_SIZE);
+        } else if (journal.buffer.getInt(4) != VERSION || journal.buffer.getInt(8) != RECORD_SIZE) {
+            if (!journal.isFlushed(journal.buffer.getInt(8), minSequence)) {
+                channel.close();
+                throw new IOException("Review journal " + path + " has unflushed entries in an older format");
+            }
+            // Everything in the older format reached the database: start over in the current one
+            journal.buffer.put(HEADER_SIZE, new byte[journal.buffer.capacity() - HEADER_SIZE]);
+            journal.buffer.putInt(4, VERSION).putInt(8, RECORD_SIZE);
+            journal.buffer.force();
+        }
+        List<JournalEntry> entries = journal.readAll();
+        journal.writePosition = HEADER_SIZE + entries.size() * RECORD_SIZE;
+        journal.lastSequence = Math.max(entries.isEmpty() ? 0 : entries.getLast().sequence(), minSequence);
+        return journal;
+    }
+
+    /**
+     * Appends the entry under the next sequence.
+     *
+     * @return the entry as stored, or null if the journal is full
+     */
+    synchronized JournalEntry append(JournalEntry entry) {
+        if (writePosition + RECORD_SIZE > buffer.capacity()) {
+            return null;
+        }
+        JournalEntry stored = entry.withSequence(lastSequence + 1);
+        ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+        record.putInt(0)
+                .putLong(stored.sequence())
+                .putLong(stored.cardId())
+                .putLong(stored.userId())
+                .putLong(micros(stored.reviewedAt()))
+                .putInt(stored.quality())
+                .putDouble(stored.easeFactor())
+                .putInt(stored.intervalDays())
+                .putInt(stored.repetitions())
+                .putLong(micros(stored.lastReviewed()))
+                .putLong(micros(stored.nextReview()))
+                .putDouble(orNaN(stored.stability()))
+                .putDouble(orNaN(stored.difficulty()));
+        record.putInt(0, checksum(record.array()));
+        buffer.put(writePosition, record.array());
+        if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+            buffer.force(writePosition, RECORD_SIZE);
+        }
+        writePosition += RECORD_SIZE;
+        lastSequence = stored.sequence();
+        return stored;
+    }
+
+    /** Whether {@code entries} more records fit before the journal is full. */
+    synchronized boolean hasRoom(int entries) {
+        return writePosition + (long) entries * RECORD_SIZE <= buffer.capacity();
+    }
+
+    /** Every valid entry in the file, in sequence order. */
+    synchronized List<JournalEntry> readAll() {
+        List<JournalEntry> entries = new ArrayList<>();
+        byte[] record = new byte[RECORD_SIZE];
+        for (int position = HEADER_SIZE; position + RECORD_SIZE <= buffer.capacity(); position += RECORD_SIZE) {
+            buffer.get(position, record);
+            ByteBuffer in = ByteBuffer.wrap(record);
+            if (in.getInt() != checksum(record)) {
+                break;
+            }
+            long sequence = in.getLong();
+            if (!entries.isEmpty() && sequence != entries.getLast().sequence() + 1) {
+                break;
+            }
+            entries.add(new JournalEntry(sequence, in.getLong(), in.getLong(), time(in.getLong()), in.getInt(),
+                    in.getDouble(), in.getInt(), in.getInt(), time(in.getLong()), time(in.getLong()),
+                    orNull(in.getDouble()), orNull(in.getDouble())));
+        }
+        return entries;
+    }
+
+    /** Discards every record; the caller must have flushed them. Sequences keep increasing. */
+    synchronized void reset() {
+        byte[] zeros = new byte[RECORD_SIZE];
+        for (int position = HEADER_SIZE; position < writePosition; position += RECORD_SIZE) {
+            buffer.put(position, zeros);
+        }
+        buffer.force(HEADER_SIZE, writePosition - HEADER_SIZE);
+        writePosition = HEADER_SIZE;
+    }
+
+    synchronized long lastSequence() {
+        return lastSequence;
+    }
+
+    synchronized boolean isEmpty() {
+        return writePosition == HEADER_SIZE;
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    /**
+     * Whether no record of size {@code recordSize} has a sequence past {@code minSequence}.
+     * Every format starts its records with {@code crc32c | sequence}.
+     */
+    private boolean isFlushed(int recordSize, long minSequence) {
+        if (recordSize <= Integer.BYTES + Long.BYTES) {
+            return false;
+        }
+        byte[] record = new byte[recordSize];
+        for (int position = HEADER_SIZE; position + recordSize <= buffer.capacity(); position += recordSize) {
+            buffer.get(position, record);
+            ByteBuffer in = ByteBuffer.wrap(record);
+            if (in.getInt() != checksum(record)) {
+                return true;
+            }
+            if (in.getLong() > minSequence) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int checksum(byte[] record) {
+        CRC32C crc = new CRC32C();
+        crc.update(record, Integer.BYTES, record.length - Integer.BYTES);
+        return (int) crc.getValue();
+    }
+
+    private static long micros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * MICROS_PER_SECOND + time.getNano() / 1_000;
+    }
+
+    private static double orNaN(Double value) {
+        return value != null ? value : Double.NaN;
+    }
+
+    private static Double orNull(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+
+    private static LocalDateTime time(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, MICROS_PER_SECOND),
+                (int) Math.floorMod(micros, MICROS_PER_SECOND) * 1_000, ZoneOffset.UTC);
+    }
+}
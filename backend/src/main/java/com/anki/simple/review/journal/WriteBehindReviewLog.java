@@ -0,0 +1,335 @@
+package com.anki.simple.review.journal;
+
+import com.anki.simple.vocabulary.DeckChangedEvent;
+import com.anki.simple.vocabulary.VocabularyCard;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Optional write-behind mode for reviews ({@code review.journal.enabled}).
+ * <p>
+ * Instead of writing review history and the card's new schedule in the request transaction,
+ * the review is appended to a local {@link ReviewJournal} and acknowledged; the new schedule
+ * is kept as an in-memory overlay so later reviews of the same card build on it. A
+ * background flusher writes journal entries to the database in JDBC batches, together with
+ * this journal's checkpoint, so on startup exactly the entries after the checkpoint are
+ * replayed. Until an entry is flushed, database reads of the card (listings, due cards)
+ * still show its previous schedule.
+ * <p>
+ * Reviews are journaled only if nothing changed their cards since they were
+ * {@linkplain #prepare prepared}: no other review was journaled for the card, and for a card
+ * without pending entries the row still has the version read. Otherwise nothing is appended
+ * and the caller retries, like a version conflict on a direct write.
+ */
+@Component
+public class WriteBehindReviewLog implements SmartInitializingSingleton {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_HISTORY =
+            "INSERT INTO review_history (card_id, reviewed_at, quality, ease_factor, interval_days) "
+                    + "SELECT ?, ?, ?, ?, ? WHERE EXISTS (SELECT 1 FROM vocabulary_cards WHERE id = ?)";
+    private static final String UPDATE_SCHEDULE =
+            "UPDATE vocabulary_cards SET ease_factor = ?, interval_days = ?, repetitions = ?, last_reviewed = ?, "
+                    + "next_review = ?, stability = ?, difficulty = ?, version = version + 1 WHERE id = ?";
+    private static final String SELECT_VERSIONS = "SELECT id, version FROM vocabulary_cards WHERE id IN (%s)";
+    private static final String SELECT_CHECKPOINT =
+            "SELECT sequence FROM review_journal_checkpoint WHERE journal_id = ?";
+    private static final String UPDATE_CHECKPOINT =
+            "UPDATE review_journal_checkpoint SET sequence = ? WHERE journal_id = ?";
+    private static final String INSERT_CHECKPOINT =
+            "INSERT INTO review_journal_checkpoint (journal_id, sequence) VALUES (?, ?)";
+
+    private final boolean enabled;
+    private final String journalId;
+    private final Path path;
+    private final int capacity;
+    private final FsyncPolicy fsyncPolicy;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager em;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final List<JournalEntry> unflushed = new ArrayList<>();
+    private final Map<Long, JournalEntry> overlay = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    /** Completed flushes; a card's row may have changed under a prepared card when this moves. */
+    private final AtomicLong flushes = new AtomicLong();
+    private ReviewJournal journal;
+
+    public WriteBehindReviewLog(
+            @Value("${review.journal.enabled:false}") boolean enabled,
+            @Value("${review.journal.id:default}") String journalId,
+            @Value("${review.journal.path:data/review.journal}") Path path,
+            @Value("${review.journal.capacity:64MB}") DataSize capacity,
+            @Value("${review.journal.fsync:INTERVAL}") FsyncPolicy fsyncPolicy,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            EntityManager em,
+            ApplicationEventPublisher eventPublisher) {
+        this.enabled = enabled;
+        this.journalId = journalId;
+        this.path = path;
+        this.capacity = Math.toIntExact(capacity.toBytes());
+        this.fsyncPolicy = fsyncPolicy;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // A flush forced by a full journal runs inside a review's transaction; keep them apart
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.em = em;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Opens the journal and replays entries the database has not seen yet. Runs once the
+     * schema is migrated and before the web server accepts requests.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+        long checkpoint = readCheckpoint();
+        try {
+            journal = ReviewJournal.open(path, capacity, fsyncPolicy, checkpoint);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open review journal " + path, e);
+        }
+        for (JournalEntry entry : journal.readAll()) {
+            if (entry.sequence() > checkpoint) {
+                unflushed.add(entry);
+                overlay.put(entry.cardId(), entry);
+            }
+        }
+        flush();
+        if (unflushed.isEmpty() && !journal.isEmpty()) {
+            journal.reset();
+        }
+    }
+
+    /**
+     * Makes a loaded card reflect reviews not yet flushed, and stops Hibernate from writing
+     * it: the journal does. The result is passed back to {@link #append} to detect reviews
+     * that got in between.
+     */
+    public Prepared prepare(VocabularyCard card) {
+        if (em.contains(card)) {
+            em.unwrap(Session.class).setReadOnly(card, true);
+        }
+        JournalEntry pending = overlay.get(card.getId());
+        if (pending != null) {
+            card.setEaseFactor(pending.easeFactor());
+            card.setIntervalDays(pending.intervalDays());
+            card.setRepetitions(pending.repetitions());
+            card.setLastReviewed(pending.lastReviewed());
+            card.setNextReview(pending.nextReview());
+            card.setStability(pending.stability());
+            card.setDifficulty(pending.difficulty());
+        }
+        return new Prepared(card.getId(), card.getVersion(), pending);
+    }
+
+    /** A review of {@code card}, whose schedule has already been updated, to {@link #append}. */
+    public JournalEntry entry(VocabularyCard card, Long userId, int quality, LocalDateTime reviewedAt) {
+        return new JournalEntry(0, card.getId(), userId, reviewedAt, quality,
+                card.getEaseFactor(), card.getIntervalDays(), card.getRepetitions(),
+                card.getLastReviewed(), card.getNextReview(), card.getStability(), card.getDifficulty());
+    }
+
+    /**
+     * Journals the reviews of the prepared cards, each card's in review order, all or none.
+     *
+     * @throws ObjectOptimisticLockingFailureException if one of the cards changed since it was
+     *                                                 prepared; nothing was appended
+     */
+    public void append(Collection<Prepared> cards, List<JournalEntry> entries) {
+        for (boolean flushed = false; ; flushed = true) {
+            long flushCount = flushes.get();
+            checkVersions(cards);
+            synchronized (unflushed) {
+                for (Prepared card : cards) {
+                    if (overlay.get(card.cardId()) != card.pending()
+                            || (card.pending() == null && flushes.get() != flushCount)) {
+                        throw new ObjectOptimisticLockingFailureException(VocabularyCard.class, card.cardId());
+                    }
+                }
+                if (journal.hasRoom(entries.size())) {
+                    for (JournalEntry entry : entries) {
+                        JournalEntry stored = journal.append(entry);
+                        unflushed.add(stored);
+                        overlay.put(stored.cardId(), stored);
+                    }
+                    return;
+                }
+            }
+            if (flushed) {
+                throw new IllegalStateException("Review journal is full");
+            }
+            // Journal full: write everything out, start over, and check the cards again
+            flushAndReset();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${review.journal.flush-interval:PT0.2S}")
+    public void flush() {
+        if (!enabled || journal == null) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            List<JournalEntry> batch;
+            synchronized (unflushed) {
+                batch = new ArrayList<>(unflushed);
+            }
+            if (fsyncPolicy == FsyncPolicy.INTERVAL) {
+                journal.force();
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            write(batch);
+            synchronized (unflushed) {
+                unflushed.subList(0, batch.size()).clear();
+                for (JournalEntry entry : batch) {
+                    overlay.remove(entry.cardId(), entry);
+                }
+                flushes.incrementAndGet();
+            }
+            publishChanges(batch);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    public int pendingCount() {
+        synchronized (unflushed) {
+            return unflushed.size();
+        }
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        if (journal != null) {
+            flush();
+            journal.close();
+        }
+    }
+
+    private void flushAndReset() {
+        flushLock.lock();
+        try {
+            flush();
+            synchronized (unflushed) {
+                if (unflushed.isEmpty()) {
+                    journal.reset();
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void write(List<JournalEntry> batch) {
+        // Only the last entry per card matters for the card row
+        Map<Long, JournalEntry> latest = new LinkedHashMap<>();
+        for (JournalEntry entry : batch) {
+            latest.put(entry.cardId(), entry);
+        }
+        long checkpoint = batch.getLast().sequence();
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_HISTORY, batch, BATCH_SIZE, (ps, entry) -> {
+                ps.setLong(1, entry.cardId());
+                ps.setTimestamp(2, Timestamp.valueOf(entry.reviewedAt()));
+                ps.setInt(3, entry.quality());
+                ps.setDouble(4, entry.easeFactor());
+                ps.setInt(5, entry.intervalDays());
+                ps.setLong(6, entry.cardId());
+            });
+            jdbcTemplate.batchUpdate(UPDATE_SCHEDULE, latest.values(), BATCH_SIZE, (ps, entry) -> {
+                ps.setDouble(1, entry.easeFactor());
+                ps.setInt(2, entry.intervalDays());
+                ps.setInt(3, entry.repetitions());
+                ps.setTimestamp(4, Timestamp.valueOf(entry.lastReviewed()));
+                ps.setTimestamp(5, Timestamp.valueOf(entry.nextReview()));
+                ps.setObject(6, entry.stability(), Types.DOUBLE);
+                ps.setObject(7, entry.difficulty(), Types.DOUBLE);
+                ps.setLong(8, entry.cardId());
+            });
+            if (jdbcTemplate.update(UPDATE_CHECKPOINT, checkpoint, journalId) == 0) {
+                jdbcTemplate.update(INSERT_CHECKPOINT, journalId, checkpoint);
+            }
+        });
+    }
+
+    /** Checks that cards without pending entries still have the version they were read at. */
+    private void checkVersions(Collection<Prepared> cards) {
+        Map<Long, Long> versions = new HashMap<>();
+        for (Prepared card : cards) {
+            if (card.pending() == null) {
+                versions.put(card.cardId(), card.version());
+            }
+        }
+        if (versions.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.query(SELECT_VERSIONS.formatted(String.join(", ", Collections.nCopies(versions.size(), "?"))),
+                rs -> {
+                    long cardId = rs.getLong("id");
+                    if (rs.getLong("version") != versions.get(cardId)) {
+                        throw new ObjectOptimisticLockingFailureException(VocabularyCard.class, cardId);
+                    }
+                }, versions.keySet().toArray());
+    }
+
+    private long readCheckpoint() {
+        List<Long> sequence = jdbcTemplate.queryForList(SELECT_CHECKPOINT, Long.class, journalId);
+        return sequence.isEmpty() ? 0 : sequence.getFirst();
+    }
+
+    private void publishChanges(List<JournalEntry> batch) {
+        Map<Long, Set<Long>> cardsByUser = new LinkedHashMap<>();
+        for (JournalEntry entry : batch) {
+            cardsByUser.computeIfAbsent(entry.userId(), id -> new HashSet<>()).add(entry.cardId());
+        }
+        cardsByUser.forEach((userId, cardIds) -> eventPublisher.publishEvent(new DeckChangedEvent(userId, cardIds)));
+    }
+
+    /** A card brought up to its pending entry ({@code null} if none) and the version it was read at. */
+    public record Prepared(long cardId, long version, JournalEntry pending) {
+    }
+}
@@ -0,0 +1,78 @@
+package com.anki.simple.review.scheduling;
+
+/**
+ * The FSRS-4.5 memory model: a card's stability (days until recall probability drops to
+ * 90%) and difficulty (1-10) evolve with each review according to 17 weights.
+ * Shared by {@link FsrsAlgorithm} and {@link FsrsOptimizer}.
+ * <p>
+ * Ratings are FSRS's 1 (again), 2 (hard), 3 (good) and 4 (easy); {@link #rating(int)} maps
+ * this app's 0-5 qualities onto them.
+ */
+final class Fsrs {
+
+    static final int WEIGHT_COUNT = 17;
+
+    static final double[] DEFAULT_WEIGHTS = {
+            0.4872, 1.4003, 3.7145, 13.8206, 5.1618, 1.2298, 0.8975, 0.031, 1.6474,
+            0.1367, 1.0461, 2.1072, 0.0793, 0.3246, 1.587, 0.2272, 2.8755};
+
+    /** Bounds kept while fitting, so fitted weights never produce degenerate schedules. */
+    static final double[] MIN_WEIGHTS = {
+            0.1, 0.1, 0.1, 0.1, 1, 0.001, 0.001, 0.001, 0, 0, 0.001, 0.001, 0.001, 0.001, 0, 0, 1};
+    static final double[] MAX_WEIGHTS = {
+            100, 100, 100, 100, 10, 4, 4, 0.75, 4.5, 0.8, 3.5, 5, 0.25, 0.9, 4, 1, 6};
+
+    private static final double DECAY = -0.5;
+    private static final double FACTOR = 19.0 / 81;
+    private static final double MIN_STABILITY = 0.01;
+
+    private Fsrs() {
+    }
+
+    /** Qualities 0-2 are a lapse; 3, 4 and 5 are hard, good and easy. */
+    static int rating(int quality) {
+        return quality < 3 ? 1 : quality - 1;
+    }
+
+    static double initialStability(double[] w, int rating) {
+        return Math.max(w[rating - 1], MIN_STABILITY);
+    }
+
+    static double initialDifficulty(double[] w, int rating) {
+        return clampDifficulty(w[4] - (rating - 3) * w[5]);
+    }
+
+    /** Probability of recalling a card with {@code stability} after {@code elapsedDays}. */
+    static double retrievability(double elapsedDays, double stability) {
+        return Math.pow(1 + FACTOR * elapsedDays / stability, DECAY);
+    }
+
+    static double nextDifficulty(double[] w, double difficulty, int rating) {
+        double next = difficulty - w[6] * (rating - 3);
+        // Mean reversion towards the difficulty of a card first rated good
+        return clampDifficulty(w[7] * initialDifficulty(w, 3) + (1 - w[7]) * next);
+    }
+
+    /** Stability after a review at retrievability {@code r}, from the state before it. */
+    static double nextStability(double[] w, double difficulty, double stability, double r, int rating) {
+        if (rating == 1) {
+            double forgotten = w[11] * Math.pow(difficulty, -w[12]) * (Math.pow(stability + 1, w[13]) - 1)
+                    * Math.exp(w[14] * (1 - r));
+            return Math.max(Math.min(forgotten, stability), MIN_STABILITY);
+        }
+        double hardPenalty = rating == 2 ? w[15] : 1;
+        double easyBonus = rating == 4 ? w[16] : 1;
+        double growth = Math.exp(w[8]) * (11 - difficulty) * Math.pow(stability, -w[9])
+                * (Math.exp(w[10] * (1 - r)) - 1) * hardPenalty * easyBonus;
+        return Math.max(stability * (growth + 1), MIN_STABILITY);
+    }
+
+    /** Days until recall probability falls to {@code desiredRetention}. */
+    static double interval(double stability, double desiredRetention) {
+        return stability / FACTOR * (Math.pow(desiredRetention, 1 / DECAY) - 1);
+    }
+
+    private static double clampDifficulty(double difficulty) {
+        return Math.min(Math.max(difficulty, 1), 10);
+    }
+}
@@ -0,0 +1,61 @@
+package com.anki.simple.review.scheduling;
+
+import com.anki.simple.vocabulary.VocabularyCard;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * FSRS scheduling with the owner's fitted weights (see {@link FsrsOptimizer}), or the
+ * published defaults until enough history exists. A card switching over from SM-2 starts
+ * from its current interval as stability and an average difficulty.
+ */
+@Component
+public class FsrsAlgorithm implements SchedulingAlgorithm {
+
+    private final FsrsParametersStore parametersStore;
+    private final double desiredRetention;
+    private final int maximumInterval;
+
+    public FsrsAlgorithm(
+            FsrsParametersStore parametersStore,
+            @Value("${review.fsrs.desired-retention:0.9}") double desiredRetention,
+            @Value("${review.fsrs.maximum-interval:36500}") int maximumInterval) {
+        this.parametersStore = parametersStore;
+        this.desiredRetention = desiredRetention;
+        this.maximumInterval = maximumInterval;
+    }
+
+    @Override
+    public SchedulingAlgorithmType type() {
+        return SchedulingAlgorithmType.FSRS;
+    }
+
+    @Override
+    public void schedule(VocabularyCard card, int quality, LocalDateTime reviewedAt) {
+        double[] w = parametersStore.weights(card.getUser() != null ? card.getUser().getId() : null);
+        int rating = Fsrs.rating(quality);
+        boolean firstReview = card.getLastReviewed() == null;
+        double elapsedDays = firstReview ? 0 : SchedulingKernel.elapsedDays(
+                SchedulingKernel.toSeconds(card.getLastReviewed()), SchedulingKernel.toSeconds(reviewedAt));
+        double previousStability = card.getStability() != null ? card.getStability() : Double.NaN;
+        double previousDifficulty = card.getDifficulty() != null ? card.getDifficulty() : Double.NaN;
+
+        double stability = SchedulingKernel.fsrsStability(w, rating, elapsedDays, firstReview,
+                previousStability, previousDifficulty, card.getIntervalDays());
+        int interval = SchedulingKernel.fsrsInterval(stability, desiredRetention, maximumInterval);
+        card.setStability(stability);
+        card.setDifficulty(SchedulingKernel.fsrsDifficulty(w, rating, firstReview, previousDifficulty));
+        card.setRepetitions(rating == 1 ? 0 : card.getRepetitions() + 1);
+        card.setIntervalDays(interval);
+        card.setLastReviewed(reviewedAt);
+        card.setNextReview(reviewedAt.plusDays(interval));
+    }
+
+    @Override
+    public void schedule(ScheduleBatch batch, int[] qualities, long reviewedAt, Long userId) {
+        SchedulingKernel.fsrs(batch, qualities, reviewedAt, parametersStore.weights(userId),
+                desiredRetention, maximumInterval);
+    }
+}
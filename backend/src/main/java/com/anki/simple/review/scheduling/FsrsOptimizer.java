@@ -0,0 +1,201 @@
+package com.anki.simple.review.scheduling;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fits each FSRS user's weights to their review history by minimizing the log loss of the
+ * predicted recall probabilities (Adam on finite-difference gradients, within
+ * {@link Fsrs#MIN_WEIGHTS}/{@link Fsrs#MAX_WEIGHTS}).
+ * <p>
+ * {@link #optimizeAll()} runs nightly on {@code review.fsrs.optimizer.cron}: users are spread
+ * over a dedicated fork-join pool of {@code review.fsrs.optimizer.parallelism} threads
+ * (default: one per core), and each user's history is streamed from the database with a
+ * forward-only cursor into a compact {@link ReviewSet}. Users with fewer than
+ * {@code review.fsrs.optimizer.min-reviews} reviews keep the default weights, and a fit is
+ * only stored if it beats the weights the user has.
+ */
+@Component
+public class FsrsOptimizer {
+
+    private static final Logger log = LoggerFactory.getLogger(FsrsOptimizer.class);
+    private static final int FETCH_SIZE = 1000;
+    private static final double LEARNING_RATE = 0.02;
+    private static final double MILLIS_PER_DAY = Duration.ofDays(1).toMillis();
+
+    private static final String SELECT_FSRS_USERS = "SELECT id FROM users WHERE scheduling_algorithm = 'FSRS'";
+    private static final String SELECT_HISTORY =
+            "SELECT h.card_id, h.reviewed_at, h.quality FROM review_history h "
+                    + "JOIN vocabulary_cards c ON c.id = h.card_id WHERE c.user_id = ? "
+                    + "ORDER BY h.card_id, h.reviewed_at";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final FsrsParametersStore parametersStore;
+    private final boolean enabled;
+    private final int parallelism;
+    private final int minReviews;
+    private final int iterations;
+
+    public FsrsOptimizer(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            FsrsParametersStore parametersStore,
+            @Value("${review.fsrs.optimizer.enabled:true}") boolean enabled,
+            @Value("${review.fsrs.optimizer.parallelism:0}") int parallelism,
+            @Value("${review.fsrs.optimizer.min-reviews:400}") int minReviews,
+            @Value("${review.fsrs.optimizer.iterations:100}") int iterations) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        // PostgreSQL only honours the fetch size inside a transaction
+        this.readOnlyTransaction.setReadOnly(true);
+        this.parametersStore = parametersStore;
+        this.enabled = enabled;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.minReviews = minReviews;
+        this.iterations = iterations;
+    }
+
+    @Scheduled(cron = "${review.fsrs.optimizer.cron:0 30 3 * * *}")
+    public void scheduledOptimizeAll() {
+        if (enabled) {
+            optimizeAll();
+        }
+    }
+
+    /** Re-fits every FSRS user; returns how many got new weights. */
+    public int optimizeAll() {
+        List<Long> userIds = jdbcTemplate.queryForList(SELECT_FSRS_USERS, Long.class);
+        AtomicInteger fitted = new AtomicInteger();
+        long started = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.submit(() -> userIds.parallelStream().forEach(userId -> {
+                try {
+                    if (optimize(userId)) {
+                        fitted.incrementAndGet();
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("FSRS optimization failed for user {}", userId, e);
+                }
+            })).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("FSRS optimization interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("FSRS optimization failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        log.info("Fitted FSRS weights for {} of {} users in {} ms", fitted.get(), userIds.size(),
+                Duration.ofNanos(System.nanoTime() - started).toMillis());
+        return fitted.get();
+    }
+
+    /** Fits one user's weights; returns whether new weights were stored. */
+    public boolean optimize(Long userId) {
+        ReviewSet reviews = loadHistory(userId);
+        if (reviews.reviews() < minReviews || reviews.recallReviews() == 0) {
+            return false;
+        }
+        double[] current = parametersStore.weights(userId);
+        Fit fit = fit(reviews, current, iterations);
+        if (fit.logLoss() >= fit.initialLogLoss()) {
+            return false;
+        }
+        parametersStore.save(userId, new FsrsParametersStore.FsrsParameters(
+                fit.weights(), reviews.reviews(), fit.logLoss(), LocalDateTime.now()));
+        return true;
+    }
+
+    static Fit fit(ReviewSet reviews, double[] initial, int iterations) {
+        int n = initial.length;
+        double[] w = initial.clone();
+        double[] steps = new double[n];
+        for (int i = 0; i < n; i++) {
+            steps[i] = LEARNING_RATE * Math.max(Math.abs(initial[i]), 0.1);
+        }
+        double[] m = new double[n];
+        double[] v = new double[n];
+        double[] gradient = new double[n];
+        double initialLoss = reviews.logLoss(w);
+        double bestLoss = initialLoss;
+        double[] best = w.clone();
+
+        double loss = initialLoss;
+        for (int t = 1; t <= iterations; t++) {
+            for (int i = 0; i < n; i++) {
+                double h = 1e-4 * Math.max(Math.abs(w[i]), 0.1);
+                double saved = w[i];
+                w[i] = saved + h;
+                gradient[i] = (reviews.logLoss(w) - loss) / h;
+                w[i] = saved;
+            }
+            for (int i = 0; i < n; i++) {
+                m[i] = 0.9 * m[i] + 0.1 * gradient[i];
+                v[i] = 0.999 * v[i] + 0.001 * gradient[i] * gradient[i];
+                double mHat = m[i] / (1 - Math.pow(0.9, t));
+                double vHat = v[i] / (1 - Math.pow(0.999, t));
+                w[i] -= steps[i] * mHat / (Math.sqrt(vHat) + 1e-8);
+                w[i] = Math.min(Math.max(w[i], Fsrs.MIN_WEIGHTS[i]), Fsrs.MAX_WEIGHTS[i]);
+            }
+            loss = reviews.logLoss(w);
+            if (loss < bestLoss) {
+                bestLoss = loss;
+                best = w.clone();
+            }
+        }
+        return new Fit(best, bestLoss, initialLoss);
+    }
+
+    private ReviewSet loadHistory(Long userId) {
+        ReviewSet reviews = new ReviewSet();
+        readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_HISTORY,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(FETCH_SIZE);
+            statement.setLong(1, userId);
+            return statement;
+        }, new RowCallbackHandler() {
+            private long cardId = -1;
+            private Timestamp previous;
+
+            @Override
+            public void processRow(ResultSet rs) throws SQLException {
+                long rowCardId = rs.getLong(1);
+                Timestamp reviewedAt = rs.getTimestamp(2);
+                int rating = Fsrs.rating(rs.getInt(3));
+                if (rowCardId != cardId) {
+                    cardId = rowCardId;
+                    reviews.startCard();
+                    reviews.add(0, rating);
+                } else {
+                    reviews.add(Math.max(0, (reviewedAt.getTime() - previous.getTime()) / MILLIS_PER_DAY), rating);
+                }
+                previous = reviewedAt;
+            }
+        }));
+        return reviews;
+    }
+
+    record Fit(double[] weights, double logLoss, double initialLogLoss) {
+    }
+}
@@ -0,0 +1,76 @@
+package com.anki.simple.review.scheduling;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Each user's fitted FSRS weights, cached in memory since every FSRS review needs them.
+ */
+@Component
+public class FsrsParametersStore {
+
+    private static final String SELECT_PARAMETERS =
+            "SELECT weights, review_count, log_loss, fitted_at FROM fsrs_parameters WHERE user_id = ?";
+    private static final String UPDATE_PARAMETERS =
+            "UPDATE fsrs_parameters SET weights = ?, review_count = ?, log_loss = ?, fitted_at = ? WHERE user_id = ?";
+    private static final String INSERT_PARAMETERS =
+            "INSERT INTO fsrs_parameters (weights, review_count, log_loss, fitted_at, user_id) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Cache<Long, double[]> weights;
+
+    public FsrsParametersStore(
+            JdbcTemplate jdbcTemplate,
+            @Value("${review.fsrs.max-cached-users:100000}") long maxUsers) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.weights = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .build();
+    }
+
+    /** The user's fitted weights, or the defaults; never modify the returned array. */
+    public double[] weights(Long userId) {
+        if (userId == null) {
+            return Fsrs.DEFAULT_WEIGHTS;
+        }
+        return weights.get(userId, id -> find(id).map(FsrsParameters::weights).orElse(Fsrs.DEFAULT_WEIGHTS));
+    }
+
+    public Optional<FsrsParameters> find(Long userId) {
+        List<FsrsParameters> rows = jdbcTemplate.query(SELECT_PARAMETERS, (rs, rowNum) -> new FsrsParameters(
+                parse(rs.getString("weights")), rs.getInt("review_count"), rs.getDouble("log_loss"),
+                rs.getTimestamp("fitted_at").toLocalDateTime()), userId);
+        return rows.stream().findFirst();
+    }
+
+    public void save(Long userId, FsrsParameters parameters) {
+        Object[] args = {format(parameters.weights()), parameters.reviewCount(), parameters.logLoss(),
+                Timestamp.valueOf(parameters.fittedAt()), userId};
+        if (jdbcTemplate.update(UPDATE_PARAMETERS, args) == 0) {
+            jdbcTemplate.update(INSERT_PARAMETERS, args);
+        }
+        weights.invalidate(userId);
+    }
+
+    private static String format(double[] weights) {
+        return Arrays.stream(weights).mapToObj(Double::toString).collect(Collectors.joining(","));
+    }
+
+    private static double[] parse(String weights) {
+        double[] parsed = Arrays.stream(weights.split(",")).mapToDouble(Double::parseDouble).toArray();
+        return parsed.length == Fsrs.WEIGHT_COUNT ? parsed : Fsrs.DEFAULT_WEIGHTS;
+    }
+
+    public record FsrsParameters(double[] weights, int reviewCount, double logLoss, LocalDateTime fittedAt) {
+    }
+}
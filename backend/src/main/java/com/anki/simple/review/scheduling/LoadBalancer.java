@@ -0,0 +1,89 @@
+package com.anki.simple.review.scheduling;
+
+import com.anki.simple.vocabulary.DeckCounters;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Spreads reviews over the days around the interval an algorithm computed, so cards learned
+ * together do not stay due together. Within a fuzz window that grows with the interval, a
+ * day is picked with a probability that falls with the square of the cards the user already
+ * has due that day (read from {@link DeckCounters}' per-day histogram) and with the distance
+ * from the computed day. Weighting rather than always taking the emptiest day keeps a batch
+ * of decisions made against the same histogram from piling onto one day.
+ * <p>
+ * The pick is a hash of the card and the review time, so replaying a review gives the same
+ * day. Disabled unless {@code review.load-balancer.enabled}.
+ */
+@Component
+public class LoadBalancer {
+
+    private static final int MAX_FUZZ_DAYS = 30;
+
+    private final DeckCounters deckCounters;
+    private final boolean enabled;
+
+    public LoadBalancer(
+            DeckCounters deckCounters,
+            @Value("${review.load-balancer.enabled:false}") boolean enabled) {
+        this.deckCounters = deckCounters;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** The interval to use instead of {@code interval} days after {@code reviewedAt}. */
+    public int balance(Long userId, long cardId, int interval, LocalDateTime reviewedAt) {
+        int fuzz = fuzzDays(interval);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate first = reviewedAt.toLocalDate().plusDays(interval - fuzz);
+        if (fuzz == 0 || first.isBefore(now.toLocalDate())) {
+            return interval;
+        }
+        long[] due = deckCounters.dueOnDays(userId, now, first, 2 * fuzz + 1);
+        return interval - fuzz + pick(due, fuzz, uniform(cardId, SchedulingKernel.toSeconds(reviewedAt)));
+    }
+
+    /** Days the due date may move either way: none below 3 days, then 15%, 10% and 5%. */
+    static int fuzzDays(int interval) {
+        if (interval < 3) {
+            return 0;
+        }
+        double share = interval < 7 ? 0.15 : interval < 20 ? 0.1 : 0.05;
+        return (int) Math.min(Math.max(Math.round(interval * share), 1), MAX_FUZZ_DAYS);
+    }
+
+    /** Index into {@code due} chosen by {@code u} in [0, 1), weighted towards light days near the centre. */
+    static int pick(long[] due, int centre, double u) {
+        double total = 0;
+        for (int i = 0; i < due.length; i++) {
+            total += weight(due[i], i - centre);
+        }
+        double target = u * total;
+        for (int i = 0; i < due.length; i++) {
+            target -= weight(due[i], i - centre);
+            if (target < 0) {
+                return i;
+            }
+        }
+        return due.length - 1;
+    }
+
+    private static double weight(long due, int offset) {
+        double load = due + 1;
+        return 1 / (load * load * (1 + Math.abs(offset)));
+    }
+
+    private static double uniform(long cardId, long reviewedAt) {
+        long z = cardId * 0x9E3779B97F4A7C15L + reviewedAt;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z ^= z >>> 31;
+        return (z >>> 11) * 0x1.0p-53;
+    }
+}
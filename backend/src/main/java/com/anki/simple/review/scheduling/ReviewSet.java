@@ -0,0 +1,72 @@
+package com.anki.simple.review.scheduling;
+
+import java.util.Arrays;
+
+/**
+ * One user's review history in the compact form the optimizer trains on: for each card,
+ * its reviews in order as a rating and the days elapsed since the previous review.
+ * Built incrementally while streaming rows, so history never exists as entities.
+ */
+final class ReviewSet {
+
+    private int[] cardStarts = new int[16];
+    private float[] elapsedDays = new float[256];
+    private byte[] ratings = new byte[256];
+    private int cards;
+    private int reviews;
+
+    /** Starts a new card; the following {@link #add} calls are its reviews. */
+    void startCard() {
+        if (cards + 1 == cardStarts.length) {
+            cardStarts = Arrays.copyOf(cardStarts, cardStarts.length * 2);
+        }
+        cardStarts[cards++] = reviews;
+        cardStarts[cards] = reviews;
+    }
+
+    void add(double elapsed, int rating) {
+        if (reviews == ratings.length) {
+            elapsedDays = Arrays.copyOf(elapsedDays, reviews * 2);
+            ratings = Arrays.copyOf(ratings, reviews * 2);
+        }
+        elapsedDays[reviews] = (float) elapsed;
+        ratings[reviews++] = (byte) rating;
+        cardStarts[cards] = reviews;
+    }
+
+    int cards() {
+        return cards;
+    }
+
+    int reviews() {
+        return reviews;
+    }
+
+    /** Reviews that test recall, i.e. every review but each card's first. */
+    int recallReviews() {
+        return reviews - cards;
+    }
+
+    /**
+     * Mean log loss of the recall probabilities the weights predict for every review after
+     * a card's first one.
+     */
+    double logLoss(double[] w) {
+        double loss = 0;
+        for (int card = 0; card < cards; card++) {
+            int first = cardStarts[card];
+            int end = cardStarts[card + 1];
+            double stability = Fsrs.initialStability(w, ratings[first]);
+            double difficulty = Fsrs.initialDifficulty(w, ratings[first]);
+            for (int i = first + 1; i < end; i++) {
+                double r = Math.min(Math.max(Fsrs.retrievability(elapsedDays[i], stability), 1e-6), 1 - 1e-6);
+                loss -= ratings[i] > 1 ? Math.log(r) : Math.log(1 - r);
+                double nextStability = Fsrs.nextStability(w, difficulty, stability, r, ratings[i]);
+                difficulty = Fsrs.nextDifficulty(w, difficulty, ratings[i]);
+                stability = nextStability;
+            }
+        }
+        int recallReviews = recallReviews();
+        return recallReviews == 0 ? 0 : loss / recallReviews;
+    }
+}
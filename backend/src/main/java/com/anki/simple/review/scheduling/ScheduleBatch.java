@@ -0,0 +1,102 @@
+package com.anki.simple.review.scheduling;
+
+/**
+ * Schedules of many cards as parallel primitive arrays, for {@link SchedulingKernel}'s batch
+ * loops. Times are seconds since the epoch of the local date-time read as UTC, the
+ * convention the database's {@code TIMESTAMP} columns follow; {@link SchedulingKernel#NEVER}
+ * stands for no time and {@code NaN} for no FSRS state.
+ */
+public final class ScheduleBatch {
+
+    final long[] cardIds;
+    final double[] easeFactors;
+    final int[] intervals;
+    final int[] repetitions;
+    final long[] lastReviewed;
+    final long[] nextReview;
+    final double[] stability;
+    final double[] difficulty;
+    private int size;
+
+    private ScheduleBatch(ScheduleBatch source) {
+        cardIds = source.cardIds.clone();
+        easeFactors = source.easeFactors.clone();
+        intervals = source.intervals.clone();
+        repetitions = source.repetitions.clone();
+        lastReviewed = source.lastReviewed.clone();
+        nextReview = source.nextReview.clone();
+        stability = source.stability.clone();
+        difficulty = source.difficulty.clone();
+        size = source.size;
+    }
+
+    public ScheduleBatch(int capacity) {
+        cardIds = new long[capacity];
+        easeFactors = new double[capacity];
+        intervals = new int[capacity];
+        repetitions = new int[capacity];
+        lastReviewed = new long[capacity];
+        nextReview = new long[capacity];
+        stability = new double[capacity];
+        difficulty = new double[capacity];
+    }
+
+    public void add(long cardId, double easeFactor, int interval, int repetitionCount,
+                    long lastReviewedAt, long nextReviewAt, double stabilityDays, double difficultyLevel) {
+        int i = size++;
+        cardIds[i] = cardId;
+        easeFactors[i] = easeFactor;
+        intervals[i] = interval;
+        repetitions[i] = repetitionCount;
+        lastReviewed[i] = lastReviewedAt;
+        nextReview[i] = nextReviewAt;
+        stability[i] = stabilityDays;
+        difficulty[i] = difficultyLevel;
+    }
+
+    /** An independent copy of this batch, with the same capacity. */
+    ScheduleBatch copy() {
+        return new ScheduleBatch(this);
+    }
+
+    /** Empties the batch for reuse; the capacity stays. */
+    public void clear() {
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long cardId(int i) {
+        return cardIds[i];
+    }
+
+    public double easeFactor(int i) {
+        return easeFactors[i];
+    }
+
+    public int interval(int i) {
+        return intervals[i];
+    }
+
+    public int repetitions(int i) {
+        return repetitions[i];
+    }
+
+    public long lastReviewed(int i) {
+        return lastReviewed[i];
+    }
+
+    public long nextReview(int i) {
+        return nextReview[i];
+    }
+
+    public double stability(int i) {
+        return stability[i];
+    }
+
+    public double difficulty(int i) {
+        return difficulty[i];
+    }
+}
@@ -0,0 +1,26 @@
+package com.anki.simple.review.scheduling;
+
+import com.anki.simple.vocabulary.VocabularyCard;
+
+import java.time.LocalDateTime;
+
+/**
+ * Computes a card's next schedule from a review. Implementations update the card in place:
+ * at least {@code intervalDays}, {@code repetitions}, {@code lastReviewed} and
+ * {@code nextReview}.
+ */
+public interface SchedulingAlgorithm {
+
+    SchedulingAlgorithmType type();
+
+    /**
+     * @param quality the answer's quality, already validated to be 0-5
+     */
+    void schedule(VocabularyCard card, int quality, LocalDateTime reviewedAt);
+
+    /**
+     * Same as {@link #schedule(VocabularyCard, int, LocalDateTime)} for every card of
+     * {@code userId} in the batch, card {@code i} answered with {@code qualities[i]}.
+     */
+    void schedule(ScheduleBatch batch, int[] qualities, long reviewedAt, Long userId);
+}
@@ -0,0 +1,6 @@
+package com.anki.simple.review.scheduling;
+
+public enum SchedulingAlgorithmType {
+    SM2,
+    FSRS
+}
@@ -0,0 +1,118 @@
+package com.anki.simple.review.scheduling;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * SM-2 and FSRS scheduling on primitive state: pure functions of one card's numbers, and
+ * loops applying them across a {@link ScheduleBatch} without allocating. The entity-based
+ * {@link SchedulingAlgorithm}s call the same functions, so a single review and a bulk
+ * reschedule always agree.
+ */
+public final class SchedulingKernel {
+
+    /** Marks an absent time in a batch. */
+    public static final long NEVER = Long.MIN_VALUE;
+
+    private static final long SECONDS_PER_DAY = 86_400;
+
+    private SchedulingKernel() {
+    }
+
+    public static long toSeconds(LocalDateTime time) {
+        return time != null ? time.toEpochSecond(ZoneOffset.UTC) : NEVER;
+    }
+
+    public static LocalDateTime toDateTime(long seconds) {
+        return seconds != NEVER ? LocalDateTime.ofEpochSecond(seconds, 0, ZoneOffset.UTC) : null;
+    }
+
+    static int sm2Repetitions(int repetitions, int quality) {
+        return quality >= 3 ? repetitions + 1 : 0;
+    }
+
+    static int sm2Interval(int interval, int repetitions, double easeFactor, int quality) {
+        if (quality < 3 || repetitions == 0) {
+            return 1;
+        }
+        return repetitions == 1 ? 6 : (int) Math.round(interval * easeFactor);
+    }
+
+    static double sm2EaseFactor(double easeFactor, int quality) {
+        int miss = 5 - quality;
+        return Math.max(easeFactor + (0.1 - miss * (0.08 + miss * 0.02)), 1.3);
+    }
+
+    /**
+     * Stability after a review rated {@code rating}. A card never reviewed starts from the
+     * initial stability; one without FSRS state (last scheduled by SM-2) from its interval.
+     */
+    static double fsrsStability(double[] w, int rating, double elapsedDays, boolean firstReview,
+                                double stability, double difficulty, int interval) {
+        if (firstReview) {
+            return Fsrs.initialStability(w, rating);
+        }
+        double previousStability = Double.isNaN(stability) ? Math.max(interval, 1) : stability;
+        double previousDifficulty = Double.isNaN(difficulty) ? Fsrs.initialDifficulty(w, 3) : difficulty;
+        double r = Fsrs.retrievability(Math.max(elapsedDays, 0), previousStability);
+        return Fsrs.nextStability(w, previousDifficulty, previousStability, r, rating);
+    }
+
+    static double fsrsDifficulty(double[] w, int rating, boolean firstReview, double difficulty) {
+        if (firstReview) {
+            return Fsrs.initialDifficulty(w, rating);
+        }
+        return Fsrs.nextDifficulty(w, Double.isNaN(difficulty) ? Fsrs.initialDifficulty(w, 3) : difficulty, rating);
+    }
+
+    static int fsrsInterval(double stability, double desiredRetention, int maximumInterval) {
+        return (int) Math.min(Math.max(Math.round(Fsrs.interval(stability, desiredRetention)), 1), maximumInterval);
+    }
+
+    static double elapsedDays(long lastReviewed, long reviewedAt) {
+        return (reviewedAt - lastReviewed) / (double) SECONDS_PER_DAY;
+    }
+
+    /** Moves card {@code i} of the batch to {@code interval} days after its last review. */
+    public static void setInterval(ScheduleBatch batch, int i, int interval) {
+        batch.intervals[i] = interval;
+        batch.nextReview[i] = batch.lastReviewed[i] + interval * SECONDS_PER_DAY;
+    }
+
+    /** SM-2 for every card in the batch, card {@code i} answered with {@code qualities[i]}. */
+    public static void sm2(ScheduleBatch batch, int[] qualities, long reviewedAt) {
+        for (int i = 0, size = batch.size(); i < size; i++) {
+            int quality = qualities[i];
+            int repetitions = batch.repetitions[i];
+            double easeFactor = batch.easeFactors[i];
+            int interval = sm2Interval(batch.intervals[i], repetitions, easeFactor, quality);
+            batch.intervals[i] = interval;
+            batch.repetitions[i] = sm2Repetitions(repetitions, quality);
+            batch.easeFactors[i] = sm2EaseFactor(easeFactor, quality);
+            batch.lastReviewed[i] = reviewedAt;
+            batch.nextReview[i] = reviewedAt + interval * SECONDS_PER_DAY;
+            batch.stability[i] = Double.NaN;
+            batch.difficulty[i] = Double.NaN;
+        }
+    }
+
+    /** FSRS with weights {@code w} for every card in the batch. */
+    public static void fsrs(ScheduleBatch batch, int[] qualities, long reviewedAt, double[] w,
+                            double desiredRetention, int maximumInterval) {
+        for (int i = 0, size = batch.size(); i < size; i++) {
+            int rating = Fsrs.rating(qualities[i]);
+            long lastReviewed = batch.lastReviewed[i];
+            boolean firstReview = lastReviewed == NEVER;
+            double elapsedDays = firstReview ? 0 : elapsedDays(lastReviewed, reviewedAt);
+            double stability = fsrsStability(w, rating, elapsedDays, firstReview,
+                    batch.stability[i], batch.difficulty[i], batch.intervals[i]);
+            int interval = fsrsInterval(stability, desiredRetention, maximumInterval);
+            batch.difficulty[i] = fsrsDifficulty(w, rating, firstReview, batch.difficulty[i]);
+            batch.stability[i] = stability;
+            batch.repetitions[i] = rating == 1 ? 0 : batch.repetitions[i] + 1;
+            batch.intervals[i] = interval;
+            batch.lastReviewed[i] = reviewedAt;
+            batch.nextReview[i] = reviewedAt + interval * SECONDS_PER_DAY;
+        }
+    }
+}
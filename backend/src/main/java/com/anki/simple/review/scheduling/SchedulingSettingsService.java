@@ -0,0 +1,47 @@
+package com.anki.simple.review.scheduling;
+
+import com.anki.simple.exception.UserNotFoundException;
+import com.anki.simple.review.dto.SchedulingSettingsRequest;
+import com.anki.simple.review.dto.SchedulingSettingsResponse;
+import com.anki.simple.user.User;
+import com.anki.simple.user.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+public class SchedulingSettingsService {
+
+    private final UserRepository userRepository;
+    private final FsrsParametersStore parametersStore;
+
+    @Transactional(readOnly = true)
+    public SchedulingSettingsResponse getSettings(String username) {
+        return toResponse(findUser(username));
+    }
+
+    @Transactional
+    public SchedulingSettingsResponse updateSettings(SchedulingSettingsRequest request, String username) {
+        User user = findUser(username);
+        user.setSchedulingAlgorithm(request.getAlgorithm());
+        return toResponse(userRepository.save(user));
+    }
+
+    private User findUser(String username) {
+        return userRepository.findByUsername(username)
+                .orElseThrow(() -> new UserNotFoundException("User not found"));
+    }
+
+    private SchedulingSettingsResponse toResponse(User user) {
+        Optional<FsrsParametersStore.FsrsParameters> fitted = parametersStore.find(user.getId());
+        double[] weights = fitted.map(FsrsParametersStore.FsrsParameters::weights).orElse(Fsrs.DEFAULT_WEIGHTS);
+        return new SchedulingSettingsResponse(user.getSchedulingAlgorithm(),
+                Arrays.stream(weights).boxed().toList(),
+                fitted.map(FsrsParametersStore.FsrsParameters::fittedAt).orElse(null),
+                fitted.map(FsrsParametersStore.FsrsParameters::reviewCount).orElse(null));
+    }
+}
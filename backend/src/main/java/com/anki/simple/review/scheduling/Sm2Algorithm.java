@@ -0,0 +1,46 @@
+package com.anki.simple.review.scheduling;
+
+import com.anki.simple.vocabulary.VocabularyCard;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * SM-2 Algorithm implementation
+ * quality: 0-5 rating
+ * 0: complete blackout
+ * 1: incorrect response, but familiar
+ * 2: incorrect response, seems easy to recall
+ * 3: correct response, but difficult
+ * 4: correct response, some hesitation
+ * 5: perfect response
+ */
+@Component
+public class Sm2Algorithm implements SchedulingAlgorithm {
+
+    @Override
+    public SchedulingAlgorithmType type() {
+        return SchedulingAlgorithmType.SM2;
+    }
+
+    @Override
+    public void schedule(VocabularyCard card, int quality, LocalDateTime reviewedAt) {
+        double easeFactor = card.getEaseFactor();
+        int repetitions = card.getRepetitions();
+        int interval = SchedulingKernel.sm2Interval(card.getIntervalDays(), repetitions, easeFactor, quality);
+
+        card.setEaseFactor(SchedulingKernel.sm2EaseFactor(easeFactor, quality));
+        card.setRepetitions(SchedulingKernel.sm2Repetitions(repetitions, quality));
+        card.setIntervalDays(interval);
+        card.setLastReviewed(reviewedAt);
+        card.setNextReview(reviewedAt.plusDays(interval));
+        // FSRS state from before a switch back to SM-2 is stale by now
+        card.setStability(null);
+        card.setDifficulty(null);
+    }
+
+    @Override
+    public void schedule(ScheduleBatch batch, int[] qualities, long reviewedAt, Long userId) {
+        SchedulingKernel.sm2(batch, qualities, reviewedAt);
+    }
+}
@@ -0,0 +1,338 @@
+package com.anki.simple.review.scheduling;
+
+import com.anki.simple.review.SpacedRepetitionService;
+import com.anki.simple.user.User;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Monte Carlo forecast of a user's daily review load. Each trial replays the coming days:
+ * every card due on a day is answered with a random quality and rescheduled by the user's
+ * own algorithm through {@link SpacedRepetitionService#simulateSchedules}, and
+ * {@code newCardsPerDay} unseen cards are started each day: the user's own unseen cards
+ * first, by review time, then made-up ones once those run out. Qualities follow the user's
+ * recent answers; under FSRS, whether a reviewed card is recalled follows its
+ * retrievability instead.
+ * <p>
+ * Only learned cards due within the horizon and the unseen cards the horizon can start are
+ * loaded, and a trial touches only the cards due on the day it replays, found through
+ * per-day linked lists. Trials run on a dedicated fork-join pool of
+ * {@code review.simulation.parallelism} threads (default: one per core).
+ */
+@Component
+public class WorkloadSimulator {
+
+    /** Share of qualities 0-5 assumed for a user without enough history of their own. */
+    static final double[] DEFAULT_QUALITIES = {0.04, 0.04, 0.07, 0.15, 0.5, 0.2};
+    static final int MIN_HISTORY = 50;
+
+    private static final long SECONDS_PER_DAY = 86_400;
+    private static final double LOWER_PERCENTILE = 0.05;
+    private static final double UPPER_PERCENTILE = 0.95;
+    private static final double NEW_EASE_FACTOR = 2.5;
+    private static final int CHUNK = 1024;
+
+    private static final String COUNT_DECK =
+            "SELECT COUNT(*) FROM vocabulary_cards WHERE user_id = ? AND last_reviewed IS NOT NULL "
+                    + "AND (next_review IS NULL OR next_review < ?)";
+    private static final String SELECT_DECK =
+            "SELECT id, ease_factor, interval_days, repetitions, last_reviewed, next_review, stability, difficulty "
+                    + "FROM vocabulary_cards WHERE user_id = ? AND last_reviewed IS NOT NULL "
+                    + "AND (next_review IS NULL OR next_review < ?)";
+    // Unseen cards are all due from creation; they are started in review order, so only the first ones matter
+    private static final String SELECT_UNSEEN =
+            "SELECT id, ease_factor, interval_days, repetitions, last_reviewed, next_review, stability, difficulty "
+                    + "FROM vocabulary_cards WHERE user_id = ? AND last_reviewed IS NULL ORDER BY next_review, id LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SpacedRepetitionService spacedRepetitionService;
+    private final ForkJoinPool pool;
+
+    public WorkloadSimulator(
+            JdbcTemplate jdbcTemplate,
+            SpacedRepetitionService spacedRepetitionService,
+            @Value("${review.simulation.parallelism:0}") int parallelism) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.spacedRepetitionService = spacedRepetitionService;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Simulates {@code days} days from {@code now}, day 0 being today including every overdue
+     * card. {@code qualityCounts} are the user's recent answers by quality 0-5.
+     */
+    public Simulation simulate(User user, LocalDateTime now, int days, int newCardsPerDay, int trials,
+                               long[] qualityCounts) {
+        LocalDateTime horizon = now.toLocalDate().plusDays(days).atStartOfDay();
+        ScheduleBatch deck = loadDeck(user.getId(), horizon);
+        ScheduleBatch unseen = loadUnseen(user.getId(), days * newCardsPerDay);
+        QualityModel model = QualityModel.of(qualityCounts,
+                user.getSchedulingAlgorithm() == SchedulingAlgorithmType.FSRS);
+        Scheduler scheduler = (batch, qualities, reviewedAt) ->
+                spacedRepetitionService.simulateSchedules(batch, qualities, reviewedAt, user);
+        return run(pool, deck, unseen, SchedulingKernel.toSeconds(now),
+                SchedulingKernel.toSeconds(now.toLocalDate().atStartOfDay()), days, newCardsPerDay, trials,
+                model, scheduler, ThreadLocalRandom.current().nextLong());
+    }
+
+    private ScheduleBatch loadDeck(Long userId, LocalDateTime horizon) {
+        Timestamp end = Timestamp.valueOf(horizon);
+        Integer count = jdbcTemplate.queryForObject(COUNT_DECK, Integer.class, userId, end);
+        ScheduleBatch deck = new ScheduleBatch(count != null ? count : 0);
+        jdbcTemplate.query(SELECT_DECK, rs -> {
+            // Cards added since the count wait for the next simulation
+            if (deck.size() < deck.cardIds.length) {
+                deck.add(rs.getLong("id"), rs.getDouble("ease_factor"), rs.getInt("interval_days"),
+                        rs.getInt("repetitions"), seconds(rs.getTimestamp("last_reviewed")),
+                        seconds(rs.getTimestamp("next_review")), orNaN(rs, "stability"), orNaN(rs, "difficulty"));
+            }
+        }, userId, end);
+        return deck;
+    }
+
+    private ScheduleBatch loadUnseen(Long userId, int limit) {
+        ScheduleBatch unseen = new ScheduleBatch(limit);
+        if (limit > 0) {
+            jdbcTemplate.query(SELECT_UNSEEN, rs -> {
+                unseen.add(rs.getLong("id"), rs.getDouble("ease_factor"), rs.getInt("interval_days"),
+                        rs.getInt("repetitions"), SchedulingKernel.NEVER,
+                        seconds(rs.getTimestamp("next_review")), orNaN(rs, "stability"), orNaN(rs, "difficulty"));
+            }, userId, limit);
+        }
+        return unseen;
+    }
+
+    /**
+     * Runs the trials over the learned cards of {@code deck} and {@code unseen} cards to start
+     * in order, {@code newCardsPerDay} a day.
+     */
+    static Simulation run(ForkJoinPool pool, ScheduleBatch deck, ScheduleBatch unseen, long now, long today, int days,
+                          int newCardsPerDay, int trials, QualityModel model, Scheduler scheduler, long seed) {
+        Start start = Start.of(deck, unseen, today, days, newCardsPerDay);
+        // Split up front: a SplittableRandom must not be shared between threads
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] randoms = new SplittableRandom[trials];
+        for (int t = 0; t < trials; t++) {
+            randoms[t] = root.split();
+        }
+        int[][] loads;
+        try {
+            loads = pool.submit(() -> IntStream.range(0, trials).parallel()
+                    .mapToObj(trial -> trial(start, now, today, days, model, scheduler, randoms[trial]))
+                    .toArray(int[][]::new)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Simulation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Simulation failed", e.getCause());
+        }
+
+        double[] expected = new double[days];
+        int[] lower = new int[days];
+        int[] upper = new int[days];
+        int[] day = new int[trials];
+        for (int d = 0; d < days; d++) {
+            long sum = 0;
+            for (int t = 0; t < trials; t++) {
+                day[t] = loads[t][d];
+                sum += day[t];
+            }
+            Arrays.sort(day);
+            expected[d] = (double) sum / trials;
+            lower[d] = day[(int) Math.floor(LOWER_PERCENTILE * (trials - 1))];
+            upper[d] = day[(int) Math.ceil(UPPER_PERCENTILE * (trials - 1))];
+        }
+        return new Simulation(expected, lower, upper);
+    }
+
+    /**
+     * One replay of the horizon; returns the number of reviews on each day. A day's due cards
+     * are rescheduled in chunks of {@value #CHUNK}, which keeps the working batch small.
+     */
+    private static int[] trial(Start start, long now, long today, int days, QualityModel model,
+                               Scheduler scheduler, SplittableRandom random) {
+        ScheduleBatch cards = start.cards().copy();
+        int[] first = start.first().clone();
+        int[] next = start.next().clone();
+
+        int[] loads = new int[days];
+        ScheduleBatch due = new ScheduleBatch(CHUNK);
+        int[] qualities = new int[CHUNK];
+        for (int d = 0; d < days; d++) {
+            long reviewedAt = now + d * SECONDS_PER_DAY;
+            int i = first[d];
+            while (i >= 0) {
+                due.clear();
+                for (; i >= 0 && due.size() < CHUNK; i = next[i]) {
+                    qualities[due.size()] = model.draw(model.recall(cards, i, reviewedAt), random);
+                    due.add(i, cards.easeFactors[i], cards.intervals[i], cards.repetitions[i], cards.lastReviewed[i],
+                            cards.nextReview[i], cards.stability[i], cards.difficulty[i]);
+                }
+                scheduler.schedule(due, qualities, reviewedAt);
+                for (int j = 0; j < due.size(); j++) {
+                    int card = (int) due.cardIds[j];
+                    cards.easeFactors[card] = due.easeFactors[j];
+                    cards.intervals[card] = due.intervals[j];
+                    cards.repetitions[card] = due.repetitions[j];
+                    cards.lastReviewed[card] = due.lastReviewed[j];
+                    cards.nextReview[card] = due.nextReview[j];
+                    cards.stability[card] = due.stability[j];
+                    cards.difficulty[card] = due.difficulty[j];
+                    // Intervals are at least a day, so a card never comes back to the day being replayed
+                    enqueue(first, next, card, dayOf(due.nextReview[j], today));
+                }
+                loads[d] += due.size();
+            }
+        }
+        return loads;
+    }
+
+    private static void enqueue(int[] first, int[] next, int card, int day) {
+        if (day < first.length) {
+            next[card] = first[day];
+            first[day] = card;
+        }
+    }
+
+    /** Day index from {@code today}'s start; overdue and never scheduled cards fall on day 0. */
+    private static int dayOf(long nextReview, long today) {
+        if (nextReview == SchedulingKernel.NEVER || nextReview < today) {
+            return 0;
+        }
+        return (int) Math.min((nextReview - today) / SECONDS_PER_DAY, Integer.MAX_VALUE);
+    }
+
+    private static long seconds(Timestamp timestamp) {
+        return SchedulingKernel.toSeconds(timestamp != null ? timestamp.toLocalDateTime() : null);
+    }
+
+    private static double orNaN(ResultSet rs, String column) throws SQLException {
+        double value = rs.getDouble(column);
+        return rs.wasNull() ? Double.NaN : value;
+    }
+
+    /**
+     * State every trial starts from: the cards due within the horizon followed by the new
+     * cards to be started, indexed by position, and the cards due on each day as linked lists
+     * ({@code first[day]}, then {@code next[card]} until -1). New cards are the unseen ones
+     * while they last, then made up.
+     */
+    private record Start(ScheduleBatch cards, int[] first, int[] next) {
+
+        static Start of(ScheduleBatch deck, ScheduleBatch unseen, long today, int days, int newCardsPerDay) {
+            int capacity = deck.size() + days * newCardsPerDay;
+            ScheduleBatch cards = new ScheduleBatch(capacity);
+            int[] first = new int[days];
+            int[] next = new int[capacity];
+            Arrays.fill(first, -1);
+            for (int i = 0; i < deck.size(); i++) {
+                int day = dayOf(deck.nextReview[i], today);
+                if (day < days) {
+                    int card = cards.size();
+                    cards.add(card, deck.easeFactors[i], deck.intervals[i], deck.repetitions[i], deck.lastReviewed[i],
+                            deck.nextReview[i], deck.stability[i], deck.difficulty[i]);
+                    enqueue(first, next, card, day);
+                }
+            }
+            int started = 0;
+            for (int d = 0; d < days; d++) {
+                for (int k = 0; k < newCardsPerDay; k++) {
+                    int card = cards.size();
+                    if (started < unseen.size()) {
+                        cards.add(card, unseen.easeFactors[started], unseen.intervals[started],
+                                unseen.repetitions[started], SchedulingKernel.NEVER, unseen.nextReview[started],
+                                unseen.stability[started], unseen.difficulty[started]);
+                        started++;
+                    } else {
+                        cards.add(card, NEW_EASE_FACTOR, 0, 0, SchedulingKernel.NEVER, SchedulingKernel.NEVER,
+                                Double.NaN, Double.NaN);
+                    }
+                    enqueue(first, next, card, d);
+                }
+            }
+            return new Start(cards, first, next);
+        }
+    }
+
+    /** Reschedules a day's due cards; {@code reviewedAt} in epoch seconds. */
+    @FunctionalInterface
+    interface Scheduler {
+        void schedule(ScheduleBatch batch, int[] qualities, long reviewedAt);
+    }
+
+    /**
+     * Expected reviews per day, and the 5th and 95th percentile over the trials as a 90%
+     * band.
+     */
+    public record Simulation(double[] expected, int[] lower, int[] upper) {
+    }
+
+    /**
+     * How a simulated review is answered: recalled with the user's pass rate (or, under FSRS,
+     * the card's retrievability), then a quality drawn from the user's passing or failing
+     * answers.
+     */
+    record QualityModel(double passRate, double[] passing, double[] failing, boolean fsrs) {
+
+        static QualityModel of(long[] counts, boolean fsrs) {
+            double[] shares = DEFAULT_QUALITIES;
+            if (Arrays.stream(counts).sum() >= MIN_HISTORY) {
+                shares = Arrays.stream(counts).asDoubleStream().toArray();
+            }
+            double passed = shares[3] + shares[4] + shares[5];
+            double failed = shares[0] + shares[1] + shares[2];
+            double[] passing = passed > 0 ? cumulative(shares, 3, passed) : cumulative(DEFAULT_QUALITIES, 3,
+                    DEFAULT_QUALITIES[3] + DEFAULT_QUALITIES[4] + DEFAULT_QUALITIES[5]);
+            double[] failing = failed > 0 ? cumulative(shares, 0, failed) : cumulative(DEFAULT_QUALITIES, 0,
+                    DEFAULT_QUALITIES[0] + DEFAULT_QUALITIES[1] + DEFAULT_QUALITIES[2]);
+            return new QualityModel(passed / (passed + failed), passing, failing, fsrs);
+        }
+
+        private static double[] cumulative(double[] shares, int from, double total) {
+            double[] cumulative = new double[3];
+            double sum = 0;
+            for (int q = 0; q < 3; q++) {
+                sum += shares[from + q] / total;
+                cumulative[q] = sum;
+            }
+            return cumulative;
+        }
+
+        double recall(ScheduleBatch cards, int i, long reviewedAt) {
+            if (fsrs && cards.lastReviewed[i] != SchedulingKernel.NEVER && !Double.isNaN(cards.stability[i])) {
+                return Fsrs.retrievability(
+                        Math.max(SchedulingKernel.elapsedDays(cards.lastReviewed[i], reviewedAt), 0), cards.stability[i]);
+            }
+            return passRate;
+        }
+
+        int draw(double recall, SplittableRandom random) {
+            boolean recalled = random.nextDouble() < recall;
+            double[] cumulative = recalled ? passing : failing;
+            double u = random.nextDouble();
+            int q = 0;
+            while (q < 2 && u >= cumulative[q]) {
+                q++;
+            }
+            return recalled ? 3 + q : q;
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.anki.simple.stats;
+
+import com.anki.simple.review.ReviewRecordedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Maintains {@code review_daily_stats}, the per-user, per-language, per-hour daily rollup of
+ * reviews. Committed reviews are summed in memory and merged into the table every
+ * {@code review.stats.flush-interval}, so the review path adds no statements and a busy
+ * rollup row is written once per flush instead of once per review.
+ * <p>
+ * {@link #backfill()} rebuilds the table from {@code review_history}, one user per task on
+ * {@code review.stats.backfill-threads} threads. It recomputes from scratch, so run it while
+ * no reviews arrive, e.g. at startup with {@code review.stats.backfill-on-startup}.
+ */
+@Component
+public class ReviewRollups {
+
+    static final String NO_LANGUAGE = "NONE";
+
+    private static final Logger log = LoggerFactory.getLogger(ReviewRollups.class);
+    private static final int BATCH_SIZE = 500;
+
+    private static final String UPDATE_ROLLUP =
+            "UPDATE review_daily_stats SET quality_0 = quality_0 + ?, quality_1 = quality_1 + ?, "
+                    + "quality_2 = quality_2 + ?, quality_3 = quality_3 + ?, quality_4 = quality_4 + ?, "
+                    + "quality_5 = quality_5 + ?, new_cards = new_cards + ? "
+                    + "WHERE user_id = ? AND review_date = ? AND language_selection = ? AND hour_of_day = ?";
+    private static final String INSERT_ROLLUP =
+            "INSERT INTO review_daily_stats (quality_0, quality_1, quality_2, quality_3, quality_4, quality_5, "
+                    + "new_cards, user_id, review_date, language_selection, hour_of_day) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String DELETE_USER_ROLLUPS = "DELETE FROM review_daily_stats WHERE user_id = ?";
+    private static final String BACKFILL_USER_ROLLUPS =
+            "INSERT INTO review_daily_stats (user_id, review_date, language_selection, hour_of_day, "
+                    + "quality_0, quality_1, quality_2, quality_3, quality_4, quality_5, new_cards) "
+                    + "SELECT c.user_id, CAST(h.reviewed_at AS DATE), COALESCE(c.language_selection, '" + NO_LANGUAGE + "'), "
+                    + "EXTRACT(HOUR FROM h.reviewed_at), "
+                    + "SUM(CASE WHEN h.quality = 0 THEN 1 ELSE 0 END), SUM(CASE WHEN h.quality = 1 THEN 1 ELSE 0 END), "
+                    + "SUM(CASE WHEN h.quality = 2 THEN 1 ELSE 0 END), SUM(CASE WHEN h.quality = 3 THEN 1 ELSE 0 END), "
+                    + "SUM(CASE WHEN h.quality = 4 THEN 1 ELSE 0 END), SUM(CASE WHEN h.quality = 5 THEN 1 ELSE 0 END), "
+                    + "SUM(CASE WHEN h.reviewed_at = f.first_reviewed_at THEN 1 ELSE 0 END) "
+                    + "FROM review_history h "
+                    + "JOIN vocabulary_cards c ON c.id = h.card_id "
+                    + "JOIN (SELECT card_id, MIN(reviewed_at) AS first_reviewed_at FROM review_history "
+                    + "WHERE card_id IN (SELECT id FROM vocabulary_cards WHERE user_id = ?) GROUP BY card_id) f "
+                    + "ON f.card_id = h.card_id "
+                    + "WHERE c.user_id = ? "
+                    + "GROUP BY c.user_id, CAST(h.reviewed_at AS DATE), COALESCE(c.language_selection, '" + NO_LANGUAGE + "'), "
+                    + "EXTRACT(HOUR FROM h.reviewed_at)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean backfillOnStartup;
+    private final int backfillThreads;
+    private final Map<Key, Counts> pending = new ConcurrentHashMap<>();
+
+    public ReviewRollups(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${review.stats.backfill-on-startup:false}") boolean backfillOnStartup,
+            @Value("${review.stats.backfill-threads:4}") int backfillThreads) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.backfillOnStartup = backfillOnStartup;
+        this.backfillThreads = backfillThreads;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReviewRecorded(ReviewRecordedEvent event) {
+        Key key = new Key(event.userId(), event.reviewedAt().toLocalDate(),
+                event.languageSelection() != null ? event.languageSelection().name() : NO_LANGUAGE,
+                event.reviewedAt().getHour());
+        // Counts are only mutated inside compute, so a value removed by flush() is final
+        pending.compute(key, (k, counts) -> (counts != null ? counts : new Counts())
+                .add(event.quality(), event.firstReview() ? 1 : 0));
+    }
+
+    @Scheduled(fixedDelayString = "${review.stats.flush-interval:PT5S}")
+    public synchronized void flush() {
+        Map<Key, Counts> batch = new HashMap<>();
+        for (Key key : pending.keySet()) {
+            Counts counts = pending.remove(key);
+            if (counts != null) {
+                batch.put(key, counts);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(batch));
+        } catch (DataAccessException e) {
+            // Keep the counts for the next flush rather than losing them
+            batch.forEach((key, counts) -> pending.merge(key, counts, Counts::merge));
+            log.warn("Could not write {} review rollups, retrying on the next flush", batch.size(), e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (backfillOnStartup) {
+            backfill();
+        }
+    }
+
+    /** Rebuilds every user's rollups from review history; returns the number of users. */
+    public int backfill() {
+        flush();
+        List<Long> userIds = jdbcTemplate.queryForList("SELECT id FROM users", Long.class);
+        try (ExecutorService executor = Executors.newFixedThreadPool(backfillThreads)) {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (Long userId : userIds) {
+                tasks.add(executor.submit(() -> backfill(userId)));
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Review rollup backfill interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Review rollup backfill failed", e.getCause());
+        }
+        log.info("Backfilled review rollups for {} users", userIds.size());
+        return userIds.size();
+    }
+
+    /** Rebuilds one user's rollups from review history in a single transaction. */
+    public void backfill(Long userId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update(DELETE_USER_ROLLUPS, userId);
+            jdbcTemplate.update(BACKFILL_USER_ROLLUPS, userId, userId);
+        });
+    }
+
+    @PreDestroy
+    void close() {
+        flush();
+    }
+
+    private void write(Map<Key, Counts> batch) {
+        List<Map.Entry<Key, Counts>> entries = new ArrayList<>(batch.entrySet());
+        int[][] updated = jdbcTemplate.batchUpdate(UPDATE_ROLLUP, entries, BATCH_SIZE,
+                (ps, entry) -> setRollup(ps, entry.getKey(), entry.getValue()));
+        List<Map.Entry<Key, Counts>> missing = new ArrayList<>();
+        for (int i = 0; i < entries.size(); i++) {
+            if (updated[i / BATCH_SIZE][i % BATCH_SIZE] == 0) {
+                missing.add(entries.get(i));
+            }
+        }
+        if (!missing.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_ROLLUP, missing, BATCH_SIZE,
+                    (ps, entry) -> setRollup(ps, entry.getKey(), entry.getValue()));
+        }
+    }
+
+    private static void setRollup(PreparedStatement ps, Key key, Counts counts) throws SQLException {
+        for (int quality = 0; quality < counts.qualities.length; quality++) {
+            ps.setInt(quality + 1, counts.qualities[quality]);
+        }
+        ps.setInt(7, counts.newCards);
+        ps.setLong(8, key.userId());
+        ps.setDate(9, Date.valueOf(key.day()));
+        ps.setString(10, key.languageSelection());
+        ps.setInt(11, key.hour());
+    }
+
+    record Key(Long userId, LocalDate day, String languageSelection, int hour) {
+    }
+
+    static final class Counts {
+
+        private final int[] qualities = new int[6];
+        private int newCards;
+
+        Counts add(int quality, int newCards) {
+            qualities[quality]++;
+            this.newCards += newCards;
+            return this;
+        }
+
+        Counts merge(Counts other) {
+            for (int quality = 0; quality < qualities.length; quality++) {
+                qualities[quality] += other.qualities[quality];
+            }
+            newCards += other.newCards;
+            return this;
+        }
+    }
+}
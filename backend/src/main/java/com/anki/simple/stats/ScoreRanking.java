@@ -0,0 +1,124 @@
+package com.anki.simple.stats;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Users ranked by a non-negative integer score that only grows, e.g. reviews this week.
+ * <p>
+ * A Fenwick tree over score values counts the users at each score, so a user's rank (one
+ * more than the number of users with a higher score, ties sharing a rank) is a prefix sum
+ * in O(log maxScore). A tree set ordered by score keeps the top entries, read in O(log n + k).
+ * Adding to a score is O(log n + log maxScore); the Fenwick tree doubles when a score
+ * outgrows it. Users with a score of 0 are not ranked.
+ * <p>
+ * Not thread-safe.
+ */
+final class ScoreRanking {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final Comparator<Entry> BY_SCORE_DESCENDING =
+            Comparator.comparingInt(Entry::score).reversed().thenComparingLong(Entry::userId);
+
+    private final Map<Long, Integer> scores = new HashMap<>();
+    private final NavigableSet<Entry> ordered = new TreeSet<>(BY_SCORE_DESCENDING);
+    /** 1-based Fenwick tree: users per score, score {@code s} at index {@code s}. */
+    private int[] tree = new int[INITIAL_CAPACITY + 1];
+
+    /** Adds {@code delta} (at least 1) to the user's score; returns the new score. */
+    int add(long userId, int delta) {
+        if (delta < 1) {
+            throw new IllegalArgumentException("Scores only grow");
+        }
+        Integer previous = scores.get(userId);
+        int score = Math.addExact(previous != null ? previous : 0, delta);
+        ensureCapacity(score);
+        if (previous != null) {
+            ordered.remove(new Entry(userId, previous));
+            update(previous, -1);
+        }
+        update(score, 1);
+        ordered.add(new Entry(userId, score));
+        scores.put(userId, score);
+        return score;
+    }
+
+    /** The user's score, 0 if they are not ranked. */
+    int score(long userId) {
+        return scores.getOrDefault(userId, 0);
+    }
+
+    /** The user's 1-based rank, or 0 if they are not ranked. */
+    int rank(long userId) {
+        Integer score = scores.get(userId);
+        return score != null ? scores.size() - countUpTo(score) + 1 : 0;
+    }
+
+    /** The {@code k} best-ranked users, best first; users with equal scores by id. */
+    List<Ranked> top(int k) {
+        List<Ranked> top = new ArrayList<>(Math.min(k, scores.size()));
+        int rank = 0;
+        int previousScore = -1;
+        for (Entry entry : ordered) {
+            if (top.size() == k) {
+                break;
+            }
+            if (entry.score() != previousScore) {
+                rank = top.size() + 1;
+                previousScore = entry.score();
+            }
+            top.add(new Ranked(entry.userId(), entry.score(), rank));
+        }
+        return top;
+    }
+
+    /** Number of ranked users. */
+    int size() {
+        return scores.size();
+    }
+
+    void forEach(ObjLongConsumer<Long> action) {
+        scores.forEach((userId, score) -> action.accept(userId, score));
+    }
+
+    private int countUpTo(int score) {
+        int count = 0;
+        for (int i = score; i > 0; i -= i & -i) {
+            count += tree[i];
+        }
+        return count;
+    }
+
+    private void update(int score, int delta) {
+        for (int i = score; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    private void ensureCapacity(int score) {
+        if (score < tree.length) {
+            return;
+        }
+        int capacity = tree.length - 1;
+        while (capacity <= score) {
+            capacity = Math.multiplyExact(capacity, 2);
+        }
+        tree = new int[capacity + 1];
+        for (int existing : scores.values()) {
+            update(existing, 1);
+        }
+    }
+
+    private record Entry(long userId, int score) {
+    }
+
+    /** A user's score and 1-based rank. */
+    record Ranked(long userId, int score, int rank) {
+    }
+}
@@ -0,0 +1,73 @@
+package com.anki.simple.stats;
+
+import com.anki.simple.stats.dto.ForecastResponse;
+import com.anki.simple.stats.dto.GoalRequest;
+import com.anki.simple.stats.dto.LeaderboardResponse;
+import com.anki.simple.stats.dto.SimulationResponse;
+import com.anki.simple.stats.dto.StatsResponse;
+import com.anki.simple.stats.dto.StreakResponse;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/v1/stats")
+@RequiredArgsConstructor
+public class StatsController {
+
+    private final StatsService statsService;
+
+    @GetMapping
+    public ResponseEntity<StatsResponse> getStats(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        return ResponseEntity.ok(statsService.getStats(userDetails.getUsername(), from, to));
+    }
+
+    @GetMapping("/forecast")
+    public ResponseEntity<ForecastResponse> getForecast(
+            @RequestParam(defaultValue = "30") int days,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        return ResponseEntity.ok(statsService.getForecast(userDetails.getUsername(), days));
+    }
+
+    @GetMapping("/simulate")
+    public ResponseEntity<SimulationResponse> simulate(
+            @RequestParam(defaultValue = "30") int days,
+            @RequestParam(defaultValue = "0") int newCardsPerDay,
+            @RequestParam(defaultValue = "1000") int trials,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        return ResponseEntity.ok(statsService.simulate(userDetails.getUsername(), days, newCardsPerDay, trials));
+    }
+
+    @GetMapping("/leaderboard")
+    public ResponseEntity<LeaderboardResponse> getLeaderboard(
+            @RequestParam(defaultValue = "10") int limit,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        return ResponseEntity.ok(statsService.getLeaderboard(userDetails.getUsername(), limit));
+    }
+
+    @GetMapping("/streak")
+    public ResponseEntity<StreakResponse> getStreak(@AuthenticationPrincipal UserDetails userDetails) {
+        return ResponseEntity.ok(statsService.getStreak(userDetails.getUsername()));
+    }
+
+    @PutMapping("/goal")
+    public ResponseEntity<StreakResponse> updateGoal(
+            @Valid @RequestBody GoalRequest request,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        return ResponseEntity.ok(statsService.updateGoal(request, userDetails.getUsername()));
+    }
+}
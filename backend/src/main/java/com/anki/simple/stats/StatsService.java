@@ -0,0 +1,269 @@
+package com.anki.simple.stats;
+
+import com.anki.simple.exception.UserNotFoundException;
+import com.anki.simple.review.DailyLimitService;
+import com.anki.simple.review.scheduling.WorkloadSimulator;
+import com.anki.simple.stats.dto.DailyStats;
+import com.anki.simple.stats.dto.ForecastDay;
+import com.anki.simple.stats.dto.ForecastResponse;
+import com.anki.simple.stats.dto.GoalRequest;
+import com.anki.simple.stats.dto.LanguageStats;
+import com.anki.simple.stats.dto.LeaderboardEntry;
+import com.anki.simple.stats.dto.LeaderboardResponse;
+import com.anki.simple.stats.dto.SimulationDay;
+import com.anki.simple.stats.dto.SimulationResponse;
+import com.anki.simple.stats.dto.StatsResponse;
+import com.anki.simple.stats.dto.StreakResponse;
+import com.anki.simple.user.User;
+import com.anki.simple.user.UserRepository;
+import com.anki.simple.vocabulary.DeckCounters;
+import com.anki.simple.vocabulary.LanguageSelection;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Review statistics read from the daily rollups maintained by {@link ReviewRollups}: the
+ * cost depends on the number of days requested, not on the size of the review history.
+ * Reviews show up once the rollups are flushed. The workload forecast comes from the
+ * per-user day buckets of {@link DeckCounters}, which reviews keep up to date, and streaks
+ * from {@link StreakTracker}. The weekly leaderboard is kept in memory by
+ * {@link WeeklyLeaderboard}.
+ */
+@Service
+@RequiredArgsConstructor
+public class StatsService {
+
+    public static final int MAX_DAYS = 366;
+    public static final int MAX_FORECAST_DAYS = 365;
+    public static final int MAX_NEW_CARDS_PER_DAY = 1000;
+    public static final int MAX_TRIALS = 10000;
+    public static final int MAX_LEADERBOARD_LIMIT = 100;
+    /** Answers in this many recent days make up the quality distribution of a simulation. */
+    private static final int SIMULATION_HISTORY_DAYS = 90;
+    private static final int DEFAULT_DAYS = 30;
+    private static final int CORRECT_QUALITY = 3;
+
+    private static final String SELECT_ROLLUPS =
+            "SELECT review_date, language_selection, hour_of_day, quality_0, quality_1, quality_2, quality_3, "
+                    + "quality_4, quality_5, new_cards FROM review_daily_stats "
+                    + "WHERE user_id = ? AND review_date BETWEEN ? AND ?";
+    private static final String SELECT_QUALITY_COUNTS =
+            "SELECT COALESCE(SUM(quality_0), 0), COALESCE(SUM(quality_1), 0), COALESCE(SUM(quality_2), 0), "
+                    + "COALESCE(SUM(quality_3), 0), COALESCE(SUM(quality_4), 0), COALESCE(SUM(quality_5), 0) "
+                    + "FROM review_daily_stats WHERE user_id = ? AND review_date >= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserRepository userRepository;
+    private final DeckCounters deckCounters;
+    private final WorkloadSimulator workloadSimulator;
+    private final StreakTracker streakTracker;
+    private final DailyLimitService dailyLimitService;
+    private final WeeklyLeaderboard weeklyLeaderboard;
+
+    public StatsResponse getStats(String username, LocalDate from, LocalDate to) {
+        Long userId = findUserId(username);
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_DAYS - 1);
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        if (ChronoUnit.DAYS.between(start, end) >= MAX_DAYS) {
+            throw new IllegalArgumentException("Statistics cover at most " + MAX_DAYS + " days");
+        }
+
+        long[] byQuality = new long[6];
+        long[] byHour = new long[24];
+        Map<LocalDate, DailyStats> days = new TreeMap<>();
+        for (LocalDate day = start; !day.isAfter(end); day = day.plusDays(1)) {
+            days.put(day, new DailyStats(day, 0, 0, 0));
+        }
+        Map<String, LanguageStats> languages = new TreeMap<>();
+
+        jdbcTemplate.query(SELECT_ROLLUPS, rs -> {
+            long reviews = 0;
+            long correct = 0;
+            for (int quality = 0; quality < byQuality.length; quality++) {
+                int count = rs.getInt("quality_" + quality);
+                byQuality[quality] += count;
+                reviews += count;
+                if (quality >= CORRECT_QUALITY) {
+                    correct += count;
+                }
+            }
+            long newCards = rs.getInt("new_cards");
+            byHour[rs.getInt("hour_of_day")] += reviews;
+
+            DailyStats day = days.get(rs.getDate("review_date").toLocalDate());
+            day.setReviews(day.getReviews() + reviews);
+            day.setCorrect(day.getCorrect() + correct);
+            day.setNewCards(day.getNewCards() + newCards);
+
+            String language = rs.getString("language_selection");
+            LanguageStats languageStats = languages.computeIfAbsent(language, name -> new LanguageStats(
+                    ReviewRollups.NO_LANGUAGE.equals(name) ? null : LanguageSelection.valueOf(name), 0, 0, 0));
+            languageStats.setReviews(languageStats.getReviews() + reviews);
+            languageStats.setCorrect(languageStats.getCorrect() + correct);
+            languageStats.setNewCards(languageStats.getNewCards() + newCards);
+        }, userId, Date.valueOf(start), Date.valueOf(end));
+
+        long reviews = Arrays.stream(byQuality).sum();
+        long correct = Arrays.stream(byQuality, CORRECT_QUALITY, byQuality.length).sum();
+        long newCards = days.values().stream().mapToLong(DailyStats::getNewCards).sum();
+        return new StatsResponse(start, end, reviews, correct, newCards,
+                reviews == 0 ? 0 : (double) correct / reviews,
+                Arrays.stream(byQuality).boxed().toList(),
+                Arrays.stream(byHour).boxed().toList(),
+                new ArrayList<>(days.values()),
+                new ArrayList<>(languages.values()));
+    }
+
+    /** Cards coming due on each of the next {@code days} days, starting today. */
+    public ForecastResponse getForecast(String username, int days) {
+        if (days < 1 || days > MAX_FORECAST_DAYS) {
+            throw new IllegalArgumentException("Forecast covers 1 to " + MAX_FORECAST_DAYS + " days");
+        }
+        Long userId = findUserId(username);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate start = now.toLocalDate();
+        LocalDate end = start.plusDays(days - 1);
+
+        NavigableMap<LocalDate, Long> dueByDay = deckCounters.dueByDay(userId, now);
+        List<ForecastDay> forecast = new ArrayList<>(days);
+        long total = 0;
+        for (LocalDate day = start; !day.isAfter(end); day = day.plusDays(1)) {
+            long due = dueByDay.getOrDefault(day, 0L);
+            forecast.add(new ForecastDay(day, due));
+            total += due;
+        }
+        return new ForecastResponse(start, end, total, forecast);
+    }
+
+    /**
+     * Expected reviews on each of the next {@code days} days, with a 90% band, from
+     * {@code trials} Monte Carlo runs of the user's deck (see {@link WorkloadSimulator}) with
+     * {@code newCardsPerDay} new cards started each day.
+     */
+    public SimulationResponse simulate(String username, int days, int newCardsPerDay, int trials) {
+        if (days < 1 || days > MAX_FORECAST_DAYS) {
+            throw new IllegalArgumentException("Simulation covers 1 to " + MAX_FORECAST_DAYS + " days");
+        }
+        if (newCardsPerDay < 0 || newCardsPerDay > MAX_NEW_CARDS_PER_DAY) {
+            throw new IllegalArgumentException("New cards per day must be between 0 and " + MAX_NEW_CARDS_PER_DAY);
+        }
+        if (trials < 1 || trials > MAX_TRIALS) {
+            throw new IllegalArgumentException("Trials must be between 1 and " + MAX_TRIALS);
+        }
+        User user = findUser(username);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate start = now.toLocalDate();
+
+        long[] qualityCounts = jdbcTemplate.queryForObject(SELECT_QUALITY_COUNTS,
+                (rs, row) -> new long[]{rs.getLong(1), rs.getLong(2), rs.getLong(3),
+                        rs.getLong(4), rs.getLong(5), rs.getLong(6)},
+                user.getId(), Date.valueOf(start.minusDays(SIMULATION_HISTORY_DAYS)));
+        WorkloadSimulator.Simulation simulation =
+                workloadSimulator.simulate(user, now, days, newCardsPerDay, trials, qualityCounts);
+
+        List<SimulationDay> simulated = new ArrayList<>(days);
+        double total = 0;
+        for (int d = 0; d < days; d++) {
+            simulated.add(new SimulationDay(start.plusDays(d), simulation.expected()[d],
+                    simulation.lower()[d], simulation.upper()[d]));
+            total += simulation.expected()[d];
+        }
+        return new SimulationResponse(start, start.plusDays(days - 1), trials, newCardsPerDay, total, simulated);
+    }
+
+    /** The user's review streak and today's progress towards their daily goal. */
+    public StreakResponse getStreak(String username) {
+        User user = findUser(username);
+        StreakTracker.Today today = streakTracker.today(user.getId());
+        return new StreakResponse(today.currentStreak(), today.longestStreak(), today.reviewedToday(),
+                user.getDailyGoal(), user.getTimeZone());
+    }
+
+    /**
+     * Sets the user's daily goal and the time zone their days are counted in. A new time zone
+     * moves day boundaries, so the streak is then recomputed from history.
+     */
+    public StreakResponse updateGoal(GoalRequest request, String username) {
+        ZoneId zone;
+        try {
+            zone = ZoneId.of(request.getTimeZone());
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Unknown time zone: " + request.getTimeZone());
+        }
+        User user = findUser(username);
+        boolean zoneChanged = !zone.getId().equals(user.getTimeZone());
+        user.setDailyGoal(request.getDailyGoal());
+        user.setTimeZone(zone.getId());
+        userRepository.save(user);
+        if (zoneChanged) {
+            dailyLimitService.evict(user.getId());
+            streakTracker.reconcile(user.getId());
+        }
+        return getStreak(username);
+    }
+
+    /**
+     * This week's {@code limit} best-ranked users by reviews, from {@link WeeklyLeaderboard},
+     * and the caller's own rank.
+     */
+    public LeaderboardResponse getLeaderboard(String username, int limit) {
+        if (limit < 1 || limit > MAX_LEADERBOARD_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LEADERBOARD_LIMIT);
+        }
+        Long userId = findUserId(username);
+        WeeklyLeaderboard.Standings standings = weeklyLeaderboard.standings(userId, limit);
+        Map<Long, String> usernames = usernames(standings.top());
+        List<LeaderboardEntry> top = new ArrayList<>(standings.top().size());
+        for (ScoreRanking.Ranked ranked : standings.top()) {
+            String name = usernames.get(ranked.userId());
+            // Users deleted this week keep their place until the week ends but are not listed
+            if (name != null) {
+                top.add(new LeaderboardEntry(ranked.rank(), name, ranked.score()));
+            }
+        }
+        return new LeaderboardResponse(standings.weekStart(), standings.participants(), top,
+                standings.rank() > 0 ? standings.rank() : null, standings.reviews());
+    }
+
+    private Map<Long, String> usernames(List<ScoreRanking.Ranked> ranked) {
+        if (ranked.isEmpty()) {
+            return Map.of();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(ranked.size(), "?"));
+        Map<Long, String> usernames = new HashMap<>();
+        jdbcTemplate.query("SELECT id, username FROM users WHERE id IN (" + placeholders + ")",
+                rs -> {
+                    usernames.put(rs.getLong("id"), rs.getString("username"));
+                },
+                ranked.stream().map(ScoreRanking.Ranked::userId).toArray());
+        return usernames;
+    }
+
+    private User findUser(String username) {
+        return userRepository.findByUsername(username)
+                .orElseThrow(() -> new UserNotFoundException("User not found"));
+    }
+
+    private Long findUserId(String username) {
+        return findUser(username).getId();
+    }
+}
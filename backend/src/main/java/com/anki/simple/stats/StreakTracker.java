@@ -0,0 +1,379 @@
+package com.anki.simple.stats;
+
+import com.anki.simple.review.ReviewRecordedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Maintains each user's review streak and how many reviews they did on their latest review
+ * day, counted in calendar days of the user's time zone, in {@code user_streaks}. Committed
+ * reviews advance the in-memory state of their user, so reading a streak never touches
+ * {@code review_history}; changed users are written every {@code review.streaks.flush-interval}.
+ * <p>
+ * A review dated before the user's latest review day (recorded offline, say) is not applied
+ * live. {@link #reconcileAll()} recomputes every user's streak from history, one user per
+ * task on {@code review.streaks.reconcile-threads} threads, nightly on
+ * {@code review.streaks.reconcile-cron} and at startup with
+ * {@code review.streaks.reconcile-on-startup}. A user reviewed while being recomputed is
+ * retried, and skipped until the next run if that keeps happening.
+ */
+@Component
+public class StreakTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(StreakTracker.class);
+    private static final int BATCH_SIZE = 500;
+    private static final int FETCH_SIZE = 1000;
+    private static final int RECONCILE_ATTEMPTS = 3;
+
+    private static final String SELECT_STREAK =
+            "SELECT u.time_zone, s.current_streak, s.longest_streak, s.last_review_date, s.reviews_on_last_date "
+                    + "FROM users u LEFT JOIN user_streaks s ON s.user_id = u.id WHERE u.id = ?";
+    private static final String SELECT_TIME_ZONE = "SELECT time_zone FROM users WHERE id = ?";
+    private static final String SELECT_HISTORY =
+            "SELECT h.reviewed_at FROM review_history h JOIN vocabulary_cards c ON c.id = h.card_id "
+                    + "WHERE c.user_id = ? ORDER BY h.reviewed_at";
+    private static final String UPDATE_STREAK =
+            "UPDATE user_streaks SET current_streak = ?, longest_streak = ?, last_review_date = ?, "
+                    + "reviews_on_last_date = ? WHERE user_id = ?";
+    // Selecting from users skips users deleted since their review
+    private static final String INSERT_STREAK =
+            "INSERT INTO user_streaks (current_streak, longest_streak, last_review_date, reviews_on_last_date, user_id) "
+                    + "SELECT CAST(? AS INT), CAST(? AS INT), CAST(? AS DATE), CAST(? AS INT), id FROM users WHERE id = ?";
+    private static final String DELETE_STREAK = "DELETE FROM user_streaks WHERE user_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean reconcileOnStartup;
+    private final int reconcileThreads;
+    private final Cache<Long, Streak> streaks;
+    private final Map<Long, Streak> dirty = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    public StreakTracker(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${review.streaks.max-users:100000}") long maxUsers,
+            @Value("${review.streaks.reconcile-on-startup:false}") boolean reconcileOnStartup,
+            @Value("${review.streaks.reconcile-threads:4}") int reconcileThreads) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.reconcileOnStartup = reconcileOnStartup;
+        this.reconcileThreads = reconcileThreads;
+        // Dirty users stay reachable from the dirty map until flushed, so eviction loses nothing
+        this.streaks = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .build();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReviewRecorded(ReviewRecordedEvent event) {
+        Long userId = event.userId();
+        while (true) {
+            Streak streak = resident(userId);
+            if (streak == null) {
+                Streak loaded = load(userId);
+                if (loaded == null) {
+                    // The user is gone
+                    return;
+                }
+                Streak raced = streaks.asMap().putIfAbsent(userId, loaded);
+                streak = raced != null ? raced : loaded;
+            }
+            synchronized (streak) {
+                // A streak replaced by reconciliation meanwhile is applied to its successor
+                if (!streak.replaced) {
+                    streak.add(day(event.reviewedAt(), streak.zone));
+                    generation(userId).incrementAndGet();
+                    dirty.put(userId, streak);
+                    return;
+                }
+            }
+        }
+    }
+
+    /** The user's streak as of today in their time zone. */
+    public Today today(Long userId) {
+        Streak streak = resident(userId);
+        if (streak == null) {
+            streak = load(userId);
+            if (streak == null) {
+                return new Today(0, 0, 0);
+            }
+            streaks.asMap().putIfAbsent(userId, streak);
+        }
+        return streak.today(LocalDate.now(streak.zone));
+    }
+
+    @Scheduled(fixedDelayString = "${review.streaks.flush-interval:PT5S}")
+    public synchronized void flush() {
+        Map<Long, Streak> batch = new HashMap<>();
+        List<Streak.Row> rows = new ArrayList<>();
+        for (Long userId : dirty.keySet()) {
+            Streak streak = dirty.remove(userId);
+            if (streak != null) {
+                batch.put(userId, streak);
+                rows.add(streak.row(userId));
+            }
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(rows));
+        } catch (DataAccessException e) {
+            // Keep the users for the next flush rather than losing them
+            batch.forEach(dirty::putIfAbsent);
+            log.warn("Could not write {} review streaks, retrying on the next flush", rows.size(), e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (reconcileOnStartup) {
+            reconcileAll();
+        }
+    }
+
+    /** Recomputes every user's streak from review history; returns the number of users. */
+    @Scheduled(cron = "${review.streaks.reconcile-cron:0 45 3 * * *}")
+    public int reconcileAll() {
+        flush();
+        List<Long> userIds = jdbcTemplate.queryForList("SELECT id FROM users", Long.class);
+        int skipped = 0;
+        try (ExecutorService executor = Executors.newFixedThreadPool(reconcileThreads)) {
+            List<Future<Boolean>> tasks = new ArrayList<>();
+            for (Long userId : userIds) {
+                tasks.add(executor.submit(() -> reconcile(userId)));
+            }
+            for (Future<Boolean> task : tasks) {
+                if (!task.get()) {
+                    skipped++;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Review streak reconciliation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Review streak reconciliation failed", e.getCause());
+        }
+        log.info("Reconciled review streaks of {} users, {} skipped as they kept reviewing",
+                userIds.size() - skipped, skipped);
+        return userIds.size() - skipped;
+    }
+
+    /**
+     * Recomputes one user's streak from review history, e.g. after they change time zone.
+     *
+     * @return false if the user kept reviewing during every attempt and was left as is
+     */
+    public boolean reconcile(Long userId) {
+        for (int attempt = 0; attempt < RECONCILE_ATTEMPTS; attempt++) {
+            long generation = generation(userId).get();
+            Streak recomputed = recompute(userId);
+            transactionTemplate.executeWithoutResult(status -> {
+                if (recomputed == null || recomputed.lastDay == null) {
+                    jdbcTemplate.update(DELETE_STREAK, userId);
+                } else {
+                    write(List.of(recomputed.row(userId)));
+                }
+            });
+            if (recomputed == null) {
+                streaks.invalidate(userId);
+                dirty.remove(userId);
+                return true;
+            }
+            if (replace(userId, generation, recomputed)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @PreDestroy
+    void close() {
+        flush();
+    }
+
+    /**
+     * Swaps in a recomputed streak unless the user was reviewed since {@code generation}; the
+     * replaced streak is retired under its lock, so a review racing the swap moves on to the
+     * recomputed one instead of being lost.
+     */
+    private boolean replace(Long userId, long generation, Streak recomputed) {
+        Streak current = resident(userId);
+        if (current == null) {
+            current = streaks.asMap().putIfAbsent(userId, recomputed);
+            if (current == null) {
+                return generation(userId).get() == generation;
+            }
+        }
+        synchronized (current) {
+            if (current.replaced || generation(userId).get() != generation) {
+                return false;
+            }
+            streaks.put(userId, recomputed);
+            current.replaced = true;
+            dirty.remove(userId, current);
+            return true;
+        }
+    }
+
+    /** The user's streak if held in memory, cached again if only the dirty map had it. */
+    private Streak resident(Long userId) {
+        Streak streak = streaks.getIfPresent(userId);
+        if (streak == null) {
+            streak = dirty.get(userId);
+            if (streak != null) {
+                Streak raced = streaks.asMap().putIfAbsent(userId, streak);
+                streak = raced != null ? raced : streak;
+            }
+        }
+        return streak;
+    }
+
+    private Streak recompute(Long userId) {
+        return readOnlyTransaction.execute(status -> {
+            List<String> zone = jdbcTemplate.queryForList(SELECT_TIME_ZONE, String.class, userId);
+            if (zone.isEmpty()) {
+                return null;
+            }
+            Streak streak = new Streak(ZoneId.of(zone.getFirst()));
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(SELECT_HISTORY,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(FETCH_SIZE);
+                statement.setLong(1, userId);
+                return statement;
+            }, (ResultSet rs) -> streak.add(day(rs.getTimestamp("reviewed_at").toLocalDateTime(), streak.zone)));
+            return streak;
+        });
+    }
+
+    private Streak load(Long userId) {
+        return jdbcTemplate.query(SELECT_STREAK, rs -> {
+            if (!rs.next()) {
+                return null;
+            }
+            Streak streak = new Streak(ZoneId.of(rs.getString("time_zone")));
+            Date lastDay = rs.getDate("last_review_date");
+            if (lastDay != null) {
+                streak.lastDay = lastDay.toLocalDate();
+                streak.current = rs.getInt("current_streak");
+                streak.longest = rs.getInt("longest_streak");
+                streak.reviewsOnLastDay = rs.getInt("reviews_on_last_date");
+            }
+            return streak;
+        }, userId);
+    }
+
+    private void write(List<Streak.Row> rows) {
+        int[][] updated = jdbcTemplate.batchUpdate(UPDATE_STREAK, rows, BATCH_SIZE, (ps, row) -> setRow(ps, row));
+        List<Streak.Row> missing = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            if (updated[i / BATCH_SIZE][i % BATCH_SIZE] == 0) {
+                missing.add(rows.get(i));
+            }
+        }
+        if (!missing.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_STREAK, missing, BATCH_SIZE, (ps, row) -> setRow(ps, row));
+        }
+    }
+
+    private static void setRow(PreparedStatement ps, Streak.Row row) throws SQLException {
+        ps.setInt(1, row.current());
+        ps.setInt(2, row.longest());
+        ps.setDate(3, Date.valueOf(row.lastDay()));
+        ps.setInt(4, row.reviewsOnLastDay());
+        ps.setLong(5, row.userId());
+    }
+
+    /** The user's calendar day of a review time, which is in the server's time zone. */
+    private static LocalDate day(LocalDateTime reviewedAt, ZoneId zone) {
+        return reviewedAt.atZone(ZoneId.systemDefault()).withZoneSameInstant(zone).toLocalDate();
+    }
+
+    private AtomicLong generation(Long userId) {
+        return generations.computeIfAbsent(userId, id -> new AtomicLong());
+    }
+
+    /** A user's streak as shown: 0 once a day has been missed, and the reviews done today. */
+    public record Today(int currentStreak, int longestStreak, int reviewedToday) {
+    }
+
+    /** One user's streak, advanced one review at a time in review order. */
+    static final class Streak {
+
+        private final ZoneId zone;
+        private LocalDate lastDay;
+        private int current;
+        private int longest;
+        private int reviewsOnLastDay;
+        /** Set once reconciliation swapped in a successor; guarded by this streak's lock. */
+        private boolean replaced;
+
+        Streak(ZoneId zone) {
+            this.zone = zone;
+        }
+
+        synchronized void add(LocalDate day) {
+            if (lastDay == null || day.isAfter(lastDay)) {
+                current = lastDay != null && day.equals(lastDay.plusDays(1)) ? current + 1 : 1;
+                longest = Math.max(longest, current);
+                lastDay = day;
+                reviewsOnLastDay = 1;
+            } else if (day.equals(lastDay)) {
+                reviewsOnLastDay++;
+            }
+            // Earlier days are left to reconciliation
+        }
+
+        synchronized Today today(LocalDate today) {
+            if (lastDay == null) {
+                return new Today(0, longest, 0);
+            }
+            return new Today(lastDay.isBefore(today.minusDays(1)) ? 0 : current, longest,
+                    lastDay.equals(today) ? reviewsOnLastDay : 0);
+        }
+
+        synchronized Row row(Long userId) {
+            return new Row(userId, current, longest, lastDay, reviewsOnLastDay);
+        }
+
+        record Row(Long userId, int current, int longest, LocalDate lastDay, int reviewsOnLastDay) {
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.anki.simple.stats;
+
+import com.anki.simple.review.ReviewRecordedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reviews per user this week (Monday to Sunday, server time), ranked in a
+ * {@link ScoreRanking} that committed reviews update in place, so a rank or the top of the
+ * board costs O(log n) and no query.
+ * <p>
+ * Users whose score changed are written to {@code leaderboard_snapshots} every
+ * {@code review.leaderboard.snapshot-interval} and on shutdown, and the board is reloaded
+ * from the week's snapshot on startup. Only without a snapshot of the week is it aggregated
+ * from {@code review_history}. Reviews in the last interval before a crash are not counted.
+ * Reviews dated in an earlier week, e.g. recorded offline, do not count.
+ */
+@Component
+public class WeeklyLeaderboard {
+
+    private static final Logger log = LoggerFactory.getLogger(WeeklyLeaderboard.class);
+    private static final int BATCH_SIZE = 500;
+
+    private static final String SELECT_SNAPSHOT =
+            "SELECT user_id, reviews FROM leaderboard_snapshots WHERE week_start = ?";
+    private static final String SELECT_WEEK_HISTORY =
+            "SELECT c.user_id, COUNT(*) AS reviews FROM review_history h "
+                    + "JOIN vocabulary_cards c ON c.id = h.card_id "
+                    + "WHERE h.reviewed_at >= ? AND h.reviewed_at < ? GROUP BY c.user_id";
+    private static final String UPDATE_SNAPSHOT =
+            "UPDATE leaderboard_snapshots SET reviews = ? WHERE week_start = ? AND user_id = ?";
+    // Selecting from users skips users deleted since their review
+    private static final String INSERT_SNAPSHOT =
+            "INSERT INTO leaderboard_snapshots (reviews, week_start, user_id) "
+                    + "SELECT CAST(? AS INT), CAST(? AS DATE), id FROM users WHERE id = ?";
+    private static final String DELETE_OLD_SNAPSHOTS = "DELETE FROM leaderboard_snapshots WHERE week_start < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean loadOnStartup;
+    private LocalDate weekStart;
+    private ScoreRanking ranking;
+    private Set<Long> dirty = new HashSet<>();
+    private boolean oldSnapshotsDeleted;
+
+    public WeeklyLeaderboard(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${review.leaderboard.load-on-startup:true}") boolean loadOnStartup) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.loadOnStartup = loadOnStartup;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (loadOnStartup) {
+            standings(null, 0);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onReviewRecorded(ReviewRecordedEvent event) {
+        ScoreRanking current = current();
+        if (weekStart(event.reviewedAt().toLocalDate()).equals(weekStart)) {
+            current.add(event.userId(), 1);
+            dirty.add(event.userId());
+        }
+    }
+
+    /**
+     * This week's board: the {@code limit} best-ranked users and, for {@code userId} if not
+     * null, their rank (0 if they have not reviewed this week) and reviews.
+     */
+    public synchronized Standings standings(Long userId, int limit) {
+        ScoreRanking current = current();
+        return new Standings(weekStart, current.size(), current.top(limit),
+                userId != null ? current.rank(userId) : 0, userId != null ? current.score(userId) : 0);
+    }
+
+    /** Writes the scores changed since the last snapshot. */
+    @Scheduled(fixedDelayString = "${review.leaderboard.snapshot-interval:PT1M}")
+    public void snapshot() {
+        LocalDate week;
+        List<long[]> scores = new ArrayList<>();
+        boolean deleteOld;
+        synchronized (this) {
+            if (ranking == null || (dirty.isEmpty() && oldSnapshotsDeleted)) {
+                return;
+            }
+            week = weekStart;
+            for (Long userId : dirty) {
+                scores.add(new long[]{userId, ranking.score(userId)});
+            }
+            dirty = new HashSet<>();
+            deleteOld = !oldSnapshotsDeleted;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (deleteOld) {
+                    jdbcTemplate.update(DELETE_OLD_SNAPSHOTS, Date.valueOf(week));
+                }
+                write(week, scores);
+            });
+        } catch (DataAccessException e) {
+            // Mark the users again for the next snapshot, unless the week has moved on
+            synchronized (this) {
+                if (week.equals(weekStart)) {
+                    scores.forEach(score -> dirty.add(score[0]));
+                }
+            }
+            log.warn("Could not snapshot {} leaderboard scores, retrying on the next snapshot", scores.size(), e);
+            return;
+        }
+        synchronized (this) {
+            if (week.equals(weekStart)) {
+                oldSnapshotsDeleted |= deleteOld;
+            }
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        snapshot();
+    }
+
+    /** The board of the week under way, started over or loaded when the week changes. */
+    private ScoreRanking current() {
+        LocalDate thisWeek = weekStart(LocalDate.now());
+        if (ranking == null || thisWeek.isAfter(weekStart)) {
+            ranking = load(thisWeek);
+            weekStart = thisWeek;
+            dirty = new HashSet<>();
+            oldSnapshotsDeleted = false;
+        }
+        return ranking;
+    }
+
+    private ScoreRanking load(LocalDate week) {
+        ScoreRanking loaded = new ScoreRanking();
+        jdbcTemplate.query(SELECT_SNAPSHOT, rs -> {
+            loaded.add(rs.getLong("user_id"), rs.getInt("reviews"));
+        }, Date.valueOf(week));
+        if (loaded.size() > 0) {
+            log.info("Loaded the leaderboard of the week of {} from its snapshot: {} users", week, loaded.size());
+            return loaded;
+        }
+        jdbcTemplate.query(SELECT_WEEK_HISTORY, rs -> {
+            loaded.add(rs.getLong("user_id"), rs.getInt("reviews"));
+        }, Timestamp.valueOf(week.atStartOfDay()), Timestamp.valueOf(week.plusWeeks(1).atStartOfDay()));
+        if (loaded.size() > 0) {
+            // Snapshot every user on the next run
+            loaded.forEach((userId, score) -> dirty.add(userId));
+            log.info("Aggregated the leaderboard of the week of {} from review history: {} users", week, loaded.size());
+        }
+        return loaded;
+    }
+
+    private void write(LocalDate week, List<long[]> scores) {
+        int[][] updated = jdbcTemplate.batchUpdate(UPDATE_SNAPSHOT, scores, BATCH_SIZE,
+                (ps, score) -> setScore(ps, week, score));
+        List<long[]> missing = new ArrayList<>();
+        for (int i = 0; i < scores.size(); i++) {
+            if (updated[i / BATCH_SIZE][i % BATCH_SIZE] == 0) {
+                missing.add(scores.get(i));
+            }
+        }
+        if (!missing.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SNAPSHOT, missing, BATCH_SIZE, (ps, score) -> setScore(ps, week, score));
+        }
+    }
+
+    private static void setScore(PreparedStatement ps, LocalDate week, long[] score) throws SQLException {
+        ps.setInt(1, (int) score[1]);
+        ps.setDate(2, Date.valueOf(week));
+        ps.setLong(3, score[0]);
+    }
+
+    static LocalDate weekStart(LocalDate day) {
+        return day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    /** This week's board as seen by one user; {@code rank} is 0 for a user not on it. */
+    record Standings(LocalDate weekStart, int participants, List<ScoreRanking.Ranked> top, int rank, int reviews) {
+    }
+}
@@ -0,0 +1,17 @@
+package com.anki.simple.stats.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyStats {
+    private LocalDate day;
+    private long reviews;
+    private long correct;
+    private long newCards;
+}
@@ -0,0 +1,15 @@
+package com.anki.simple.stats.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ForecastDay {
+    private LocalDate day;
+    private long due;
+}
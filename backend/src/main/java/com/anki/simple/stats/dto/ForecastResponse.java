@@ -0,0 +1,20 @@
+package com.anki.simple.stats.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ForecastResponse {
+    private LocalDate from;
+    private LocalDate to;
+    /** Cards due within the range, overdue ones included. */
+    private long total;
+    /** One entry per day; the first also counts every overdue card. */
+    private List<ForecastDay> days;
+}
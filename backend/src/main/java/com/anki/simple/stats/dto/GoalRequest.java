@@ -0,0 +1,19 @@
+package com.anki.simple.stats.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class GoalRequest {
+    /** Reviews per day. */
+    @NotNull
+    @Min(1)
+    @Max(10000)
+    private Integer dailyGoal;
+    /** IANA time zone the user's days are counted in, e.g. {@code Europe/Berlin}. */
+    @NotBlank
+    private String timeZone;
+}
@@ -0,0 +1,16 @@
+package com.anki.simple.stats.dto;
+
+import com.anki.simple.vocabulary.LanguageSelection;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LanguageStats {
+    private LanguageSelection languageSelection;
+    private long reviews;
+    private long correct;
+    private long newCards;
+}
@@ -0,0 +1,15 @@
+package com.anki.simple.stats.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardEntry {
+    /** 1-based; users with equal reviews share a rank. */
+    private int rank;
+    private String username;
+    private int reviews;
+}
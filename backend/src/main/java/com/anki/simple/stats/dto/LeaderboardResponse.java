@@ -0,0 +1,22 @@
+package com.anki.simple.stats.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardResponse {
+    /** Monday the week started. */
+    private LocalDate weekStart;
+    /** Users with at least one review this week. */
+    private int participants;
+    private List<LeaderboardEntry> top;
+    /** The caller's rank, or null without a review this week. */
+    private Integer rank;
+    private int reviews;
+}
@@ -0,0 +1,20 @@
+package com.anki.simple.stats.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimulationDay {
+    private LocalDate day;
+    /** Mean number of reviews over the trials. */
+    private double expected;
+    /** 5th percentile over the trials. */
+    private int lower;
+    /** 95th percentile over the trials. */
+    private int upper;
+}
@@ -0,0 +1,22 @@
+package com.anki.simple.stats.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimulationResponse {
+    private LocalDate from;
+    private LocalDate to;
+    private int trials;
+    private int newCardsPerDay;
+    /** Mean number of reviews over the whole range. */
+    private double expectedTotal;
+    /** One entry per day; the first also covers every overdue card. */
+    private List<SimulationDay> days;
+}
@@ -0,0 +1,27 @@
+package com.anki.simple.stats.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatsResponse {
+    private LocalDate from;
+    private LocalDate to;
+    private long reviews;
+    private long correct;
+    private long newCards;
+    /** Share of reviews answered with quality 3 or better; 0 without reviews. */
+    private double retention;
+    /** Reviews per answer quality, index 0 to 5. */
+    private List<Long> byQuality;
+    /** Reviews per hour of day, index 0 to 23. */
+    private List<Long> byHour;
+    private List<DailyStats> days;
+    private List<LanguageStats> languages;
+}
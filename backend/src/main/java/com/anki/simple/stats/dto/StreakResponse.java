@@ -0,0 +1,18 @@
+package com.anki.simple.stats.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StreakResponse {
+    /** Consecutive days with a review, up to today or yesterday; 0 once a day is missed. */
+    private int currentStreak;
+    private int longestStreak;
+    /** Reviews done today, in the user's time zone. */
+    private int reviewedToday;
+    private int dailyGoal;
+    private String timeZone;
+}
@@ -9,7 +9,9 @@ import com.anki.simple.tag.dto.TagResponse;
 import com.anki.simple.tag.mapper.TagMapper;
 import com.anki.simple.user.User;
 import com.anki.simple.user.UserRepository;
+import com.anki.simple.vocabulary.DeckChangedEvent;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,6 +26,7 @@ public class TagService {
     private final TagRepository tagRepository;
     private final UserRepository userRepository;
     private final TagMapper tagMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public TagResponse createTag(TagRequest request, String username) {
@@ -65,6 +68,7 @@ public class TagService {
         tag.setColor(request.getColor());
 
         Tag updatedTag = tagRepository.save(tag);
+        eventPublisher.publishEvent(new DeckChangedEvent(user.getId()));
         return tagMapper.toResponse(updatedTag);
     }
 
@@ -92,5 +96,6 @@ public class TagService {
         }
 
         tagRepository.delete(tag);
+        eventPublisher.publishEvent(new DeckChangedEvent(user.getId()));
     }
 }
@@ -1,5 +1,6 @@
 package com.anki.simple.user;
 
+import com.anki.simple.review.scheduling.SchedulingAlgorithmType;
 import com.anki.simple.user.dto.LeanUserInternal;
 import com.anki.simple.vocabulary.VocabularyCard;
 import jakarta.persistence.*;
@@ -48,6 +49,22 @@ public class User {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "scheduling_algorithm", nullable = false, length = 10)
+    private SchedulingAlgorithmType schedulingAlgorithm = SchedulingAlgorithmType.SM2;
+
+    @Column(name = "new_cards_per_day", nullable = false)
+    private int newCardsPerDay = 20;
+
+    @Column(name = "reviews_per_day", nullable = false)
+    private int reviewsPerDay = 200;
+
+    @Column(name = "time_zone", nullable = false, length = 64)
+    private String timeZone = "UTC";
+
+    @Column(name = "daily_goal", nullable = false)
+    private int dailyGoal = 50;
+
     @OneToMany(mappedBy = "user", fetch = FetchType.LAZY)
     private List<VocabularyCard> vocabularyCards = new ArrayList<>();
 
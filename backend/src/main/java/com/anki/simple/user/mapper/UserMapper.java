@@ -14,6 +14,11 @@ public interface UserMapper {
   @Mapping(target = "password", ignore = true)
   @Mapping(target = "createdAt", ignore = true)
   @Mapping(target = "vocabularyCards", ignore = true)
+  @Mapping(target = "schedulingAlgorithm", ignore = true)
+  @Mapping(target = "newCardsPerDay", ignore = true)
+  @Mapping(target = "reviewsPerDay", ignore = true)
+  @Mapping(target = "timeZone", ignore = true)
+  @Mapping(target = "dailyGoal", ignore = true)
   User toEntity(SignupRequest request);
 
   default AuthResponse toAuthResponse(User user, String token) {
@@ -0,0 +1,56 @@
+package com.anki.simple.vocabulary;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Card attributes a client may request through the {@code fields} parameter.
+ * The names are the JSON property names of {@code VocabularyCardResponse}.
+ */
+public enum CardField {
+    ID("id"),
+    FRONT("front"),
+    BACK("back"),
+    EXAMPLE_SENTENCE("exampleSentence"),
+    LANGUAGE_SELECTION("languageSelection"),
+    AUDIO_URL("audioUrl"),
+    CREATED_AT("createdAt"),
+    LAST_REVIEWED("lastReviewed"),
+    NEXT_REVIEW("nextReview"),
+    EASE_FACTOR("easeFactor"),
+    INTERVAL_DAYS("intervalDays"),
+    REPETITIONS("repetitions"),
+    TAGS("tags");
+
+    private final String propertyName;
+
+    CardField(String propertyName) {
+        this.propertyName = propertyName;
+    }
+
+    public String getPropertyName() {
+        return propertyName;
+    }
+
+    /**
+     * Parses a comma-separated list such as {@code "front,back,tags"}. The id is always included.
+     */
+    public static Set<CardField> parse(String fields) {
+        Set<CardField> result = EnumSet.of(ID);
+        if (fields == null) {
+            return result;
+        }
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            result.add(Arrays.stream(values())
+                    .filter(field -> field.propertyName.equals(trimmed))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown card field: " + trimmed)));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,35 @@
+package com.anki.simple.vocabulary;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when a card enters, leaves or moves within a user's review schedule.
+ * {@code previousNextReview} is null for a newly created card and {@code nextReview}
+ * is null for a deleted one. {@code previouslyUnseen} and {@code unseen} tell whether the
+ * card had never been reviewed before and after the change.
+ */
+public record CardScheduleChangedEvent(Long userId, Long cardId,
+                                       LocalDateTime previousNextReview, LocalDateTime nextReview,
+                                       boolean previouslyUnseen, boolean unseen) {
+
+    public static CardScheduleChangedEvent created(Long userId, Long cardId, LocalDateTime nextReview) {
+        return new CardScheduleChangedEvent(userId, cardId, null, nextReview, false, true);
+    }
+
+    public static CardScheduleChangedEvent deleted(Long userId, Long cardId, LocalDateTime nextReview,
+                                                   boolean unseen) {
+        return new CardScheduleChangedEvent(userId, cardId, nextReview, null, unseen, false);
+    }
+
+    /** A card reviewed, for the first time if {@code firstReview}. */
+    public static CardScheduleChangedEvent reviewed(Long userId, Long cardId, LocalDateTime previousNextReview,
+                                                    LocalDateTime nextReview, boolean firstReview) {
+        return new CardScheduleChangedEvent(userId, cardId, previousNextReview, nextReview, firstReview, false);
+    }
+
+    /** A card reviewed before, moved without a new review. */
+    public static CardScheduleChangedEvent rescheduled(Long userId, Long cardId,
+                                                       LocalDateTime previousNextReview, LocalDateTime nextReview) {
+        return new CardScheduleChangedEvent(userId, cardId, previousNextReview, nextReview, false, false);
+    }
+}
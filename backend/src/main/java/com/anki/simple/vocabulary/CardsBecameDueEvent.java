@@ -0,0 +1,7 @@
+package com.anki.simple.vocabulary;
+
+/**
+ * Published when cards of a user become due as time passes, without any write.
+ */
+public record CardsBecameDueEvent(Long userId, int count) {
+}
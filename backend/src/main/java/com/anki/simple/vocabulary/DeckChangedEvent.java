@@ -0,0 +1,23 @@
+package com.anki.simple.vocabulary;
+
+import java.util.Set;
+
+/**
+ * Published whenever a write touches a user's deck (cards, their tags or their schedule).
+ * Listeners use it to drop or refresh derived per-user state. An empty {@code cardIds}
+ * means the change may affect every card of the user, e.g. a renamed or deleted tag.
+ */
+public record DeckChangedEvent(Long userId, Set<Long> cardIds) {
+
+    public DeckChangedEvent(Long userId) {
+        this(userId, Set.of());
+    }
+
+    public static DeckChangedEvent forCard(Long userId, Long cardId) {
+        return new DeckChangedEvent(userId, Set.of(cardId));
+    }
+
+    public boolean affectsWholeDeck() {
+        return cardIds.isEmpty();
+    }
+}
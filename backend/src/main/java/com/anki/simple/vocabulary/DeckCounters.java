@@ -0,0 +1,252 @@
+package com.anki.simple.vocabulary;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user card counters kept in memory so the dashboard's total and due counts do not
+ * scan the user's cards on every poll.
+ * <p>
+ * A user's counters are loaded lazily with a few aggregate queries, then maintained from
+ * {@link CardScheduleChangedEvent}s once the writing transaction commits. They are rebuilt
+ * when the calendar day changes and, as a reconciliation against writes that bypass the
+ * services, at most {@code vocabulary.counters.reconcile-interval} after loading.
+ */
+@Component
+public class DeckCounters {
+
+    private final VocabularyRepository vocabularyRepository;
+    private final Cache<Long, Counts> counters;
+    private final Map<Long, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    public DeckCounters(
+            VocabularyRepository vocabularyRepository,
+            @Value("${vocabulary.counters.reconcile-interval:PT10M}") Duration reconcileInterval,
+            @Value("${vocabulary.counters.max-users:100000}") long maxUsers) {
+        this.vocabularyRepository = vocabularyRepository;
+        this.counters = Caffeine.newBuilder()
+                .expireAfterWrite(reconcileInterval)
+                .maximumSize(maxUsers)
+                .build();
+    }
+
+    public long totalCount(Long userId) {
+        Counts counts = counters.getIfPresent(userId);
+        return counts != null ? counts.total() : counts(userId, LocalDateTime.now()).total();
+    }
+
+    public long dueCount(Long userId, LocalDateTime now) {
+        return counts(userId, now).due(now);
+    }
+
+    /** The cards due now, split into never reviewed ones and learned ones. */
+    public DueCounts dueCounts(Long userId, LocalDateTime now) {
+        return counts(userId, now).dueCounts(now);
+    }
+
+    /**
+     * Number of cards becoming due on each day from {@code now}'s day on; the first entry
+     * also includes every overdue card.
+     */
+    public NavigableMap<LocalDate, Long> dueByDay(Long userId, LocalDateTime now) {
+        return counts(userId, now).dueByDay();
+    }
+
+    /**
+     * Number of cards due on each of {@code days} days starting at {@code from}; a day before
+     * {@code now}'s day counts as 0, {@code now}'s day includes every overdue card.
+     */
+    public long[] dueOnDays(Long userId, LocalDateTime now, LocalDate from, int days) {
+        return counts(userId, now).dueOnDays(from, days);
+    }
+
+    @EventListener
+    public void onCardScheduleChanged(CardScheduleChangedEvent event) {
+        Long userId = event.userId();
+        generation(userId).incrementAndGet();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public int getOrder() {
+                // Ahead of after-commit listeners that read the counters
+                return Ordered.HIGHEST_PRECEDENCE;
+            }
+
+            @Override
+            public void afterCommit() {
+                apply(event);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                generation(userId).incrementAndGet();
+            }
+        });
+    }
+
+    public void evict(Long userId) {
+        generation(userId).incrementAndGet();
+        counters.invalidate(userId);
+    }
+
+    private void apply(CardScheduleChangedEvent event) {
+        Counts counts = counters.getIfPresent(event.userId());
+        if (counts != null) {
+            counts.move(event.previousNextReview(), event.previouslyUnseen(), event.nextReview(), event.unseen());
+        }
+    }
+
+    private Counts counts(Long userId, LocalDateTime now) {
+        LocalDate today = now.toLocalDate();
+        Counts counts = counters.getIfPresent(userId);
+        if (counts != null && counts.day().equals(today)) {
+            return counts;
+        }
+        long generation = generation(userId).get();
+        Counts loaded = load(userId, today);
+        if (generation(userId).get() == generation) {
+            counters.put(userId, loaded);
+        }
+        return loaded;
+    }
+
+    private Counts load(Long userId, LocalDate today) {
+        LocalDateTime dayStart = today.atStartOfDay();
+        LocalDateTime nextDayStart = dayStart.plusDays(1);
+
+        Counts counts = new Counts(today);
+        counts.total = vocabularyRepository.countByUserId(userId);
+        counts.overdue = vocabularyRepository.countByUserIdAndNextReviewBefore(userId, dayStart);
+        counts.unseenOverdue = vocabularyRepository.countByUserIdAndNextReviewBeforeAndLastReviewedIsNull(
+                userId, dayStart);
+        for (LocalDateTime nextReview : vocabularyRepository.findNextReviewsBetween(userId, dayStart, nextDayStart)) {
+            counts.today.merge(nextReview, 1, Integer::sum);
+        }
+        for (LocalDateTime nextReview : vocabularyRepository.findUnseenNextReviewsBetween(
+                userId, dayStart, nextDayStart)) {
+            counts.unseenToday.merge(nextReview, 1, Integer::sum);
+        }
+        for (Object[] row : vocabularyRepository.countNextReviewsByDaySince(userId, nextDayStart)) {
+            counts.upcoming.put((LocalDate) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+
+    private AtomicLong generation(Long userId) {
+        return generations.computeIfAbsent(userId, id -> new AtomicLong());
+    }
+
+    /** Due cards never reviewed and due cards reviewed before. */
+    public record DueCounts(long unseen, long learned) {
+    }
+
+    /**
+     * Counters for one user, valid for a single calendar day: cards due before the day
+     * are one number, cards due during the day keep their exact time, later days are
+     * counted per day. Due cards that were never reviewed are also counted on their own.
+     */
+    static final class Counts {
+
+        private final LocalDate day;
+        private long total;
+        private long overdue;
+        private long unseenOverdue;
+        private final NavigableMap<LocalDateTime, Integer> today = new TreeMap<>();
+        private final NavigableMap<LocalDateTime, Integer> unseenToday = new TreeMap<>();
+        private final NavigableMap<LocalDate, Long> upcoming = new TreeMap<>();
+
+        Counts(LocalDate day) {
+            this.day = day;
+        }
+
+        LocalDate day() {
+            return day;
+        }
+
+        synchronized long total() {
+            return total;
+        }
+
+        synchronized long due(LocalDateTime now) {
+            return overdue + dueToday(today, now);
+        }
+
+        synchronized DueCounts dueCounts(LocalDateTime now) {
+            long unseen = unseenOverdue + dueToday(unseenToday, now);
+            return new DueCounts(unseen, due(now) - unseen);
+        }
+
+        private static long dueToday(NavigableMap<LocalDateTime, Integer> today, LocalDateTime now) {
+            long due = 0;
+            for (int count : today.headMap(now, true).values()) {
+                due += count;
+            }
+            return due;
+        }
+
+        synchronized NavigableMap<LocalDate, Long> dueByDay() {
+            NavigableMap<LocalDate, Long> byDay = new TreeMap<>(upcoming);
+            byDay.put(day, overdue + today.values().stream().mapToLong(Integer::longValue).sum());
+            return byDay;
+        }
+
+        synchronized long[] dueOnDays(LocalDate from, int days) {
+            long[] due = new long[days];
+            for (int i = 0; i < days; i++) {
+                LocalDate date = from.plusDays(i);
+                if (date.equals(day)) {
+                    due[i] = overdue + today.values().stream().mapToLong(Integer::longValue).sum();
+                } else if (date.isAfter(day)) {
+                    due[i] = upcoming.getOrDefault(date, 0L);
+                }
+            }
+            return due;
+        }
+
+        synchronized void move(LocalDateTime from, boolean fromUnseen, LocalDateTime to, boolean toUnseen) {
+            if (from != null) {
+                total--;
+                adjust(from, fromUnseen, -1);
+            }
+            if (to != null) {
+                total++;
+                adjust(to, toUnseen, 1);
+            }
+        }
+
+        private void adjust(LocalDateTime nextReview, boolean unseen, int delta) {
+            LocalDate date = nextReview.toLocalDate();
+            if (date.isBefore(day)) {
+                overdue += delta;
+                if (unseen) {
+                    unseenOverdue += delta;
+                }
+            } else if (date.equals(day)) {
+                today.merge(nextReview, delta, (a, b) -> a + b == 0 ? null : a + b);
+                if (unseen) {
+                    unseenToday.merge(nextReview, delta, (a, b) -> a + b == 0 ? null : a + b);
+                }
+            } else {
+                upcoming.merge(date, (long) delta, (a, b) -> a + b == 0 ? null : a + b);
+            }
+        }
+    }
+}
@@ -55,6 +55,18 @@ public class VocabularyCard {
     @Column(name = "repetitions")
     private Integer repetitions = 0;
 
+    /** FSRS memory state; null unless the card was last reviewed with FSRS. */
+    @Column(name = "stability")
+    private Double stability;
+
+    @Column(name = "difficulty")
+    private Double difficulty;
+
+    /** Bumped on every write; see {@code ReviewService} for how review conflicts are retried. */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
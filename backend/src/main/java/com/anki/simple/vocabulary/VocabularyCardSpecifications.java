@@ -0,0 +1,38 @@
+package com.anki.simple.vocabulary;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+public final class VocabularyCardSpecifications {
+
+    private VocabularyCardSpecifications() {
+    }
+
+    public static Specification<VocabularyCard> ownedBy(Long userId) {
+        return (card, query, cb) -> cb.equal(card.get("user").get("id"), userId);
+    }
+
+    public static Specification<VocabularyCard> hasId(Long id) {
+        return (card, query, cb) -> cb.equal(card.get("id"), id);
+    }
+
+    public static Specification<VocabularyCard> idIn(Collection<Long> ids) {
+        return (card, query, cb) -> card.get("id").in(ids);
+    }
+
+    public static Specification<VocabularyCard> dueAt(LocalDateTime now) {
+        return (card, query, cb) -> cb.lessThanOrEqualTo(card.get("nextReview"), now);
+    }
+
+    public static Specification<VocabularyCard> matching(String searchTerm) {
+        return (card, query, cb) -> {
+            String pattern = "%" + searchTerm.toLowerCase() + "%";
+            return cb.or(
+                    cb.like(cb.lower(card.get("front")), pattern),
+                    cb.like(cb.lower(card.get("back")), pattern),
+                    cb.like(cb.lower(card.get("exampleSentence")), pattern));
+        };
+    }
+}
@@ -1,5 +1,8 @@
 package com.anki.simple.vocabulary;
 
+import com.anki.simple.vocabulary.cache.JsonFragmentArray;
+import com.anki.simple.vocabulary.dto.VocabularyCardBatchRequest;
+import com.anki.simple.vocabulary.dto.VocabularyCardBatchResponse;
 import com.anki.simple.vocabulary.dto.VocabularyCardLeanResponse;
 import com.anki.simple.vocabulary.dto.VocabularyCardRequest;
 import com.anki.simple.vocabulary.dto.VocabularyCardResponse;
@@ -11,6 +14,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/v1/vocabulary")
@@ -38,10 +42,30 @@ public class VocabularyController {
         return ResponseEntity.ok(cards);
     }
 
+    @GetMapping(params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getAllCardFields(
+            @RequestParam String fields,
+            @RequestParam(required = false) String sortBy,
+            @RequestParam(required = false) String sortDirection,
+            @RequestParam(required = false) String searchTerm,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        List<Map<String, Object>> cards = vocabularyService.getAllCardFields(
+                userDetails.getUsername(), fields, sortBy, sortDirection, searchTerm);
+        return ResponseEntity.ok(cards);
+    }
+
     @GetMapping("/due")
-    public ResponseEntity<List<VocabularyCardResponse>> getDueCards(
+    public ResponseEntity<JsonFragmentArray> getDueCards(
+            @AuthenticationPrincipal UserDetails userDetails) {
+        JsonFragmentArray cards = vocabularyService.getDueCardsJson(userDetails.getUsername());
+        return ResponseEntity.ok(cards);
+    }
+
+    @GetMapping(value = "/due", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getDueCardFields(
+            @RequestParam String fields,
             @AuthenticationPrincipal UserDetails userDetails) {
-        List<VocabularyCardResponse> cards = vocabularyService.getDueCards(userDetails.getUsername());
+        List<Map<String, Object>> cards = vocabularyService.getDueCardFields(userDetails.getUsername(), fields);
         return ResponseEntity.ok(cards);
     }
 
@@ -59,6 +83,22 @@ public class VocabularyController {
         return ResponseEntity.ok(count);
     }
 
+    @GetMapping("/batch")
+    public ResponseEntity<VocabularyCardBatchResponse> getCards(
+            @RequestParam List<Long> ids,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        VocabularyCardBatchResponse response = vocabularyService.getCards(ids, userDetails.getUsername());
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<VocabularyCardBatchResponse> getCards(
+            @Valid @RequestBody VocabularyCardBatchRequest request,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        VocabularyCardBatchResponse response = vocabularyService.getCards(request.getIds(), userDetails.getUsername());
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<VocabularyCardResponse> getCard(
             @PathVariable Long id,
@@ -67,6 +107,15 @@ public class VocabularyController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping(value = "/{id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> getCardFields(
+            @PathVariable Long id,
+            @RequestParam String fields,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        Map<String, Object> card = vocabularyService.getCardFields(id, fields, userDetails.getUsername());
+        return ResponseEntity.ok(card);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<VocabularyCardResponse> updateCard(
             @PathVariable Long id,
@@ -1,5 +1,6 @@
 package com.anki.simple.vocabulary;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -7,24 +8,60 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface VocabularyRepository extends JpaRepository<VocabularyCard, Long> {
+public interface VocabularyRepository extends JpaRepository<VocabularyCard, Long>, VocabularyRepositoryCustom {
     List<VocabularyCard> findByUserId(Long userId);
 
     List<VocabularyCard> findByUserId(Long userId, Sort sort);
 
-    @Query("SELECT v FROM VocabularyCard v WHERE v.user.id = :userId AND v.nextReview <= :now ORDER BY v.nextReview ASC")
-    List<VocabularyCard> findDueCards(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+    /** Ids, review times and versions of the user's due cards never reviewed, earliest first. */
+    @Query("SELECT v.id, v.nextReview, v.version FROM VocabularyCard v WHERE v.user.id = :userId AND v.nextReview <= :now " +
+           "AND v.lastReviewed IS NULL ORDER BY v.nextReview ASC")
+    List<Object[]> findDueNewCards(@Param("userId") Long userId, @Param("now") LocalDateTime now, Limit limit);
+
+    /** Ids, review times and versions of the user's due cards reviewed before, earliest first. */
+    @Query("SELECT v.id, v.nextReview, v.version FROM VocabularyCard v WHERE v.user.id = :userId AND v.nextReview <= :now " +
+           "AND v.lastReviewed IS NOT NULL ORDER BY v.nextReview ASC")
+    List<Object[]> findDueLearnedCards(@Param("userId") Long userId, @Param("now") LocalDateTime now, Limit limit);
 
     @Query("SELECT v FROM VocabularyCard v JOIN v.tags t WHERE v.user.id = :userId AND t.id = :tagId")
     List<VocabularyCard> findByUserIdAndTagId(@Param("userId") Long userId, @Param("tagId") Long tagId);
 
+    @Query("SELECT v FROM VocabularyCard v WHERE v.user.id = :userId AND v.id IN :ids")
+    List<VocabularyCard> findByUserIdAndIdIn(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    @Query("SELECT DISTINCT v FROM VocabularyCard v LEFT JOIN FETCH v.tags WHERE v IN :cards")
+    List<VocabularyCard> fetchTags(@Param("cards") Collection<VocabularyCard> cards);
+
     long countByUserIdAndNextReviewBefore(Long userId, LocalDateTime now);
 
+    long countByUserIdAndNextReviewBeforeAndLastReviewedIsNull(Long userId, LocalDateTime now);
+
     long countByUserId(Long userId);
 
+    @Query("SELECT v.nextReview FROM VocabularyCard v WHERE v.user.id = :userId " +
+           "AND v.nextReview >= :from AND v.nextReview < :to")
+    List<LocalDateTime> findNextReviewsBetween(@Param("userId") Long userId,
+                                               @Param("from") LocalDateTime from,
+                                               @Param("to") LocalDateTime to);
+
+    @Query("SELECT v.nextReview FROM VocabularyCard v WHERE v.user.id = :userId AND v.lastReviewed IS NULL " +
+           "AND v.nextReview >= :from AND v.nextReview < :to")
+    List<LocalDateTime> findUnseenNextReviewsBetween(@Param("userId") Long userId,
+                                                     @Param("from") LocalDateTime from,
+                                                     @Param("to") LocalDateTime to);
+
+    @Query("SELECT v.id, v.nextReview FROM VocabularyCard v WHERE v.user.id = :userId " +
+           "AND v.nextReview IS NOT NULL ORDER BY v.nextReview ASC")
+    List<Object[]> findScheduleByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT CAST(v.nextReview AS LocalDate), COUNT(v) FROM VocabularyCard v WHERE v.user.id = :userId " +
+           "AND v.nextReview >= :from GROUP BY CAST(v.nextReview AS LocalDate)")
+    List<Object[]> countNextReviewsByDaySince(@Param("userId") Long userId, @Param("from") LocalDateTime from);
+
     @Query("SELECT v FROM VocabularyCard v WHERE v.user.id = :userId " +
            "AND (LOWER(v.front) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
            "OR LOWER(v.back) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
@@ -0,0 +1,17 @@
+package com.anki.simple.vocabulary;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public interface VocabularyRepositoryCustom {
+
+    /**
+     * Selects only the requested columns of the matching cards, returning one map per card keyed by
+     * JSON property name in {@link CardField} order. Tags are loaded with one extra query for all cards.
+     */
+    List<Map<String, Object>> findCardFields(Specification<VocabularyCard> spec, Set<CardField> fields, Sort sort);
+}
@@ -0,0 +1,84 @@
+package com.anki.simple.vocabulary;
+
+import com.anki.simple.tag.dto.TagResponse;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@RequiredArgsConstructor
+class VocabularyRepositoryImpl implements VocabularyRepositoryCustom {
+
+    private static final int IN_CLAUSE_CHUNK = 1000;
+
+    private final EntityManager em;
+
+    @Override
+    public List<Map<String, Object>> findCardFields(Specification<VocabularyCard> spec, Set<CardField> fields, Sort sort) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<VocabularyCard> card = query.from(VocabularyCard.class);
+
+        List<Selection<?>> selections = new ArrayList<>();
+        selections.add(card.get("id").alias(CardField.ID.getPropertyName()));
+        for (CardField field : fields) {
+            if (field != CardField.ID && field != CardField.TAGS) {
+                selections.add(card.get(field.getPropertyName()).alias(field.getPropertyName()));
+            }
+        }
+        query.multiselect(selections);
+        query.where(spec.toPredicate(card, query, cb));
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, card, cb));
+        }
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        Map<Long, Map<String, Object>> rowsById = new HashMap<>();
+        for (Tuple tuple : em.createQuery(query).getResultList()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (CardField field : fields) {
+                row.put(field.getPropertyName(), field == CardField.TAGS ? new LinkedHashSet<TagResponse>()
+                        : tuple.get(field.getPropertyName()));
+            }
+            rows.add(row);
+            rowsById.put(tuple.get(CardField.ID.getPropertyName(), Long.class), row);
+        }
+
+        if (fields.contains(CardField.TAGS) && !rowsById.isEmpty()) {
+            loadTags(rowsById);
+        }
+        return rows;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void loadTags(Map<Long, Map<String, Object>> rowsById) {
+        List<Long> ids = new ArrayList<>(rowsById.keySet());
+        for (int from = 0; from < ids.size(); from += IN_CLAUSE_CHUNK) {
+            List<Long> chunk = ids.subList(from, Math.min(from + IN_CLAUSE_CHUNK, ids.size()));
+            List<Object[]> tagRows = em.createQuery(
+                            "SELECT v.id, t.id, t.name, t.color FROM VocabularyCard v JOIN v.tags t WHERE v.id IN :ids",
+                            Object[].class)
+                    .setParameter("ids", chunk)
+                    .getResultList();
+            for (Object[] tagRow : tagRows) {
+                Set<TagResponse> tags = (Set<TagResponse>) rowsById.get((Long) tagRow[0])
+                        .get(CardField.TAGS.getPropertyName());
+                tags.add(new TagResponse((Long) tagRow[1], (String) tagRow[2], (String) tagRow[3]));
+            }
+        }
+    }
+}
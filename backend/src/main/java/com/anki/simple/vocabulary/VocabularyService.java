@@ -3,26 +3,41 @@ package com.anki.simple.vocabulary;
 import com.anki.simple.exception.CardNotFoundException;
 import com.anki.simple.exception.UnauthorizedException;
 import com.anki.simple.exception.UserNotFoundException;
+import com.anki.simple.review.DailyLimitService;
 import com.anki.simple.tag.Tag;
 import com.anki.simple.tag.TagRepository;
 import com.anki.simple.user.User;
 import com.anki.simple.user.UserRepository;
 import com.anki.simple.user.dto.LeanUserInternal;
+import com.anki.simple.vocabulary.cache.CardJsonFragmentCache;
+import com.anki.simple.vocabulary.cache.CardListCache;
+import com.anki.simple.vocabulary.cache.JsonFragmentArray;
+import com.anki.simple.vocabulary.dto.VocabularyCardBatchResponse;
 import com.anki.simple.vocabulary.dto.VocabularyCardLeanResponse;
 import com.anki.simple.vocabulary.dto.VocabularyCardRequest;
 import com.anki.simple.vocabulary.dto.VocabularyCardResponse;
 import com.anki.simple.vocabulary.mapper.VocabularyCardMapper;
+import com.anki.simple.vocabulary.schedule.DueIndex;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.Query;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SequencedMap;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,11 +45,18 @@ import java.util.stream.Collectors;
 public class VocabularyService {
 
     public static final String USER_NOT_FOUND = "User not found";
+    public static final int MAX_BATCH_IDS = 5000;
     private final VocabularyRepository vocabularyRepository;
     private final UserRepository userRepository;
     private final TagRepository tagRepository;
     private final VocabularyCardMapper vocabularyCardMapper;
     private final EntityManager em;
+    private final CardListCache cardListCache;
+    private final CardJsonFragmentCache cardJsonFragmentCache;
+    private final DeckCounters deckCounters;
+    private final DueIndex dueIndex;
+    private final DailyLimitService dailyLimitService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public VocabularyCardResponse createCard(VocabularyCardRequest request, String username) {
@@ -51,42 +73,45 @@ public class VocabularyService {
         }
 
         VocabularyCard savedCard = vocabularyRepository.save(card);
+        eventPublisher.publishEvent(DeckChangedEvent.forCard(user.getId(), savedCard.getId()));
+        eventPublisher.publishEvent(CardScheduleChangedEvent.created(
+                user.getId(), savedCard.getId(), savedCard.getNextReview()));
         return vocabularyCardMapper.toResponse(savedCard);
     }
 
     @Transactional(readOnly = true)
     public List<VocabularyCardLeanResponse> getAllCards(String username, String sortBy, String sortDirection, String searchTerm) {
+        Long userId = findUserId(username);
+        return cardListCache.get(userId, sortBy, sortDirection, searchTerm,
+                () -> loadAllCards(userId, sortBy, sortDirection, searchTerm));
+    }
+
+    private Long findUserId(String username) {
         Query q = em.createNamedQuery("user_native_query_internal");
-         q.setParameter("username", username);
-         LeanUserInternal user;
-         try {
-             user = (LeanUserInternal) q.getSingleResult();
-         } catch (jakarta.persistence.NoResultException e) {
-             throw new UserNotFoundException(USER_NOT_FOUND);
-         }
-         if (user == null) {
+        q.setParameter("username", username);
+        LeanUserInternal user;
+        try {
+            user = (LeanUserInternal) q.getSingleResult();
+        } catch (jakarta.persistence.NoResultException e) {
             throw new UserNotFoundException(USER_NOT_FOUND);
-         }
-
+        }
+        if (user == null) {
+            throw new UserNotFoundException(USER_NOT_FOUND);
+        }
+        return user.getId();
+    }
 
+    private List<VocabularyCardLeanResponse> loadAllCards(Long userId, String sortBy, String sortDirection, String searchTerm) {
         List<VocabularyCard> cards;
-
-        // Build sort object if sort parameters are provided
-        Sort sort = Sort.unsorted();
-        if (sortBy != null && !sortBy.isEmpty() && sortDirection != null && !sortDirection.isEmpty()) {
-            Sort.Direction direction = sortDirection.equalsIgnoreCase("desc")
-                    ? Sort.Direction.DESC
-                    : Sort.Direction.ASC;
-            sort = Sort.by(direction, sortBy);
-        }
+        Sort sort = buildSort(sortBy, sortDirection);
 
         // Use search method if search term is provided, otherwise get all cards
         if (searchTerm != null && !searchTerm.isEmpty()) {
-            cards = vocabularyRepository.searchCards(user.getId(), searchTerm, sort);
+            cards = vocabularyRepository.searchCards(userId, searchTerm, sort);
         } else if (sort.isSorted()) {
-            cards = vocabularyRepository.findByUserId(user.getId(), sort);
+            cards = vocabularyRepository.findByUserId(userId, sort);
         } else {
-            cards = vocabularyRepository.findByUserId(user.getId());
+            cards = vocabularyRepository.findByUserId(userId);
         }
 
         return cards.stream()
@@ -94,31 +119,99 @@ public class VocabularyService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllCardFields(String username, String fields, String sortBy,
+                                                      String sortDirection, String searchTerm) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new UserNotFoundException(USER_NOT_FOUND));
+
+        Specification<VocabularyCard> spec = VocabularyCardSpecifications.ownedBy(user.getId());
+        if (searchTerm != null && !searchTerm.isEmpty()) {
+            spec = spec.and(VocabularyCardSpecifications.matching(searchTerm));
+        }
+        return vocabularyRepository.findCardFields(spec, CardField.parse(fields), buildSort(sortBy, sortDirection));
+    }
+
+    private Sort buildSort(String sortBy, String sortDirection) {
+        // Build sort object if sort parameters are provided
+        if (sortBy != null && !sortBy.isEmpty() && sortDirection != null && !sortDirection.isEmpty()) {
+            Sort.Direction direction = sortDirection.equalsIgnoreCase("desc")
+                    ? Sort.Direction.DESC
+                    : Sort.Direction.ASC;
+            return Sort.by(direction, sortBy);
+        }
+        return Sort.unsorted();
+    }
+
+    /** The cards due now, within the user's daily limits (see {@link DailyLimitService}). */
     @Transactional(readOnly = true)
     public List<VocabularyCardResponse> getDueCards(String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UserNotFoundException(USER_NOT_FOUND));
 
-        return vocabularyRepository.findDueCards(user.getId(), LocalDateTime.now())
-                .stream()
+        List<Long> ids = dueCardIds(user, LocalDateTime.now());
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, VocabularyCard> cards = vocabularyRepository.findByUserIdAndIdIn(user.getId(), ids).stream()
+                .collect(Collectors.toMap(VocabularyCard::getId, Function.identity()));
+        return ids.stream()
+                .map(cards::get)
+                .filter(Objects::nonNull)
                 .map(vocabularyCardMapper::toResponse)
                 .collect(Collectors.toList());
     }
 
     @Transactional(readOnly = true)
-    public long getDueCardsCount(String username) {
+    public JsonFragmentArray getDueCardsJson(String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UserNotFoundException(USER_NOT_FOUND));
-
-        return vocabularyRepository.countByUserIdAndNextReviewBefore(user.getId(), LocalDateTime.now());
+        Long userId = user.getId();
+        long stamp = cardJsonFragmentCache.stamp(userId);
+
+        SequencedMap<Long, Long> versions = dueCards(user, LocalDateTime.now());
+        return cardJsonFragmentCache.getAll(versions, userId, stamp, missing -> {
+            List<VocabularyCard> cards = vocabularyRepository.findByUserIdAndIdIn(userId, missing);
+            return cards.isEmpty() ? cards : vocabularyRepository.fetchTags(cards);
+        });
     }
 
     @Transactional(readOnly = true)
-    public long getTotalCount(String username) {
+    public List<Map<String, Object>> getDueCardFields(String username, String fields) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UserNotFoundException(USER_NOT_FOUND));
 
-        return vocabularyRepository.countByUserId(user.getId());
+        List<Long> ids = dueCardIds(user, LocalDateTime.now());
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Specification<VocabularyCard> spec = VocabularyCardSpecifications.ownedBy(user.getId())
+                .and(VocabularyCardSpecifications.idIn(ids));
+        return vocabularyRepository.findCardFields(spec, CardField.parse(fields), Sort.by("nextReview"));
+    }
+
+    /** Cards due now, capped at what the user's daily limits still allow. */
+    @Transactional(readOnly = true)
+    public long getDueCardsCount(String username) {
+        return dailyLimitService.dueCount(findUserId(username), LocalDateTime.now());
+    }
+
+    private List<Long> dueCardIds(User user, LocalDateTime now) {
+        return new ArrayList<>(dueCards(user, now).keySet());
+    }
+
+    /** Due card ids to their versions, in review order. */
+    private SequencedMap<Long, Long> dueCards(User user, LocalDateTime now) {
+        // The due index answers "nothing due" from memory, and stays loaded for due notifications
+        if (dueIndex.isEnabled() && dueIndex.dueCount(user.getId(), now) == 0) {
+            return new LinkedHashMap<>();
+        }
+        return dailyLimitService.dueCards(user, now);
+    }
+
+    @Transactional(readOnly = true)
+    public long getTotalCount(String username) {
+        return deckCounters.totalCount(findUserId(username));
     }
 
     @Transactional(readOnly = true)
@@ -136,6 +229,57 @@ public class VocabularyService {
         return vocabularyCardMapper.toResponse(card);
     }
 
+    @Transactional(readOnly = true)
+    public Map<String, Object> getCardFields(Long id, String fields, String username) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new UserNotFoundException(USER_NOT_FOUND));
+
+        Specification<VocabularyCard> spec = VocabularyCardSpecifications.ownedBy(user.getId())
+                .and(VocabularyCardSpecifications.hasId(id));
+        List<Map<String, Object>> rows = vocabularyRepository.findCardFields(spec, CardField.parse(fields), Sort.unsorted());
+        if (rows.isEmpty()) {
+            if (vocabularyRepository.existsById(id)) {
+                throw new UnauthorizedException("Unauthorized access to card");
+            }
+            throw new CardNotFoundException(id);
+        }
+        return rows.get(0);
+    }
+
+    /**
+     * Loads many cards in one owner-scoped query plus one tag query, in the order of {@code ids}.
+     * Ids that do not exist or belong to another user are reported as missing.
+     */
+    @Transactional(readOnly = true)
+    public VocabularyCardBatchResponse getCards(List<Long> ids, String username) {
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        if (requested.size() > MAX_BATCH_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_IDS + " card ids per request");
+        }
+
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new UserNotFoundException(USER_NOT_FOUND));
+
+        List<VocabularyCard> found = vocabularyRepository.findByUserIdAndIdIn(user.getId(), requested);
+        if (!found.isEmpty()) {
+            vocabularyRepository.fetchTags(found);
+        }
+        Map<Long, VocabularyCard> byId = found.stream()
+                .collect(Collectors.toMap(VocabularyCard::getId, Function.identity()));
+
+        List<VocabularyCardResponse> cards = new ArrayList<>(byId.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : requested) {
+            VocabularyCard card = byId.get(id);
+            if (card != null) {
+                cards.add(vocabularyCardMapper.toResponse(card));
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new VocabularyCardBatchResponse(cards, missingIds);
+    }
+
     @Transactional
     public VocabularyCardResponse updateCard(Long id, VocabularyCardRequest request, String username) {
         User user = userRepository.findByUsername(username)
@@ -156,6 +300,7 @@ public class VocabularyService {
         }
 
         VocabularyCard updatedCard = vocabularyRepository.save(card);
+        eventPublisher.publishEvent(DeckChangedEvent.forCard(user.getId(), id));
         return vocabularyCardMapper.toResponse(updatedCard);
     }
 
@@ -172,5 +317,8 @@ public class VocabularyService {
         }
 
         vocabularyRepository.delete(card);
+        eventPublisher.publishEvent(DeckChangedEvent.forCard(user.getId(), id));
+        eventPublisher.publishEvent(CardScheduleChangedEvent.deleted(
+                user.getId(), id, card.getNextReview(), card.getLastReviewed() == null));
     }
 }
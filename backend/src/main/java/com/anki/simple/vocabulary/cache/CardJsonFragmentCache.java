@@ -0,0 +1,156 @@
+package com.anki.simple.vocabulary.cache;
+
+import com.anki.simple.vocabulary.DeckChangedEvent;
+import com.anki.simple.vocabulary.VocabularyCard;
+import com.anki.simple.vocabulary.mapper.VocabularyCardMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SequencedMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Caches each card's {@code VocabularyCardResponse} as pre-encoded UTF-8 JSON, keyed by card id
+ * and served only for the card version it was encoded from, so a write whose eviction was
+ * missed cannot serve a stale fragment. A hit skips both the MapStruct mapping (and with it
+ * the lazy tag fetch) and Jackson.
+ * <p>
+ * Entries are stamped with the owner's generation, which every {@link DeckChangedEvent} bumps;
+ * callers take a {@link #stamp(Long)} before reading cards from the database, and a fragment
+ * built from data older than the latest write is returned but not stored.
+ */
+@Component
+public class CardJsonFragmentCache {
+
+    private static final int ENTRY_OVERHEAD_BYTES = 64;
+
+    private final boolean enabled;
+    private final VocabularyCardMapper vocabularyCardMapper;
+    private final ObjectMapper objectMapper;
+    private final Cache<Long, Fragment> cache;
+    private final Map<Long, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    public CardJsonFragmentCache(
+            VocabularyCardMapper vocabularyCardMapper,
+            ObjectMapper objectMapper,
+            @Value("${vocabulary.json-cache.enabled:true}") boolean enabled,
+            @Value("${vocabulary.json-cache.max-bytes:67108864}") long maxBytes) {
+        this.vocabularyCardMapper = vocabularyCardMapper;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Long cardId, Fragment fragment) -> ENTRY_OVERHEAD_BYTES + fragment.json().length)
+                .build();
+    }
+
+    public long stamp(Long userId) {
+        return generation(userId).get();
+    }
+
+    public byte[] get(VocabularyCard card, Long userId, long stamp) {
+        if (enabled) {
+            Fragment cached = cache.getIfPresent(card.getId());
+            if (cached != null && Objects.equals(cached.version(), card.getVersion())) {
+                return cached.json();
+            }
+        }
+        byte[] json = encode(card);
+        if (enabled && generation(userId).get() == stamp) {
+            cache.put(card.getId(), new Fragment(userId, card.getVersion(), json));
+        }
+        return json;
+    }
+
+    public JsonFragmentArray getAll(List<VocabularyCard> cards, Long userId, long stamp) {
+        return new JsonFragmentArray(cards.stream()
+                .map(card -> get(card, userId, stamp))
+                .toList());
+    }
+
+    /**
+     * Fragments for the cards of {@code versions} (card id to current version) in its order,
+     * reading only the cards without a fragment of that version through {@code loader}. Ids
+     * the loader does not return are left out.
+     */
+    public JsonFragmentArray getAll(SequencedMap<Long, Long> versions, Long userId, long stamp,
+            Function<Collection<Long>, List<VocabularyCard>> loader) {
+        Map<Long, byte[]> fragments = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Map.Entry<Long, Long> card : versions.entrySet()) {
+            Long cardId = card.getKey();
+            Fragment cached = enabled ? cache.getIfPresent(cardId) : null;
+            if (cached != null && cached.userId().equals(userId) && Objects.equals(cached.version(), card.getValue())) {
+                fragments.put(cardId, cached.json());
+            } else {
+                missing.add(cardId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (VocabularyCard card : loader.apply(missing)) {
+                fragments.put(card.getId(), get(card, userId, stamp));
+            }
+        }
+        return new JsonFragmentArray(versions.keySet().stream()
+                .map(fragments::get)
+                .filter(Objects::nonNull)
+                .toList());
+    }
+
+    @EventListener
+    public void onDeckChanged(DeckChangedEvent event) {
+        evict(event);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(event);
+                }
+            });
+        }
+    }
+
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    private void evict(DeckChangedEvent event) {
+        generation(event.userId()).incrementAndGet();
+        if (event.affectsWholeDeck()) {
+            cache.asMap().values().removeIf(fragment -> fragment.userId().equals(event.userId()));
+        } else {
+            cache.invalidateAll(event.cardIds());
+        }
+    }
+
+    private byte[] encode(VocabularyCard card) {
+        try {
+            return objectMapper.writeValueAsBytes(vocabularyCardMapper.toResponse(card));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private AtomicLong generation(Long userId) {
+        return generations.computeIfAbsent(userId, id -> new AtomicLong());
+    }
+
+    private record Fragment(Long userId, Long version, byte[] json) {
+    }
+}
@@ -0,0 +1,111 @@
+package com.anki.simple.vocabulary.cache;
+
+import com.anki.simple.vocabulary.DeckChangedEvent;
+import com.anki.simple.vocabulary.dto.VocabularyCardLeanResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Caches the lean card listing per (user, sortBy, sortDirection, searchTerm).
+ * Bounded by an estimate of retained bytes; Caffeine's W-TinyLFU policy picks the victims.
+ */
+@Component
+public class CardListCache {
+
+    private static final int ENTRY_OVERHEAD_BYTES = 128;
+    private static final int CARD_OVERHEAD_BYTES = 96;
+
+    private final boolean enabled;
+    private final Cache<Key, List<VocabularyCardLeanResponse>> cache;
+    private final Map<Long, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    public CardListCache(
+            @Value("${vocabulary.list-cache.enabled:true}") boolean enabled,
+            @Value("${vocabulary.list-cache.max-bytes:67108864}") long maxBytes) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Key key, List<VocabularyCardLeanResponse> cards) -> weigh(key, cards))
+                .build();
+    }
+
+    public List<VocabularyCardLeanResponse> get(Long userId, String sortBy, String sortDirection, String searchTerm,
+                                                Supplier<List<VocabularyCardLeanResponse>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        Key key = new Key(userId, sortBy, sortDirection, searchTerm);
+        List<VocabularyCardLeanResponse> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = generation(userId).get();
+        List<VocabularyCardLeanResponse> loaded = List.copyOf(loader.get());
+        if (generation(userId).get() == generation) {
+            cache.put(key, loaded);
+        }
+        return loaded;
+    }
+
+    /**
+     * Drops the user's entries right away and again once the surrounding transaction completes.
+     * Each drop bumps the user's generation, so a listing loaded concurrently from pre-commit
+     * data is returned to its caller but never stored.
+     */
+    public void evictUser(Long userId) {
+        removeUser(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    removeUser(userId);
+                }
+            });
+        }
+    }
+
+    @EventListener
+    public void onDeckChanged(DeckChangedEvent event) {
+        evictUser(event.userId());
+    }
+
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    private void removeUser(Long userId) {
+        generation(userId).incrementAndGet();
+        cache.asMap().keySet().removeIf(key -> key.userId().equals(userId));
+    }
+
+    private AtomicLong generation(Long userId) {
+        return generations.computeIfAbsent(userId, id -> new AtomicLong());
+    }
+
+    private static int weigh(Key key, List<VocabularyCardLeanResponse> cards) {
+        long bytes = ENTRY_OVERHEAD_BYTES + stringBytes(key.sortBy()) + stringBytes(key.sortDirection())
+                + stringBytes(key.searchTerm());
+        for (VocabularyCardLeanResponse card : cards) {
+            bytes += CARD_OVERHEAD_BYTES + stringBytes(card.getFront()) + stringBytes(card.getBack());
+        }
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+
+    private static long stringBytes(String value) {
+        return value == null ? 0 : 40L + value.length() * 2L;
+    }
+
+    private record Key(Long userId, String sortBy, String sortDirection, String searchTerm) {
+    }
+}
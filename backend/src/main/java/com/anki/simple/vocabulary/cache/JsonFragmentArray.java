@@ -0,0 +1,38 @@
+package com.anki.simple.vocabulary.cache;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * A JSON array whose elements are already encoded as UTF-8 bytes.
+ * Written verbatim by {@link com.anki.simple.config.JsonFragmentArrayHttpMessageConverter};
+ * other formats (e.g. CBOR) stream each fragment's tokens into their own generator.
+ */
+@JsonSerialize(using = JsonFragmentArray.Serializer.class)
+public record JsonFragmentArray(List<byte[]> fragments) {
+
+    static class Serializer extends JsonSerializer<JsonFragmentArray> {
+
+        private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+        @Override
+        public void serialize(JsonFragmentArray array, JsonGenerator gen, SerializerProvider serializers)
+                throws IOException {
+            gen.writeStartArray();
+            for (byte[] fragment : array.fragments()) {
+                try (JsonParser parser = JSON_FACTORY.createParser(fragment)) {
+                    parser.nextToken();
+                    gen.copyCurrentStructure(parser);
+                }
+            }
+            gen.writeEndArray();
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.anki.simple.vocabulary.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class VocabularyCardBatchRequest {
+    @NotEmpty
+    @Size(max = 5000)
+    private List<@NotNull Long> ids;
+}
@@ -0,0 +1,15 @@
+package com.anki.simple.vocabulary.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VocabularyCardBatchResponse {
+    private List<VocabularyCardResponse> cards;
+    private List<Long> missingIds;
+}
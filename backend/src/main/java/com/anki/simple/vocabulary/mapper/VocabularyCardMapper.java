@@ -28,6 +28,9 @@ public interface VocabularyCardMapper {
   @Mapping(target = "easeFactor", ignore = true)
   @Mapping(target = "intervalDays", ignore = true)
   @Mapping(target = "repetitions", ignore = true)
+  @Mapping(target = "stability", ignore = true)
+  @Mapping(target = "difficulty", ignore = true)
+  @Mapping(target = "version", ignore = true)
   VocabularyCard toEntity(VocabularyCardRequest request);
 
   @Mapping(target = "id", ignore = true)
@@ -40,5 +43,8 @@ public interface VocabularyCardMapper {
   @Mapping(target = "easeFactor", ignore = true)
   @Mapping(target = "intervalDays", ignore = true)
   @Mapping(target = "repetitions", ignore = true)
+  @Mapping(target = "stability", ignore = true)
+  @Mapping(target = "difficulty", ignore = true)
+  @Mapping(target = "version", ignore = true)
   void updateEntityFromRequest(VocabularyCardRequest request, @MappingTarget VocabularyCard card);
 }
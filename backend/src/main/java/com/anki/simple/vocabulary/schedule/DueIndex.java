@@ -0,0 +1,214 @@
+package com.anki.simple.vocabulary.schedule;
+
+import com.anki.simple.vocabulary.CardScheduleChangedEvent;
+import com.anki.simple.vocabulary.CardsBecameDueEvent;
+import com.anki.simple.vocabulary.VocabularyRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Optional in-memory index of each active user's review schedule, so due counts and
+ * notifications of cards becoming due do not scan the user's cards. The due queue itself is
+ * listed from the database, within the daily limits.
+ * <p>
+ * A user's {@link DueQueue} is loaded lazily and then maintained from
+ * {@link CardScheduleChangedEvent}s after the writing transaction commits. A global
+ * {@link TimingWheel} holds each queue's next pending review time and promotes those cards
+ * to due as the clock passes it, publishing a {@link CardsBecameDueEvent}; reads promote
+ * up to the current time as well, so results never depend on the wheel's tick. Queues of
+ * users idle for {@code vocabulary.due-index.idle-timeout} are dropped.
+ * <p>
+ * Times are {@link LocalDateTime}s in microseconds, the database timestamp precision.
+ */
+@Component
+public class DueIndex {
+
+    private static final long MICROS_PER_SECOND = 1_000_000L;
+    private static final int WHEEL_SIZE = 64;
+    // Far deadlines are parked at the horizon and re-checked; keeps the wheel to a few levels
+    private static final long HORIZON_MICROS = Duration.ofDays(7).toSeconds() * MICROS_PER_SECOND;
+
+    private final boolean enabled;
+    private final VocabularyRepository vocabularyRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Cache<Long, DueQueue> queues;
+    private final Map<Long, AtomicLong> generations = new ConcurrentHashMap<>();
+    private final TimingWheel wheel;
+
+    public DueIndex(
+            VocabularyRepository vocabularyRepository,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${vocabulary.due-index.enabled:false}") boolean enabled,
+            @Value("${vocabulary.due-index.idle-timeout:PT30M}") Duration idleTimeout,
+            @Value("${vocabulary.due-index.max-users:100000}") long maxUsers) {
+        this.vocabularyRepository = vocabularyRepository;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.queues = Caffeine.newBuilder()
+                .expireAfterAccess(idleTimeout)
+                .maximumSize(maxUsers)
+                .build();
+        this.wheel = new TimingWheel(MICROS_PER_SECOND, WHEEL_SIZE, micros(LocalDateTime.now()));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int dueCount(Long userId, LocalDateTime now) {
+        long nowMicros = micros(now);
+        DueQueue queue = queue(userId, nowMicros);
+        synchronized (queue) {
+            queue.promote(nowMicros);
+            return queue.dueCount();
+        }
+    }
+
+    @EventListener
+    public void onCardScheduleChanged(CardScheduleChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        Long userId = event.userId();
+        generation(userId).incrementAndGet();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public int getOrder() {
+                // Ahead of after-commit listeners that read the index
+                return Ordered.HIGHEST_PRECEDENCE;
+            }
+
+            @Override
+            public void afterCommit() {
+                apply(event);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                generation(userId).incrementAndGet();
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${vocabulary.due-index.tick:PT1S}")
+    public void advance() {
+        if (!enabled) {
+            return;
+        }
+        long nowMicros = micros(LocalDateTime.now());
+        List<Long> expired = new ArrayList<>();
+        synchronized (wheel) {
+            wheel.advance(nowMicros, expired::add);
+        }
+        for (Long userId : expired) {
+            DueQueue queue = queues.getIfPresent(userId);
+            if (queue == null) {
+                continue;
+            }
+            int promoted;
+            synchronized (queue) {
+                queue.scheduled = Long.MAX_VALUE;
+                promoted = queue.promote(nowMicros);
+            }
+            schedule(userId, queue, nowMicros);
+            if (promoted > 0) {
+                eventPublisher.publishEvent(new CardsBecameDueEvent(userId, promoted));
+            }
+        }
+    }
+
+    public void evict(Long userId) {
+        generation(userId).incrementAndGet();
+        queues.invalidate(userId);
+    }
+
+    private void apply(CardScheduleChangedEvent event) {
+        DueQueue queue = queues.getIfPresent(event.userId());
+        if (queue == null) {
+            return;
+        }
+        synchronized (queue) {
+            queue.remove(event.cardId());
+            if (event.nextReview() != null) {
+                queue.addPending(micros(event.nextReview()), event.cardId());
+            }
+        }
+        schedule(event.userId(), queue, micros(LocalDateTime.now()));
+    }
+
+    private DueQueue queue(Long userId, long nowMicros) {
+        DueQueue queue = queues.getIfPresent(userId);
+        if (queue != null) {
+            return queue;
+        }
+        long generation = generation(userId).get();
+        DueQueue loaded = load(userId, nowMicros);
+        if (generation(userId).get() == generation) {
+            queues.put(userId, loaded);
+            schedule(userId, loaded, nowMicros);
+        }
+        return loaded;
+    }
+
+    private DueQueue load(Long userId, long nowMicros) {
+        List<Object[]> schedule = vocabularyRepository.findScheduleByUserId(userId);
+        DueQueue queue = new DueQueue(schedule.size());
+        for (Object[] row : schedule) {
+            queue.add(micros((LocalDateTime) row[1]), (Long) row[0], nowMicros);
+        }
+        return queue;
+    }
+
+    /** Registers the queue's next pending review in the wheel unless an earlier one is. */
+    private void schedule(Long userId, DueQueue queue, long nowMicros) {
+        long deadline;
+        synchronized (queue) {
+            long next = queue.nextPending();
+            if (next == Long.MAX_VALUE) {
+                return;
+            }
+            // The wheel expires entries at the start of their tick, so round up to the next one
+            deadline = Math.min(next, nowMicros + HORIZON_MICROS);
+            deadline = Math.ceilDiv(deadline, MICROS_PER_SECOND) * MICROS_PER_SECOND;
+            if (deadline >= queue.scheduled) {
+                return;
+            }
+            queue.scheduled = deadline;
+        }
+        synchronized (wheel) {
+            if (!wheel.add(deadline, userId)) {
+                // Already within the current tick: expire on the next one
+                wheel.add(nowMicros + MICROS_PER_SECOND, userId);
+            }
+        }
+    }
+
+    private AtomicLong generation(Long userId) {
+        return generations.computeIfAbsent(userId, id -> new AtomicLong());
+    }
+
+    static long micros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * MICROS_PER_SECOND + time.getNano() / 1_000;
+    }
+}
@@ -0,0 +1,158 @@
+package com.anki.simple.vocabulary.schedule;
+
+import java.util.Arrays;
+
+/**
+ * One user's review schedule in primitive arrays: cards not yet due sit as
+ * {@code (nextReview, cardId)} pairs in a binary min-heap until {@link #promote(long)} moves
+ * them to the ids of due cards, which are kept unordered since only their number is read.
+ * Removal scans the arrays, which for a single deck is cheaper than maintaining an index.
+ * <p>
+ * Not thread-safe.
+ */
+final class DueQueue {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private long[] dueIds;
+    private int dueSize;
+
+    private long[] pendingTimes;
+    private long[] pendingIds;
+    private int pendingSize;
+
+    /** Deadline this queue is currently registered under in the timing wheel. */
+    long scheduled = Long.MAX_VALUE;
+
+    DueQueue() {
+        this(INITIAL_CAPACITY);
+    }
+
+    DueQueue(int capacity) {
+        int initial = Math.max(capacity, INITIAL_CAPACITY);
+        dueIds = new long[initial];
+        pendingTimes = new long[initial];
+        pendingIds = new long[initial];
+    }
+
+    void add(long time, long cardId, long now) {
+        if (time <= now) {
+            addDue(cardId);
+        } else {
+            push(time, cardId);
+        }
+    }
+
+    /** Adds a card as not yet due; the next {@link #promote(long)} moves it if it is. */
+    void addPending(long time, long cardId) {
+        push(time, cardId);
+    }
+
+    boolean remove(long cardId) {
+        for (int i = 0; i < dueSize; i++) {
+            if (dueIds[i] == cardId) {
+                dueIds[i] = dueIds[--dueSize];
+                return true;
+            }
+        }
+        for (int i = 0; i < pendingSize; i++) {
+            if (pendingIds[i] == cardId) {
+                removePendingAt(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Moves every pending card due at or before {@code now}; returns how many moved. */
+    int promote(long now) {
+        int promoted = 0;
+        while (pendingSize > 0 && pendingTimes[0] <= now) {
+            long cardId = pendingIds[0];
+            removePendingAt(0);
+            addDue(cardId);
+            promoted++;
+        }
+        return promoted;
+    }
+
+    /** Earliest review time among cards not yet due, or {@link Long#MAX_VALUE}. */
+    long nextPending() {
+        return pendingSize > 0 ? pendingTimes[0] : Long.MAX_VALUE;
+    }
+
+    int dueCount() {
+        return dueSize;
+    }
+
+    int size() {
+        return dueSize + pendingSize;
+    }
+
+    private void addDue(long cardId) {
+        if (dueSize == dueIds.length) {
+            dueIds = Arrays.copyOf(dueIds, dueSize * 2);
+        }
+        dueIds[dueSize++] = cardId;
+    }
+
+    private void push(long time, long cardId) {
+        if (pendingSize == pendingTimes.length) {
+            pendingTimes = Arrays.copyOf(pendingTimes, pendingSize * 2);
+            pendingIds = Arrays.copyOf(pendingIds, pendingSize * 2);
+        }
+        pendingTimes[pendingSize] = time;
+        pendingIds[pendingSize] = cardId;
+        siftUp(pendingSize++);
+    }
+
+    private void removePendingAt(int index) {
+        pendingSize--;
+        if (index == pendingSize) {
+            return;
+        }
+        pendingTimes[index] = pendingTimes[pendingSize];
+        pendingIds[index] = pendingIds[pendingSize];
+        siftDown(index);
+        siftUp(index);
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (pendingTimes[parent] <= pendingTimes[index]) {
+                return;
+            }
+            swap(parent, index);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int smallest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < pendingSize && pendingTimes[left] < pendingTimes[smallest]) {
+                smallest = left;
+            }
+            if (right < pendingSize && pendingTimes[right] < pendingTimes[smallest]) {
+                smallest = right;
+            }
+            if (smallest == index) {
+                return;
+            }
+            swap(smallest, index);
+            index = smallest;
+        }
+    }
+
+    private void swap(int i, int j) {
+        long time = pendingTimes[i];
+        long id = pendingIds[i];
+        pendingTimes[i] = pendingTimes[j];
+        pendingIds[i] = pendingIds[j];
+        pendingTimes[j] = time;
+        pendingIds[j] = id;
+    }
+}
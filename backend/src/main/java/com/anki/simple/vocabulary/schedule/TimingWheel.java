@@ -0,0 +1,133 @@
+package com.anki.simple.vocabulary.schedule;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Hierarchical timing wheel of {@code (deadline, key)} pairs on a {@code long} time axis.
+ * <p>
+ * Each level has {@code wheelSize} buckets of one tick; deadlines beyond a level's span go
+ * to an overflow level whose tick is the whole span of the level below, created on demand.
+ * Advancing the clock drains the buckets it passes and re-inserts their entries from the
+ * bottom level, so entries cascade down until they expire. Adding and expiring an entry are
+ * O(1) amortized regardless of how many are pending. An entry expires once the clock
+ * reaches the start of the tick holding its deadline. Entries cannot be cancelled; callers
+ * ignore stale expirations.
+ * <p>
+ * Not thread-safe.
+ */
+final class TimingWheel {
+
+    private static final int INITIAL_BUCKET_CAPACITY = 4;
+
+    private final long tick;
+    private final int wheelSize;
+    private final long interval;
+    private final TimingWheel root;
+    private final long[][] deadlines;
+    private final long[][] keys;
+    private final int[] sizes;
+    private long currentTime;
+    private TimingWheel overflow;
+
+    TimingWheel(long tick, int wheelSize, long startTime) {
+        this(tick, wheelSize, startTime, null);
+    }
+
+    private TimingWheel(long tick, int wheelSize, long startTime, TimingWheel root) {
+        this.tick = tick;
+        this.wheelSize = wheelSize;
+        this.interval = Math.multiplyExact(tick, wheelSize);
+        this.root = root != null ? root : this;
+        this.currentTime = startTime - Math.floorMod(startTime, tick);
+        this.deadlines = new long[wheelSize][];
+        this.keys = new long[wheelSize][];
+        this.sizes = new int[wheelSize];
+    }
+
+    /**
+     * Schedules {@code key} to expire at {@code deadline}.
+     *
+     * @return false if the deadline falls within the current tick, in which case nothing is
+     *         stored and the caller should treat the key as expired
+     */
+    boolean add(long deadline, long key) {
+        if (deadline < currentTime + tick) {
+            return false;
+        }
+        if (deadline < currentTime + interval) {
+            int bucket = (int) Math.floorMod(Math.floorDiv(deadline, tick), (long) wheelSize);
+            append(bucket, deadline, key);
+            return true;
+        }
+        if (overflow == null) {
+            overflow = new TimingWheel(interval, wheelSize, currentTime, root);
+        }
+        return overflow.add(deadline, key);
+    }
+
+    /**
+     * Moves the clock to {@code now}, passing the key of every entry whose deadline is now
+     * within the current tick to {@code expired}.
+     */
+    void advance(long now, LongConsumer expired) {
+        long newTime = now - Math.floorMod(now, tick);
+        if (newTime <= currentTime) {
+            return;
+        }
+        long firstTick = Math.floorDiv(currentTime, tick) + 1;
+        int passed = (int) Math.min((newTime - currentTime) / tick, wheelSize);
+        currentTime = newTime;
+
+        long[] drainedDeadlines = new long[0];
+        long[] drainedKeys = new long[0];
+        int drained = 0;
+        for (int i = 0; i < passed; i++) {
+            int bucket = (int) Math.floorMod(firstTick + i, (long) wheelSize);
+            int size = sizes[bucket];
+            if (size == 0) {
+                continue;
+            }
+            if (drained + size > drainedDeadlines.length) {
+                int capacity = Math.max(drained + size, drainedDeadlines.length * 2);
+                drainedDeadlines = Arrays.copyOf(drainedDeadlines, capacity);
+                drainedKeys = Arrays.copyOf(drainedKeys, capacity);
+            }
+            System.arraycopy(deadlines[bucket], 0, drainedDeadlines, drained, size);
+            System.arraycopy(keys[bucket], 0, drainedKeys, drained, size);
+            drained += size;
+            sizes[bucket] = 0;
+        }
+
+        if (overflow != null) {
+            overflow.advance(now, expired);
+        }
+        for (int i = 0; i < drained; i++) {
+            if (!root.add(drainedDeadlines[i], drainedKeys[i])) {
+                expired.accept(drainedKeys[i]);
+            }
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (int bucketSize : sizes) {
+            size += bucketSize;
+        }
+        return overflow != null ? size + overflow.size() : size;
+    }
+
+    private void append(int bucket, long deadline, long key) {
+        int size = sizes[bucket];
+        if (deadlines[bucket] == null) {
+            deadlines[bucket] = new long[INITIAL_BUCKET_CAPACITY];
+            keys[bucket] = new long[INITIAL_BUCKET_CAPACITY];
+        } else if (size == deadlines[bucket].length) {
+            deadlines[bucket] = Arrays.copyOf(deadlines[bucket], size * 2);
+            keys[bucket] = Arrays.copyOf(keys[bucket], size * 2);
+        }
+        deadlines[bucket][size] = deadline;
+        keys[bucket][size] = key;
+        sizes[bucket] = size + 1;
+    }
+}
@@ -0,0 +1,14 @@
+-- Review streaks and daily goals, counted in calendar days of each user's time zone. The
+-- streak state is maintained from reviews as they happen (see StreakTracker) and rebuilt
+-- from review_history by its reconciliation job.
+ALTER TABLE users ADD COLUMN time_zone VARCHAR(64) DEFAULT 'UTC' NOT NULL;
+ALTER TABLE users ADD COLUMN daily_goal INT DEFAULT 50 NOT NULL;
+
+CREATE TABLE user_streaks (
+    user_id BIGINT PRIMARY KEY,
+    current_streak INT NOT NULL,
+    longest_streak INT NOT NULL,
+    last_review_date DATE NOT NULL,
+    reviews_on_last_date INT NOT NULL,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
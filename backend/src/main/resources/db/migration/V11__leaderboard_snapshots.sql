@@ -0,0 +1,9 @@
+-- Periodic snapshot of the in-memory weekly leaderboard (see WeeklyLeaderboard), so a restart
+-- reloads the week's scores instead of aggregating review_history. Only the current week is kept.
+CREATE TABLE leaderboard_snapshots (
+    week_start DATE NOT NULL,
+    user_id BIGINT NOT NULL,
+    reviews INT NOT NULL,
+    PRIMARY KEY (week_start, user_id),
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
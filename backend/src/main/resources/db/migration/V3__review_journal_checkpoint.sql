@@ -0,0 +1,6 @@
+-- Last review journal entry written to the database, per journal (see WriteBehindReviewLog).
+-- Updated in the same transaction as the flushed rows, so replay after a crash is exact.
+CREATE TABLE review_journal_checkpoint (
+    journal_id VARCHAR(100) PRIMARY KEY,
+    sequence BIGINT NOT NULL
+);
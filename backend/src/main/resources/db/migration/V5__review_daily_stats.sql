@@ -0,0 +1,17 @@
+-- Daily review rollups per user, language selection and hour of day, so statistics never
+-- scan review_history. language_selection is 'NONE' for cards without one.
+CREATE TABLE review_daily_stats (
+    user_id BIGINT NOT NULL,
+    review_date DATE NOT NULL,
+    language_selection VARCHAR(20) NOT NULL,
+    hour_of_day SMALLINT NOT NULL,
+    quality_0 INT NOT NULL DEFAULT 0,
+    quality_1 INT NOT NULL DEFAULT 0,
+    quality_2 INT NOT NULL DEFAULT 0,
+    quality_3 INT NOT NULL DEFAULT 0,
+    quality_4 INT NOT NULL DEFAULT 0,
+    quality_5 INT NOT NULL DEFAULT 0,
+    new_cards INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_id, review_date, language_selection, hour_of_day),
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
@@ -0,0 +1,15 @@
+-- Per-user choice between SM-2 and FSRS, the FSRS memory state of each card (null until the
+-- card is first reviewed with FSRS), and each user's fitted FSRS weights.
+ALTER TABLE users ADD COLUMN scheduling_algorithm VARCHAR(10) DEFAULT 'SM2' NOT NULL;
+
+ALTER TABLE vocabulary_cards ADD COLUMN stability DOUBLE PRECISION;
+ALTER TABLE vocabulary_cards ADD COLUMN difficulty DOUBLE PRECISION;
+
+CREATE TABLE fsrs_parameters (
+    user_id BIGINT PRIMARY KEY,
+    weights VARCHAR(500) NOT NULL,
+    review_count INT NOT NULL,
+    log_loss DOUBLE PRECISION NOT NULL,
+    fitted_at TIMESTAMP NOT NULL,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
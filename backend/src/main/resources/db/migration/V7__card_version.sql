@@ -0,0 +1,3 @@
+-- Optimistic locking for card schedules: every write bumps the version, and writers that
+-- read the card first only update it if the version is still the one they read.
+ALTER TABLE vocabulary_cards ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
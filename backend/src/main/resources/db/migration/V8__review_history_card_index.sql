@@ -0,0 +1,4 @@
+-- A card's history is read newest first a page at a time, keyed on (reviewed_at, id); the
+-- composite index serves those range scans and every lookup the card_id index did.
+DROP INDEX idx_review_history_card_id;
+CREATE INDEX idx_review_history_card_reviewed_at ON review_history (card_id, reviewed_at);
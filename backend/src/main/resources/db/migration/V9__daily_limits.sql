@@ -0,0 +1,6 @@
+-- Per-user caps on the new cards and the reviews offered each day (see DailyLimitService).
+ALTER TABLE users ADD COLUMN new_cards_per_day INT DEFAULT 20 NOT NULL;
+ALTER TABLE users ADD COLUMN reviews_per_day INT DEFAULT 200 NOT NULL;
+
+-- The due queue reads a user's first cards in next_review order and stops at the limit
+CREATE INDEX idx_vocabulary_cards_user_next_review ON vocabulary_cards (user_id, next_review);
@@ -0,0 +1,157 @@
+package com.anki.simple.events;
+
+import com.anki.simple.tag.TagRepository;
+import com.anki.simple.user.User;
+import com.anki.simple.user.UserRepository;
+import com.anki.simple.vocabulary.DeckChangedEvent;
+import com.anki.simple.vocabulary.VocabularyCard;
+import com.anki.simple.vocabulary.VocabularyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+@ActiveProfiles("test")
+@DisplayName("EventStreamController Integration Tests")
+class EventStreamControllerTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private EventStreamService eventStreamService;
+
+  @Autowired
+  private VocabularyRepository vocabularyRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private TagRepository tagRepository;
+
+  private User user;
+
+  @BeforeEach
+  void setUp() {
+    vocabularyRepository.deleteAll();
+    tagRepository.deleteAll();
+    userRepository.deleteAll();
+
+    user = new User();
+    user.setUsername("testuser");
+    user.setEmail("test@example.com");
+    user.setPassword("encodedPassword");
+    user = userRepository.save(user);
+
+    VocabularyCard card = new VocabularyCard();
+    card.setFront("Hello");
+    card.setBack("Hola");
+    card.setUser(user);
+    card.setNextReview(LocalDateTime.now().minusHours(1));
+    vocabularyRepository.save(card);
+  }
+
+  @Test
+  @WithMockUser(username = "testuser")
+  @DisplayName("Given user with a due card, when opening the stream, then should send the due count")
+  void givenUserWithDueCard_whenOpenStream_thenShouldSendDueCount() throws Exception {
+    // When
+    MvcResult result = mockMvc.perform(get("/api/v1/events").accept(MediaType.TEXT_EVENT_STREAM))
+      .andExpect(request().asyncStarted())
+      .andExpect(status().isOk())
+      .andReturn();
+
+    // Then
+    MockHttpServletResponse response = result.getResponse();
+    assertThat(response.getContentType()).startsWith(MediaType.TEXT_EVENT_STREAM_VALUE);
+    assertThat(response.getContentAsString())
+      .contains("event:due-count")
+      .contains("data:{\"due\":1,\"total\":1}");
+  }
+
+  @Test
+  @WithMockUser(username = "testuser")
+  @DisplayName("Given more new cards due than the daily limit, when opening the stream, then should send the capped due count")
+  void givenNewCardLimit_whenOpenStream_thenShouldCapDueCount() throws Exception {
+    // Given
+    user.setNewCardsPerDay(1);
+    userRepository.saveAndFlush(user);
+    VocabularyCard card = new VocabularyCard();
+    card.setFront("Bye");
+    card.setBack("Adios");
+    card.setUser(user);
+    vocabularyRepository.saveAndFlush(card);
+
+    // When
+    MvcResult result = mockMvc.perform(get("/api/v1/events").accept(MediaType.TEXT_EVENT_STREAM))
+      .andExpect(request().asyncStarted())
+      .andReturn();
+
+    // Then
+    assertThat(result.getResponse().getContentAsString()).contains("data:{\"due\":1,\"total\":2}");
+  }
+
+  @Test
+  @WithMockUser(username = "testuser")
+  @DisplayName("Given open stream, when the deck changes, then should push the changed card ids")
+  void givenOpenStream_whenDeckChanges_thenShouldPushCardIds() throws Exception {
+    // Given
+    MvcResult result = mockMvc.perform(get("/api/v1/events").accept(MediaType.TEXT_EVENT_STREAM))
+      .andExpect(request().asyncStarted())
+      .andReturn();
+
+    // When
+    eventStreamService.onDeckChanged(DeckChangedEvent.forCard(user.getId(), 42L));
+
+    // Then
+    assertThat(awaitContent(result.getResponse(), "data:{\"cardIds\":[42]}"))
+      .contains("event:deck-changed");
+  }
+
+  @Test
+  @WithMockUser(username = "testuser")
+  @DisplayName("Given open stream with unchanged due count, when checking due counts, then should send a keep-alive")
+  void givenUnchangedDueCount_whenCheckDueCounts_thenShouldSendKeepAlive() throws Exception {
+    // Given
+    MvcResult result = mockMvc.perform(get("/api/v1/events").accept(MediaType.TEXT_EVENT_STREAM))
+      .andExpect(request().asyncStarted())
+      .andReturn();
+
+    // When
+    eventStreamService.checkDueCounts();
+
+    // Then
+    assertThat(awaitContent(result.getResponse(), ":keep-alive")).containsOnlyOnce("event:due-count");
+  }
+
+  private String awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+    long deadline = System.currentTimeMillis() + 5_000;
+    String content = response.getContentAsString();
+    while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+      content = response.getContentAsString();
+    }
+    assertThat(content).contains(expected);
+    return content;
+  }
+}
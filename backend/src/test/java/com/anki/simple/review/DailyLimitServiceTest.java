@@ -0,0 +1,173 @@
+package com.anki.simple.review;
+
+import com.anki.simple.review.dto.DailyLimitsRequest;
+import com.anki.simple.review.dto.DailyLimitsResponse;
+import com.anki.simple.user.User;
+import com.anki.simple.user.UserRepository;
+import com.anki.simple.vocabulary.VocabularyCard;
+import com.anki.simple.vocabulary.VocabularyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+@ActiveProfiles("test")
+@DisplayName("DailyLimitService Integration Tests")
+class DailyLimitServiceTest {
+
+  @Autowired
+  private DailyLimitService dailyLimitService;
+
+  @Autowired
+  private VocabularyRepository vocabularyRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  private final LocalDateTime now = LocalDateTime.now().withNano(0);
+  private User user;
+
+  @BeforeEach
+  void setUp() {
+    user = new User();
+    user.setUsername("limited");
+    user.setEmail("limited@example.com");
+    user.setPassword("encodedPassword");
+    user.setNewCardsPerDay(2);
+    user.setReviewsPerDay(1);
+    user.setTimeZone(ZoneId.systemDefault().getId());
+    user = userRepository.save(user);
+  }
+
+  @Test
+  @DisplayName("Given more due cards than the limits, when listing the due queue, then should offer the earliest of each kind by review time")
+  void givenBacklog_whenDueCardIds_thenShouldApplyLimits() {
+    // Given
+    Long new1 = card(now.minusHours(5), false);
+    Long learned1 = card(now.minusHours(4), true);
+    Long new2 = card(now.minusHours(3), false);
+    card(now.minusHours(2), false);
+    card(now.minusHours(1), true);
+
+    // When & Then
+    assertThat(dailyLimitService.dueCardIds(user, now)).containsExactly(new1, learned1, new2);
+    assertThat(dailyLimitService.dueCount(user.getId(), now)).isEqualTo(3);
+  }
+
+  @Test
+  @DisplayName("Given only new cards due, when counting and listing the due queue, then should agree on the new card limit")
+  void givenOnlyNewCardsDue_whenCap_thenShouldMatchDueCardIds() {
+    // Given - five new cards due and no learned ones, with the review limit left unused
+    for (int i = 0; i < 5; i++) {
+      card(now.minusHours(i + 1), false);
+    }
+    card(now.plusDays(1), true);
+
+    // When
+    long count = dailyLimitService.dueCount(user.getId(), now);
+
+    // Then
+    assertThat(count).isEqualTo(2);
+    assertThat(dailyLimitService.dueCardIds(user, now)).hasSize((int) count);
+  }
+
+  @Test
+  @DisplayName("Given reviews done earlier today, when listing the due queue, then should offer only what is left of the limits")
+  void givenReviewsToday_whenDueCardIds_thenShouldCountThem() {
+    // Given - one card learned today, one learned card reviewed again today, one learned yesterday
+    Long learnedToday = card(now.plusDays(1), true);
+    Long reviewedToday = card(now.plusDays(1), true);
+    history(learnedToday, now.toLocalDate().atTime(0, 0, 1));
+    history(reviewedToday, now.minusDays(3));
+    history(reviewedToday, now.toLocalDate().atTime(0, 0, 2));
+    Long dueNew = card(now.minusHours(1), false);
+    card(now.minusHours(1), true);
+
+    // When
+    DailyLimitsResponse limits = dailyLimitService.getLimits(user.getUsername());
+
+    // Then - the review limit is used up, one new card is left
+    assertThat(limits.getNewCardsToday()).isEqualTo(1);
+    assertThat(limits.getReviewsToday()).isEqualTo(1);
+    assertThat(dailyLimitService.dueCardIds(user, now)).containsExactly(dueNew);
+    assertThat(dailyLimitService.dueCount(user.getId(), now)).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Given counted limits, when the limits change, then should count the due queue against the new limits")
+  void givenCountedLimits_whenUpdateLimits_thenShouldRecount() {
+    // Given
+    for (int i = 0; i < 3; i++) {
+      card(now.minusHours(i + 1), false);
+      card(now.minusHours(i + 1), true);
+    }
+    assertThat(dailyLimitService.dueCount(user.getId(), now)).isEqualTo(3);
+
+    // When
+    DailyLimitsRequest request = new DailyLimitsRequest();
+    request.setNewCardsPerDay(3);
+    request.setReviewsPerDay(2);
+    dailyLimitService.updateLimits(request, user.getUsername());
+
+    // Then
+    assertThat(dailyLimitService.dueCount(user.getId(), now)).isEqualTo(5);
+    assertThat(dailyLimitService.dueCardIds(user, now)).hasSize(5);
+  }
+
+  @Test
+  @DisplayName("Given a user in another time zone, when getting the limits, then should count reviews since their midnight")
+  void givenUserTimeZone_whenGetLimits_thenShouldCountTheirDay() {
+    // Given - reviews one minute before and one second after the user's midnight
+    ZoneId zone = ZoneId.of("Pacific/Kiritimati");
+    user.setTimeZone(zone.getId());
+    user = userRepository.save(user);
+    LocalDateTime midnight = LocalDate.now(zone).atStartOfDay(zone)
+      .withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+    Long cardId = card(now.plusDays(1), true);
+    history(cardId, midnight.minusDays(3));
+    history(cardId, midnight.minusMinutes(1));
+    history(cardId, midnight.plusSeconds(1));
+
+    // When
+    DailyLimitsResponse limits = dailyLimitService.getLimits(user.getUsername());
+
+    // Then
+    assertThat(limits.getNewCardsToday()).isZero();
+    assertThat(limits.getReviewsToday()).isEqualTo(1);
+  }
+
+  private Long card(LocalDateTime nextReview, boolean learned) {
+    VocabularyCard card = new VocabularyCard();
+    card.setFront("front");
+    card.setBack("back");
+    card.setUser(user);
+    card.setEaseFactor(2.5);
+    card.setIntervalDays(learned ? 1 : 0);
+    card.setRepetitions(learned ? 1 : 0);
+    card.setLastReviewed(learned ? nextReview.minusDays(1) : null);
+    card = vocabularyRepository.saveAndFlush(card);
+    // onCreate makes every new card due now
+    jdbcTemplate.update("UPDATE vocabulary_cards SET next_review = ? WHERE id = ?", nextReview, card.getId());
+    return card.getId();
+  }
+
+  private void history(Long cardId, LocalDateTime reviewedAt) {
+    jdbcTemplate.update("INSERT INTO review_history (card_id, reviewed_at, quality, ease_factor, interval_days) "
+        + "VALUES (?, ?, 4, 2.5, 1)", cardId, reviewedAt);
+  }
+}
@@ -0,0 +1,155 @@
+package com.anki.simple.review;
+
+import com.anki.simple.review.dto.RescheduleRequest;
+import com.anki.simple.review.dto.ReviewRequest;
+import com.anki.simple.user.User;
+import com.anki.simple.user.UserRepository;
+import com.anki.simple.vocabulary.VocabularyCard;
+import com.anki.simple.vocabulary.VocabularyRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Not transactional: concurrent reviews only conflict once they commit, so the test data is
+ * committed and removed afterwards.
+ */
+@SpringBootTest(properties = "review.optimistic-retry.max-attempts=100")
+@ActiveProfiles("test")
+@DisplayName("Review Concurrency Tests")
+class ReviewConcurrencyTest {
+
+  private static final int THREADS = 4;
+  private static final int REVIEWS_PER_THREAD = 3;
+
+  @Autowired
+  private ReviewService reviewService;
+
+  @Autowired
+  private VocabularyRepository vocabularyRepository;
+
+  @Autowired
+  private ReviewHistoryRepository reviewHistoryRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  private VocabularyCard card;
+
+  @BeforeEach
+  void setUp() {
+    reviewHistoryRepository.deleteAll();
+    vocabularyRepository.deleteAll();
+    userRepository.deleteAll();
+
+    User user = new User();
+    user.setUsername("testuser");
+    user.setEmail("test@example.com");
+    user.setPassword("encodedPassword");
+    user = userRepository.save(user);
+
+    card = new VocabularyCard();
+    card.setFront("Hello");
+    card.setBack("Hola");
+    card.setUser(user);
+    card = vocabularyRepository.save(card);
+  }
+
+  @AfterEach
+  void tearDown() {
+    reviewHistoryRepository.deleteAll();
+    vocabularyRepository.deleteAll();
+    userRepository.deleteAll();
+  }
+
+  @Test
+  @DisplayName("Given devices reviewing the same card at once, when reviews conflict, then should retry without losing any")
+  void givenConcurrentReviewsOfOneCard_whenTheyConflict_thenShouldLoseNone() throws Exception {
+    // Given
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<?>> devices = new ArrayList<>();
+    for (int t = 0; t < THREADS; t++) {
+      devices.add(executor.submit(() -> {
+        start.await();
+        for (int i = 0; i < REVIEWS_PER_THREAD; i++) {
+          ReviewRequest request = new ReviewRequest();
+          request.setCardId(card.getId());
+          request.setQuality(4);
+          reviewService.reviewCard(request, "testuser");
+        }
+        return null;
+      }));
+    }
+
+    // When
+    start.countDown();
+    for (Future<?> device : devices) {
+      device.get();
+    }
+    executor.shutdown();
+
+    // Then - every review built on the previous one
+    int reviews = THREADS * REVIEWS_PER_THREAD;
+    VocabularyCard reviewed = vocabularyRepository.findById(card.getId()).orElseThrow();
+    assertThat(reviewed.getRepetitions()).isEqualTo(reviews);
+    assertThat(reviewed.getVersion()).isEqualTo(card.getVersion() + reviews);
+    assertThat(reviewHistoryRepository.count()).isEqualTo(reviews);
+  }
+
+  @Test
+  @DisplayName("Given bulk reschedules racing single reviews of one card, when they conflict, then should retry without losing any")
+  void givenConcurrentReschedulesAndReviews_whenTheyConflict_thenShouldLoseNone() throws Exception {
+    // Given - half the devices grade the card through the bulk reschedule
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<?>> devices = new ArrayList<>();
+    for (int t = 0; t < THREADS; t++) {
+      boolean bulk = t % 2 == 0;
+      devices.add(executor.submit(() -> {
+        start.await();
+        for (int i = 0; i < REVIEWS_PER_THREAD; i++) {
+          if (bulk) {
+            RescheduleRequest request = new RescheduleRequest();
+            request.setCardIds(List.of(card.getId()));
+            request.setQuality(4);
+            reviewService.rescheduleCards(request, "testuser");
+          } else {
+            ReviewRequest request = new ReviewRequest();
+            request.setCardId(card.getId());
+            request.setQuality(4);
+            reviewService.reviewCard(request, "testuser");
+          }
+        }
+        return null;
+      }));
+    }
+
+    // When
+    start.countDown();
+    for (Future<?> device : devices) {
+      device.get();
+    }
+    executor.shutdown();
+
+    // Then
+    int reviews = THREADS * REVIEWS_PER_THREAD;
+    VocabularyCard reviewed = vocabularyRepository.findById(card.getId()).orElseThrow();
+    assertThat(reviewed.getRepetitions()).isEqualTo(reviews);
+    assertThat(reviewed.getVersion()).isEqualTo(card.getVersion() + reviews);
+    assertThat(reviewHistoryRepository.count()).isEqualTo(reviews);
+  }
+}
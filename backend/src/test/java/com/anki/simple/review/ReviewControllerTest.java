@@ -5,6 +5,7 @@ import com.anki.simple.user.UserRepository;
 import com.anki.simple.vocabulary.LanguageSelection;
 import com.anki.simple.vocabulary.VocabularyCard;
 import com.anki.simple.vocabulary.VocabularyRepository;
+import com.jayway.jsonpath.JsonPath;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -12,15 +13,21 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.UUID;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -43,6 +50,9 @@ class ReviewControllerTest {
   @Autowired
   private ReviewHistoryRepository reviewHistoryRepository;
 
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
   private User user;
   private VocabularyCard card;
 
@@ -90,4 +100,176 @@ class ReviewControllerTest {
       .andExpect(jsonPath("$.id").value(card.getId()))
       .andExpect(jsonPath("$.repetitions").value(1));
   }
+
+  @Test
+  @WithMockUser(username = "testuser")
+  @DisplayName("Given due card, when starting a session and answering, then should acknowledge with the new schedule")
+  void givenDueCard_whenStartSessionAndAnswer_thenShouldAcknowledge() throws Exception {
+    // Given
+    MvcResult started = mockMvc.perform(post("/api/v1/review/sessions")
+        .with(csrf())
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"prefetch\":5}"))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.remaining").value(1))
+      .andExpect(jsonPath("$.cards[0].id").value(card.getId()))
+      .andReturn();
+    String sessionId = JsonPath.read(started.getResponse().getContentAsString(), "$.sessionId");
+
+    // When & Then
+    mockMvc.perform(post("/api/v1/review/sessions/" + sessionId + "/answers")
+        .with(csrf())
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"answers\":[{\"cardId\":" + card.getId() + ",\"quality\":4}]}"))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.accepted[0].cardId").value(card.getId()))
+      .andExpect(jsonPath("$.accepted[0].intervalDays").value(1))
+      .andExpect(jsonPath("$.remaining").value(0))
+      .andExpect(jsonPath("$.cards").isEmpty());
+  }
+
+  @Test
+  @WithMockUser(username = "testuser")
+  @DisplayName("Given unknown session, when answering, then should return 404")
+  void givenUnknownSession_whenAnswer_thenShouldReturn404() throws Exception {
+    // When & Then
+    mockMvc.perform(post("/api/v1/review/sessions/" + UUID.randomUUID() + "/answers")
+        .with(csrf())
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"answers\":[{\"cardId\":" + card.getId() + ",\"quality\":4}]}"))
+      .andExpect(status().isNotFound())
+      .andExpect(jsonPath("$.title").value("Review Session Not Found"));
+  }
+
+  @Test
+  @WithMockUser(username = "testuser")
+  @DisplayName("Given offline reviews, when submitting a batch, then should return the applied count")
+  void givenOfflineReviews_whenReviewBatch_thenShouldReturnAppliedCount() throws Exception {
+    // Given
+    String reviewedAt = LocalDateTime.now().minusHours(1).withNano(0).toString();
+    String requestJson = "{\"reviews\":[{\"cardId\":" + card.getId() + ",\"quality\":4,\"reviewedAt\":\""
+        + reviewedAt + "\"}]}";
+
+    // When & Then
+    mockMvc.perform(post("/api/v1/review/batch")
+        .with(csrf())
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(requestJson))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.applied").value(1))
+      .andExpect(jsonPath("$.cards[0].cardId").value(card.getId()))
+      .andExpect(jsonPath("$.skippedCardIds").isEmpty());
+  }
+
+  @Test
+  @WithMockUser(username = "testuser")
+  @DisplayName("Given review without timestamp, when submitting a batch, then should return 400")
+  void givenReviewWithoutTimestamp_whenReviewBatch_thenShouldReturn400() throws Exception {
+    // When & Then
+    mockMvc.perform(post("/api/v1/review/batch")
+        .with(csrf())
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"reviews\":[{\"cardId\":" + card.getId() + ",\"quality\":4}]}"))
+      .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @WithMockUser(username = "testuser")
+  @DisplayName("Given user switched to FSRS, when reviewing, then should schedule from the FSRS memory model")
+  void givenFsrsUser_whenReviewCard_thenShouldScheduleWithFsrs() throws Exception {
+    // Given
+    mockMvc.perform(put("/api/v1/review/scheduling")
+        .with(csrf())
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"algorithm\":\"FSRS\"}"))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.algorithm").value("FSRS"))
+      .andExpect(jsonPath("$.fsrsWeights.length()").value(17))
+      .andExpect(jsonPath("$.fsrsFittedAt").doesNotExist());
+
+    // When & Then - a 1-day SM-2 card recalled after 2 days gets about a week
+    mockMvc.perform(post("/api/v1/review")
+        .with(csrf())
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"cardId\":" + card.getId() + ",\"quality\":4}"))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.intervalDays").value(7))
+      .andExpect(jsonPath("$.repetitions").value(1));
+  }
+
+  @Test
+  @WithMockUser(username = "testuser")
+  @DisplayName("Given owned and unknown cards, when bulk rescheduling, then should reschedule the owned ones and skip the rest")
+  void givenCards_whenReschedule_thenShouldRescheduleOwnedCards() throws Exception {
+    // When & Then - second SM-2 repetition at quality 5 gives 6 days
+    card.setRepetitions(1);
+    vocabularyRepository.saveAndFlush(card);
+    mockMvc.perform(post("/api/v1/review/reschedule")
+        .with(csrf())
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"cardIds\":[" + card.getId() + ",999999],\"quality\":5}"))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.applied").value(1))
+      .andExpect(jsonPath("$.cards[0].cardId").value(card.getId()))
+      .andExpect(jsonPath("$.cards[0].intervalDays").value(6))
+      .andExpect(jsonPath("$.skippedCardIds[0]").value(999999));
+    assertThat(reviewHistoryRepository.count()).isEqualTo(1);
+  }
+
+  @Test
+  @WithMockUser(username = "testuser")
+  @DisplayName("Given three reviews, when paging the card history two at a time, then should return them newest first across pages")
+  void givenThreeReviews_whenPagingHistory_thenShouldReturnNewestFirst() throws Exception {
+    // Given - two reviews share a timestamp, so the cursor has to break the tie on id
+    LocalDateTime reviewedAt = LocalDateTime.of(2025, 3, 10, 9, 0);
+    for (Object[] review : new Object[][]{{reviewedAt.minusDays(1), 3}, {reviewedAt, 4}, {reviewedAt, 5}}) {
+      jdbcTemplate.update("INSERT INTO review_history (card_id, reviewed_at, quality, ease_factor, interval_days) "
+          + "VALUES (?, ?, ?, 2.5, 1)", card.getId(), review[0], review[1]);
+    }
+
+    // When
+    MvcResult first = mockMvc.perform(get("/api/v1/vocabulary/" + card.getId() + "/history").param("limit", "2"))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.reviews.length()").value(2))
+      .andExpect(jsonPath("$.reviews[0].quality").value(5))
+      .andExpect(jsonPath("$.reviews[1].quality").value(4))
+      .andReturn();
+    String cursor = JsonPath.read(first.getResponse().getContentAsString(), "$.nextCursor");
+
+    // Then
+    mockMvc.perform(get("/api/v1/vocabulary/" + card.getId() + "/history").param("limit", "2").param("cursor", cursor))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.reviews.length()").value(1))
+      .andExpect(jsonPath("$.reviews[0].quality").value(3))
+      .andExpect(jsonPath("$.nextCursor").doesNotExist());
+  }
+
+  @Test
+  @WithMockUser(username = "testuser")
+  @DisplayName("Given a malformed cursor, when getting the card history, then should return 400")
+  void givenMalformedCursor_whenGettingHistory_thenShouldReturn400() throws Exception {
+    // When & Then
+    mockMvc.perform(get("/api/v1/vocabulary/" + card.getId() + "/history").param("cursor", "yesterday"))
+      .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @WithMockUser(username = "testuser")
+  @DisplayName("Given new daily limits, when updating them, then should return them with today's progress")
+  void givenDailyLimits_whenUpdating_thenShouldReturnThem() throws Exception {
+    // When & Then
+    mockMvc.perform(put("/api/v1/review/limits")
+        .with(csrf())
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"newCardsPerDay\":5,\"reviewsPerDay\":50}"))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.newCardsPerDay").value(5))
+      .andExpect(jsonPath("$.reviewsPerDay").value(50))
+      .andExpect(jsonPath("$.newCardsToday").value(0));
+    mockMvc.perform(put("/api/v1/review/limits")
+        .with(csrf())
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"newCardsPerDay\":-1,\"reviewsPerDay\":50}"))
+      .andExpect(status().isBadRequest());
+  }
 }
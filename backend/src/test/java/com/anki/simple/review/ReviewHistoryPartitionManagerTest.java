@@ -0,0 +1,44 @@
+package com.anki.simple.review;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ReviewHistoryPartitionManager Tests")
+class ReviewHistoryPartitionManagerTest {
+
+  private static final YearMonth CURRENT = YearMonth.of(2025, 11);
+
+  @Test
+  @DisplayName("Given some months already partitioned, when planning, then should create only the missing months across the year boundary")
+  void givenSomeMonthsPartitioned_whenPlanning_thenShouldCreateMissingMonths() {
+    // Given
+    Set<String> existing = Set.of("review_history_default", "review_history_p202511", "review_history_p202512");
+
+    // When
+    List<YearMonth> missing = ReviewHistoryPartitionManager.missingMonths(existing, CURRENT, 3);
+
+    // Then
+    assertThat(missing).containsExactly(YearMonth.of(2026, 1), YearMonth.of(2026, 2));
+    assertThat(ReviewHistoryPartitionManager.partitionName(YearMonth.of(2026, 1))).isEqualTo("review_history_p202601");
+  }
+
+  @Test
+  @DisplayName("Given partitions around the retention cutoff, when selecting expired ones, then should skip the default partition and recent months")
+  void givenPartitionsAroundCutoff_whenSelectingExpired_thenShouldReturnOlderMonthsOnly() {
+    // Given
+    Set<String> existing = Set.of("review_history_default", "review_history_p202410",
+        "review_history_p202409", "review_history_p202411", "review_history_p202511");
+
+    // When
+    List<String> expired = ReviewHistoryPartitionManager.expiredPartitions(existing, CURRENT.minusMonths(12));
+
+    // Then
+    assertThat(expired).containsExactly("review_history_p202409", "review_history_p202410");
+  }
+}
@@ -0,0 +1,143 @@
+package com.anki.simple.review;
+
+import com.anki.simple.user.User;
+import com.anki.simple.user.UserRepository;
+import com.anki.simple.vocabulary.CardScheduleChangedEvent;
+import com.anki.simple.vocabulary.VocabularyCard;
+import com.anki.simple.vocabulary.VocabularyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+@ActiveProfiles("test")
+@RecordApplicationEvents
+@DisplayName("ReviewHistoryReplay Integration Tests")
+class ReviewHistoryReplayTest {
+
+  private static final LocalDateTime FIRST_REVIEW = LocalDateTime.of(2025, 3, 1, 9, 0);
+
+  @Autowired
+  private ReviewHistoryReplay reviewHistoryReplay;
+
+  @Autowired
+  private VocabularyRepository vocabularyRepository;
+
+  @Autowired
+  private ReviewHistoryRepository reviewHistoryRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private ApplicationEvents events;
+
+  private User user;
+  private VocabularyCard card;
+
+  @BeforeEach
+  void setUp() {
+    reviewHistoryRepository.deleteAll();
+    vocabularyRepository.deleteAll();
+    userRepository.deleteAll();
+
+    user = new User();
+    user.setUsername("testuser");
+    user.setEmail("test@example.com");
+    user.setPassword("encodedPassword");
+    user = userRepository.save(user);
+
+    // A schedule the current rules would not produce from the card's two good reviews
+    card = new VocabularyCard();
+    card.setFront("Hello");
+    card.setBack("Hola");
+    card.setUser(user);
+    card = vocabularyRepository.saveAndFlush(card);
+    jdbcTemplate.update("UPDATE vocabulary_cards SET ease_factor = 1.3, interval_days = 100, repetitions = 9, "
+        + "last_reviewed = ?, next_review = ? WHERE id = ?",
+        Timestamp.valueOf(FIRST_REVIEW.plusDays(1)), Timestamp.valueOf(FIRST_REVIEW.plusDays(101)), card.getId());
+    insertHistory(FIRST_REVIEW, 4);
+    insertHistory(FIRST_REVIEW.plusDays(1), 4);
+  }
+
+  @Test
+  @DisplayName("Given a card out of line with its history, when dry-running a replay, then should report it and write nothing")
+  void givenStaleSchedule_whenDryRun_thenShouldReportOnly() {
+    // When
+    ReviewHistoryReplay.ReplayReport report = reviewHistoryReplay.replay(user.getId(), true);
+
+    // Then
+    assertThat(report.cards()).isEqualTo(1);
+    assertThat(report.reviews()).isEqualTo(2);
+    assertThat(report.moved()).isEqualTo(1);
+    assertThat(schedule().get("interval_days")).isEqualTo(100);
+  }
+
+  @Test
+  @DisplayName("Given a card out of line with its history, when replaying, then should rewrite its schedule")
+  void givenStaleSchedule_whenReplay_thenShouldRewriteSchedule() {
+    // When
+    ReviewHistoryReplay.ReplayReport report = reviewHistoryReplay.replay(user.getId(), false);
+
+    // Then - SM-2 after two good reviews: second step, 6 days after the last review
+    assertThat(report.moved()).isEqualTo(1);
+    assertThat(report.skipped()).isZero();
+    Map<String, Object> schedule = schedule();
+    assertThat(schedule.get("interval_days")).isEqualTo(6);
+    assertThat(schedule.get("repetitions")).isEqualTo(2);
+    assertThat((Double) schedule.get("ease_factor")).isEqualTo(2.5);
+    assertThat(((Timestamp) schedule.get("next_review")).toLocalDateTime()).isEqualTo(FIRST_REVIEW.plusDays(7));
+    assertThat((Long) schedule.get("version")).isGreaterThan(card.getVersion());
+    assertThat(events.stream(CardScheduleChangedEvent.class)).containsExactly(CardScheduleChangedEvent.rescheduled(
+        user.getId(), card.getId(), FIRST_REVIEW.plusDays(101), FIRST_REVIEW.plusDays(7)));
+
+    // Replaying again finds nothing to change
+    assertThat(reviewHistoryReplay.replay(user.getId(), true).moved()).isZero();
+  }
+
+  @Test
+  @DisplayName("Given an SM-2 card with a stale FSRS state and a matching schedule, when replaying, then should clear the state")
+  void givenStaleMemoryState_whenReplay_thenShouldClearIt() {
+    // Given - the schedule matches the history, only the leftover memory state differs
+    reviewHistoryReplay.replay(user.getId(), false);
+    jdbcTemplate.update("UPDATE vocabulary_cards SET stability = 12.5, difficulty = 4.2 WHERE id = ?", card.getId());
+
+    // When
+    ReviewHistoryReplay.ReplayReport report = reviewHistoryReplay.replay(user.getId(), false);
+
+    // Then
+    assertThat(report.moved()).isZero();
+    Map<String, Object> state = jdbcTemplate.queryForMap(
+        "SELECT stability, difficulty, interval_days FROM vocabulary_cards WHERE id = ?", card.getId());
+    assertThat(state.get("stability")).isNull();
+    assertThat(state.get("difficulty")).isNull();
+    assertThat(state.get("interval_days")).isEqualTo(6);
+  }
+
+  private void insertHistory(LocalDateTime reviewedAt, int quality) {
+    jdbcTemplate.update("INSERT INTO review_history (card_id, reviewed_at, quality, ease_factor, interval_days) "
+        + "VALUES (?, ?, ?, 2.5, 1)", card.getId(), Timestamp.valueOf(reviewedAt), quality);
+  }
+
+  private Map<String, Object> schedule() {
+    return jdbcTemplate.queryForMap("SELECT ease_factor, interval_days, repetitions, next_review, version "
+        + "FROM vocabulary_cards WHERE id = ?", card.getId());
+  }
+}
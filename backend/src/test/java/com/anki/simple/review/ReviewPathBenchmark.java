@@ -0,0 +1,172 @@
+package com.anki.simple.review;
+
+import com.anki.simple.SimpleAnkiApplication;
+import com.anki.simple.review.dto.ReviewRequest;
+import com.anki.simple.user.User;
+import com.anki.simple.user.UserRepository;
+import com.anki.simple.vocabulary.VocabularyCard;
+import com.anki.simple.vocabulary.VocabularyRepository;
+import com.anki.simple.vocabulary.dto.VocabularyCardResponse;
+import com.anki.simple.vocabulary.mapper.VocabularyCardMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One review through the entity path (load user and card, dirty-checked save, history entity,
+ * lazy tags for the response) versus {@link CardReviewWriter}'s single read and single write,
+ * against the in-memory H2 test database. The statements sent per review are counted at the
+ * {@link DataSource} and printed when each run ends.
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark=ReviewPathBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReviewPathBenchmark {
+
+  private static final int CARDS = 1000;
+  private static final AtomicLong STATEMENTS = new AtomicLong();
+
+  private ConfigurableApplicationContext context;
+  private ReviewService reviewService;
+  private UserRepository userRepository;
+  private VocabularyRepository vocabularyRepository;
+  private VocabularyCardMapper vocabularyCardMapper;
+  private TransactionTemplate transactionTemplate;
+  private List<Long> cardIds;
+  private long reviews;
+  private long statementsAtStart;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    context = new SpringApplicationBuilder(SimpleAnkiApplication.class, StatementCounter.class)
+        .profiles("test")
+        .properties("spring.main.banner-mode=off", "logging.level.root=WARN")
+        .run();
+    reviewService = context.getBean(ReviewService.class);
+    userRepository = context.getBean(UserRepository.class);
+    vocabularyRepository = context.getBean(VocabularyRepository.class);
+    vocabularyCardMapper = context.getBean(VocabularyCardMapper.class);
+    transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+    User user = new User();
+    user.setUsername("benchmark");
+    user.setEmail("benchmark@example.com");
+    user.setPassword("encodedPassword");
+    user = userRepository.save(user);
+    JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+    Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+    for (int i = 0; i < CARDS; i++) {
+      jdbcTemplate.update("INSERT INTO vocabulary_cards (front, back, language_selection, created_at, next_review, "
+          + "ease_factor, interval_days, repetitions, user_id) VALUES (?, ?, 'DE_ES', ?, ?, 2.5, 0, 0, ?)",
+          "front " + i, "back " + i, now, now, user.getId());
+    }
+    cardIds = jdbcTemplate.queryForList("SELECT id FROM vocabulary_cards ORDER BY id", Long.class);
+  }
+
+  @Setup(Level.Iteration)
+  public void startCounting() {
+    statementsAtStart = STATEMENTS.get();
+    reviews = 0;
+  }
+
+  @TearDown(Level.Iteration)
+  public void printStatements() {
+    System.out.printf("%.2f statements per review%n", (double) (STATEMENTS.get() - statementsAtStart) / reviews);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public VocabularyCardResponse entity() {
+    long review = reviews++;
+    Long cardId = cardIds.get((int) (review % CARDS));
+    int quality = quality(review);
+    return transactionTemplate.execute(status -> {
+      User user = userRepository.findByUsername("benchmark").orElseThrow();
+      VocabularyCard card = vocabularyRepository.findById(cardId).orElseThrow();
+      return vocabularyCardMapper.toResponse(reviewService.applyReview(card, quality, user.getId()));
+    });
+  }
+
+  @Benchmark
+  public VocabularyCardResponse direct() {
+    long review = reviews++;
+    ReviewRequest request = new ReviewRequest();
+    request.setCardId(cardIds.get((int) (review % CARDS)));
+    request.setQuality(quality(review));
+    return reviewService.reviewCard(request, "benchmark");
+  }
+
+  /** Alternates passes and lapses over the deck so intervals stay short. */
+  private static int quality(long review) {
+    return (review / CARDS) % 2 == 0 ? 4 : 1;
+  }
+
+  /** Counts every statement prepared or created on the application's connections. */
+  static class StatementCounter implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+      if (!(bean instanceof DataSource dataSource)) {
+        return bean;
+      }
+      return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{DataSource.class},
+          (proxy, method, args) -> {
+            Object result = invoke(dataSource, method, args);
+            return result instanceof Connection connection ? counting(connection) : result;
+          });
+    }
+
+    private static Connection counting(Connection connection) {
+      return (Connection) Proxy.newProxyInstance(StatementCounter.class.getClassLoader(),
+          new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+            if (method.getName().equals("prepareStatement") || method.getName().equals("createStatement")
+                || method.getName().equals("prepareCall")) {
+              STATEMENTS.incrementAndGet();
+            }
+            return invoke(connection, method, args);
+          });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+      try {
+        return method.invoke(target, args);
+      } catch (InvocationTargetException e) {
+        throw e.getCause();
+      }
+    }
+  }
+}
@@ -3,7 +3,13 @@ package com.anki.simple.review;
 import com.anki.simple.exception.CardNotFoundException;
 import com.anki.simple.exception.UnauthorizedException;
 import com.anki.simple.exception.UserNotFoundException;
+import com.anki.simple.review.dto.OfflineReview;
+import com.anki.simple.review.dto.ReviewBatchRequest;
+import com.anki.simple.review.dto.ReviewBatchResponse;
 import com.anki.simple.review.dto.ReviewRequest;
+import com.anki.simple.tag.Tag;
+import com.anki.simple.tag.TagRepository;
+import com.anki.simple.tag.dto.TagResponse;
 import com.anki.simple.user.User;
 import com.anki.simple.user.UserRepository;
 import com.anki.simple.vocabulary.LanguageSelection;
@@ -15,10 +21,14 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -41,6 +51,12 @@ class ReviewServiceTest {
   @Autowired
   private UserRepository userRepository;
 
+  @Autowired
+  private TagRepository tagRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
   private User user;
   private User otherUser;
   private VocabularyCard card;
@@ -216,4 +232,102 @@ class ReviewServiceTest {
     // Then
     assertThat(reviewHistoryRepository.count()).isEqualTo(2);
   }
+
+  @Test
+  @DisplayName("Given a tagged card, when review card, then should write the schedule, bump the version and return the tags")
+  void givenTaggedCard_whenReviewCard_thenShouldWriteScheduleAndReturnTags() {
+    // Given
+    Tag tag = new Tag();
+    tag.setName("Verbs");
+    tag.setColor("#ff0000");
+    tag.setUser(user);
+    tag = tagRepository.save(tag);
+    card.getTags().add(tag);
+    card = vocabularyRepository.saveAndFlush(card);
+    Long version = card.getVersion();
+
+    ReviewRequest request = new ReviewRequest();
+    request.setCardId(card.getId());
+    request.setQuality(5);
+
+    // When
+    VocabularyCardResponse response = reviewService.reviewCard(request, user.getUsername());
+
+    // Then
+    assertThat(response.getTags()).extracting(TagResponse::getName).containsExactly("Verbs");
+    Map<String, Object> row = jdbcTemplate.queryForMap(
+      "SELECT c.version, c.next_review, c.repetitions, h.interval_days AS history_interval, h.quality "
+        + "FROM vocabulary_cards c JOIN review_history h ON h.card_id = c.id WHERE c.id = ?", card.getId());
+    assertThat(row.get("VERSION")).isEqualTo(version + 1);
+    assertThat(((Timestamp) row.get("NEXT_REVIEW")).toLocalDateTime()).isEqualTo(response.getNextReview());
+    assertThat(row.get("REPETITIONS")).isEqualTo(response.getRepetitions());
+    assertThat(row.get("HISTORY_INTERVAL")).isEqualTo(response.getIntervalDays());
+    assertThat(row.get("QUALITY")).isEqualTo(5);
+  }
+
+  @Test
+  @DisplayName("Given offline reviews out of order, when review batch, then should replay them in timestamp order")
+  void givenOfflineReviewsOutOfOrder_whenReviewBatch_thenShouldReplayInTimestampOrder() {
+    // Given - the failed answer happened first, so the card ends with one successful repetition
+    LocalDateTime later = LocalDateTime.now().minusHours(1).withNano(0);
+    LocalDateTime earlier = later.minusHours(1);
+    ReviewBatchRequest request = new ReviewBatchRequest();
+    request.setReviews(List.of(
+        offlineReview(card.getId(), 4, later),
+        offlineReview(card.getId(), 2, earlier),
+        offlineReview(999L, 5, later)));
+
+    // When
+    ReviewBatchResponse response = reviewService.reviewBatch(request, user.getUsername());
+
+    // Then
+    assertThat(response.getApplied()).isEqualTo(2);
+    assertThat(response.getSkippedCardIds()).containsExactly(999L);
+    assertThat(response.getCards()).singleElement()
+      .satisfies(ack -> assertThat(ack.getNextReview()).isEqualTo(later.plusDays(1)));
+
+    VocabularyCard reviewed = vocabularyRepository.findById(card.getId()).orElseThrow();
+    assertThat(reviewed.getRepetitions()).isEqualTo(1);
+    assertThat(reviewed.getLastReviewed()).isEqualTo(later);
+    assertThat(reviewHistoryRepository.findAll())
+      .extracting(ReviewHistory::getQuality)
+      .containsExactly(2, 4);
+  }
+
+  @Test
+  @DisplayName("Given offline review older than the card's last review, when review batch, then should only record it")
+  void givenOfflineReviewBeforeLastReview_whenReviewBatch_thenShouldNotReschedule() {
+    // Given - the card was reviewed online after the offline answer
+    LocalDateTime lastReviewed = LocalDateTime.now().minusHours(1).withNano(0);
+    LocalDateTime nextReview = lastReviewed.plusDays(6);
+    card.setLastReviewed(lastReviewed);
+    card.setNextReview(nextReview);
+    card.setRepetitions(2);
+    card = vocabularyRepository.saveAndFlush(card);
+    ReviewBatchRequest request = new ReviewBatchRequest();
+    request.setReviews(List.of(offlineReview(card.getId(), 1, lastReviewed.minusHours(2))));
+
+    // When
+    ReviewBatchResponse response = reviewService.reviewBatch(request, user.getUsername());
+
+    // Then
+    assertThat(response.getApplied()).isEqualTo(1);
+    assertThat(response.getHistoryOnly()).isEqualTo(1);
+    assertThat(response.getCards()).singleElement()
+      .satisfies(ack -> assertThat(ack.getNextReview()).isEqualTo(nextReview));
+
+    VocabularyCard reviewed = vocabularyRepository.findById(card.getId()).orElseThrow();
+    assertThat(reviewed.getLastReviewed()).isEqualTo(lastReviewed);
+    assertThat(reviewed.getNextReview()).isEqualTo(nextReview);
+    assertThat(reviewed.getRepetitions()).isEqualTo(2);
+    assertThat(reviewHistoryRepository.findAll()).extracting(ReviewHistory::getQuality).containsExactly(1);
+  }
+
+  private static OfflineReview offlineReview(Long cardId, int quality, LocalDateTime reviewedAt) {
+    OfflineReview review = new OfflineReview();
+    review.setCardId(cardId);
+    review.setQuality(quality);
+    review.setReviewedAt(reviewedAt);
+    return review;
+  }
 }
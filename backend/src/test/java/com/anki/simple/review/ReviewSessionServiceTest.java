@@ -0,0 +1,157 @@
+package com.anki.simple.review;
+
+import com.anki.simple.exception.ReviewSessionNotFoundException;
+import com.anki.simple.review.dto.ReviewAnswersRequest;
+import com.anki.simple.review.dto.ReviewRequest;
+import com.anki.simple.review.dto.ReviewSessionRequest;
+import com.anki.simple.review.dto.ReviewSessionResponse;
+import com.anki.simple.user.User;
+import com.anki.simple.user.UserRepository;
+import com.anki.simple.vocabulary.VocabularyCard;
+import com.anki.simple.vocabulary.VocabularyRepository;
+import com.anki.simple.vocabulary.dto.VocabularyCardResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@Transactional
+@ActiveProfiles("test")
+@DisplayName("ReviewSessionService Integration Tests")
+class ReviewSessionServiceTest {
+
+  @Autowired
+  private ReviewSessionService reviewSessionService;
+
+  @Autowired
+  private VocabularyRepository vocabularyRepository;
+
+  @Autowired
+  private ReviewHistoryRepository reviewHistoryRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @BeforeEach
+  void setUp() {
+    // Clean up
+    reviewHistoryRepository.deleteAll();
+    vocabularyRepository.deleteAll();
+    userRepository.deleteAll();
+
+    User user = createUser("testuser", "test@example.com");
+    createUser("otheruser", "other@example.com");
+    for (String front : List.of("one", "two", "three")) {
+      VocabularyCard card = new VocabularyCard();
+      card.setFront(front);
+      card.setBack(front);
+      card.setUser(user);
+      vocabularyRepository.save(card);
+    }
+  }
+
+  @Test
+  @DisplayName("Given three due cards and prefetch 2, when answering one, then should acknowledge it and hand out the third")
+  void givenThreeDueCards_whenAnswerOne_thenShouldAcknowledgeAndHandOutNext() {
+    // Given
+    ReviewSessionResponse started = reviewSessionService.startSession(prefetch(2), "testuser");
+    Long firstId = started.getCards().get(0).getId();
+
+    // When
+    ReviewSessionResponse answered = reviewSessionService.answer(
+        started.getSessionId(), answers(firstId), "testuser");
+
+    // Then
+    assertThat(started.getCards()).hasSize(2);
+    assertThat(started.getRemaining()).isEqualTo(3);
+    assertThat(answered.getAccepted()).singleElement()
+        .satisfies(ack -> {
+          assertThat(ack.getCardId()).isEqualTo(firstId);
+          assertThat(ack.getIntervalDays()).isEqualTo(1);
+        });
+    assertThat(answered.getRemaining()).isEqualTo(2);
+    assertThat(answered.getCards()).hasSize(1);
+    assertThat(answered.getCards().get(0).getId())
+        .isNotIn(started.getCards().stream().map(VocabularyCardResponse::getId).toList());
+    assertThat(reviewHistoryRepository.count()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Given started session, when answering a card twice, then should throw IllegalArgumentException")
+  void givenStartedSession_whenAnswerCardTwice_thenShouldThrowException() {
+    // Given
+    ReviewSessionResponse started = reviewSessionService.startSession(prefetch(2), "testuser");
+    Long firstId = started.getCards().get(0).getId();
+    reviewSessionService.answer(started.getSessionId(), answers(firstId), "testuser");
+
+    // When & Then
+    assertThatThrownBy(() -> reviewSessionService.answer(started.getSessionId(), answers(firstId), "testuser"))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("not awaiting an answer");
+  }
+
+  @Test
+  @DisplayName("Given an answer whose review fails, when answering again, then should still accept the card")
+  void givenFailedAnswer_whenAnswerAgain_thenShouldAcceptCard() {
+    // Given - an out-of-range quality fails the review after the card was claimed
+    ReviewSessionResponse started = reviewSessionService.startSession(prefetch(2), "testuser");
+    Long firstId = started.getCards().get(0).getId();
+    ReviewAnswersRequest invalid = answers(firstId);
+    invalid.getAnswers().get(0).setQuality(9);
+    assertThatThrownBy(() -> reviewSessionService.answer(started.getSessionId(), invalid, "testuser"))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("Quality");
+
+    // When
+    ReviewSessionResponse answered = reviewSessionService.answer(started.getSessionId(), answers(firstId), "testuser");
+
+    // Then
+    assertThat(answered.getAccepted()).singleElement()
+        .satisfies(ack -> assertThat(ack.getCardId()).isEqualTo(firstId));
+    assertThat(answered.getRemaining()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Given another user's session, when answering, then should throw ReviewSessionNotFoundException")
+  void givenOtherUsersSession_whenAnswer_thenShouldThrowException() {
+    // Given
+    ReviewSessionResponse started = reviewSessionService.startSession(null, "testuser");
+    Long firstId = started.getCards().get(0).getId();
+
+    // When & Then
+    assertThatThrownBy(() -> reviewSessionService.answer(started.getSessionId(), answers(firstId), "otheruser"))
+        .isInstanceOf(ReviewSessionNotFoundException.class);
+  }
+
+  private User createUser(String username, String email) {
+    User user = new User();
+    user.setUsername(username);
+    user.setEmail(email);
+    user.setPassword("encodedPassword");
+    return userRepository.save(user);
+  }
+
+  private static ReviewSessionRequest prefetch(int prefetch) {
+    ReviewSessionRequest request = new ReviewSessionRequest();
+    request.setPrefetch(prefetch);
+    return request;
+  }
+
+  private static ReviewAnswersRequest answers(Long cardId) {
+    ReviewRequest answer = new ReviewRequest();
+    answer.setCardId(cardId);
+    answer.setQuality(4);
+    ReviewAnswersRequest request = new ReviewAnswersRequest();
+    request.setAnswers(List.of(answer));
+    return request;
+  }
+}
@@ -1,11 +1,14 @@
 package com.anki.simple.review;
 
+import com.anki.simple.review.scheduling.LoadBalancer;
+import com.anki.simple.review.scheduling.Sm2Algorithm;
 import com.anki.simple.vocabulary.VocabularyCard;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -17,7 +20,7 @@ class SpacedRepetitionServiceTest {
 
   @BeforeEach
   void setUp() {
-    spacedRepetitionService = new SpacedRepetitionService();
+    spacedRepetitionService = new SpacedRepetitionService(List.of(new Sm2Algorithm()), new LoadBalancer(null, false));
   }
 
   @Test
@@ -0,0 +1,118 @@
+package com.anki.simple.review.journal;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("ReviewJournal Tests")
+class ReviewJournalTest {
+
+  private static final LocalDateTime REVIEWED_AT = LocalDateTime.of(2025, 3, 10, 12, 0, 0, 123_456_000);
+
+  @TempDir
+  private Path directory;
+
+  @Test
+  @DisplayName("Given appended entries, when reopening the journal, then should recover them and continue the sequence")
+  void givenAppendedEntries_whenReopen_thenShouldRecoverAndContinueSequence() throws Exception {
+    // Given
+    Path path = directory.resolve("review.journal");
+    try (ReviewJournal journal = ReviewJournal.open(path, 4096, FsyncPolicy.NEVER, 0)) {
+      journal.append(entry(1L));
+      journal.append(entry(2L));
+    }
+
+    // When
+    try (ReviewJournal reopened = ReviewJournal.open(path, 4096, FsyncPolicy.NEVER, 0)) {
+      List<JournalEntry> entries = reopened.readAll();
+      JournalEntry next = reopened.append(entry(3L));
+
+      // Then
+      assertThat(entries).extracting(JournalEntry::sequence).containsExactly(1L, 2L);
+      assertThat(entries.get(1)).isEqualTo(entry(2L).withSequence(2));
+      assertThat(next.sequence()).isEqualTo(3);
+    }
+  }
+
+  @Test
+  @DisplayName("Given a torn last record, when reopening the journal, then should stop before it")
+  void givenTornLastRecord_whenReopen_thenShouldStopBeforeIt() throws Exception {
+    // Given
+    Path path = directory.resolve("review.journal");
+    try (ReviewJournal journal = ReviewJournal.open(path, 4096, FsyncPolicy.ALWAYS, 0)) {
+      journal.append(entry(1L));
+      journal.append(entry(2L));
+    }
+    try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+      file.seek(ReviewJournal.HEADER_SIZE + ReviewJournal.RECORD_SIZE + 30);
+      file.write(0x7F);
+    }
+
+    // When
+    try (ReviewJournal reopened = ReviewJournal.open(path, 4096, FsyncPolicy.NEVER, 0)) {
+      // Then
+      assertThat(reopened.readAll()).extracting(JournalEntry::cardId).containsExactly(1L);
+      assertThat(reopened.append(entry(3L)).sequence()).isEqualTo(2);
+    }
+  }
+
+  @Test
+  @DisplayName("Given a full journal, when reset, then should accept appends and keep sequences increasing")
+  void givenFullJournal_whenReset_thenShouldAcceptAppends() throws Exception {
+    // Given - room for two records
+    int capacity = ReviewJournal.HEADER_SIZE + 2 * ReviewJournal.RECORD_SIZE;
+    try (ReviewJournal journal = ReviewJournal.open(directory.resolve("review.journal"), capacity,
+        FsyncPolicy.NEVER, 10)) {
+      journal.append(entry(1L));
+      journal.append(entry(2L));
+      assertThat(journal.append(entry(3L))).isNull();
+
+      // When
+      journal.reset();
+      JournalEntry appended = journal.append(entry(3L));
+
+      // Then
+      assertThat(appended.sequence()).isEqualTo(13);
+      assertThat(journal.readAll()).containsExactly(appended);
+    }
+  }
+
+  @Test
+  @DisplayName("Given a version 1 journal, when reopening, then should start over only if its entries were flushed")
+  void givenVersionOneJournal_whenReopen_thenShouldStartOverOnlyIfFlushed() throws Exception {
+    // Given - a 72-byte-record journal whose last entry has sequence 5
+    Path path = directory.resolve("review.journal");
+    ByteBuffer file = ByteBuffer.allocate(ReviewJournal.HEADER_SIZE + 2 * 72);
+    file.putInt(0x524A524E).putInt(1).putInt(72).putInt(0);
+    byte[] record = ByteBuffer.allocate(72).putInt(0).putLong(5).array();
+    CRC32C crc = new CRC32C();
+    crc.update(record, Integer.BYTES, record.length - Integer.BYTES);
+    ByteBuffer.wrap(record).putInt((int) crc.getValue());
+    file.put(record);
+    Files.write(path, file.array());
+
+    // When & Then - entry 5 is past checkpoint 4, then covered by checkpoint 5
+    assertThatThrownBy(() -> ReviewJournal.open(path, 4096, FsyncPolicy.NEVER, 4))
+        .isInstanceOf(IOException.class);
+    try (ReviewJournal reopened = ReviewJournal.open(path, 4096, FsyncPolicy.NEVER, 5)) {
+      assertThat(reopened.isEmpty()).isTrue();
+      assertThat(reopened.append(entry(1L)).sequence()).isEqualTo(6);
+    }
+  }
+
+  private static JournalEntry entry(long cardId) {
+    return new JournalEntry(0, cardId, 7L, REVIEWED_AT, 4, 2.6, 6, 2, REVIEWED_AT, REVIEWED_AT.plusDays(6), 5.8, null);
+  }
+}
@@ -0,0 +1,203 @@
+package com.anki.simple.review.journal;
+
+import com.anki.simple.review.ReviewHistoryRepository;
+import com.anki.simple.review.ReviewService;
+import com.anki.simple.review.dto.ReviewRequest;
+import com.anki.simple.user.User;
+import com.anki.simple.user.UserRepository;
+import com.anki.simple.vocabulary.VocabularyCard;
+import com.anki.simple.vocabulary.VocabularyRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Not transactional: the flusher writes in its own transactions, so the test data is
+ * committed and removed afterwards.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("WriteBehindReviewLog Integration Tests")
+class WriteBehindReviewLogTest {
+
+  private static Path directory;
+
+  @DynamicPropertySource
+  static void journalProperties(DynamicPropertyRegistry registry) throws Exception {
+    directory = Files.createTempDirectory("review-journal");
+    registry.add("review.journal.enabled", () -> "true");
+    registry.add("review.journal.path", () -> directory.resolve("review.journal").toString());
+    registry.add("review.journal.flush-interval", () -> "PT1H");
+  }
+
+  @Autowired
+  private ReviewService reviewService;
+
+  @Autowired
+  private WriteBehindReviewLog writeBehindReviewLog;
+
+  @Autowired
+  private VocabularyRepository vocabularyRepository;
+
+  @Autowired
+  private ReviewHistoryRepository reviewHistoryRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Autowired
+  private EntityManager em;
+
+  @Autowired
+  private ApplicationEventPublisher eventPublisher;
+
+  private User user;
+  private VocabularyCard card;
+
+  @BeforeEach
+  void setUp() {
+    reviewHistoryRepository.deleteAll();
+    vocabularyRepository.deleteAll();
+    userRepository.deleteAll();
+
+    user = new User();
+    user.setUsername("testuser");
+    user.setEmail("test@example.com");
+    user.setPassword("encodedPassword");
+    user = userRepository.save(user);
+
+    card = new VocabularyCard();
+    card.setFront("Hello");
+    card.setBack("Hola");
+    card.setUser(user);
+    card = vocabularyRepository.save(card);
+  }
+
+  @AfterEach
+  void tearDown() {
+    writeBehindReviewLog.flush();
+    reviewHistoryRepository.deleteAll();
+    vocabularyRepository.deleteAll();
+    userRepository.deleteAll();
+  }
+
+  @Test
+  @DisplayName("Given write-behind mode, when reviewing twice, then should build on the journal and write on flush")
+  void givenWriteBehindMode_whenReviewTwice_thenShouldWriteOnFlush() {
+    // When
+    reviewService.reviewCard(review(4), "testuser");
+    int repetitions = reviewService.reviewCard(review(4), "testuser").getRepetitions();
+
+    // Then - nothing written yet, but the second review saw the first
+    assertThat(repetitions).isEqualTo(2);
+    assertThat(reviewHistoryRepository.count()).isZero();
+    assertThat(vocabularyRepository.findById(card.getId()).orElseThrow().getRepetitions()).isZero();
+    assertThat(writeBehindReviewLog.pendingCount()).isEqualTo(2);
+
+    writeBehindReviewLog.flush();
+
+    assertThat(reviewHistoryRepository.count()).isEqualTo(2);
+    assertThat(vocabularyRepository.findById(card.getId()).orElseThrow().getRepetitions()).isEqualTo(2);
+    assertThat(writeBehindReviewLog.pendingCount()).isZero();
+  }
+
+  @Test
+  @DisplayName("Given two devices prepared from the same pending review, when both append, then should reject the second")
+  void givenCardPreparedTwice_whenBothAppend_thenShouldRejectSecond() {
+    // Given
+    reviewService.reviewCard(review(4), "testuser");
+    VocabularyCard first = vocabularyRepository.findById(card.getId()).orElseThrow();
+    VocabularyCard second = vocabularyRepository.findById(card.getId()).orElseThrow();
+    WriteBehindReviewLog.Prepared firstPrepared = writeBehindReviewLog.prepare(first);
+    WriteBehindReviewLog.Prepared secondPrepared = writeBehindReviewLog.prepare(second);
+
+    // When
+    writeBehindReviewLog.append(List.of(firstPrepared),
+        List.of(writeBehindReviewLog.entry(first, user.getId(), 4, LocalDateTime.now())));
+
+    // Then
+    assertThatThrownBy(() -> writeBehindReviewLog.append(List.of(secondPrepared),
+        List.of(writeBehindReviewLog.entry(second, user.getId(), 4, LocalDateTime.now()))))
+      .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+    assertThat(writeBehindReviewLog.pendingCount()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Given a card read before its pending review was flushed, when appending, then should reject it")
+  void givenCardReadBeforeFlush_whenAppend_thenShouldReject() {
+    // Given - read from the database while the first review was still pending
+    reviewService.reviewCard(review(4), "testuser");
+    VocabularyCard stale = vocabularyRepository.findById(card.getId()).orElseThrow();
+    writeBehindReviewLog.flush();
+    WriteBehindReviewLog.Prepared prepared = writeBehindReviewLog.prepare(stale);
+
+    // When & Then
+    assertThatThrownBy(() -> writeBehindReviewLog.append(List.of(prepared),
+        List.of(writeBehindReviewLog.entry(stale, user.getId(), 4, LocalDateTime.now()))))
+      .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+    assertThat(writeBehindReviewLog.pendingCount()).isZero();
+  }
+
+  @Test
+  @DisplayName("Given journal entries past the checkpoint, when starting up, then should replay them")
+  void givenUnflushedEntries_whenStartUp_thenShouldReplay() throws Exception {
+    // Given - a journal left behind by a crashed instance
+    Path path = directory.resolve("crashed.journal");
+    LocalDateTime reviewedAt = LocalDateTime.now().withNano(0);
+    try (ReviewJournal journal = ReviewJournal.open(path, 4096, FsyncPolicy.ALWAYS, 0)) {
+      journal.append(new JournalEntry(0, card.getId(), user.getId(), reviewedAt, 5,
+          2.6, 1, 1, reviewedAt, reviewedAt.plusDays(1), null, null));
+    }
+
+    // When - started, then restarted
+    WriteBehindReviewLog recovering = recoveringLog(path);
+    recovering.afterSingletonsInstantiated();
+    recovering.close();
+    WriteBehindReviewLog restarted = recoveringLog(path);
+    restarted.afterSingletonsInstantiated();
+    restarted.close();
+
+    // Then - replayed exactly once
+    VocabularyCard replayed = vocabularyRepository.findById(card.getId()).orElseThrow();
+    assertThat(replayed.getNextReview()).isEqualTo(reviewedAt.plusDays(1));
+    assertThat(reviewHistoryRepository.count()).isEqualTo(1);
+  }
+
+  private WriteBehindReviewLog recoveringLog(Path path) {
+    return new WriteBehindReviewLog(true, "crashed", path, DataSize.ofKilobytes(4),
+        FsyncPolicy.NEVER, jdbcTemplate, transactionManager, em, eventPublisher);
+  }
+
+  private ReviewRequest review(int quality) {
+    ReviewRequest request = new ReviewRequest();
+    request.setCardId(card.getId());
+    request.setQuality(quality);
+    return request;
+  }
+}
@@ -0,0 +1,80 @@
+package com.anki.simple.review.scheduling;
+
+import com.anki.simple.vocabulary.VocabularyCard;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("FsrsAlgorithm Tests")
+class FsrsAlgorithmTest {
+
+  private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 10, 12, 0);
+
+  @Mock
+  private FsrsParametersStore parametersStore;
+
+  private FsrsAlgorithm fsrsAlgorithm;
+
+  @BeforeEach
+  void setUp() {
+    fsrsAlgorithm = new FsrsAlgorithm(parametersStore, 0.9, 36500);
+    when(parametersStore.weights(any())).thenReturn(Fsrs.DEFAULT_WEIGHTS);
+  }
+
+  @Test
+  @DisplayName("Given new card, when first rated good, then should start from the initial stability and difficulty")
+  void givenNewCard_whenRatedGood_thenShouldUseInitialState() {
+    // Given
+    VocabularyCard card = new VocabularyCard();
+
+    // When
+    fsrsAlgorithm.schedule(card, 4, NOW);
+
+    // Then - at 90% desired retention the interval equals the stability
+    assertThat(card.getStability()).isCloseTo(Fsrs.DEFAULT_WEIGHTS[2], within(1e-9));
+    assertThat(card.getDifficulty()).isCloseTo(Fsrs.DEFAULT_WEIGHTS[4], within(1e-9));
+    assertThat(card.getIntervalDays()).isEqualTo(4);
+    assertThat(card.getRepetitions()).isEqualTo(1);
+    assertThat(card.getNextReview()).isEqualTo(NOW.plusDays(4));
+  }
+
+  @Test
+  @DisplayName("Given reviewed card, when lapsing instead of recalling, then should shorten the interval and raise difficulty")
+  void givenReviewedCard_whenLapsing_thenShouldShortenInterval() {
+    // Given
+    VocabularyCard recalled = reviewedCard();
+    VocabularyCard lapsed = reviewedCard();
+
+    // When
+    fsrsAlgorithm.schedule(recalled, 4, NOW);
+    fsrsAlgorithm.schedule(lapsed, 1, NOW);
+
+    // Then
+    assertThat(recalled.getStability()).isGreaterThan(10);
+    assertThat(lapsed.getStability()).isLessThan(10);
+    assertThat(lapsed.getIntervalDays()).isLessThan(recalled.getIntervalDays());
+    assertThat(lapsed.getDifficulty()).isGreaterThan(recalled.getDifficulty());
+    assertThat(lapsed.getRepetitions()).isZero();
+  }
+
+  private static VocabularyCard reviewedCard() {
+    VocabularyCard card = new VocabularyCard();
+    card.setStability(10.0);
+    card.setDifficulty(5.0);
+    card.setIntervalDays(10);
+    card.setRepetitions(3);
+    card.setLastReviewed(NOW.minusDays(10));
+    return card;
+  }
+}
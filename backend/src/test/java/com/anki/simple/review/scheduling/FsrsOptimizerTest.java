@@ -0,0 +1,55 @@
+package com.anki.simple.review.scheduling;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("FsrsOptimizer Tests")
+class FsrsOptimizerTest {
+
+  @Test
+  @DisplayName("Given history from a learner who forgets faster than the defaults assume, when fitting, then should lower the log loss within bounds")
+  void givenHistory_whenFit_thenShouldLowerLogLoss() {
+    // Given
+    double[] learner = Fsrs.DEFAULT_WEIGHTS.clone();
+    learner[8] = 0.9;
+    ReviewSet reviews = simulate(learner, 300, 8, new Random(42));
+
+    // When
+    FsrsOptimizer.Fit fit = FsrsOptimizer.fit(reviews, Fsrs.DEFAULT_WEIGHTS, 40);
+
+    // Then
+    assertThat(fit.logLoss()).isLessThan(fit.initialLogLoss());
+    assertThat(fit.logLoss()).isEqualTo(reviews.logLoss(fit.weights()));
+    for (int i = 0; i < Fsrs.WEIGHT_COUNT; i++) {
+      assertThat(fit.weights()[i]).isBetween(Fsrs.MIN_WEIGHTS[i], Fsrs.MAX_WEIGHTS[i]);
+    }
+  }
+
+  /** Reviews each card when the default weights would schedule it, answering per {@code learner}. */
+  private static ReviewSet simulate(double[] learner, int cards, int reviewsPerCard, Random random) {
+    ReviewSet reviews = new ReviewSet();
+    double[] scheduler = Fsrs.DEFAULT_WEIGHTS;
+    for (int card = 0; card < cards; card++) {
+      reviews.startCard();
+      reviews.add(0, 3);
+      double scheduledStability = Fsrs.initialStability(scheduler, 3);
+      double trueStability = Fsrs.initialStability(learner, 3);
+      double difficulty = Fsrs.initialDifficulty(learner, 3);
+      for (int i = 1; i < reviewsPerCard; i++) {
+        double elapsed = Math.max(1, Math.round(scheduledStability));
+        double r = Fsrs.retrievability(elapsed, trueStability);
+        int rating = random.nextDouble() < r ? 3 : 1;
+        reviews.add(elapsed, rating);
+        trueStability = Fsrs.nextStability(learner, difficulty, trueStability, r, rating);
+        scheduledStability = Fsrs.nextStability(scheduler, difficulty, scheduledStability,
+            Fsrs.retrievability(elapsed, scheduledStability), rating);
+        difficulty = Fsrs.nextDifficulty(learner, difficulty, rating);
+      }
+    }
+    return reviews;
+  }
+}
@@ -0,0 +1,90 @@
+package com.anki.simple.review.scheduling;
+
+import com.anki.simple.vocabulary.DeckCounters;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LoadBalancer Tests")
+class LoadBalancerTest {
+
+  private static final Long USER_ID = 1L;
+
+  @Mock
+  private DeckCounters deckCounters;
+
+  @Test
+  @DisplayName("Given intervals of various lengths, when computing the fuzz window, then should grow with the interval")
+  void givenIntervals_whenComputingFuzz_thenShouldGrowWithInterval() {
+    // Then
+    assertThat(LoadBalancer.fuzzDays(1)).isZero();
+    assertThat(LoadBalancer.fuzzDays(2)).isZero();
+    assertThat(LoadBalancer.fuzzDays(3)).isEqualTo(1);
+    assertThat(LoadBalancer.fuzzDays(6)).isEqualTo(1);
+    assertThat(LoadBalancer.fuzzDays(15)).isEqualTo(2);
+    assertThat(LoadBalancer.fuzzDays(100)).isEqualTo(5);
+    assertThat(LoadBalancer.fuzzDays(36500)).isEqualTo(30);
+  }
+
+  @Test
+  @DisplayName("Given one empty day among busy ones, when balancing, then should pick the empty day")
+  void givenOneEmptyDay_whenBalancing_thenShouldPickEmptyDay() {
+    // Given - 6 day interval, window of days 5..7, only day 7 is free
+    LoadBalancer loadBalancer = new LoadBalancer(deckCounters, true);
+    LocalDateTime reviewedAt = LocalDateTime.now();
+    when(deckCounters.dueOnDays(eq(USER_ID), any(), eq(reviewedAt.toLocalDate().plusDays(5)), eq(3)))
+        .thenReturn(new long[]{200, 200, 0});
+
+    // When/Then
+    for (long cardId = 1; cardId <= 20; cardId++) {
+      assertThat(loadBalancer.balance(USER_ID, cardId, 6, reviewedAt)).isEqualTo(7);
+    }
+  }
+
+  @Test
+  @DisplayName("Given equal loads, when balancing many cards, then should spread them over the window")
+  void givenEqualLoads_whenBalancingManyCards_thenShouldSpreadThem() {
+    // Given
+    LoadBalancer loadBalancer = new LoadBalancer(deckCounters, true);
+    LocalDateTime reviewedAt = LocalDateTime.now();
+    when(deckCounters.dueOnDays(eq(USER_ID), any(), any(LocalDate.class), anyInt())).thenReturn(new long[]{10, 10, 10});
+
+    // When
+    int[] counts = new int[3];
+    for (long cardId = 1; cardId <= 1000; cardId++) {
+      counts[loadBalancer.balance(USER_ID, cardId, 6, reviewedAt) - 5]++;
+    }
+
+    // Then - the computed day is weighted twice as heavily as its neighbours
+    assertThat(counts[1]).isBetween(400, 600);
+    assertThat(counts[0]).isBetween(150, 350);
+    assertThat(counts[2]).isBetween(150, 350);
+  }
+
+  @Test
+  @DisplayName("Given a short interval, when balancing, then should keep it without reading the counters")
+  void givenShortInterval_whenBalancing_thenShouldKeepIt() {
+    // Given
+    LoadBalancer loadBalancer = new LoadBalancer(deckCounters, true);
+
+    // When
+    int interval = loadBalancer.balance(USER_ID, 1L, 1, LocalDateTime.now());
+
+    // Then
+    assertThat(interval).isEqualTo(1);
+    verifyNoInteractions(deckCounters);
+  }
+}
@@ -0,0 +1,104 @@
+package com.anki.simple.review.scheduling;
+
+import com.anki.simple.vocabulary.VocabularyCard;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedule computations per second on one thread: the entity path of a single review
+ * versus the kernel's batch loops over primitive arrays. Each invocation reschedules
+ * {@value #CARDS} cards from the same starting state.
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark=SchedulingKernelBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SchedulingKernelBenchmark {
+
+  private static final int CARDS = 10_000;
+  private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 10, 12, 0);
+
+  private final Sm2Algorithm sm2 = new Sm2Algorithm();
+  private List<VocabularyCard> cards;
+  private ScheduleBatch initial;
+  private ScheduleBatch batch;
+  private int[] qualities;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(1);
+    qualities = random.ints(CARDS, 0, 6).toArray();
+    initial = new ScheduleBatch(CARDS);
+    batch = new ScheduleBatch(CARDS);
+    cards = new ArrayList<>(CARDS);
+    for (int i = 0; i < CARDS; i++) {
+      double easeFactor = 1.3 + random.nextDouble() * 1.5;
+      int interval = 1 + random.nextInt(60);
+      int repetitions = random.nextInt(8);
+      long lastReviewed = SchedulingKernel.toSeconds(NOW.minusDays(interval));
+      initial.add(i, easeFactor, interval, repetitions, lastReviewed, SchedulingKernel.toSeconds(NOW), interval, 5.0);
+      batch.add(i, easeFactor, interval, repetitions, lastReviewed, SchedulingKernel.toSeconds(NOW), interval, 5.0);
+      cards.add(new VocabularyCard());
+    }
+  }
+
+  /** Restores the starting state, so intervals do not compound across invocations. */
+  @Setup(Level.Invocation)
+  public void reset() {
+    System.arraycopy(initial.easeFactors, 0, batch.easeFactors, 0, CARDS);
+    System.arraycopy(initial.intervals, 0, batch.intervals, 0, CARDS);
+    System.arraycopy(initial.repetitions, 0, batch.repetitions, 0, CARDS);
+    System.arraycopy(initial.lastReviewed, 0, batch.lastReviewed, 0, CARDS);
+    System.arraycopy(initial.stability, 0, batch.stability, 0, CARDS);
+    System.arraycopy(initial.difficulty, 0, batch.difficulty, 0, CARDS);
+    for (int i = 0; i < CARDS; i++) {
+      VocabularyCard card = cards.get(i);
+      card.setEaseFactor(initial.easeFactor(i));
+      card.setIntervalDays(initial.interval(i));
+      card.setRepetitions(initial.repetitions(i));
+      card.setLastReviewed(SchedulingKernel.toDateTime(initial.lastReviewed(i)));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(CARDS)
+  public List<VocabularyCard> sm2Entities() {
+    for (int i = 0; i < CARDS; i++) {
+      sm2.schedule(cards.get(i), qualities[i], NOW);
+    }
+    return cards;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(CARDS)
+  public ScheduleBatch sm2Kernel() {
+    SchedulingKernel.sm2(batch, qualities, SchedulingKernel.toSeconds(NOW));
+    return batch;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(CARDS)
+  public ScheduleBatch fsrsKernel() {
+    SchedulingKernel.fsrs(batch, qualities, SchedulingKernel.toSeconds(NOW), Fsrs.DEFAULT_WEIGHTS, 0.9, 36500);
+    return batch;
+  }
+}
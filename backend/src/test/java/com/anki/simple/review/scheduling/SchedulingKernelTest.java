@@ -0,0 +1,117 @@
+package com.anki.simple.review.scheduling;
+
+import com.anki.simple.vocabulary.VocabularyCard;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SchedulingKernel Tests")
+class SchedulingKernelTest {
+
+  private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 10, 12, 0);
+
+  @Mock
+  private FsrsParametersStore parametersStore;
+
+  @Test
+  @DisplayName("Given random cards, when rescheduling as a batch with SM-2, then should match the single-card path")
+  void givenRandomCards_whenSm2Batch_thenShouldMatchSingleCardPath() {
+    // Given
+    Random random = new Random(7);
+    List<VocabularyCard> cards = randomCards(random, 500);
+    int[] qualities = random.ints(cards.size(), 0, 6).toArray();
+    ScheduleBatch batch = toBatch(cards);
+
+    // When
+    SchedulingKernel.sm2(batch, qualities, SchedulingKernel.toSeconds(NOW));
+    Sm2Algorithm sm2 = new Sm2Algorithm();
+    for (int i = 0; i < cards.size(); i++) {
+      sm2.schedule(cards.get(i), qualities[i], NOW);
+    }
+
+    // Then
+    assertMatches(batch, cards);
+  }
+
+  @Test
+  @DisplayName("Given random cards, when rescheduling as a batch with FSRS, then should match the single-card path")
+  void givenRandomCards_whenFsrsBatch_thenShouldMatchSingleCardPath() {
+    // Given
+    when(parametersStore.weights(any())).thenReturn(Fsrs.DEFAULT_WEIGHTS);
+    FsrsAlgorithm fsrs = new FsrsAlgorithm(parametersStore, 0.9, 36500);
+    Random random = new Random(11);
+    List<VocabularyCard> cards = randomCards(random, 500);
+    int[] qualities = random.ints(cards.size(), 0, 6).toArray();
+    ScheduleBatch batch = toBatch(cards);
+
+    // When
+    fsrs.schedule(batch, qualities, SchedulingKernel.toSeconds(NOW), 1L);
+    for (int i = 0; i < cards.size(); i++) {
+      fsrs.schedule(cards.get(i), qualities[i], NOW);
+    }
+
+    // Then
+    assertMatches(batch, cards);
+  }
+
+  /** New cards, SM-2 cards and cards with FSRS state, reviewed up to 60 days ago. */
+  private static List<VocabularyCard> randomCards(Random random, int count) {
+    List<VocabularyCard> cards = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      VocabularyCard card = new VocabularyCard();
+      card.setId((long) i);
+      if (i % 3 != 0) {
+        card.setEaseFactor(1.3 + random.nextDouble() * 1.5);
+        card.setIntervalDays(1 + random.nextInt(60));
+        card.setRepetitions(random.nextInt(8));
+        card.setLastReviewed(NOW.minusMinutes(random.nextInt(60 * 24 * 60)));
+        card.setNextReview(card.getLastReviewed().plusDays(card.getIntervalDays()));
+      }
+      if (i % 3 == 2) {
+        card.setStability(0.5 + random.nextDouble() * 50);
+        card.setDifficulty(1 + random.nextDouble() * 9);
+      }
+      cards.add(card);
+    }
+    return cards;
+  }
+
+  private static ScheduleBatch toBatch(List<VocabularyCard> cards) {
+    ScheduleBatch batch = new ScheduleBatch(cards.size());
+    for (VocabularyCard card : cards) {
+      batch.add(card.getId(), card.getEaseFactor(), card.getIntervalDays(), card.getRepetitions(),
+          SchedulingKernel.toSeconds(card.getLastReviewed()), SchedulingKernel.toSeconds(card.getNextReview()),
+          card.getStability() != null ? card.getStability() : Double.NaN,
+          card.getDifficulty() != null ? card.getDifficulty() : Double.NaN);
+    }
+    return batch;
+  }
+
+  private static void assertMatches(ScheduleBatch batch, List<VocabularyCard> cards) {
+    for (int i = 0; i < cards.size(); i++) {
+      VocabularyCard card = cards.get(i);
+      assertThat(batch.easeFactor(i)).isCloseTo(card.getEaseFactor(), within(1e-12));
+      assertThat(batch.interval(i)).isEqualTo(card.getIntervalDays());
+      assertThat(batch.repetitions(i)).isEqualTo(card.getRepetitions());
+      assertThat(SchedulingKernel.toDateTime(batch.nextReview(i))).isEqualTo(card.getNextReview());
+      assertThat(Double.isNaN(batch.stability(i))).isEqualTo(card.getStability() == null);
+      if (card.getStability() != null) {
+        assertThat(batch.stability(i)).isCloseTo(card.getStability(), within(1e-9));
+        assertThat(batch.difficulty(i)).isCloseTo(card.getDifficulty(), within(1e-9));
+      }
+    }
+  }
+}
@@ -0,0 +1,77 @@
+package com.anki.simple.review.scheduling;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time for one 30-day simulation of a {@value #CARDS}-card deck with 20 new cards a day and
+ * {@value #TRIALS} trials, on a pool of one thread per core. Due dates are spread over the
+ * next 60 days, with 500 cards overdue.
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark=WorkloadSimulatorBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WorkloadSimulatorBenchmark {
+
+  private static final int CARDS = 20_000;
+  private static final int TRIALS = 1000;
+  private static final long DAY = 86_400;
+  private static final long TODAY = SchedulingKernel.toSeconds(LocalDate.of(2025, 3, 10).atStartOfDay());
+
+  private ForkJoinPool pool;
+  private ScheduleBatch deck;
+  private WorkloadSimulator.QualityModel sm2Model;
+  private WorkloadSimulator.QualityModel fsrsModel;
+
+  @Setup
+  public void setUp() {
+    pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    Random random = new Random(1);
+    deck = new ScheduleBatch(CARDS);
+    for (int i = 0; i < CARDS; i++) {
+      int interval = 1 + random.nextInt(90);
+      long nextReview = TODAY + (i < 500 ? -DAY : random.nextInt(60) * DAY);
+      deck.add(i, 1.3 + random.nextDouble() * 1.5, interval, 1 + random.nextInt(8),
+          nextReview - interval * DAY, nextReview, interval * 1.2, 1 + random.nextDouble() * 9);
+    }
+    long[] counts = {30, 20, 50, 200, 500, 200};
+    sm2Model = WorkloadSimulator.QualityModel.of(counts, false);
+    fsrsModel = WorkloadSimulator.QualityModel.of(counts, true);
+  }
+
+  @TearDown
+  public void tearDown() {
+    pool.shutdown();
+  }
+
+  @Benchmark
+  public WorkloadSimulator.Simulation sm2() {
+    return WorkloadSimulator.run(pool, deck, new ScheduleBatch(0), TODAY + DAY / 2, TODAY, 30, 20, TRIALS, sm2Model,
+        (batch, qualities, reviewedAt) -> SchedulingKernel.sm2(batch, qualities, reviewedAt), 1L);
+  }
+
+  @Benchmark
+  public WorkloadSimulator.Simulation fsrs() {
+    return WorkloadSimulator.run(pool, deck, new ScheduleBatch(0), TODAY + DAY / 2, TODAY, 30, 20, TRIALS, fsrsModel,
+        (batch, qualities, reviewedAt) -> SchedulingKernel.fsrs(batch, qualities, reviewedAt,
+            Fsrs.DEFAULT_WEIGHTS, 0.9, 36500), 1L);
+  }
+}
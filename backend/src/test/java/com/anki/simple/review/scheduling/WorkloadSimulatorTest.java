@@ -0,0 +1,110 @@
+package com.anki.simple.review.scheduling;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("WorkloadSimulator Tests")
+class WorkloadSimulatorTest {
+
+  private static final long DAY = 86_400;
+  private static final long TODAY = SchedulingKernel.toSeconds(LocalDate.of(2025, 3, 10).atStartOfDay());
+  private static final long NOW = TODAY + DAY / 2;
+
+  private static ForkJoinPool pool;
+
+  @BeforeAll
+  static void startPool() {
+    pool = new ForkJoinPool(4);
+  }
+
+  @AfterAll
+  static void stopPool() {
+    pool.shutdown();
+  }
+
+  @Test
+  @DisplayName("Given a user who always answers 4, when simulating new cards, then should follow the SM-2 steps exactly")
+  void givenAlwaysGood_whenSimulatingNewCards_thenShouldFollowSm2Steps() {
+    // Given - 100 cards started a day, each reviewed that day, after 1 day and after 6 more
+    WorkloadSimulator.QualityModel model = WorkloadSimulator.QualityModel.of(new long[]{0, 0, 0, 0, 100, 0}, false);
+
+    // When
+    WorkloadSimulator.Simulation simulation = WorkloadSimulator.run(pool, new ScheduleBatch(0), newCards(100),
+        NOW, TODAY, 10, 100, 50, model,
+        (batch, qualities, reviewedAt) -> SchedulingKernel.sm2(batch, qualities, reviewedAt), 1L);
+
+    // Then
+    assertThat(simulation.expected()).containsExactly(100, 200, 200, 200, 200, 200, 200, 300, 300, 300);
+    assertThat(simulation.lower()).containsExactly(simulation.upper());
+  }
+
+  @Test
+  @DisplayName("Given a user who fails half the time, when simulating, then should return a band around the mean")
+  void givenHalfFailures_whenSimulating_thenShouldReturnBand() {
+    // Given - 200 cards failed yesterday
+    ScheduleBatch deck = relearningCards(200);
+    WorkloadSimulator.QualityModel model = WorkloadSimulator.QualityModel.of(new long[]{50, 0, 0, 0, 50, 0}, false);
+
+    // When
+    WorkloadSimulator.Simulation simulation = WorkloadSimulator.run(pool, deck, new ScheduleBatch(0), NOW, TODAY,
+        10, 20, 500, model,
+        (batch, qualities, reviewedAt) -> SchedulingKernel.sm2(batch, qualities, reviewedAt), 7L);
+
+    // Then - day 0 is certain; day 1 gets every card again (interval 1 either way) plus new cards
+    assertThat(simulation.expected()[0]).isEqualTo(220);
+    assertThat(simulation.expected()[1]).isEqualTo(240);
+    // Only cards passed twice move on to 6 days: 3/4 of the first 220 come back, plus 2 x 20 new
+    assertThat(simulation.expected()[2]).isBetween(200.0, 210.0);
+    assertThat(simulation.lower()[2]).isLessThan(simulation.upper()[2]);
+    assertThat((double) simulation.lower()[2]).isLessThanOrEqualTo(simulation.expected()[2]);
+    assertThat((double) simulation.upper()[2]).isGreaterThanOrEqualTo(simulation.expected()[2]);
+  }
+
+  @Test
+  @DisplayName("Given a backlog of unseen cards, when simulating, then should start only the new cards per day")
+  void givenUnseenBacklog_whenSimulating_thenShouldStartNewCardsPerDay() {
+    // Given - 5000 unseen cards, all due since they were added
+    WorkloadSimulator.QualityModel model = WorkloadSimulator.QualityModel.of(new long[]{0, 0, 0, 0, 100, 0}, false);
+
+    // When
+    WorkloadSimulator.Simulation simulation = WorkloadSimulator.run(pool, new ScheduleBatch(0), newCards(5000),
+        NOW, TODAY, 3, 10, 20, model,
+        (batch, qualities, reviewedAt) -> SchedulingKernel.sm2(batch, qualities, reviewedAt), 3L);
+
+    // Then - 10 started each day, plus the previous day's coming back
+    assertThat(simulation.expected()).containsExactly(10, 20, 20);
+  }
+
+  @Test
+  @DisplayName("Given too little history, when building the quality model, then should fall back to the defaults")
+  void givenLittleHistory_whenBuildingModel_thenShouldUseDefaults() {
+    // When
+    WorkloadSimulator.QualityModel model = WorkloadSimulator.QualityModel.of(new long[]{1, 0, 0, 0, 0, 0}, false);
+
+    // Then
+    assertThat(model.passRate()).isCloseTo(0.85, org.assertj.core.data.Offset.offset(1e-9));
+  }
+
+  private static ScheduleBatch newCards(int count) {
+    ScheduleBatch deck = new ScheduleBatch(count);
+    for (int i = 0; i < count; i++) {
+      deck.add(i, 2.5, 0, 0, SchedulingKernel.NEVER, TODAY, Double.NaN, Double.NaN);
+    }
+    return deck;
+  }
+
+  private static ScheduleBatch relearningCards(int count) {
+    ScheduleBatch deck = new ScheduleBatch(count);
+    for (int i = 0; i < count; i++) {
+      deck.add(i, 2.5, 1, 0, TODAY - DAY, TODAY, Double.NaN, Double.NaN);
+    }
+    return deck;
+  }
+}
@@ -0,0 +1,68 @@
+package com.anki.simple.stats;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("ScoreRanking Tests")
+class ScoreRankingTest {
+
+  @Test
+  @DisplayName("Given users with tied scores, when ranking, then should share ranks and list the top by score")
+  void givenTiedScores_whenRank_thenShouldShareRanks() {
+    // Given
+    ScoreRanking ranking = new ScoreRanking();
+    ranking.add(1, 5);
+    ranking.add(2, 3);
+    ranking.add(3, 5);
+    ranking.add(4, 1);
+    ranking.add(2, 2);
+
+    // When & Then - 1, 2 and 3 all have 5
+    assertThat(ranking.rank(1)).isEqualTo(1);
+    assertThat(ranking.rank(2)).isEqualTo(1);
+    assertThat(ranking.rank(4)).isEqualTo(4);
+    assertThat(ranking.rank(99)).isZero();
+    assertThat(ranking.top(4)).extracting(ScoreRanking.Ranked::userId).containsExactly(1L, 2L, 3L, 4L);
+    assertThat(ranking.top(4)).extracting(ScoreRanking.Ranked::rank).containsExactly(1, 1, 1, 4);
+    assertThat(ranking.top(2)).hasSize(2);
+  }
+
+  @Test
+  @DisplayName("Given scores beyond the initial capacity, when ranking, then should match a count of higher scores")
+  void givenLargeScores_whenRank_thenShouldMatchCount() {
+    // Given
+    ScoreRanking ranking = new ScoreRanking();
+    int[] scores = new int[200];
+    Random random = new Random(42);
+    for (int i = 0; i < 2_000; i++) {
+      int user = random.nextInt(scores.length);
+      int delta = 1 + random.nextInt(50);
+      scores[user] += delta;
+      ranking.add(user, delta);
+    }
+
+    // When & Then
+    for (int user = 0; user < scores.length; user++) {
+      int higher = 0;
+      for (int other : scores) {
+        if (other > scores[user]) {
+          higher++;
+        }
+      }
+      assertThat(ranking.score(user)).isEqualTo(scores[user]);
+      assertThat(ranking.rank(user)).isEqualTo(scores[user] > 0 ? higher + 1 : 0);
+    }
+  }
+
+  @Test
+  @DisplayName("Given a non-positive delta, when adding, then should refuse it")
+  void givenNonPositiveDelta_whenAdd_thenShouldRefuse() {
+    assertThatThrownBy(() -> new ScoreRanking().add(1, 0))
+      .isInstanceOf(IllegalArgumentException.class);
+  }
+}
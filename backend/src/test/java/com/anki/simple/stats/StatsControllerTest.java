@@ -0,0 +1,378 @@
+package com.anki.simple.stats;
+
+import com.anki.simple.review.ReviewHistoryRepository;
+import com.anki.simple.review.ReviewRecordedEvent;
+import com.anki.simple.user.User;
+import com.anki.simple.user.UserRepository;
+import com.anki.simple.vocabulary.LanguageSelection;
+import com.anki.simple.vocabulary.VocabularyCard;
+import com.anki.simple.vocabulary.VocabularyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+@ActiveProfiles("test")
+@DisplayName("StatsController Integration Tests")
+class StatsControllerTest {
+
+  private static final LocalDate DAY = LocalDate.of(2025, 3, 10);
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private ReviewRollups reviewRollups;
+
+  @Autowired
+  private StreakTracker streakTracker;
+
+  @Autowired
+  private WeeklyLeaderboard weeklyLeaderboard;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private VocabularyRepository vocabularyRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private ReviewHistoryRepository reviewHistoryRepository;
+
+  private User user;
+
+  @BeforeEach
+  void setUp() {
+    reviewHistoryRepository.deleteAll();
+    vocabularyRepository.deleteAll();
+    userRepository.deleteAll();
+
+    user = new User();
+    user.setUsername("testuser");
+    user.setEmail("test@example.com");
+    user.setPassword("encodedPassword");
+    user = userRepository.save(user);
+  }
+
+  @Test
+  @WithMockUser(username = "testuser")
+  @DisplayName("Given recorded reviews flushed twice, when getting stats, then should sum the rollups")
+  void givenRecordedReviews_whenGetStats_thenShouldSumRollups() throws Exception {
+    // Given - the second flush updates the row the first one inserted
+    reviewRollups.onReviewRecorded(new ReviewRecordedEvent(
+        user.getId(), LanguageSelection.DE_ES, DAY.atTime(9, 15), 4, true));
+    reviewRollups.onReviewRecorded(new ReviewRecordedEvent(
+        user.getId(), LanguageSelection.DE_ES, DAY.atTime(9, 45), 1, false));
+    reviewRollups.flush();
+    reviewRollups.onReviewRecorded(new ReviewRecordedEvent(
+        user.getId(), LanguageSelection.DE_ES, DAY.atTime(9, 50), 5, false));
+    reviewRollups.onReviewRecorded(new ReviewRecordedEvent(
+        user.getId(), null, DAY.plusDays(1).atTime(20, 0), 3, true));
+    reviewRollups.flush();
+
+    // When & Then
+    mockMvc.perform(get("/api/v1/stats")
+        .param("from", DAY.minusDays(1).toString())
+        .param("to", DAY.plusDays(1).toString()))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.reviews").value(4))
+      .andExpect(jsonPath("$.correct").value(3))
+      .andExpect(jsonPath("$.newCards").value(2))
+      .andExpect(jsonPath("$.retention").value(0.75))
+      .andExpect(jsonPath("$.byQuality[1]").value(1))
+      .andExpect(jsonPath("$.byHour[9]").value(3))
+      .andExpect(jsonPath("$.byHour[20]").value(1))
+      .andExpect(jsonPath("$.days.length()").value(3))
+      .andExpect(jsonPath("$.days[0].reviews").value(0))
+      .andExpect(jsonPath("$.days[1].reviews").value(3))
+      .andExpect(jsonPath("$.days[2].newCards").value(1))
+      .andExpect(jsonPath("$.languages[?(@.languageSelection == 'DE_ES')].reviews").value(3));
+  }
+
+  @Test
+  @WithMockUser(username = "testuser")
+  @DisplayName("Given reviews in the history, when backfilling, then should rebuild the rollups from it")
+  void givenReviewHistory_whenBackfill_thenShouldRebuildRollups() throws Exception {
+    // Given
+    VocabularyCard card = new VocabularyCard();
+    card.setFront("Hello");
+    card.setBack("Hola");
+    card.setLanguageSelection(LanguageSelection.EN_ES);
+    card.setUser(user);
+    card = vocabularyRepository.save(card);
+    mockMvc.perform(post("/api/v1/review/batch")
+        .with(csrf())
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"reviews\":["
+            + "{\"cardId\":" + card.getId() + ",\"quality\":2,\"reviewedAt\":\"" + DAY.atTime(8, 0) + "\"},"
+            + "{\"cardId\":" + card.getId() + ",\"quality\":4,\"reviewedAt\":\"" + DAY.atTime(18, 0) + "\"}]}"))
+      .andExpect(status().isOk());
+
+    // When
+    reviewRollups.backfill(user.getId());
+
+    // Then
+    mockMvc.perform(get("/api/v1/stats")
+        .param("from", DAY.toString())
+        .param("to", DAY.toString()))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.reviews").value(2))
+      .andExpect(jsonPath("$.correct").value(1))
+      .andExpect(jsonPath("$.newCards").value(1))
+      .andExpect(jsonPath("$.byHour[8]").value(1))
+      .andExpect(jsonPath("$.languages[0].languageSelection").value("EN_ES"));
+  }
+
+  @Test
+  @WithMockUser(username = "testuser")
+  @DisplayName("Given overdue and upcoming cards, when getting the forecast, then should count due cards per day")
+  void givenScheduledCards_whenGetForecast_thenShouldCountPerDay() throws Exception {
+    // Given - one overdue card, two due in two days, one beyond the forecast
+    LocalDateTime now = LocalDateTime.now();
+    saveCardDueAt(now.minusDays(3));
+    saveCardDueAt(now.toLocalDate().plusDays(2).atTime(9, 0));
+    saveCardDueAt(now.toLocalDate().plusDays(2).atTime(17, 0));
+    saveCardDueAt(now.plusDays(10));
+
+    // When & Then
+    mockMvc.perform(get("/api/v1/stats/forecast").param("days", "7"))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.from").value(now.toLocalDate().toString()))
+      .andExpect(jsonPath("$.total").value(3))
+      .andExpect(jsonPath("$.days.length()").value(7))
+      .andExpect(jsonPath("$.days[0].due").value(1))
+      .andExpect(jsonPath("$.days[2].due").value(2));
+  }
+
+  @Test
+  @WithMockUser(username = "testuser")
+  @DisplayName("Given an overdue card and new cards per day, when simulating, then should return expected load with bands")
+  void givenOverdueCard_whenSimulate_thenShouldReturnExpectedLoad() throws Exception {
+    // Given - one overdue card, reviewed today in every trial along with 2 new cards
+    LocalDateTime now = LocalDateTime.now();
+    saveCardDueAt(now.minusDays(3));
+
+    // When & Then
+    mockMvc.perform(get("/api/v1/stats/simulate")
+        .param("days", "7")
+        .param("newCardsPerDay", "2")
+        .param("trials", "200"))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.from").value(now.toLocalDate().toString()))
+      .andExpect(jsonPath("$.trials").value(200))
+      .andExpect(jsonPath("$.days.length()").value(7))
+      .andExpect(jsonPath("$.days[0].expected").value(3.0))
+      .andExpect(jsonPath("$.days[0].lower").value(3))
+      .andExpect(jsonPath("$.days[0].upper").value(3));
+  }
+
+  @Test
+  @WithMockUser(username = "testuser")
+  @DisplayName("Given too many trials, when simulating, then should return 400")
+  void givenTooManyTrials_whenSimulate_thenShouldReturn400() throws Exception {
+    mockMvc.perform(get("/api/v1/stats/simulate").param("trials", "100000"))
+      .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @WithMockUser(username = "testuser")
+  @DisplayName("Given a range longer than a year, when getting stats, then should return 400")
+  void givenRangeTooLong_whenGetStats_thenShouldReturn400() throws Exception {
+    mockMvc.perform(get("/api/v1/stats")
+        .param("from", DAY.minusYears(2).toString())
+        .param("to", DAY.toString()))
+      .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @WithMockUser(username = "testuser")
+  @DisplayName("Given reviews on three days in a row up to today, when getting the streak, then should count the days and today's reviews")
+  void givenReviewsOnConsecutiveDays_whenGetStreak_thenShouldCountDays() throws Exception {
+    // Given - the user counts days in UTC; review times are server-local
+    LocalDateTime now = LocalDateTime.now();
+    streakTracker.onReviewRecorded(new ReviewRecordedEvent(user.getId(), null, now.minusDays(2), 4, true));
+    streakTracker.onReviewRecorded(new ReviewRecordedEvent(user.getId(), null, now.minusDays(1), 4, false));
+    streakTracker.onReviewRecorded(new ReviewRecordedEvent(user.getId(), null, now, 3, false));
+    streakTracker.onReviewRecorded(new ReviewRecordedEvent(user.getId(), null, now, 5, false));
+
+    // When & Then
+    mockMvc.perform(get("/api/v1/stats/streak"))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.currentStreak").value(3))
+      .andExpect(jsonPath("$.longestStreak").value(3))
+      .andExpect(jsonPath("$.reviewedToday").value(2))
+      .andExpect(jsonPath("$.dailyGoal").value(50))
+      .andExpect(jsonPath("$.timeZone").value("UTC"));
+  }
+
+  @Test
+  @WithMockUser(username = "testuser")
+  @DisplayName("Given reviews in the history up to yesterday, when reconciling, then should rebuild the streak from it")
+  void givenReviewHistory_whenReconcile_thenShouldRebuildStreak() throws Exception {
+    // Given
+    LocalDateTime now = LocalDateTime.now();
+    VocabularyCard card = new VocabularyCard();
+    card.setFront("Hello");
+    card.setBack("Hola");
+    card.setUser(user);
+    card = vocabularyRepository.save(card);
+    mockMvc.perform(post("/api/v1/review/batch")
+        .with(csrf())
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"reviews\":["
+            + "{\"cardId\":" + card.getId() + ",\"quality\":4,\"reviewedAt\":\"" + now.minusDays(5) + "\"},"
+            + "{\"cardId\":" + card.getId() + ",\"quality\":4,\"reviewedAt\":\"" + now.minusDays(2) + "\"},"
+            + "{\"cardId\":" + card.getId() + ",\"quality\":4,\"reviewedAt\":\"" + now.minusDays(1) + "\"}]}"))
+      .andExpect(status().isOk());
+
+    // When
+    streakTracker.reconcile(user.getId());
+
+    // Then - still unbroken today, and nothing reviewed yet
+    mockMvc.perform(get("/api/v1/stats/streak"))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.currentStreak").value(2))
+      .andExpect(jsonPath("$.longestStreak").value(2))
+      .andExpect(jsonPath("$.reviewedToday").value(0));
+  }
+
+  @Test
+  @WithMockUser(username = "testuser")
+  @DisplayName("Given a reconciled streak, when reviewing today, then should advance the recomputed streak")
+  void givenReconciledStreak_whenReviewToday_thenShouldAdvanceRecomputedStreak() throws Exception {
+    // Given - the cached streak only knows today's review, history has the two days before
+    LocalDateTime now = LocalDateTime.now();
+    VocabularyCard card = new VocabularyCard();
+    card.setFront("Hello");
+    card.setBack("Hola");
+    card.setUser(user);
+    card = vocabularyRepository.save(card);
+    streakTracker.onReviewRecorded(new ReviewRecordedEvent(user.getId(), null, now, 4, true));
+    jdbcTemplate.update("INSERT INTO review_history (card_id, quality, ease_factor, interval_days, reviewed_at) "
+        + "VALUES (?, 4, 2.5, 1, ?), (?, 4, 2.5, 1, ?)",
+      card.getId(), now.minusDays(2), card.getId(), now.minusDays(1));
+    streakTracker.reconcile(user.getId());
+
+    // When
+    streakTracker.onReviewRecorded(new ReviewRecordedEvent(user.getId(), null, now, 4, false));
+    streakTracker.flush();
+
+    // Then
+    mockMvc.perform(get("/api/v1/stats/streak"))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.currentStreak").value(3))
+      .andExpect(jsonPath("$.reviewedToday").value(1));
+    assertThat(jdbcTemplate.queryForObject(
+      "SELECT current_streak FROM user_streaks WHERE user_id = ?", Integer.class, user.getId())).isEqualTo(3);
+  }
+
+  @Test
+  @WithMockUser(username = "testuser")
+  @DisplayName("Given a goal and time zone, when updating the goal, then should store both")
+  void givenGoalAndTimeZone_whenUpdateGoal_thenShouldStoreBoth() throws Exception {
+    mockMvc.perform(put("/api/v1/stats/goal")
+        .with(csrf())
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"dailyGoal\":30,\"timeZone\":\"Europe/Berlin\"}"))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.dailyGoal").value(30))
+      .andExpect(jsonPath("$.timeZone").value("Europe/Berlin"))
+      .andExpect(jsonPath("$.currentStreak").value(0));
+  }
+
+  @Test
+  @WithMockUser(username = "testuser")
+  @DisplayName("Given an unknown time zone, when updating the goal, then should return 400")
+  void givenUnknownTimeZone_whenUpdateGoal_thenShouldReturn400() throws Exception {
+    mockMvc.perform(put("/api/v1/stats/goal")
+        .with(csrf())
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"dailyGoal\":30,\"timeZone\":\"Mars/Olympus\"}"))
+      .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @WithMockUser(username = "testuser")
+  @DisplayName("Given reviews this week and last week, when getting the leaderboard, then should rank this week's reviews")
+  void givenReviewsThisWeek_whenGetLeaderboard_thenShouldRankUsers() throws Exception {
+    // Given - other tests' users may be on the board with a few reviews
+    User other = new User();
+    other.setUsername("otheruser");
+    other.setEmail("other@example.com");
+    other.setPassword("encodedPassword");
+    other = userRepository.save(other);
+    LocalDateTime now = LocalDateTime.now();
+    for (int i = 0; i < 100; i++) {
+      weeklyLeaderboard.onReviewRecorded(new ReviewRecordedEvent(user.getId(), null, now, 4, false));
+    }
+    for (int i = 0; i < 99; i++) {
+      weeklyLeaderboard.onReviewRecorded(new ReviewRecordedEvent(other.getId(), null, now, 4, false));
+    }
+    weeklyLeaderboard.onReviewRecorded(new ReviewRecordedEvent(other.getId(), null, now.minusWeeks(1), 4, false));
+
+    // When & Then
+    mockMvc.perform(get("/api/v1/stats/leaderboard").param("limit", "2"))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.weekStart").value(WeeklyLeaderboard.weekStart(now.toLocalDate()).toString()))
+      .andExpect(jsonPath("$.top.length()").value(2))
+      .andExpect(jsonPath("$.top[0].username").value("testuser"))
+      .andExpect(jsonPath("$.top[0].rank").value(1))
+      .andExpect(jsonPath("$.top[1].username").value("otheruser"))
+      .andExpect(jsonPath("$.top[1].reviews").value(99))
+      .andExpect(jsonPath("$.rank").value(1))
+      .andExpect(jsonPath("$.reviews").value(100));
+
+    // And the snapshot holds the week's scores
+    weeklyLeaderboard.snapshot();
+    assertThat(jdbcTemplate.queryForObject(
+        "SELECT reviews FROM leaderboard_snapshots WHERE user_id = ?", Integer.class, other.getId()))
+      .isEqualTo(99);
+  }
+
+  @Test
+  @WithMockUser(username = "testuser")
+  @DisplayName("Given a limit above the maximum, when getting the leaderboard, then should return 400")
+  void givenLimitTooHigh_whenGetLeaderboard_thenShouldReturn400() throws Exception {
+    mockMvc.perform(get("/api/v1/stats/leaderboard").param("limit", "1000"))
+      .andExpect(status().isBadRequest());
+  }
+
+  private void saveCardDueAt(LocalDateTime nextReview) {
+    VocabularyCard card = new VocabularyCard();
+    card.setFront("Front");
+    card.setBack("Back");
+    card.setUser(user);
+    card = vocabularyRepository.save(card);
+    // Creation schedules the card for now
+    card.setLastReviewed(nextReview.minusDays(1));
+    card.setIntervalDays(1);
+    card.setRepetitions(1);
+    card.setNextReview(nextReview);
+    vocabularyRepository.saveAndFlush(card);
+  }
+}
@@ -0,0 +1,117 @@
+package com.anki.simple.vocabulary;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DeckCounters Tests")
+class DeckCountersTest {
+
+  private static final Long USER_ID = 1L;
+  private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 10, 12, 0);
+
+  @Mock
+  private VocabularyRepository vocabularyRepository;
+
+  private DeckCounters deckCounters;
+
+  @BeforeEach
+  void setUp() {
+    deckCounters = new DeckCounters(vocabularyRepository, Duration.ofMinutes(10), 100);
+
+    // 2 overdue cards, 2 due today (one before and one after noon), 1 due in two days
+    when(vocabularyRepository.countByUserId(USER_ID)).thenReturn(5L);
+    when(vocabularyRepository.countByUserIdAndNextReviewBefore(USER_ID, NOW.toLocalDate().atStartOfDay()))
+        .thenReturn(2L);
+    when(vocabularyRepository.findNextReviewsBetween(any(), any(), any()))
+        .thenReturn(List.of(NOW.minusHours(2), NOW.plusHours(3)));
+    when(vocabularyRepository.countNextReviewsByDaySince(any(), any()))
+        .thenReturn(List.<Object[]>of(new Object[]{NOW.toLocalDate().plusDays(2), 1L}));
+  }
+
+  @Test
+  @DisplayName("Given loaded counters, when read repeatedly, then should query the database once")
+  void givenLoadedCounters_whenReadRepeatedly_thenShouldQueryOnce() {
+    // When
+    long due = deckCounters.dueCount(USER_ID, NOW);
+    long dueLater = deckCounters.dueCount(USER_ID, NOW.plusHours(4));
+    long total = deckCounters.totalCount(USER_ID);
+
+    // Then
+    assertThat(due).isEqualTo(3);
+    assertThat(dueLater).isEqualTo(4);
+    assertThat(total).isEqualTo(5);
+    verify(vocabularyRepository, times(1)).countByUserIdAndNextReviewBefore(anyLong(), any());
+  }
+
+  @Test
+  @DisplayName("Given loaded counters, when cards are created, reviewed and deleted, then should update counts")
+  void givenLoadedCounters_whenScheduleChanges_thenShouldUpdateCounts() {
+    // Given
+    deckCounters.dueCount(USER_ID, NOW);
+
+    // When - new card due now, a due card reviewed into the future, an overdue card deleted
+    deckCounters.onCardScheduleChanged(CardScheduleChangedEvent.created(USER_ID, 10L, NOW.minusMinutes(1)));
+    deckCounters.onCardScheduleChanged(CardScheduleChangedEvent.rescheduled(
+        USER_ID, 11L, NOW.minusHours(2), NOW.plusDays(2)));
+    deckCounters.onCardScheduleChanged(CardScheduleChangedEvent.deleted(USER_ID, 12L, NOW.minusDays(3), false));
+
+    // Then
+    assertThat(deckCounters.dueCount(USER_ID, NOW)).isEqualTo(2);
+    assertThat(deckCounters.totalCount(USER_ID)).isEqualTo(5);
+    assertThat(deckCounters.dueByDay(USER_ID, NOW))
+        .containsEntry(NOW.toLocalDate(), 3L)
+        .containsEntry(NOW.toLocalDate().plusDays(2), 2L);
+  }
+
+  @Test
+  @DisplayName("Given loaded counters, when new cards are created and reviewed, then should count due new and learned cards apart")
+  void givenLoadedCounters_whenNewCardsChange_thenShouldSplitDueCounts() {
+    // Given - one of the overdue cards and the card due before noon were never reviewed
+    when(vocabularyRepository.countByUserIdAndNextReviewBeforeAndLastReviewedIsNull(
+        USER_ID, NOW.toLocalDate().atStartOfDay())).thenReturn(1L);
+    when(vocabularyRepository.findUnseenNextReviewsBetween(any(), any(), any()))
+        .thenReturn(List.of(NOW.minusHours(2)));
+    assertThat(deckCounters.dueCounts(USER_ID, NOW)).isEqualTo(new DeckCounters.DueCounts(2, 1));
+
+    // When - a new card due now, the new card due before noon reviewed for the first time
+    deckCounters.onCardScheduleChanged(CardScheduleChangedEvent.created(USER_ID, 10L, NOW.minusMinutes(1)));
+    deckCounters.onCardScheduleChanged(CardScheduleChangedEvent.reviewed(
+        USER_ID, 11L, NOW.minusHours(2), NOW.minusMinutes(5), true));
+
+    // Then - the reviewed card is still due, now as a learned card
+    assertThat(deckCounters.dueCounts(USER_ID, NOW)).isEqualTo(new DeckCounters.DueCounts(2, 2));
+    assertThat(deckCounters.dueCount(USER_ID, NOW)).isEqualTo(4);
+  }
+
+  @Test
+  @DisplayName("Given counters loaded yesterday, when read on a new day, then should reload")
+  void givenCountersLoadedYesterday_whenReadOnNewDay_thenShouldReload() {
+    // Given
+    deckCounters.dueCount(USER_ID, NOW);
+    LocalDate tomorrow = NOW.toLocalDate().plusDays(1);
+    when(vocabularyRepository.countByUserIdAndNextReviewBefore(USER_ID, tomorrow.atStartOfDay())).thenReturn(4L);
+
+    // When
+    deckCounters.dueCount(USER_ID, tomorrow.atTime(9, 0));
+
+    // Then
+    verify(vocabularyRepository, times(2)).countByUserId(USER_ID);
+  }
+}
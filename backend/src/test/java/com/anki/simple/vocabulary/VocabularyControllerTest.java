@@ -4,7 +4,9 @@ import com.anki.simple.tag.Tag;
 import com.anki.simple.tag.TagRepository;
 import com.anki.simple.user.User;
 import com.anki.simple.user.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -19,6 +21,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasSize;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -130,7 +133,11 @@ class VocabularyControllerTest {
     // When & Then
     mockMvc.perform(get("/api/v1/vocabulary/due"))
       .andExpect(status().isOk())
-      .andExpect(jsonPath("$", hasSize(1)));
+      .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+      .andExpect(jsonPath("$", hasSize(1)))
+      .andExpect(jsonPath("$[0].front").value("Hello"))
+      .andExpect(jsonPath("$[0].easeFactor").exists())
+      .andExpect(jsonPath("$[0].tags").isArray());
   }
 
   @Test
@@ -259,4 +266,122 @@ class VocabularyControllerTest {
       .andExpect(status().isNotFound())
       .andExpect(jsonPath("$.title").value("Card Not Found"));
   }
+
+  @Test
+  @WithMockUser(username = "testuser")
+  @DisplayName("Given Accept application/cbor, when get all cards, then should return CBOR lean responses")
+  void givenAcceptCbor_whenGetAllCards_thenShouldReturnCborLeanResponses() throws Exception {
+    // Given
+    VocabularyCard card = new VocabularyCard();
+    card.setFront("Hello");
+    card.setBack("Hola");
+    card.setLanguageSelection(LanguageSelection.DE_ES);
+    card.setUser(user);
+    vocabularyRepository.save(card);
+
+    // When
+    byte[] body = mockMvc.perform(get("/api/v1/vocabulary").accept(MediaType.APPLICATION_CBOR))
+      .andExpect(status().isOk())
+      .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+      .andReturn().getResponse().getContentAsByteArray();
+
+    // Then
+    JsonNode cards = new CBORMapper().readTree(body);
+    assertThat(cards).hasSize(1);
+    assertThat(cards.get(0).get("front").asText()).isEqualTo("Hello");
+    assertThat(cards.get(0).get("languageSelection").asText()).isEqualTo("DE_ES");
+  }
+
+  @Test
+  @WithMockUser(username = "testuser")
+  @DisplayName("Given Accept application/cbor, when get due cards, then should return CBOR card responses")
+  void givenAcceptCbor_whenGetDueCards_thenShouldReturnCborCardResponses() throws Exception {
+    // Given
+    Tag tag = new Tag();
+    tag.setName("Greetings");
+    tag.setColor("#FF0000");
+    tag.setUser(user);
+    tag = tagRepository.save(tag);
+
+    VocabularyCard dueCard = new VocabularyCard();
+    dueCard.setFront("Hello");
+    dueCard.setBack("Hola");
+    dueCard.setLanguageSelection(LanguageSelection.DE_ES);
+    dueCard.setUser(user);
+    dueCard.getTags().add(tag);
+    dueCard.setNextReview(LocalDateTime.now().minusDays(1));
+    vocabularyRepository.save(dueCard);
+
+    // When
+    byte[] body = mockMvc.perform(get("/api/v1/vocabulary/due").accept(MediaType.APPLICATION_CBOR))
+      .andExpect(status().isOk())
+      .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+      .andReturn().getResponse().getContentAsByteArray();
+
+    // Then
+    JsonNode cards = new CBORMapper().readTree(body);
+    assertThat(cards).hasSize(1);
+    assertThat(cards.get(0).get("front").asText()).isEqualTo("Hello");
+    assertThat(cards.get(0).get("easeFactor").asDouble()).isEqualTo(2.5);
+    assertThat(cards.get(0).get("tags").get(0).get("name").asText()).isEqualTo("Greetings");
+  }
+
+  @Test
+  @WithMockUser(username = "testuser")
+  @DisplayName("Given fields parameter, when get all cards, then should return only requested fields")
+  void givenFieldsParameter_whenGetAllCards_thenShouldReturnOnlyRequestedFields() throws Exception {
+    // Given
+    VocabularyCard card = new VocabularyCard();
+    card.setFront("Hello");
+    card.setBack("Hola");
+    card.setExampleSentence("Hello there");
+    card.setLanguageSelection(LanguageSelection.DE_ES);
+    card.setUser(user);
+    vocabularyRepository.save(card);
+
+    // When & Then
+    mockMvc.perform(get("/api/v1/vocabulary").param("fields", "front,nextReview"))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$", hasSize(1)))
+      .andExpect(jsonPath("$[0].id").exists())
+      .andExpect(jsonPath("$[0].front").value("Hello"))
+      .andExpect(jsonPath("$[0].nextReview").isString())
+      .andExpect(jsonPath("$[0].back").doesNotExist())
+      .andExpect(jsonPath("$[0].exampleSentence").doesNotExist());
+  }
+
+  @Test
+  @WithMockUser(username = "testuser")
+  @DisplayName("Given unknown field, when get all cards, then should return 400")
+  void givenUnknownField_whenGetAllCards_thenShouldReturn400() throws Exception {
+    mockMvc.perform(get("/api/v1/vocabulary").param("fields", "front,bogus"))
+      .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @WithMockUser(username = "testuser")
+  @DisplayName("Given ids, when post batch, then should return cards and missing ids")
+  void givenIds_whenPostBatch_thenShouldReturnCardsAndMissingIds() throws Exception {
+    // Given
+    VocabularyCard card = new VocabularyCard();
+    card.setFront("Hello");
+    card.setBack("Hola");
+    card.setUser(user);
+    card = vocabularyRepository.save(card);
+
+    // When & Then
+    mockMvc.perform(post("/api/v1/vocabulary/batch")
+        .with(csrf())
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"ids\":[999," + card.getId() + "]}"))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.cards", hasSize(1)))
+      .andExpect(jsonPath("$.cards[0].front").value("Hello"))
+      .andExpect(jsonPath("$.missingIds[0]").value(999));
+
+    mockMvc.perform(get("/api/v1/vocabulary/batch").param("ids", card.getId() + ",999"))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.cards[0].id").value(card.getId()))
+      .andExpect(jsonPath("$.missingIds", hasSize(1)));
+  }
 }
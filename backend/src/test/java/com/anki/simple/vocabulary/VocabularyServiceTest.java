@@ -7,6 +7,7 @@ import com.anki.simple.tag.Tag;
 import com.anki.simple.tag.TagRepository;
 import com.anki.simple.user.User;
 import com.anki.simple.user.UserRepository;
+import com.anki.simple.vocabulary.dto.VocabularyCardBatchResponse;
 import com.anki.simple.vocabulary.dto.VocabularyCardLeanResponse;
 import com.anki.simple.vocabulary.dto.VocabularyCardRequest;
 import com.anki.simple.vocabulary.dto.VocabularyCardResponse;
@@ -19,9 +20,11 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -535,4 +538,138 @@ class VocabularyServiceTest {
     assertThat(result.get(2).getFront()).isEqualTo("Zone");
     assertThat(result.get(3).getFront()).isEqualTo("Zoo");
   }
+
+  @Test
+  @DisplayName("Given cached listing, when card created, then getAllCards should include new card")
+  void givenCachedListing_whenCardCreated_thenGetAllCardsShouldIncludeNewCard() {
+    // Given - populate the listing cache
+    vocabularyService.createCard(request, user.getUsername());
+    assertThat(vocabularyService.getAllCards(user.getUsername(), null, null, null)).hasSize(1);
+
+    VocabularyCardRequest request2 = new VocabularyCardRequest();
+    request2.setFront("Goodbye");
+    request2.setBack("Adiós");
+    request2.setLanguageSelection(LanguageSelection.DE_ES);
+
+    // When
+    vocabularyService.createCard(request2, user.getUsername());
+
+    // Then
+    assertThat(vocabularyService.getAllCards(user.getUsername(), null, null, null))
+        .extracting(VocabularyCardLeanResponse::getFront)
+        .containsExactlyInAnyOrder("Hello", "Goodbye");
+  }
+
+  @Test
+  @DisplayName("Given fields front and tags, when getAllCardFields, then should return only requested fields")
+  void givenFieldsFrontAndTags_whenGetAllCardFields_thenShouldReturnOnlyRequestedFields() {
+    // Given
+    request.setTagIds(new HashSet<>(Arrays.asList(tag.getId())));
+    vocabularyService.createCard(request, user.getUsername());
+
+    VocabularyCardRequest request2 = new VocabularyCardRequest();
+    request2.setFront("Apple");
+    request2.setBack("Manzana");
+    vocabularyService.createCard(request2, user.getUsername());
+
+    // When
+    List<Map<String, Object>> result = vocabularyService.getAllCardFields(
+        user.getUsername(), "front,tags", "front", "asc", null);
+
+    // Then
+    assertThat(result).hasSize(2);
+    assertThat(result.get(0)).containsOnlyKeys("id", "front", "tags");
+    assertThat(result.get(0).get("front")).isEqualTo("Apple");
+    assertThat((Iterable<?>) result.get(0).get("tags")).isEmpty();
+    assertThat(result.get(1).get("front")).isEqualTo("Hello");
+    assertThat((Iterable<?>) result.get(1).get("tags")).hasSize(1);
+  }
+
+  @Test
+  @DisplayName("Given due and future cards, when getDueCardFields, then should return only due cards")
+  void givenDueAndFutureCards_whenGetDueCardFields_thenShouldReturnOnlyDueCards() {
+    // Given
+    VocabularyCardResponse due = vocabularyService.createCard(request, user.getUsername());
+    VocabularyCard card = vocabularyRepository.findById(due.getId()).get();
+    card.setNextReview(LocalDateTime.now().minusDays(1));
+    vocabularyRepository.save(card);
+
+    VocabularyCardRequest request2 = new VocabularyCardRequest();
+    request2.setFront("Later");
+    request2.setBack("Después");
+    VocabularyCardResponse future = vocabularyService.createCard(request2, user.getUsername());
+    VocabularyCard futureCard = vocabularyRepository.findById(future.getId()).get();
+    futureCard.setNextReview(LocalDateTime.now().plusDays(3));
+    vocabularyRepository.save(futureCard);
+
+    // When
+    List<Map<String, Object>> result = vocabularyService.getDueCardFields(user.getUsername(), "front,back");
+
+    // Then
+    assertThat(result).hasSize(1);
+    assertThat(result.get(0)).containsEntry("id", due.getId()).containsEntry("back", "Hola");
+  }
+
+  @Test
+  @DisplayName("Given other user's card, when getCardFields, then should throw UnauthorizedException")
+  void givenOtherUsersCard_whenGetCardFields_thenShouldThrowException() {
+    // Given
+    VocabularyCardResponse created = vocabularyService.createCard(request, user.getUsername());
+
+    // When & Then
+    assertThat(vocabularyService.getCardFields(created.getId(), "front", user.getUsername()))
+        .containsOnlyKeys("id", "front");
+    assertThatThrownBy(() -> vocabularyService.getCardFields(created.getId(), "front", otherUser.getUsername()))
+        .isInstanceOf(UnauthorizedException.class);
+    assertThatThrownBy(() -> vocabularyService.getCardFields(999L, "front", user.getUsername()))
+        .isInstanceOf(CardNotFoundException.class);
+  }
+
+  @Test
+  @DisplayName("Given unknown field, when getAllCardFields, then should throw IllegalArgumentException")
+  void givenUnknownField_whenGetAllCardFields_thenShouldThrowException() {
+    // When & Then
+    assertThatThrownBy(() -> vocabularyService.getAllCardFields(user.getUsername(), "front,password", null, null, null))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("password");
+  }
+
+  @Test
+  @DisplayName("Given ids in arbitrary order, when get cards batch, then should keep order and report missing ids")
+  void givenIdsInArbitraryOrder_whenGetCards_thenShouldKeepOrderAndReportMissingIds() {
+    // Given
+    request.setTagIds(new HashSet<>(Arrays.asList(tag.getId())));
+    VocabularyCardResponse first = vocabularyService.createCard(request, user.getUsername());
+
+    VocabularyCardRequest request2 = new VocabularyCardRequest();
+    request2.setFront("Goodbye");
+    request2.setBack("Adiós");
+    VocabularyCardResponse second = vocabularyService.createCard(request2, user.getUsername());
+
+    VocabularyCardResponse foreign = vocabularyService.createCard(request2, otherUser.getUsername());
+
+    // When
+    VocabularyCardBatchResponse response = vocabularyService.getCards(
+        List.of(second.getId(), 999L, first.getId(), foreign.getId(), second.getId()), user.getUsername());
+
+    // Then
+    assertThat(response.getCards()).extracting(VocabularyCardResponse::getId)
+        .containsExactly(second.getId(), first.getId());
+    assertThat(response.getCards().get(1).getTags()).hasSize(1);
+    assertThat(response.getMissingIds()).containsExactly(999L, foreign.getId());
+  }
+
+  @Test
+  @DisplayName("Given too many ids, when get cards batch, then should throw IllegalArgumentException")
+  void givenTooManyIds_whenGetCards_thenShouldThrowException() {
+    // Given
+    List<Long> ids = new ArrayList<>();
+    for (long i = 1; i <= VocabularyService.MAX_BATCH_IDS + 1; i++) {
+      ids.add(i);
+    }
+
+    // When & Then
+    assertThatThrownBy(() -> vocabularyService.getCards(ids, user.getUsername()))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
 }
@@ -0,0 +1,80 @@
+package com.anki.simple.vocabulary.cache;
+
+import com.anki.simple.config.JsonFragmentArrayHttpMessageConverter;
+import com.anki.simple.tag.dto.TagResponse;
+import com.anki.simple.vocabulary.LanguageSelection;
+import com.anki.simple.vocabulary.dto.VocabularyCardResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding a due-cards response with plain Jackson versus assembling cached per-card fragments.
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark=CardJsonFragmentBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CardJsonFragmentBenchmark {
+
+  @Param({"20", "200", "2000"})
+  private int cards;
+
+  private ObjectMapper objectMapper;
+  private List<VocabularyCardResponse> responses;
+  private JsonFragmentArray fragments;
+  private JsonFragmentArrayHttpMessageConverter converter;
+
+  @Setup
+  public void setUp() throws IOException {
+    objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    converter = new JsonFragmentArrayHttpMessageConverter();
+    responses = new ArrayList<>(cards);
+    List<byte[]> encoded = new ArrayList<>(cards);
+    LocalDateTime now = LocalDateTime.now();
+    for (int i = 0; i < cards; i++) {
+      VocabularyCardResponse response = new VocabularyCardResponse(
+          (long) i, "front " + i, "back " + i, "An example sentence for card " + i,
+          LanguageSelection.DE_ES, null, now.minusDays(30), now.minusDays(2), now.plusDays(i % 10),
+          2.5, i % 30, i % 8,
+          Set.of(new TagResponse(1L, "Verbs", "#ff0000"), new TagResponse(2L, "A1", "#00ff00")));
+      responses.add(response);
+      encoded.add(objectMapper.writeValueAsBytes(response));
+    }
+    fragments = new JsonFragmentArray(encoded);
+  }
+
+  @Benchmark
+  public byte[] jackson() throws IOException {
+    return objectMapper.writeValueAsBytes(responses);
+  }
+
+  @Benchmark
+  public byte[] fragments() throws IOException {
+    MockHttpOutputMessage message = new MockHttpOutputMessage();
+    converter.write(fragments, MediaType.APPLICATION_JSON, message);
+    return message.getBodyAsBytes();
+  }
+}
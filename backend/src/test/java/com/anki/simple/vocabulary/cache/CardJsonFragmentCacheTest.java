@@ -0,0 +1,145 @@
+package com.anki.simple.vocabulary.cache;
+
+import com.anki.simple.vocabulary.DeckChangedEvent;
+import com.anki.simple.vocabulary.LanguageSelection;
+import com.anki.simple.vocabulary.VocabularyCard;
+import com.anki.simple.vocabulary.dto.VocabularyCardResponse;
+import com.anki.simple.vocabulary.mapper.VocabularyCardMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("CardJsonFragmentCache Tests")
+class CardJsonFragmentCacheTest {
+
+  private static final Long USER_ID = 1L;
+
+  @Autowired
+  private VocabularyCardMapper vocabularyCardMapper;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  private CardJsonFragmentCache cache;
+  private VocabularyCard card;
+
+  @BeforeEach
+  void setUp() {
+    cache = new CardJsonFragmentCache(vocabularyCardMapper, objectMapper, true, 1024 * 1024);
+
+    card = new VocabularyCard();
+    card.setId(10L);
+    card.setFront("Hello");
+    card.setBack("Hola");
+    card.setLanguageSelection(LanguageSelection.DE_ES);
+    card.setNextReview(LocalDateTime.of(2025, 1, 15, 10, 30));
+  }
+
+  @Test
+  @DisplayName("Given card, when get fragment, then should match plain Jackson output")
+  void givenCard_whenGetFragment_thenShouldMatchJacksonOutput() throws Exception {
+    // When
+    byte[] fragment = cache.get(card, USER_ID, cache.stamp(USER_ID));
+
+    // Then
+    VocabularyCardResponse expected = vocabularyCardMapper.toResponse(card);
+    assertThat(fragment).isEqualTo(objectMapper.writeValueAsBytes(expected));
+    assertThat(objectMapper.readValue(fragment, VocabularyCardResponse.class)).isEqualTo(expected);
+  }
+
+  @Test
+  @DisplayName("Given cached fragment, when card changes without event, then should serve cached bytes")
+  void givenCachedFragment_whenGetAgain_thenShouldServeCachedBytes() {
+    // Given
+    byte[] first = cache.get(card, USER_ID, cache.stamp(USER_ID));
+    card.setFront("Changed");
+
+    // When
+    byte[] second = cache.get(card, USER_ID, cache.stamp(USER_ID));
+
+    // Then
+    assertThat(second).isSameAs(first);
+  }
+
+  @Test
+  @DisplayName("Given cached fragment, when card version moves without event, then should re-encode card")
+  void givenCachedFragment_whenVersionMovesWithoutEvent_thenShouldReEncode() {
+    // Given - a write whose eviction was missed
+    card.setVersion(1L);
+    cache.get(card, USER_ID, cache.stamp(USER_ID));
+    card.setFront("Changed");
+    card.setVersion(2L);
+
+    // When
+    byte[] fragment = cache.get(card, USER_ID, cache.stamp(USER_ID));
+    JsonFragmentArray byId = cache.getAll(new LinkedHashMap<>(Map.of(card.getId(), 1L)), USER_ID,
+        cache.stamp(USER_ID), missing -> List.of(card));
+
+    // Then - the id path asks for the old version, which is no longer cached
+    assertThat(new String(fragment)).contains("\"front\":\"Changed\"");
+    assertThat(byId.fragments()).hasSize(1);
+    assertThat(new String(byId.fragments().getFirst())).contains("\"front\":\"Changed\"");
+  }
+
+  @Test
+  @DisplayName("Given cached fragment, when card changed event, then should re-encode card")
+  void givenCachedFragment_whenCardChangedEvent_thenShouldReEncode() {
+    // Given
+    cache.get(card, USER_ID, cache.stamp(USER_ID));
+    card.setFront("Changed");
+
+    // When
+    cache.onDeckChanged(DeckChangedEvent.forCard(USER_ID, card.getId()));
+    byte[] fragment = cache.get(card, USER_ID, cache.stamp(USER_ID));
+
+    // Then
+    assertThat(new String(fragment)).contains("\"front\":\"Changed\"");
+  }
+
+  @Test
+  @DisplayName("Given stamp taken before a write, when get, then should not store the fragment")
+  void givenStaleStamp_whenGet_thenShouldNotStoreFragment() {
+    // Given
+    long stamp = cache.stamp(USER_ID);
+    cache.onDeckChanged(new DeckChangedEvent(USER_ID));
+
+    // When
+    cache.get(card, USER_ID, stamp);
+
+    // Then
+    assertThat(cache.estimatedSize()).isZero();
+  }
+
+  @Test
+  @DisplayName("Given fragments of two users, when whole deck changes, then should evict only that user")
+  void givenFragmentsOfTwoUsers_whenWholeDeckChanges_thenShouldEvictOnlyThatUser() {
+    // Given
+    VocabularyCard otherCard = new VocabularyCard();
+    otherCard.setId(11L);
+    otherCard.setFront("Bye");
+    otherCard.setBack("Adiós");
+    otherCard.setTags(Set.of());
+    cache.getAll(List.of(card), USER_ID, cache.stamp(USER_ID));
+    cache.getAll(List.of(otherCard), 2L, cache.stamp(2L));
+
+    // When
+    cache.onDeckChanged(new DeckChangedEvent(USER_ID));
+
+    // Then
+    assertThat(cache.estimatedSize()).isEqualTo(1);
+  }
+}
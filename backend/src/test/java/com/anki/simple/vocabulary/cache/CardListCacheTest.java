@@ -0,0 +1,87 @@
+package com.anki.simple.vocabulary.cache;
+
+import com.anki.simple.vocabulary.DeckChangedEvent;
+import com.anki.simple.vocabulary.LanguageSelection;
+import com.anki.simple.vocabulary.dto.VocabularyCardLeanResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("CardListCache Tests")
+class CardListCacheTest {
+
+  private CardListCache cardListCache;
+  private AtomicInteger loads;
+
+  @BeforeEach
+  void setUp() {
+    cardListCache = new CardListCache(true, 1024 * 1024);
+    loads = new AtomicInteger();
+  }
+
+  @Test
+  @DisplayName("Given cached listing, when get with same key, then should not call loader again")
+  void givenCachedListing_whenGetWithSameKey_thenShouldNotCallLoaderAgain() {
+    // When
+    List<VocabularyCardLeanResponse> first = cardListCache.get(1L, "front", "asc", null, this::load);
+    List<VocabularyCardLeanResponse> second = cardListCache.get(1L, "front", "asc", null, this::load);
+
+    // Then
+    assertThat(loads.get()).isEqualTo(1);
+    assertThat(second).isSameAs(first);
+  }
+
+  @Test
+  @DisplayName("Given different sort or search, when get, then should load separately")
+  void givenDifferentSortOrSearch_whenGet_thenShouldLoadSeparately() {
+    // When
+    cardListCache.get(1L, "front", "asc", null, this::load);
+    cardListCache.get(1L, "front", "desc", null, this::load);
+    cardListCache.get(1L, "front", "asc", "he", this::load);
+
+    // Then
+    assertThat(loads.get()).isEqualTo(3);
+  }
+
+  @Test
+  @DisplayName("Given entries for two users, when deck changed for one, then should evict only that user")
+  void givenEntriesForTwoUsers_whenDeckChanged_thenShouldEvictOnlyThatUser() {
+    // Given
+    cardListCache.get(1L, null, null, null, this::load);
+    cardListCache.get(1L, "front", "asc", null, this::load);
+    cardListCache.get(2L, null, null, null, this::load);
+
+    // When
+    cardListCache.onDeckChanged(new DeckChangedEvent(1L));
+    cardListCache.get(1L, null, null, null, this::load);
+    cardListCache.get(2L, null, null, null, this::load);
+
+    // Then
+    assertThat(loads.get()).isEqualTo(4);
+  }
+
+  @Test
+  @DisplayName("Given cache disabled, when get, then should always call loader")
+  void givenCacheDisabled_whenGet_thenShouldAlwaysCallLoader() {
+    // Given
+    CardListCache disabled = new CardListCache(false, 1024 * 1024);
+
+    // When
+    disabled.get(1L, null, null, null, this::load);
+    disabled.get(1L, null, null, null, this::load);
+
+    // Then
+    assertThat(loads.get()).isEqualTo(2);
+    assertThat(disabled.estimatedSize()).isZero();
+  }
+
+  private List<VocabularyCardLeanResponse> load() {
+    loads.incrementAndGet();
+    return List.of(new VocabularyCardLeanResponse(1L, "Hello", "Hola", LanguageSelection.DE_ES));
+  }
+}
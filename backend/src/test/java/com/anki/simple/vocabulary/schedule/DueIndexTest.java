@@ -0,0 +1,79 @@
+package com.anki.simple.vocabulary.schedule;
+
+import com.anki.simple.vocabulary.CardScheduleChangedEvent;
+import com.anki.simple.vocabulary.VocabularyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DueIndex Tests")
+class DueIndexTest {
+
+  private static final Long USER_ID = 1L;
+  private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 10, 12, 0);
+
+  @Mock
+  private VocabularyRepository vocabularyRepository;
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  private DueIndex dueIndex;
+
+  @BeforeEach
+  void setUp() {
+    dueIndex = new DueIndex(vocabularyRepository, eventPublisher, true, Duration.ofMinutes(30), 100);
+
+    when(vocabularyRepository.findScheduleByUserId(USER_ID)).thenReturn(List.of(
+        new Object[]{10L, NOW.minusDays(2)},
+        new Object[]{11L, NOW.minusMinutes(5)},
+        new Object[]{12L, NOW.plusHours(1)},
+        new Object[]{13L, NOW.plusDays(3)}));
+  }
+
+  @Test
+  @DisplayName("Given loaded index, when reading over time, then should promote cards and query once")
+  void givenLoadedIndex_whenReadOverTime_thenShouldPromoteAndQueryOnce() {
+    // When
+    int dueNow = dueIndex.dueCount(USER_ID, NOW);
+    int dueLater = dueIndex.dueCount(USER_ID, NOW.plusHours(2));
+
+    // Then
+    assertThat(dueNow).isEqualTo(2);
+    assertThat(dueLater).isEqualTo(3);
+    assertThat(dueIndex.dueCount(USER_ID, NOW.plusDays(4))).isEqualTo(4);
+    verify(vocabularyRepository, times(1)).findScheduleByUserId(USER_ID);
+  }
+
+  @Test
+  @DisplayName("Given loaded index, when cards are created, reviewed and deleted, then should update due counts")
+  void givenLoadedIndex_whenScheduleChanges_thenShouldUpdateDueCounts() {
+    // Given
+    dueIndex.dueCount(USER_ID, NOW);
+
+    // When - a new card due now, card 10 reviewed into the future, card 12 deleted
+    dueIndex.onCardScheduleChanged(CardScheduleChangedEvent.created(USER_ID, 20L, NOW.minusMinutes(10)));
+    dueIndex.onCardScheduleChanged(CardScheduleChangedEvent.rescheduled(
+        USER_ID, 10L, NOW.minusDays(2), NOW.plusDays(1)));
+    dueIndex.onCardScheduleChanged(CardScheduleChangedEvent.deleted(USER_ID, 12L, NOW.plusHours(1), false));
+
+    // Then
+    assertThat(dueIndex.dueCount(USER_ID, NOW)).isEqualTo(2);
+    assertThat(dueIndex.dueCount(USER_ID, NOW.plusDays(2))).isEqualTo(3);
+    assertThat(dueIndex.dueCount(USER_ID, NOW.plusDays(4))).isEqualTo(4);
+  }
+}
@@ -0,0 +1,52 @@
+package com.anki.simple.vocabulary.schedule;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("TimingWheel Tests")
+class TimingWheelTest {
+
+  @Test
+  @DisplayName("Given entries on several levels, when advancing the clock, then should expire each at the start of its tick")
+  void givenEntriesOnSeveralLevels_whenAdvance_thenShouldExpireInOrder() {
+    // Given - 8 buckets of 10: level 0 spans 80, level 1 spans 640
+    TimingWheel wheel = new TimingWheel(10, 8, 0);
+    wheel.add(25, 1);
+    wheel.add(300, 2);
+    wheel.add(5_000, 3);
+    List<Long> expired = new ArrayList<>();
+
+    // When & Then
+    wheel.advance(19, expired::add);
+    assertThat(expired).isEmpty();
+
+    wheel.advance(20, expired::add);
+    assertThat(expired).containsExactly(1L);
+
+    wheel.advance(299, expired::add);
+    assertThat(expired).containsExactly(1L);
+
+    wheel.advance(305, expired::add);
+    assertThat(expired).containsExactly(1L, 2L);
+
+    wheel.advance(5_000, expired::add);
+    assertThat(expired).containsExactly(1L, 2L, 3L);
+    assertThat(wheel.size()).isZero();
+  }
+
+  @Test
+  @DisplayName("Given a deadline within the current tick, when adding, then should refuse it")
+  void givenDeadlineWithinCurrentTick_whenAdd_thenShouldRefuse() {
+    // Given
+    TimingWheel wheel = new TimingWheel(10, 8, 100);
+
+    // When & Then
+    assertThat(wheel.add(105, 1)).isFalse();
+    assertThat(wheel.add(110, 1)).isTrue();
+  }
+}
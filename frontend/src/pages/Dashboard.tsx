@@ -1,12 +1,14 @@
 import React, { useState, useEffect, useCallback } from 'react'
 import { useNavigate } from 'react-router-dom'
 import { useAuth } from '@/context/AuthContext'
-import { vocabularyAPI } from '@/services/api'
+import { vocabularyAPI, statsAPI } from '@/services/api'
+import { StreakResponse } from '@/types'
 import { AxiosError } from 'axios'
 
 const Dashboard = (): React.JSX.Element => {
   const [totalCount, setTotalCount] = useState<number>(0)
   const [dueCount, setDueCount] = useState<number>(0)
+  const [streak, setStreak] = useState<StreakResponse | null>(null)
   const { user, logout } = useAuth()
   const navigate = useNavigate()
 
@@ -30,6 +32,16 @@ const Dashboard = (): React.JSX.Element => {
     }
   }, [])
 
+  const loadStreak = useCallback(async (): Promise<void> => {
+    try {
+      const response = await statsAPI.getStreak()
+      setStreak(response.data)
+    } catch (error) {
+      const axiosError = error as AxiosError
+      console.error('Failed to load streak:', axiosError)
+    }
+  }, [])
+
   const handleStartReview = (): void => {
     navigate('/review')
   }
@@ -39,7 +51,8 @@ const Dashboard = (): React.JSX.Element => {
     // eslint-disable-next-line react-hooks/set-state-in-effect
     loadTotalCount()
     loadDueCount()
-  }, [loadTotalCount, loadDueCount])
+    loadStreak()
+  }, [loadTotalCount, loadDueCount, loadStreak])
 
   return (
     <div className="min-h-screen bg-gray-50">
@@ -58,7 +71,7 @@ const Dashboard = (): React.JSX.Element => {
       </header>
 
       <div className="max-w-7xl mx-auto px-5 py-10">
-        <div className="grid grid-cols-1 sm:grid-cols-2 gap-5 mb-8">
+        <div className="grid grid-cols-1 sm:grid-cols-2 lg:grid-cols-3 gap-5 mb-8">
           <div className="bg-white p-8 rounded-xl shadow-sm text-center">
             <h3 className="m-0 mb-4 text-gray-600 text-base font-medium">Total Cards</h3>
             <p className="text-5xl font-bold text-gray-800 m-0">{totalCount}</p>
@@ -72,6 +85,15 @@ const Dashboard = (): React.JSX.Element => {
               </button>
             )}
           </div>
+          {streak && (
+            <div className="bg-white p-8 rounded-xl shadow-sm text-center">
+              <h3 className="m-0 mb-4 text-gray-600 text-base font-medium">Day Streak</h3>
+              <p className="text-5xl font-bold text-orange-500 m-0">{streak.currentStreak}</p>
+              <p className="mt-4 mb-0 text-sm text-gray-600">
+                Today: {streak.reviewedToday} / {streak.dailyGoal} reviews &middot; Best: {streak.longestStreak} days
+              </p>
+            </div>
+          )}
         </div>
       </div>
     </div>
@@ -8,6 +8,7 @@ import {
   VocabularyFormData,
   ReviewSubmission,
   VocabularyQueryParams,
+  StreakResponse,
 } from '@/types'
 
 const API_BASE_URL = 'http://localhost:8080/api/v1'
@@ -61,6 +62,10 @@ export const reviewAPI = {
   review: (data: ReviewSubmission) => api.post<void>('/review', data),
 }
 
+export const statsAPI = {
+  getStreak: () => api.get<StreakResponse>('/stats/streak'),
+}
+
 export const tagAPI = {
   getAll: () => api.get<Tag[]>('/tags'),
   create: (data: { name: string; color: string }) => api.post<Tag>('/tags', data),
@@ -15,6 +15,14 @@ export interface ProblemDetails {
   timestamp: string
 }
 
+export interface StreakResponse {
+  currentStreak: number
+  longestStreak: number
+  reviewedToday: number
+  dailyGoal: number
+  timeZone: string
+}
+
 // Sorting types
 export type SortDirection = 'asc' | 'desc'
 export type SortableField = 'front' | 'back'